@@ -55,4 +55,22 @@ tasks {
         options.jFlags?.add("-Duser.language=en")
         options.optionFiles = mutableListOf(project.file("src/main/javadoc.options"))
     }
+    register<JavaExec>("benchmarkGridConstruction") {
+        group = "benchmark"
+        description = "Measures the construction time of hex grids with radius 3 to 50."
+        classpath = sourceSets.main.get().runtimeClasspath
+        mainClass.set("projekt.benchmark.GridConstructionBenchmark")
+    }
+    register<JavaExec>("tournament") {
+        group = "benchmark"
+        description = "Plays a tournament of headless AI games on all cores and prints the results."
+        classpath = sourceSets.main.get().runtimeClasspath
+        mainClass.set("projekt.tournament.Tournament")
+    }
+    register<JavaExec>("selfPlay") {
+        group = "benchmark"
+        description = "Plays headless AI games on all cores and writes a sample of every decision to chunk files."
+        classpath = sourceSets.main.get().runtimeClasspath
+        mainClass.set("projekt.selfplay.SelfPlay")
+    }
 }
@@ -9,19 +9,17 @@ import projekt.model.buildings.Settlement;
 import projekt.model.tiles.Tile;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
-import java.util.Set;
 import java.util.SortedMap;
 import java.util.Spliterators;
 import java.util.TreeMap;
 import java.util.function.BiFunction;
-import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -51,8 +49,12 @@ public final class Config {
 
     /**
      * The global source of randomness.
+     * It delegates to the generator bound to the current thread by {@link #withRandom(Random, Supplier)}
+     * or, if there is none, to a shared default generator. Games running in parallel can therefore each
+     * use their own generator without contending on or sharing a single one.
+     * Games draw from their own {@link projekt.model.GameRandom} wherever possible, see {@link projekt.model.GameState#getRandom()}.
      */
-    public static final Random RANDOM = new Random();
+    public static final Random RANDOM = new ScopedRandom();
 
     /**
      * The minimum required number of players in a game.
@@ -145,10 +147,21 @@ public final class Config {
      * The probability of a tile type to be picked is the same as defined by the rules of the base game.
      *
      * @return A supplier returning randomly picked tile types
-     * @see #makeSupplier(SortedMap, boolean)
+     * @see #makeSupplier(SortedMap, boolean, Random)
      */
     public static Supplier<Tile.Type> generateTileTypes() {
-        return makeSupplier(TILE_RATIOS, true);
+        return generateTileTypes(RANDOM);
+    }
+
+    /**
+     * Create a new generator for tile types that draws from the given source of randomness.
+     *
+     * @param random the source of randomness
+     * @return A supplier returning randomly picked tile types
+     * @see #generateTileTypes()
+     */
+    public static Supplier<Tile.Type> generateTileTypes(final Random random) {
+        return makeSupplier(TILE_RATIOS, true, random);
     }
 
     /**
@@ -158,15 +171,26 @@ public final class Config {
      * as defined by the rules of the base game.
      *
      * @return A supplier returning randomly picked roll numbers
-     * @see #makeSupplier(SortedMap, boolean)
+     * @see #makeSupplier(SortedMap, boolean, Random)
      */
     public static Supplier<Integer> generateRollNumbers() {
+        return generateRollNumbers(RANDOM);
+    }
+
+    /**
+     * Creates a new supplier returning randomly picked roll numbers that draws from the given source of randomness.
+     *
+     * @param random the source of randomness
+     * @return A supplier returning randomly picked roll numbers
+     * @see #generateRollNumbers()
+     */
+    public static Supplier<Integer> generateRollNumbers(final Random random) {
         final Map<Integer, Integer> ratios = IntStream.iterate(NUMBER_OF_DICE, i -> i >= NUMBER_OF_DICE && i <= NUMBER_OF_DICE * DICE_SIDES, i -> i + 1)
             .filter(i -> i != 7)
             .mapToObj(i -> Map.entry(i, i == NUMBER_OF_DICE || i == NUMBER_OF_DICE * DICE_SIDES ? 1 : 2))
             .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
 
-        return makeSupplier(new TreeMap<>(ratios), true);
+        return makeSupplier(new TreeMap<>(ratios), true, random);
     }
 
     /**
@@ -181,36 +205,60 @@ public final class Config {
      *
      * @return the BiFunction
      * @see TilePosition
+     * @see #generatePortMapper(int)
      */
     public static BiFunction<TilePosition, TilePosition.EdgeDirection, Port> generatePortMapper() {
+        return generatePortMapper(GRID_RADIUS);
+    }
+
+    /**
+     * Creates a BiFunction that takes a tile position and an edge direction and returns
+     * a port if all conditions and the probability (65%) requirement are met, for a grid with the given radius.
+     * The conditions are the same as for {@link #generatePortMapper()}.
+     * Intersections that already border a port are tracked in a bit set indexed by their axial coordinates,
+     * so the mapper does not allocate anything except the ports it returns.
+     *
+     * @param gridRadius the radius of the grid, center is included
+     * @return the BiFunction
+     * @see TilePosition
+     */
+    public static BiFunction<TilePosition, TilePosition.EdgeDirection, Port> generatePortMapper(final int gridRadius) {
+        return generatePortMapper(gridRadius, RANDOM);
+    }
+
+    /**
+     * Creates a BiFunction that takes a tile position and an edge direction and returns
+     * a port if all conditions and the probability (65%) requirement are met, for a grid with the given radius.
+     * The ports are placed by drawing from the given source of randomness.
+     *
+     * @param gridRadius the radius of the grid, center is included
+     * @param random     the source of randomness
+     * @return the BiFunction
+     * @see #generatePortMapper(int)
+     */
+    public static BiFunction<TilePosition, TilePosition.EdgeDirection, Port> generatePortMapper(
+        final int gridRadius, final Random random
+    ) {
         final Iterator<ResourceType> resourceTypes = Spliterators.iterator(Arrays.spliterator(ResourceType.values()));
-        final Set<Set<TilePosition>> visitedIntersections = new HashSet<>();
-        final Predicate<TilePosition> isOutsideGrid = tilePosition -> abs(tilePosition.q()) >= GRID_RADIUS
-            || abs(tilePosition.r()) >= GRID_RADIUS
-            || abs(tilePosition.s()) >= GRID_RADIUS;
-        final Predicate<TilePosition> isOnEdge = tilePosition -> !(
-            abs(tilePosition.q()) < GRID_RADIUS - 1
-                && abs(tilePosition.r()) < GRID_RADIUS - 1
-                && abs(tilePosition.s()) < GRID_RADIUS - 1
-        )
-            && !isOutsideGrid.test(tilePosition);
-        final BiFunction<TilePosition, TilePosition.EdgeDirection, Set<Set<TilePosition>>> mapToIntersectionsPositions =
-            (tilePosition, edgeDirection) -> Set.of(
-                Set.of(tilePosition, TilePosition.add(tilePosition, edgeDirection.position), TilePosition.add(tilePosition, edgeDirection.left().position)),
-                Set.of(tilePosition, TilePosition.add(tilePosition, edgeDirection.position), TilePosition.add(tilePosition, edgeDirection.right().position))
-            );
+        // intersections are identified by the north or south corner of a tile in the grid or the ring around it
+        final int width = 2 * gridRadius + 3;
+        final BitSet visitedIntersections = new BitSet(width * width * 2);
 
         return (tilePosition, edgeDirection) -> {
-            final Set<Set<TilePosition>> intersectionPositions = mapToIntersectionsPositions.apply(tilePosition, edgeDirection);
-            if (!isOnEdge.test(tilePosition)
-                || !isOutsideGrid.test(TilePosition.add(tilePosition, edgeDirection.position))
-                || intersectionPositions.stream().anyMatch(visitedIntersections::contains)) {
+            final TilePosition neighbour = TilePosition.neighbour(tilePosition, edgeDirection);
+            if (distanceToCenter(tilePosition) != gridRadius - 1 || distanceToCenter(neighbour) < gridRadius) {
+                return null;
+            }
+            final int leftIntersection = intersectionKey(tilePosition, edgeDirection.getLeftIntersection(), gridRadius, width);
+            final int rightIntersection = intersectionKey(tilePosition, edgeDirection.getRightIntersection(), gridRadius, width);
+            if (visitedIntersections.get(leftIntersection) || visitedIntersections.get(rightIntersection)) {
                 return null;
             }
 
-            if (RANDOM.nextDouble() < 0.65) {  // place port?
-                visitedIntersections.addAll(intersectionPositions);
-                if (resourceTypes.hasNext() && RANDOM.nextBoolean()) { // place specialized port?
+            if (random.nextDouble() < 0.65) {  // place port?
+                visitedIntersections.set(leftIntersection);
+                visitedIntersections.set(rightIntersection);
+                if (resourceTypes.hasNext() && random.nextBoolean()) { // place specialized port?
                     return new Port(2, resourceTypes.next());
                 } else {
                     return new Port(3);
@@ -221,6 +269,39 @@ public final class Config {
         };
     }
 
+    /**
+     * Returns the distance of the given position to the center of the grid, i.e. the ring it lies on.
+     *
+     * @param position the position
+     * @return the distance to the center
+     */
+    private static int distanceToCenter(final TilePosition position) {
+        return Math.max(abs(position.q()), Math.max(abs(position.r()), abs(position.s())));
+    }
+
+    /**
+     * Returns a unique key of the intersection in the given direction of the given position.
+     * Every intersection is the north or the south corner of exactly one tile position.
+     */
+    private static int intersectionKey(
+        final TilePosition position, final TilePosition.IntersectionDirection direction, final int gridRadius, final int width
+    ) {
+        final int q = position.q();
+        final int r = position.r();
+        final int cell = switch (direction) {
+            case NORTH, SOUTH -> (q + gridRadius + 1) * width + r + gridRadius + 1;
+            case NORTH_EAST -> (q + 1 + gridRadius + 1) * width + r - 1 + gridRadius + 1;
+            case SOUTH_EAST -> (q + gridRadius + 1) * width + r + 1 + gridRadius + 1;
+            case SOUTH_WEST -> (q - 1 + gridRadius + 1) * width + r + 1 + gridRadius + 1;
+            case NORTH_WEST -> (q + gridRadius + 1) * width + r - 1 + gridRadius + 1;
+        };
+        final boolean south = switch (direction) {
+            case NORTH, SOUTH_EAST, SOUTH_WEST -> false;
+            case NORTH_EAST, SOUTH, NORTH_WEST -> true;
+        };
+        return cell * 2 + (south ? 1 : 0);
+    }
+
 
     // Development cards
 
@@ -249,15 +330,81 @@ public final class Config {
      * The probability of a card to be picked is the same as defined by the rules of the base game.
      *
      * @return A supplier returning randomly picked development cards
-     * @see #makeSupplier(SortedMap, boolean)
+     * @see #makeSupplier(SortedMap, boolean, Random)
      */
     public static Supplier<DevelopmentCardType> developmentCardGenerator() {
-        return makeSupplier(DEVELOPMENT_CARD_RATIOS, false);
+        return developmentCardGenerator(RANDOM);
+    }
+
+    /**
+     * Create a new generator for development cards that draws from the given source of randomness.
+     *
+     * @param random the source of randomness
+     * @return A supplier returning randomly picked development cards
+     * @see #developmentCardGenerator()
+     */
+    public static Supplier<DevelopmentCardType> developmentCardGenerator(final Random random) {
+        return makeSupplier(DEVELOPMENT_CARD_RATIOS, false, random);
     }
 
 
     // Misc
 
+    /**
+     * Runs the given action with {@link #RANDOM} delegating to the given generator on the current thread.
+     * The previously bound generator is restored afterwards, so calls may be nested.
+     *
+     * @param random the generator to use
+     * @param action the action to run
+     * @param <T>    the type of the action's result
+     * @return the result of the action
+     */
+    public static <T> T withRandom(final Random random, final Supplier<T> action) {
+        final Random previous = ScopedRandom.BOUND.get();
+        ScopedRandom.BOUND.set(random);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                ScopedRandom.BOUND.remove();
+            } else {
+                ScopedRandom.BOUND.set(previous);
+            }
+        }
+    }
+
+    /**
+     * The implementation of {@link #RANDOM}.
+     * Every method of {@link Random} is derived from {@link Random#next(int)}, so delegating it is enough
+     * to produce exactly the same values as the bound generator would.
+     */
+    private static final class ScopedRandom extends Random {
+
+        private static final ThreadLocal<Random> BOUND = new ThreadLocal<>();
+
+        private final Random fallback = new Random();
+
+        private Random current() {
+            final Random random = BOUND.get();
+            return random != null ? random : fallback;
+        }
+
+        @Override
+        protected int next(final int bits) {
+            return current().nextInt() >>> (32 - bits);
+        }
+
+        @Override
+        public void setSeed(final long seed) {
+            // called by the constructor of Random before the fallback is initialized
+            if (fallback == null) {
+                super.setSeed(seed);
+            } else {
+                current().setSeed(seed);
+            }
+        }
+    }
+
     /**
      * Creates a supplier for the keys of the given map depending on the key's mapping (ratio).
      * Optionally, the supplier can log the keys it returned to ensure that their frequency of occurrence
@@ -265,9 +412,10 @@ public final class Config {
      *
      * @param ratios        mappings of keys to their respective ratio
      * @param enableCounter whether to enable the counter / log
+     * @param random        the source of randomness
      * @return a supplier returning chosen keys
      */
-    private static <T> Supplier<T> makeSupplier(final SortedMap<T, Integer> ratios, final boolean enableCounter) {
+    private static <T> Supplier<T> makeSupplier(final SortedMap<T, Integer> ratios, final boolean enableCounter, final Random random) {
         final Map<T, Integer> counter = new HashMap<>();
         final int sum = ratios.values().stream().mapToInt(i -> i).sum();
         return () -> {
@@ -276,7 +424,7 @@ public final class Config {
                 if (enableCounter && counter.equals(ratios)) {
                     counter.clear();
                 }
-                final int d = RANDOM.nextInt(sum);
+                final int d = random.nextInt(sum);
                 int start = 0;
                 int bound = 0;
 
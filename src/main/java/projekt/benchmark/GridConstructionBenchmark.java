@@ -0,0 +1,64 @@
+package projekt.benchmark;
+
+import projekt.Config;
+import projekt.model.HexGridImpl;
+
+import java.util.Locale;
+
+/**
+ * Measures how long it takes to construct a {@link HexGridImpl} for radii from 3 to 50, with ports on the outermost ring.
+ * <p>
+ * Each radius is warmed up first, then constructed repeatedly until at least the configured
+ * amount of time has passed. The average construction time and the element counts are printed
+ * as one table row per radius.
+ */
+public final class GridConstructionBenchmark {
+
+    private static final int MIN_RADIUS = 3;
+    private static final int MAX_RADIUS = 50;
+    private static final long WARMUP_NANOS = 200_000_000L;
+    private static final long MEASURE_NANOS = 500_000_000L;
+
+    private GridConstructionBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optionally the smallest and the largest radius to measure
+     */
+    public static void main(final String[] args) {
+        final int minRadius = args.length > 0 ? Integer.parseInt(args[0]) : MIN_RADIUS;
+        final int maxRadius = args.length > 1 ? Integer.parseInt(args[1]) : MAX_RADIUS;
+        Config.RANDOM.setSeed(0);
+
+        System.out.printf(Locale.ROOT, "%6s %8s %13s %8s %12s%n", "radius", "tiles", "intersections", "edges", "us/grid");
+        for (int radius = minRadius; radius <= maxRadius; radius++) {
+            run(radius, WARMUP_NANOS);
+            final Result result = run(radius, MEASURE_NANOS);
+            System.out.printf(
+                Locale.ROOT, "%6d %8d %13d %8d %12.1f%n",
+                radius, result.grid.getTileCount(), result.grid.getIntersectionCount(), result.grid.getEdgeCount(),
+                result.nanosPerGrid / 1_000.0
+            );
+        }
+    }
+
+    private static Result run(final int radius, final long duration) {
+        final long start = System.nanoTime();
+        long elapsed;
+        int grids = 0;
+        HexGridImpl grid;
+        do {
+            grid = new HexGridImpl(
+                radius, Config.generateRollNumbers(), Config.generateTileTypes(), Config.generatePortMapper(radius)
+            );
+            grids++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < duration);
+        return new Result(grid, (double) elapsed / grids);
+    }
+
+    private record Result(HexGridImpl grid, double nanosPerGrid) {
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Benchmarks that can be run from the command line without the UI.
+ */
+package projekt.benchmark;
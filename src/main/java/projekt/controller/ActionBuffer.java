@@ -0,0 +1,105 @@
+package projekt.controller;
+
+import projekt.controller.actions.PlayerAction;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of {@link PlayerAction}s that {@link LegalActionGenerator} generates into.
+ * <p>
+ * The buffer keeps its backing array between generations, so once it has grown to the largest amount of actions
+ * seen, filling it again does not allocate anything. A buffer must only be used by one thread at a time.
+ */
+public final class ActionBuffer {
+
+    private PlayerAction[] actions;
+    private int size;
+
+    /**
+     * Creates a new, empty buffer with a default capacity.
+     */
+    public ActionBuffer() {
+        this(64);
+    }
+
+    /**
+     * Creates a new, empty buffer with the given capacity.
+     *
+     * @param capacity the initial capacity
+     */
+    public ActionBuffer(final int capacity) {
+        this.actions = new PlayerAction[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Returns the amount of actions in this buffer.
+     *
+     * @return the amount of actions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether this buffer is empty.
+     *
+     * @return true if this buffer contains no actions, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the action at the given position.
+     *
+     * @param index the position of the action
+     * @return the action
+     * @throws IndexOutOfBoundsException if the position is not smaller than {@link #size()}
+     */
+    public PlayerAction get(final int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return actions[index];
+    }
+
+    /**
+     * Returns whether this buffer contains an action equal to the given one.
+     *
+     * @param action the action
+     * @return true if the buffer contains the action, false otherwise
+     */
+    public boolean contains(final PlayerAction action) {
+        for (int i = 0; i < size; i++) {
+            if (actions[i] == action || actions[i].equals(action)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all actions from this buffer.
+     * The references to the actions are kept until they are overwritten, the actions are shared and immutable anyway.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends the given action to this buffer.
+     *
+     * @param action the action
+     */
+    void add(final PlayerAction action) {
+        if (size == actions.length) {
+            actions = Arrays.copyOf(actions, size * 2);
+        }
+        actions[size++] = action;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(Arrays.copyOf(actions, size));
+    }
+}
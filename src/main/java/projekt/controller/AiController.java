@@ -1,22 +1,49 @@
 package projekt.controller;
 
 import javafx.beans.property.Property;
+import projekt.controller.actions.PlayerAction;
 import projekt.model.GameState;
 import projekt.model.HexGrid;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Represents an AI controller that can execute actions based on a player's
  * objective.
  * Gets all information that could be needed to execute actions.
  * Automatically subscribes to the player objective property to execute actions
  * when the player's objective changes.
+ * <p>
+ * By default the actions are decided on the thread changing the objective, i.e. the game loop.
+ * With an {@linkplain #setExecutor(ExecutorService, long) executor} every decision is dispatched to it instead
+ * and the game loop waits for the triggered actions like it waits for the ones of a human player.
+ * The decisions of one AI are run one after the other. A decision is cancelled as soon as the objective
+ * changes again and the actions it triggers afterwards are dropped. If a decision takes longer than its timeout,
+ * it is cancelled as well and the first legal action is triggered instead once the cancelled decision has stopped,
+ * so the game does not wait for a slow AI.
  */
 public abstract class AiController {
+
+    // the decision run by the current thread, to collect the actions it triggers
+    private static final ThreadLocal<Decision> RUNNING_DECISION = new ThreadLocal<>();
+
     protected final PlayerController playerController;
     protected final HexGrid hexGrid;
     protected final GameState gameState;
     protected final Property<PlayerController> activePlayerController;
 
+    private final ReentrantLock decisionLock = new ReentrantLock();
+    private ExecutorService executor;
+    private long decisionTimeoutNanos;
+    private volatile Decision decision;
+
     /**
      * Creates a new AI controller with the given player controller, hex grid, game
      * state and active player controller.
@@ -26,7 +53,7 @@ public abstract class AiController {
      * @param playerController       the player controller
      * @param hexGrid                the hex grid
      * @param gameState              the game state
-     * @param activePlayerController the active player controller
+     * @param activePlayerController the active player controller, {@code null} in headless games
      */
     public AiController(
         final PlayerController playerController, final HexGrid hexGrid, final GameState gameState,
@@ -36,14 +63,160 @@ public abstract class AiController {
         this.hexGrid = hexGrid;
         this.gameState = gameState;
         this.activePlayerController = activePlayerController;
-        playerController.getPlayerObjectiveProperty().subscribe(this::executeActionBasedOnObjective);
+        playerController.subscribeToObjective(this::objectiveChanged);
+    }
+
+    /**
+     * Dispatches the decisions of this AI to the given executor instead of deciding on the thread changing the
+     * objective.
+     * The executor should be bounded, as every AI seat may keep one of its threads busy.
+     *
+     * @param executor              the executor or {@code null} to decide on the thread changing the objective again
+     * @param decisionTimeoutMillis the time in milliseconds after which a decision is cancelled and the first legal
+     *                              action is triggered instead, or 0 to never cancel decisions by time
+     */
+    public void setExecutor(final ExecutorService executor, final long decisionTimeoutMillis) {
+        if (decisionTimeoutMillis < 0) {
+            throw new IllegalArgumentException("The decision timeout must not be negative");
+        }
+        this.executor = executor;
+        this.decisionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(decisionTimeoutMillis);
     }
 
     /**
      * Executes an action that is allowed by the given player objective.
      * May perform multiple actions if necessary and allowed.
+     * Actions are triggered by {@link #triggerAction(PlayerAction)}.
      *
      * @param objective the player objective
      */
     protected abstract void executeActionBasedOnObjective(final PlayerObjective objective);
+
+    /**
+     * Triggers the given action for the player of this AI.
+     * If the decision runs on the {@linkplain #setExecutor(ExecutorService, long) executor}, the actions are passed
+     * on together once the decision is complete and dropped if the decision was cancelled in the meantime.
+     *
+     * @param action the action
+     */
+    protected void triggerAction(final PlayerAction action) {
+        final Decision running = RUNNING_DECISION.get();
+        if (running == null) {
+            playerController.triggerAction(action);
+        } else {
+            running.actions.add(action);
+        }
+    }
+
+    private void objectiveChanged(final PlayerObjective objective) {
+        final Decision previous = decision;
+        if (previous != null && previous.objective != PlayerObjective.IDLE) {
+            // idle decisions are not cancelled, AIs may rely on them to reset their state between turns
+            previous.cancel();
+        }
+        if (executor == null) {
+            decision = null;
+            executeActionBasedOnObjective(objective);
+            return;
+        }
+        final Decision next = new Decision(objective);
+        decision = next;
+        next.future = executor.submit(() -> decide(next));
+        if (next.state.get() == Decision.CANCELLED) {
+            // cancelled before the future was known
+            next.future.cancel(true);
+        }
+        if (decisionTimeoutNanos > 0 && objective != PlayerObjective.IDLE) {
+            CompletableFuture.delayedExecutor(decisionTimeoutNanos, TimeUnit.NANOSECONDS).execute(next::timeOut);
+        }
+    }
+
+    private void decide(final Decision decision) {
+        try {
+            decisionLock.lockInterruptibly();
+        } catch (final InterruptedException e) {
+            // cancelled while the decision before was still running
+            return;
+        }
+        try {
+            if (decision.state.get() != Decision.RUNNING) {
+                return;
+            }
+            RUNNING_DECISION.set(decision);
+            try {
+                executeActionBasedOnObjective(decision.objective);
+                decision.complete();
+            } catch (final RuntimeException e) {
+                // keep the game going and report the exception like an uncaught one, nobody waits for the future
+                if (decision.state.compareAndSet(Decision.RUNNING, Decision.CANCELLED)) {
+                    triggerFirstLegalAction();
+                }
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            } finally {
+                RUNNING_DECISION.remove();
+            }
+        } finally {
+            decisionLock.unlock();
+        }
+    }
+
+    private void triggerFirstLegalAction() {
+        // a generator of its own, the one of the player controller is not meant to be shared between threads
+        final ActionBuffer legalActions = new ActionBuffer();
+        if (new LegalActionGenerator(playerController, hexGrid).generate(legalActions) > 0) {
+            playerController.triggerAction(legalActions.get(0));
+        }
+    }
+
+    /**
+     * A decision on the executor and the actions it has triggered.
+     */
+    private final class Decision {
+
+        private static final int RUNNING = 0;
+        private static final int COMPLETED = 1;
+        private static final int CANCELLED = 2;
+
+        private final PlayerObjective objective;
+        private final List<PlayerAction> actions = new ArrayList<>();
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private volatile Future<?> future;
+
+        private Decision(final PlayerObjective objective) {
+            this.objective = objective;
+        }
+
+        /**
+         * Passes the triggered actions on, unless the decision was cancelled.
+         */
+        private void complete() {
+            if (state.compareAndSet(RUNNING, COMPLETED)) {
+                actions.forEach(playerController::triggerAction);
+            }
+        }
+
+        private void cancel() {
+            if (state.compareAndSet(RUNNING, CANCELLED) && future != null) {
+                future.cancel(true);
+            }
+        }
+
+        /**
+         * Cancels the decision and triggers the first legal action instead, unless it is complete.
+         * The action is only generated once the cancelled decision has stopped, so the two never read the game at
+         * the same time. The searches of the AIs stop as soon as their thread is interrupted.
+         */
+        private void timeOut() {
+            if (state.compareAndSet(RUNNING, CANCELLED)) {
+                future.cancel(true);
+                decisionLock.lock();
+                try {
+                    triggerFirstLegalAction();
+                } finally {
+                    decisionLock.unlock();
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,28 @@
+package projekt.controller;
+
+import javafx.beans.property.Property;
+import projekt.model.GameState;
+import projekt.model.HexGrid;
+
+/**
+ * Creates the {@link AiController} of a player controlled by an AI.
+ * The parameters are the same as the ones of {@link AiController#AiController(PlayerController, HexGrid, GameState, Property)},
+ * so constructor references like {@code BasicAiController::new} can be used.
+ */
+@FunctionalInterface
+public interface AiControllerFactory {
+
+    /**
+     * Creates a new AI controller.
+     *
+     * @param playerController       the player controller the AI controls
+     * @param hexGrid                the hex grid
+     * @param gameState              the game state
+     * @param activePlayerController the active player controller, {@code null} in headless games
+     * @return the new AI controller
+     */
+    AiController create(
+        PlayerController playerController, HexGrid hexGrid, GameState gameState,
+        Property<PlayerController> activePlayerController
+    );
+}
@@ -1,7 +1,6 @@
 package projekt.controller;
 
 import javafx.beans.property.Property;
-import projekt.Config;
 import projekt.controller.actions.AcceptTradeAction;
 import projekt.controller.actions.BuildRoadAction;
 import projekt.controller.actions.BuildVillageAction;
@@ -13,12 +12,16 @@ import projekt.controller.actions.SelectRobberTileAction;
 import projekt.controller.actions.StealCardAction;
 import projekt.model.GameState;
 import projekt.model.HexGrid;
+import projekt.model.HexGridImpl;
+import projekt.model.Intersection;
+import projekt.model.OpeningPlanner;
 import projekt.model.Player;
 import projekt.model.ResourceType;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Random;
 import java.util.Set;
 
 /**
@@ -50,7 +53,7 @@ public class BasicAiController extends AiController {
         final Set<Class<? extends PlayerAction>> actions = objective.getAllowedActions();
 
         if (actions.contains(RollDiceAction.class)) {
-            playerController.triggerAction(new RollDiceAction());
+            triggerAction(new RollDiceAction());
         }
         if (actions.contains(BuildVillageAction.class)) {
             buildVillage();
@@ -65,22 +68,40 @@ public class BasicAiController extends AiController {
             selectRobberTileAction();
         }
         if (actions.contains(AcceptTradeAction.class)) {
-            playerController.triggerAction(new AcceptTradeAction(Config.RANDOM.nextBoolean()));
+            triggerAction(new AcceptTradeAction(random().nextBoolean()));
         }
         if (actions.contains(StealCardAction.class)) {
             stealCardAction();
         }
         if (actions.contains(EndTurnAction.class)) {
-            playerController.triggerAction(new EndTurnAction());
+            triggerAction(new EndTurnAction());
         }
     }
 
     /**
-     * This method builds a village on a random buildable intersection.
+     * Returns the stream of random numbers of this AI.
+     *
+     * @return the stream of this AI
+     */
+    private Random random() {
+        return gameState.getRandom().ai(playerController.getPlayer());
+    }
+
+    /**
+     * This method builds a village on the buildable intersection ranked best by the grid's {@link OpeningPlanner}
+     * or, on other grids, on a random buildable intersection.
      */
     private void buildVillage() {
-        playerController.getPlayerState().buildableVillageIntersections().stream().findAny().ifPresent(intersection -> {
-            playerController.triggerAction(new BuildVillageAction(intersection));
+        final Set<Intersection> sites = playerController.getPlayerState().buildableVillageIntersections();
+        if (hexGrid instanceof final HexGridImpl grid) {
+            final Intersection intersection = grid.getOpeningPlanner().getBestSite(playerController.getPlayer(), sites);
+            if (intersection != null) {
+                triggerAction(new BuildVillageAction(intersection));
+            }
+            return;
+        }
+        sites.stream().findAny().ifPresent(intersection -> {
+            triggerAction(new BuildVillageAction(intersection));
         });
     }
 
@@ -89,7 +110,7 @@ public class BasicAiController extends AiController {
      */
     private void buildRoad() {
         playerController.getPlayerState().buildableRoadEdges().stream().findAny().ifPresent(edge -> {
-            playerController.triggerAction(new BuildRoadAction(edge));
+            triggerAction(new BuildRoadAction(edge));
         });
     }
 
@@ -108,14 +129,14 @@ public class BasicAiController extends AiController {
                     selectedCards.put(entry.getKey(), selectedCards.getOrDefault(entry.getKey(), 0) + 1);
                 });
         }
-        playerController.triggerAction(new SelectCardsAction(selectedCards));
+        triggerAction(new SelectCardsAction(selectedCards));
     }
 
     /**
      * This method selects a random robber tile.
      */
     private void selectRobberTileAction() {
-        playerController.triggerAction(
+        triggerAction(
             new SelectRobberTileAction(hexGrid.getTiles().values().stream().findAny().get().getPosition()));
     }
 
@@ -139,6 +160,6 @@ public class BasicAiController extends AiController {
         if (resourceToSteal == null) {
             return;
         }
-        playerController.triggerAction(new StealCardAction(resourceToSteal, playerToStealFrom));
+        triggerAction(new StealCardAction(resourceToSteal, playerToStealFrom));
     }
 }
@@ -0,0 +1,644 @@
+package projekt.controller;
+
+import projekt.Config;
+import projekt.controller.actions.AcceptTradeAction;
+import projekt.controller.actions.BuildRoadAction;
+import projekt.controller.actions.BuildVillageAction;
+import projekt.controller.actions.BuyDevelopmentCardAction;
+import projekt.controller.actions.EndTurnAction;
+import projekt.controller.actions.PlayDevelopmentCardAction;
+import projekt.controller.actions.PlayerAction;
+import projekt.controller.actions.RollDiceAction;
+import projekt.controller.actions.SelectCardsAction;
+import projekt.controller.actions.SelectRobberTileAction;
+import projekt.controller.actions.StealCardAction;
+import projekt.controller.actions.TradeAction;
+import projekt.controller.actions.UpgradeVillageAction;
+import projekt.model.CompactGameState;
+import projekt.model.DevelopmentCardType;
+import projekt.model.GameState;
+import projekt.model.GridAdjacency;
+import projekt.model.HexGridImpl;
+import projekt.model.Player;
+import projekt.model.ResourceType;
+import projekt.model.TradePayload;
+import projekt.model.buildings.Settlement;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The decisions of a player during a turn, played on a {@link CompactGameState} by the searching AIs.
+ * <p>
+ * A move is the counterpart of a {@link PlayerAction} packed into a long: the kind of the move in the upper half
+ * and its arguments, e.g. the index of an intersection or the counts of selected cards, in the lower half.
+ * Which moves are legal depends on the phase, the counterpart of a {@link PlayerObjective} that also knows how
+ * the player got there, e.g. whether the robber is moved because of a 7 or a knight. Like in the game, a regular
+ * turn ends with the first action that is not playing a development card, while playing a card leads to the
+ * phases that apply its effect and then back to the regular turn. {@link #apply} plays a move and returns the
+ * next phase of the player, {@link #DONE} once the player has nothing more to decide for now.
+ * <p>
+ * Moves are only generated for the phases that can follow a move of the player. The phases a search can only
+ * start in, like placing the first village or dropping cards, take their moves from the {@link LegalActionGenerator}
+ * via {@link #toMove}. Instances are immutable and may be shared by any amount of threads.
+ */
+final class CompactMoves {
+
+    /**
+     * The phase after the player's last decision for now, e.g. after ending the turn.
+     */
+    static final int DONE = 0;
+    static final int ROLL = 1;
+    static final int INITIAL_VILLAGE = 2;
+    static final int INITIAL_ROAD = 3;
+    static final int DROP = 4;
+    static final int ACCEPT_TRADE = 5;
+    static final int REGULAR = 6;
+    static final int ROBBER_SEVEN = 7;
+    static final int ROBBER_KNIGHT = 8;
+    static final int STEAL_SEVEN = 9;
+    static final int STEAL_KNIGHT = 10;
+    static final int FREE_ROAD_FIRST = 11;
+    static final int FREE_ROAD_SECOND = 12;
+    static final int INVENTION = 13;
+    static final int MONOPOLY = 14;
+
+    /**
+     * The move returned by {@link #toMove} for actions that have no counterpart.
+     */
+    static final long NONE = -1;
+
+    static final int END = 1;
+    static final int ROLL_DICE = 2;
+    static final int VILLAGE = 3;
+    static final int CITY = 4;
+    static final int ROAD = 5;
+    static final int TRADE = 6;
+    static final int BUY = 7;
+    static final int PLAY = 8;
+    static final int ROBBER = 9;
+    static final int STEAL = 10;
+    static final int SELECT = 11;
+    static final int ACCEPT = 12;
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final int RESOURCES = RESOURCE_TYPES.length;
+    private static final int KNIGHT = DevelopmentCardType.KNIGHT.ordinal();
+    private static final int ROAD_BUILDING = DevelopmentCardType.ROAD_BUILDING.ordinal();
+    private static final int VICTORY_POINTS = DevelopmentCardType.VICTORY_POINTS.ordinal();
+    private static final int CARD_BITS = 6;
+    private static final int CARD_MASK = (1 << CARD_BITS) - 1;
+    // offset of signed counts, which range from -32 to 31
+    private static final int CARD_OFFSET = 1 << CARD_BITS - 1;
+    // the longest chain of decisions in a turn is far shorter, this only guards against endless chains
+    private static final int MAX_DECISIONS = 64;
+
+    private final HexGridImpl grid;
+    private final GridAdjacency adjacency;
+    private final List<Player> players;
+    private final int[] roadCost;
+    private final int[] villageCost;
+    private final int[] cityCost;
+    private final int[] developmentCardCost;
+
+    /**
+     * Creates the moves of the game with the given grid and players.
+     *
+     * @param grid    the grid of the game
+     * @param players the players of the game, in the order of the {@link CompactGameState}s
+     */
+    CompactMoves(final HexGridImpl grid, final List<Player> players) {
+        this.grid = grid;
+        this.adjacency = grid.getAdjacency();
+        this.players = players;
+        this.roadCost = cost(Config.ROAD_BUILDING_COST);
+        this.villageCost = cost(Config.SETTLEMENT_BUILDING_COST.get(Settlement.Type.VILLAGE));
+        this.cityCost = cost(Config.SETTLEMENT_BUILDING_COST.get(Settlement.Type.CITY));
+        this.developmentCardCost = cost(Config.DEVELOPMENT_CARD_COST);
+    }
+
+    /**
+     * Returns the kind of the given move.
+     *
+     * @param move the move
+     * @return the kind
+     */
+    static int kind(final long move) {
+        return (int) (move >>> Integer.SIZE);
+    }
+
+    /**
+     * Returns the argument of the given move.
+     *
+     * @param move the move
+     * @return the argument
+     */
+    static int argument(final long move) {
+        return (int) move;
+    }
+
+    /**
+     * Returns the move of the given kind and argument.
+     *
+     * @param kind     the kind
+     * @param argument the argument
+     * @return the move
+     */
+    static long move(final int kind, final int argument) {
+        return (long) kind << Integer.SIZE | argument & 0xffffffffL;
+    }
+
+    /**
+     * Returns whether the player is in the middle of its own turn in the given phase.
+     *
+     * @param phase the phase
+     * @return true if the phase is part of the player's regular turn, false otherwise
+     */
+    static boolean inTurn(final int phase) {
+        return phase >= REGULAR;
+    }
+
+    /**
+     * Returns the phase for the given objective.
+     *
+     * @param objective     the objective
+     * @param expected      the phase the last move of the player led to, used to tell apart the phases of
+     *                      objectives that are reached in several ways
+     * @param firstRound    whether it is the first round
+     * @param cardsToSelect the amount of cards to select
+     * @return the phase or {@link #DONE} for {@link PlayerObjective#IDLE}
+     */
+    static int phaseOf(final PlayerObjective objective, final int expected, final boolean firstRound, final int cardsToSelect) {
+        return switch (objective) {
+            case DICE_ROLL -> ROLL;
+            case PLACE_VILLAGE -> INITIAL_VILLAGE;
+            case PLACE_ROAD -> firstRound
+                ? INITIAL_ROAD
+                : expected == FREE_ROAD_FIRST ? FREE_ROAD_FIRST : FREE_ROAD_SECOND;
+            case REGULAR_TURN -> REGULAR;
+            case SELECT_ROBBER_TILE -> expected == ROBBER_KNIGHT ? ROBBER_KNIGHT : ROBBER_SEVEN;
+            case SELECT_CARD_TO_STEAL -> expected == STEAL_KNIGHT ? STEAL_KNIGHT : STEAL_SEVEN;
+            case SELECT_CARDS -> cardsToSelect == 1 ? MONOPOLY : INVENTION;
+            case DROP_CARDS -> DROP;
+            case ACCEPT_TRADE -> ACCEPT_TRADE;
+            case IDLE -> DONE;
+        };
+    }
+
+    /**
+     * Copies the game for a search of the given player in the given phase.
+     *
+     * @param gameState        the game, its grid must be a {@link HexGridImpl}
+     * @param playerController the controller of the searching player
+     * @param phase            the phase the search starts in
+     * @return the copy
+     */
+    static CompactGameState snapshot(final GameState gameState, final PlayerController playerController, final int phase) {
+        return switch (phase) {
+            // the first round is played from the first player on
+            case INITIAL_VILLAGE, INITIAL_ROAD -> CompactGameState.of(gameState);
+            // the rest of the turn belongs to the offering player
+            case ACCEPT_TRADE -> CompactGameState.of(gameState, playerController.getPlayerState().offeredTrade().player(), true);
+            // the player whose 7 made the player drop cards is not known, the rest of the turn is left to the player
+            default -> CompactGameState.of(gameState, playerController.getPlayer(), true);
+        };
+    }
+
+    /**
+     * Returns the counterpart of the given action.
+     *
+     * @param action       the action, generated by the {@link LegalActionGenerator}
+     * @param offeredTrade the trade offered to the player or {@code null}, only used for {@link AcceptTradeAction}s
+     * @return the move or {@link #NONE}, if the action has no counterpart
+     */
+    long toMove(final PlayerAction action, final TradePayload offeredTrade) {
+        if (action instanceof RollDiceAction) {
+            return move(ROLL_DICE, 0);
+        } else if (action instanceof EndTurnAction) {
+            return move(END, 0);
+        } else if (action instanceof final BuildVillageAction buildVillageAction) {
+            return move(VILLAGE, grid.indexOf(buildVillageAction.intersection()));
+        } else if (action instanceof final UpgradeVillageAction upgradeVillageAction) {
+            return move(CITY, grid.indexOf(upgradeVillageAction.intersection()));
+        } else if (action instanceof final BuildRoadAction buildRoadAction) {
+            return move(ROAD, grid.indexOf(buildRoadAction.edge()));
+        } else if (action instanceof final TradeAction tradeAction && tradeAction.payload().withBank()) {
+            final ResourceType offer = tradeAction.payload().offer().keySet().iterator().next();
+            final ResourceType request = tradeAction.payload().request().keySet().iterator().next();
+            return move(TRADE, offer.ordinal() * RESOURCES + request.ordinal());
+        } else if (action instanceof BuyDevelopmentCardAction) {
+            return move(BUY, 0);
+        } else if (action instanceof final PlayDevelopmentCardAction playDevelopmentCardAction) {
+            return move(PLAY, playDevelopmentCardAction.developmentCard().ordinal());
+        } else if (action instanceof final SelectRobberTileAction selectRobberTileAction) {
+            return move(ROBBER, grid.tileIndexAt(selectRobberTileAction.tilePosition().q(), selectRobberTileAction.tilePosition().r()));
+        } else if (action instanceof final StealCardAction stealCardAction) {
+            return move(STEAL, players.indexOf(stealCardAction.playerToStealFrom()) * RESOURCES
+                + stealCardAction.resourceToSteal().ordinal());
+        } else if (action instanceof final SelectCardsAction selectCardsAction) {
+            final int counts = pack(selectCardsAction.selectedCards(), 1, 0);
+            return counts < 0 ? NONE : move(SELECT, counts);
+        } else if (action instanceof final AcceptTradeAction acceptTradeAction) {
+            if (!acceptTradeAction.accepted() || offeredTrade == null) {
+                return move(ACCEPT, 0);
+            }
+            // the player receives the offer and pays the request
+            final Map<ResourceType, Integer> received = new EnumMap<>(ResourceType.class);
+            offeredTrade.offer().forEach((resourceType, amount) -> received.merge(resourceType, amount, Integer::sum));
+            offeredTrade.request().forEach((resourceType, amount) -> received.merge(resourceType, -amount, Integer::sum));
+            final int counts = pack(received, 1, CARD_OFFSET);
+            return counts < 0 ? NONE : move(ACCEPT, counts | 1 << RESOURCES * CARD_BITS);
+        }
+        return NONE;
+    }
+
+    /**
+     * Packs the given counts into 6 bits per resource type.
+     *
+     * @return the packed counts or -1, if a count does not fit
+     */
+    private static int pack(final Map<ResourceType, Integer> cards, final int sign, final int offset) {
+        int packed = 0;
+        for (int r = 0; r < RESOURCES; r++) {
+            final int count = offset + sign * cards.getOrDefault(RESOURCE_TYPES[r], 0);
+            if (count < -CARD_OFFSET || count > CARD_MASK) {
+                return -1;
+            }
+            packed += count << r * CARD_BITS;
+        }
+        return packed;
+    }
+
+    private static int count(final int packed, final int resource, final int offset) {
+        return (packed >>> resource * CARD_BITS & CARD_MASK) - offset;
+    }
+
+    /**
+     * Returns the maximum amount of moves {@link #generate} generates on states of this game.
+     *
+     * @return the maximum amount of moves
+     */
+    int maxMoves() {
+        // villages and cities are never built on the same intersection, roads may be generated twice
+        return grid.getIntersectionCount() + 2 * grid.getEdgeCount() + grid.getTileCount()
+            + RESOURCES * RESOURCES + DevelopmentCardType.values().length + players.size() * RESOURCES + 2;
+    }
+
+    /**
+     * Generates the legal moves of the given player in the given phase.
+     * Phases a search can only start in generate no moves.
+     *
+     * @param state  the state
+     * @param player the index of the player
+     * @param phase  the phase
+     * @param moves  the array to generate into, at least {@link #maxMoves()} long
+     * @return the amount of generated moves
+     */
+    int generate(final CompactGameState state, final int player, final int phase, final long[] moves) {
+        int size = 0;
+        switch (phase) {
+            case REGULAR -> {
+                if (state.getRemainingVillages(player) > 0 && affords(state, player, villageCost)) {
+                    for (int i = 0; i < state.getIntersectionCount(); i++) {
+                        if (state.isVillageSite(player, i)) {
+                            moves[size++] = move(VILLAGE, i);
+                        }
+                    }
+                }
+                if (state.getRemainingCities(player) > 0 && affords(state, player, cityCost)) {
+                    for (int i = 0; i < state.getIntersectionCount(); i++) {
+                        if (state.getSettlementOwner(i) == player && state.getSettlementLevel(i) == CompactGameState.VILLAGE) {
+                            moves[size++] = move(CITY, i);
+                        }
+                    }
+                }
+                if (state.getRemainingRoads(player) > 0 && affords(state, player, roadCost)) {
+                    size = generateRoads(state, player, moves, size);
+                }
+                for (int offer = 0; offer < RESOURCES; offer++) {
+                    if (state.getResource(player, offer) >= state.getTradeRatio(player, offer)) {
+                        for (int request = 0; request < RESOURCES; request++) {
+                            if (request != offer) {
+                                moves[size++] = move(TRADE, offer * RESOURCES + request);
+                            }
+                        }
+                    }
+                }
+                if (affords(state, player, developmentCardCost)) {
+                    moves[size++] = move(BUY, 0);
+                }
+                for (int card = 0; card < DevelopmentCardType.values().length; card++) {
+                    if (card != VICTORY_POINTS && state.getDevelopmentCards(player, card) > 0
+                        && (card != ROAD_BUILDING || state.getRemainingRoads(player) >= 2 && generateRoads(state, player, moves, size) > size)) {
+                        moves[size++] = move(PLAY, card);
+                    }
+                }
+                moves[size++] = move(END, 0);
+            }
+            case ROBBER_SEVEN, ROBBER_KNIGHT -> {
+                for (int t = 0; t < state.getTileCount(); t++) {
+                    if (t != state.getRobberTile()) {
+                        moves[size++] = move(ROBBER, t);
+                    }
+                }
+            }
+            case STEAL_SEVEN, STEAL_KNIGHT -> {
+                for (int p = 0; p < state.getPlayerCount(); p++) {
+                    if (p != player && nextToRobber(state, p)) {
+                        for (int r = 0; r < RESOURCES; r++) {
+                            if (state.getResource(p, r) > 0) {
+                                moves[size++] = move(STEAL, p * RESOURCES + r);
+                            }
+                        }
+                    }
+                }
+                moves[size++] = move(END, 0);
+            }
+            case FREE_ROAD_FIRST, FREE_ROAD_SECOND -> {
+                if (state.getRemainingRoads(player) > 0) {
+                    size = generateRoads(state, player, moves, size);
+                }
+            }
+            case INITIAL_ROAD -> {
+                for (int i = 0; i < state.getIntersectionCount(); i++) {
+                    if (state.getSettlementOwner(i) == player && !hasRoad(state, adjacency.intersectionEdges(i))) {
+                        for (final int e : adjacency.intersectionEdges(i)) {
+                            moves[size++] = move(ROAD, e);
+                        }
+                    }
+                }
+            }
+            case INVENTION -> {
+                for (int first = 0; first < RESOURCES; first++) {
+                    for (int second = first; second < RESOURCES; second++) {
+                        moves[size++] = move(SELECT, (1 << first * CARD_BITS) + (1 << second * CARD_BITS));
+                    }
+                }
+            }
+            case MONOPOLY -> {
+                for (int r = 0; r < RESOURCES; r++) {
+                    moves[size++] = move(SELECT, 1 << r * CARD_BITS);
+                }
+            }
+            default -> {
+            }
+        }
+        return size;
+    }
+
+    private static int generateRoads(final CompactGameState state, final int player, final long[] moves, int size) {
+        for (int e = 0; e < state.getEdgeCount(); e++) {
+            if (state.isRoadSite(player, e)) {
+                moves[size++] = move(ROAD, e);
+            }
+        }
+        return size;
+    }
+
+    private boolean nextToRobber(final CompactGameState state, final int player) {
+        if (state.getRobberTile() < 0) {
+            return false;
+        }
+        for (final int intersection : adjacency.tileIntersections(state.getRobberTile())) {
+            if (state.getSettlementOwner(intersection) == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasRoad(final CompactGameState state, final int[] edges) {
+        for (final int e : edges) {
+            if (state.getRoadOwner(e) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean affords(final CompactGameState state, final int player, final int[] cost) {
+        for (int r = 0; r < RESOURCES; r++) {
+            if (state.getResource(player, r) < cost[r]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Plays the given move of the given player.
+     * A move that ends the player's turn also passes the turn on to the next player.
+     *
+     * @param state  the state
+     * @param player the index of the player
+     * @param phase  the phase the move is played in
+     * @param move   the move, legal in the phase
+     * @param random the source of randomness for dice and cards
+     * @return the next phase of the player
+     */
+    int apply(final CompactGameState state, final int player, final int phase, final long move, final Random random) {
+        final int argument = argument(move);
+        switch (phase) {
+            case INITIAL_VILLAGE -> {
+                state.buildVillage(player, argument, true);
+                return INITIAL_ROAD;
+            }
+            case INITIAL_ROAD -> {
+                state.placeInitialRoad(player, argument);
+                return DONE;
+            }
+            case DROP -> {
+                for (int r = 0; r < RESOURCES; r++) {
+                    state.addResource(player, r, -count(argument, r, 0));
+                }
+                return DONE;
+            }
+            case ACCEPT_TRADE -> {
+                if (argument != 0) {
+                    // the offering player is the one to move
+                    for (int r = 0; r < RESOURCES; r++) {
+                        final int amount = count(argument, r, CARD_OFFSET);
+                        state.addResource(amount > 0 ? state.getCurrentPlayer() : player, r, -Math.abs(amount));
+                        state.addResource(amount > 0 ? player : state.getCurrentPlayer(), r, Math.abs(amount));
+                    }
+                }
+                state.endTurn();
+                return DONE;
+            }
+            case REGULAR -> {
+                return applyRegular(state, player, move, random);
+            }
+            case ROBBER_SEVEN, ROBBER_KNIGHT -> {
+                state.moveRobber(player, argument, -1, random);
+                return phase == ROBBER_SEVEN ? STEAL_SEVEN : STEAL_KNIGHT;
+            }
+            case STEAL_SEVEN, STEAL_KNIGHT -> {
+                if (kind(move) == STEAL) {
+                    state.addResource(argument / RESOURCES, argument % RESOURCES, -1);
+                    state.addResource(player, argument % RESOURCES, 1);
+                }
+                if (phase == STEAL_SEVEN) {
+                    // the regular turn starts with another roll
+                    state.distribute(rollDice(random));
+                }
+                return REGULAR;
+            }
+            case FREE_ROAD_FIRST, FREE_ROAD_SECOND -> {
+                state.buildRoad(player, argument, true);
+                return phase == FREE_ROAD_FIRST ? FREE_ROAD_SECOND : REGULAR;
+            }
+            case INVENTION -> {
+                for (int r = 0; r < RESOURCES; r++) {
+                    state.addResource(player, r, count(argument, r, 0));
+                }
+                return REGULAR;
+            }
+            case MONOPOLY -> {
+                final int resource = Integer.numberOfTrailingZeros(argument) / CARD_BITS;
+                for (int p = 0; p < state.getPlayerCount(); p++) {
+                    if (p != player) {
+                        final int amount = state.getResource(p, resource);
+                        state.addResource(p, resource, -amount);
+                        state.addResource(player, resource, amount);
+                    }
+                }
+                return REGULAR;
+            }
+            default -> {
+                return DONE;
+            }
+        }
+    }
+
+    private int applyRegular(final CompactGameState state, final int player, final long move, final Random random) {
+        final int argument = argument(move);
+        switch (kind(move)) {
+            case VILLAGE -> state.buildVillage(player, argument, false);
+            case CITY -> state.upgradeVillage(player, argument);
+            case ROAD -> state.buildRoad(player, argument, false);
+            case TRADE -> state.tradeWithBank(player, argument / RESOURCES, argument % RESOURCES);
+            case BUY -> state.buyDevelopmentCard(player, random);
+            case PLAY -> {
+                state.playDevelopmentCard(player, argument);
+                if (argument == KNIGHT) {
+                    return ROBBER_KNIGHT;
+                } else if (argument == ROAD_BUILDING) {
+                    return FREE_ROAD_FIRST;
+                } else if (argument == DevelopmentCardType.INVENTION.ordinal()) {
+                    return INVENTION;
+                } else if (argument == DevelopmentCardType.MONOPOLY.ordinal()) {
+                    return MONOPOLY;
+                }
+                return REGULAR;
+            }
+            default -> {
+            }
+        }
+        state.endTurn();
+        return DONE;
+    }
+
+    /**
+     * Returns the phase the given move leads to without playing it.
+     *
+     * @param phase the phase the move is played in
+     * @param move  the move
+     * @return the next phase
+     */
+    static int next(final int phase, final long move) {
+        return switch (phase) {
+            case ROLL -> REGULAR;
+            case INITIAL_VILLAGE -> INITIAL_ROAD;
+            case REGULAR -> kind(move) != PLAY
+                ? DONE
+                : argument(move) == KNIGHT ? ROBBER_KNIGHT
+                : argument(move) == ROAD_BUILDING ? FREE_ROAD_FIRST
+                : argument(move) == DevelopmentCardType.INVENTION.ordinal() ? INVENTION
+                : argument(move) == DevelopmentCardType.MONOPOLY.ordinal() ? MONOPOLY
+                : REGULAR;
+            case ROBBER_SEVEN -> STEAL_SEVEN;
+            case ROBBER_KNIGHT -> STEAL_KNIGHT;
+            case FREE_ROAD_FIRST -> FREE_ROAD_SECOND;
+            case STEAL_SEVEN, STEAL_KNIGHT, FREE_ROAD_SECOND, INVENTION, MONOPOLY -> REGULAR;
+            default -> DONE;
+        };
+    }
+
+    /**
+     * Plays the rest of the player's decisions with the built-in policy of the {@link CompactGameState}, or random
+     * moves where it has none, until the player is {@link #DONE}.
+     *
+     * @param state  the state
+     * @param player the index of the player
+     * @param phase  the current phase
+     * @param moves  the array to generate into, at least {@link #maxMoves()} long
+     * @param random the source of randomness
+     */
+    void complete(final CompactGameState state, final int player, int phase, final long[] moves, final Random random) {
+        for (int decisions = 0; phase != DONE && decisions < MAX_DECISIONS; decisions++) {
+            if (phase == REGULAR) {
+                state.playTurn(random);
+                return;
+            }
+            final int size = generate(state, player, phase, moves);
+            if (size == 0) {
+                // nothing can be done, e.g. no road site for a road building card
+                if (inTurn(phase)) {
+                    state.endTurn();
+                }
+                return;
+            }
+            phase = apply(state, player, phase, moves[random.nextInt(size)], random);
+        }
+    }
+
+    /**
+     * Returns the value of the given state for the given player: 1 if the player has won, 0 if another player has
+     * won and otherwise the share of the player's victory points of the victory points of the player and the best
+     * other player.
+     *
+     * @param state  the state
+     * @param player the index of the player
+     * @return the value between 0 and 1
+     */
+    static double evaluate(final CompactGameState state, final int player) {
+        if (state.getWinner() >= 0) {
+            return state.getWinner() == player ? 1 : 0;
+        }
+        int best = 0;
+        for (int p = 0; p < state.getPlayerCount(); p++) {
+            if (p != player) {
+                best = Math.max(best, state.getVictoryPoints(p));
+            }
+        }
+        final int points = state.getVictoryPoints(player);
+        return points + best == 0 ? 0.5 : (double) points / (points + best);
+    }
+
+    /**
+     * Rolls the dice.
+     *
+     * @param random the source of randomness
+     * @return the sum of the dice
+     */
+    static int rollDice(final Random random) {
+        int sum = 0;
+        for (int i = 0; i < Config.NUMBER_OF_DICE; i++) {
+            sum += random.nextInt(1, Config.DICE_SIDES + 1);
+        }
+        return sum;
+    }
+
+    private static int[] cost(final Map<ResourceType, Integer> cost) {
+        final int[] amounts = new int[RESOURCES];
+        cost.forEach((resourceType, amount) -> amounts[resourceType.ordinal()] = amount);
+        return amounts;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactMoves[players=" + players.size() + "]";
+    }
+}
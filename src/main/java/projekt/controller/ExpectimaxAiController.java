@@ -0,0 +1,580 @@
+package projekt.controller;
+
+import javafx.beans.property.Property;
+import projekt.Config;
+import projekt.model.CompactGameState;
+import projekt.model.DevelopmentCardType;
+import projekt.model.GameState;
+import projekt.model.GridAdjacency;
+import projekt.model.HexGrid;
+import projekt.model.HexGridImpl;
+import projekt.model.ResourceType;
+import projekt.model.TradePayload;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * An AI controller that decides by an expectimax search over the dice and its own actions.
+ * <p>
+ * The search alternates between the decisions of the player, see {@link CompactMoves}, and chance nodes over the
+ * sums of the dice, weighted by the amount of ways to roll them, after each of the player's turns. The other
+ * players are not searched, a roll stands for the production until the player's next turn and a 7 makes the player
+ * drop half of a hand of more than 7 cards. Dice and development cards drawn within a turn are sampled.
+ * Leaves are rated by a heuristic of victory points, expected production and hand, minus part of the rating of
+ * the best other player, so the robber is moved to where it hurts the others most.
+ * <p>
+ * The search deepens iteratively, one decision at a time, until the time budget, if any, has passed or the maximum
+ * depth is reached. Moves are ordered by the production they add: cities and villages on intersections with many pips
+ * first, then roads towards such intersections, development cards and trades. Below the root only the first moves
+ * of this order are searched. At the root the best move of the last iteration is searched first, so when the
+ * deadline hits, the search stops at once and the best move searched to the deepest depth is triggered.
+ * <p>
+ * With a {@link TranspositionTable} the best root move is also stored under the hash of the game, see
+ * {@link GameState#getStateHash()}, and searched first when the same player faces the same position and
+ * objective again, e.g. in another game of a tournament sharing the table.
+ * On grids other than a {@link HexGridImpl} there is nothing to search on and the first legal action is triggered.
+ */
+public class ExpectimaxAiController extends AiController {
+
+    private static final int RESOURCES = ResourceType.values().length;
+    private static final int RESOLUTION = 36;
+    private static final int MAX_HAND = 7;
+    private static final double PRODUCTION_WEIGHT = 3;
+    private static final double OPPONENT_WEIGHT = 0.5;
+    private static final double CARD_WEIGHT = 0.05;
+    private static final double DEVELOPMENT_CARD_WEIGHT = 0.3;
+    private static final int DEADLINE_CHECK_INTERVAL = 0xff;
+
+    private final long timeBudgetNanos;
+    private final LongSupplier clock;
+    private final int maxDepth;
+    private final int breadth;
+    private final TranspositionTable table;
+
+    // created on first use, as the objective is passed on before the fields are set
+    private ActionBuffer actions;
+    private CompactMoves moves;
+    private GridAdjacency adjacency;
+    private long[] rootMoves;
+    private int expectedPhase = CompactMoves.DONE;
+
+    // state of the running search, one entry per ply
+    private CompactGameState[] states;
+    private long[][] moveBuffers;
+    private double[][] keyBuffers;
+    private int player;
+    private Random random;
+    private long deadline;
+    private long nodes;
+    private boolean timedOut;
+    private boolean cutOff;
+    private int lastDepth;
+
+    /**
+     * Creates a new ExpectimaxAiController with the default settings of a {@link Builder}.
+     *
+     * @param playerController       the player controller this belongs to
+     * @param hexGrid                the hex grid
+     * @param gameState              the game state
+     * @param activePlayerController the active player controller
+     */
+    public ExpectimaxAiController(
+        final PlayerController playerController, final HexGrid hexGrid, final GameState gameState,
+        final Property<PlayerController> activePlayerController
+    ) {
+        this(playerController, hexGrid, gameState, activePlayerController, new Builder());
+    }
+
+    private ExpectimaxAiController(
+        final PlayerController playerController, final HexGrid hexGrid, final GameState gameState,
+        final Property<PlayerController> activePlayerController, final Builder builder
+    ) {
+        super(playerController, hexGrid, gameState, activePlayerController);
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(builder.timeBudgetMillis);
+        this.clock = builder.clock;
+        this.maxDepth = builder.maxDepth;
+        this.breadth = builder.breadth;
+        this.table = builder.table;
+    }
+
+    /**
+     * Returns the depth the last search completed.
+     *
+     * @return the depth or 0, if not even the first iteration was completed
+     */
+    int getLastDepth() {
+        return lastDepth;
+    }
+
+    /**
+     * Returns whether the last search was stopped by the deadline or cancelled before reaching the maximum depth.
+     *
+     * @return true if the last search was stopped, false otherwise
+     */
+    boolean isLastTimedOut() {
+        return timedOut;
+    }
+
+    @Override
+    protected void executeActionBasedOnObjective(final PlayerObjective objective) {
+        if (objective == PlayerObjective.IDLE || maxDepth == 0) {
+            // the turn is over, or the constructor of AiController passes the first objective before ours has run
+            expectedPhase = CompactMoves.DONE;
+            return;
+        }
+        if (actions == null) {
+            actions = new ActionBuffer();
+        }
+        final int count = playerController.generateLegalActions(actions);
+        if (count == 0) {
+            return;
+        }
+        if (!(hexGrid instanceof final HexGridImpl grid)) {
+            triggerAction(actions.get(0));
+            return;
+        }
+        if (moves == null) {
+            moves = new CompactMoves(grid, gameState.getPlayers());
+            adjacency = grid.getAdjacency();
+        }
+        final int phase = CompactMoves.phaseOf(
+            objective, expectedPhase, playerController.isFirstRound(), playerController.getPlayerState().cardsToSelect()
+        );
+        final TradePayload offeredTrade = playerController.getPlayerState().offeredTrade();
+        if (rootMoves == null || rootMoves.length < count) {
+            rootMoves = new long[Math.max(count, moves.maxMoves())];
+        }
+        int searchable = 0;
+        int first = -1;
+        for (int i = 0; i < count; i++) {
+            rootMoves[i] = moves.toMove(actions.get(i), offeredTrade);
+            if (rootMoves[i] != CompactMoves.NONE) {
+                searchable++;
+                first = first < 0 ? i : first;
+            }
+        }
+        final int best = searchable > 1 ? search(objective, phase, count) : Math.max(first, 0);
+        expectedPhase = CompactMoves.next(phase, rootMoves[best]);
+        triggerAction(actions.get(best));
+    }
+
+    /**
+     * Deepens the search of the root moves until the deadline or the maximum depth and returns the index of the
+     * best one.
+     */
+    private int search(final PlayerObjective objective, final int phase, final int count) {
+        deadline = timeBudgetNanos > 0 ? clock.getAsLong() + timeBudgetNanos : 0;
+        nodes = 0;
+        timedOut = false;
+        player = gameState.getPlayers().indexOf(playerController.getPlayer());
+        random = new Random(gameState.getRandom().ai(playerController.getPlayer()).nextLong());
+        prepare(CompactMoves.snapshot(gameState, playerController, phase));
+
+        // the root moves in the order they are searched, by their value in the last iteration
+        final int[] order = new int[count];
+        final double[] keys = new double[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (rootMoves[i] != CompactMoves.NONE) {
+                order[size] = i;
+                keys[size++] = orderKey(states[0], rootMoves[i]);
+            }
+        }
+        sort(order, keys, size);
+        final long key = tableKey(objective);
+        if (table != null) {
+            final long entry = table.probe(key);
+            final int move = entry == TranspositionTable.MISS ? TranspositionTable.NO_MOVE : TranspositionTable.move(entry);
+            for (int k = 1; k < size; k++) {
+                if (order[k] == move) {
+                    // search the stored move first, keep the order of the others
+                    System.arraycopy(order, 0, order, 1, k);
+                    order[0] = move;
+                    break;
+                }
+            }
+        }
+
+        int best = order[0];
+        double bestValue = Double.NaN;
+        lastDepth = 0;
+        final double[] values = new double[size];
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            cutOff = false;
+            int iterationBest = -1;
+            for (int k = 0; k < size; k++) {
+                states[1].copyFrom(states[0]);
+                final int next = moves.apply(states[1], player, phase, rootMoves[order[k]], random);
+                values[k] = afterMove(1, next, depth - 1);
+                if (timedOut) {
+                    break;
+                }
+                if (iterationBest < 0 || values[k] > values[iterationBest]) {
+                    iterationBest = k;
+                }
+            }
+            if (iterationBest >= 0) {
+                // the best move of the last iteration is searched first, so a partial iteration is still an improvement
+                best = order[iterationBest];
+                bestValue = values[iterationBest];
+            }
+            if (timedOut) {
+                break;
+            }
+            lastDepth = depth;
+            for (int k = 0; k < size; k++) {
+                keys[k] = values[k];
+            }
+            sort(order, keys, size);
+            if (!cutOff) {
+                // no line was cut off by the depth, searching deeper would not change anything
+                break;
+            }
+        }
+        if (table != null && !Double.isNaN(bestValue)) {
+            table.store(key, (float) bestValue, best, lastDepth);
+        }
+        return best;
+    }
+
+    /**
+     * Creates the states and buffers for every ply of the search and copies the root into the first state.
+     */
+    private void prepare(final CompactGameState root) {
+        // every decision may be followed by a chance node, and there are the root and a ply of leaves
+        final int plies = 2 * maxDepth + 2;
+        if (states == null || states.length < plies) {
+            states = new CompactGameState[plies];
+            moveBuffers = new long[plies][];
+            keyBuffers = new double[plies][];
+        }
+        states[0] = root;
+        for (int ply = 1; ply < plies; ply++) {
+            states[ply] = root.copy();
+            if (moveBuffers[ply] == null) {
+                moveBuffers[ply] = new long[moves.maxMoves()];
+                keyBuffers[ply] = new double[moves.maxMoves()];
+            }
+        }
+    }
+
+    private double afterMove(final int ply, final int phase, final int depth) {
+        return phase == CompactMoves.DONE ? chance(ply, depth) : decide(ply, phase, depth);
+    }
+
+    /**
+     * Returns the value of the best of the first moves of the player in the state of the given ply.
+     */
+    private double decide(final int ply, final int phase, final int depth) {
+        final CompactGameState state = states[ply];
+        if (checkDeadline() || state.getWinner() >= 0) {
+            return evaluate(state);
+        }
+        if (depth == 0) {
+            cutOff = true;
+            return evaluate(state);
+        }
+        final long[] buffer = moveBuffers[ply];
+        final double[] keys = keyBuffers[ply];
+        final int size = moves.generate(state, player, phase, buffer);
+        if (size == 0) {
+            return evaluate(state);
+        }
+        for (int i = 0; i < size; i++) {
+            keys[i] = orderKey(state, buffer[i]);
+        }
+        sort(buffer, keys, size);
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < Math.min(size, breadth) && !timedOut; i++) {
+            states[ply + 1].copyFrom(state);
+            final int next = moves.apply(states[ply + 1], player, phase, buffer[i], random);
+            best = Math.max(best, afterMove(ply + 1, next, depth - 1));
+        }
+        return best;
+    }
+
+    /**
+     * Returns the value of the state of the given ply averaged over the sums of the dice.
+     */
+    private double chance(final int ply, final int depth) {
+        final CompactGameState state = states[ply];
+        if (checkDeadline() || state.getWinner() >= 0) {
+            return evaluate(state);
+        }
+        if (depth == 0) {
+            cutOff = true;
+            return evaluate(state);
+        }
+        double sum = 0;
+        for (int roll = Config.NUMBER_OF_DICE; roll <= Config.NUMBER_OF_DICE * Config.DICE_SIDES && !timedOut; roll++) {
+            final CompactGameState next = states[ply + 1];
+            next.copyFrom(state);
+            if (roll == 7) {
+                dropHalf(next);
+            } else {
+                next.distribute(roll);
+            }
+            sum += ways(roll) * decide(ply + 1, CompactMoves.REGULAR, depth);
+        }
+        return sum / RESOLUTION;
+    }
+
+    private boolean checkDeadline() {
+        if ((++nodes & DEADLINE_CHECK_INTERVAL) == 0
+            && (timeBudgetNanos > 0 && clock.getAsLong() - deadline >= 0 || Thread.currentThread().isInterrupted())) {
+            // the deadline has passed or the decision was cancelled
+            timedOut = true;
+        }
+        return timedOut;
+    }
+
+    /**
+     * Drops half of the player's hand if it holds more than 7 cards, always from the most plentiful resource.
+     */
+    private void dropHalf(final CompactGameState state) {
+        final int total = state.getTotalResources(player);
+        if (total <= MAX_HAND) {
+            return;
+        }
+        for (int drop = total / 2; drop > 0; drop--) {
+            int most = 0;
+            for (int r = 1; r < RESOURCES; r++) {
+                if (state.getResource(player, r) > state.getResource(player, most)) {
+                    most = r;
+                }
+            }
+            state.addResource(player, most, -1);
+        }
+    }
+
+    /**
+     * Rates the given state for the searching player.
+     */
+    private double evaluate(final CompactGameState state) {
+        double others = Double.NEGATIVE_INFINITY;
+        for (int p = 0; p < state.getPlayerCount(); p++) {
+            if (p != player) {
+                others = Math.max(others, rate(state, p));
+            }
+        }
+        return rate(state, player) - OPPONENT_WEIGHT * Math.max(others, 0);
+    }
+
+    private double rate(final CompactGameState state, final int player) {
+        if (state.getWinner() >= 0) {
+            return state.getWinner() == player ? Config.REQUIRED_VICTORY_POINTS * 2 : 0;
+        }
+        int production = 0;
+        for (int i = 0; i < state.getIntersectionCount(); i++) {
+            if (state.getSettlementOwner(i) == player) {
+                production += state.getSettlementLevel(i) * producingPips(state, i);
+            }
+        }
+        int developmentCards = 0;
+        for (int card = 0; card < DevelopmentCardType.values().length; card++) {
+            if (card != DevelopmentCardType.VICTORY_POINTS.ordinal()) {
+                developmentCards += state.getDevelopmentCards(player, card);
+            }
+        }
+        return state.getVictoryPoints(player)
+            + PRODUCTION_WEIGHT * production / RESOLUTION
+            + CARD_WEIGHT * Math.min(state.getTotalResources(player), MAX_HAND)
+            + DEVELOPMENT_CARD_WEIGHT * developmentCards;
+    }
+
+    /**
+     * Returns the pips of the tiles next to the given intersection that are not blocked by the robber.
+     */
+    private int producingPips(final CompactGameState state, final int intersection) {
+        int pips = 0;
+        for (final int tile : adjacency.intersectionTiles(intersection)) {
+            if (tile != state.getRobberTile() && state.getTileResource(tile) >= 0) {
+                pips += ways(state.getTileRoll(tile));
+            }
+        }
+        return pips;
+    }
+
+    /**
+     * Returns the key of a move in the move order, higher keys are searched first.
+     */
+    private double orderKey(final CompactGameState state, final long move) {
+        final int argument = CompactMoves.argument(move);
+        return switch (CompactMoves.kind(move)) {
+            case CompactMoves.CITY -> 300 + producingPips(state, argument);
+            case CompactMoves.VILLAGE -> 200 + producingPips(state, argument);
+            case CompactMoves.ROAD -> 100 + roadPips(state, argument);
+            case CompactMoves.PLAY -> 80;
+            case CompactMoves.BUY -> 60;
+            case CompactMoves.ROBBER -> 50 + robberPips(state, argument);
+            case CompactMoves.STEAL, CompactMoves.SELECT, CompactMoves.ACCEPT -> 40;
+            case CompactMoves.TRADE -> 20;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Returns the most pips of a free intersection at either end of the given edge.
+     */
+    private int roadPips(final CompactGameState state, final int edge) {
+        int pips = 0;
+        for (final int intersection : adjacency.edgeIntersections(edge)) {
+            if (state.isFree(intersection)) {
+                pips = Math.max(pips, producingPips(state, intersection));
+            }
+        }
+        return pips;
+    }
+
+    /**
+     * Returns the pips the robber would block for the other players minus the ones it would block for the player.
+     */
+    private int robberPips(final CompactGameState state, final int tile) {
+        int pips = 0;
+        for (final int intersection : adjacency.tileIntersections(tile)) {
+            final int owner = state.getSettlementOwner(intersection);
+            if (owner >= 0) {
+                pips += (owner == player ? -2 : 1) * state.getSettlementLevel(intersection) * ways(state.getTileRoll(tile));
+            }
+        }
+        return pips;
+    }
+
+    /**
+     * Returns the amount of ways two dice can show the given sum.
+     */
+    private static int ways(final int roll) {
+        return roll < 2 || roll > 2 * Config.DICE_SIDES ? 0 : Config.DICE_SIDES - Math.abs(roll - Config.DICE_SIDES - 1);
+    }
+
+    /**
+     * Sorts the first elements of the given array by their keys, highest first, keeping the order of equal keys.
+     */
+    private static void sort(final long[] elements, final double[] keys, final int size) {
+        for (int i = 1; i < size; i++) {
+            final long element = elements[i];
+            final double key = keys[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] < key) {
+                elements[j + 1] = elements[j];
+                keys[j + 1] = keys[j--];
+            }
+            elements[j + 1] = element;
+            keys[j + 1] = key;
+        }
+    }
+
+    private static void sort(final int[] elements, final double[] keys, final int size) {
+        for (int i = 1; i < size; i++) {
+            final int element = elements[i];
+            final double key = keys[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] < key) {
+                elements[j + 1] = elements[j];
+                keys[j + 1] = keys[j--];
+            }
+            elements[j + 1] = element;
+            keys[j + 1] = key;
+        }
+    }
+
+    /**
+     * Returns the key of the current decision in the transposition table.
+     * The legal actions depend on the position, the deciding player and the objective.
+     */
+    private long tableKey(final PlayerObjective objective) {
+        long z = (long) playerController.getPlayer().getID() << 8 | objective.ordinal();
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return gameState.getStateHash() ^ z ^ (z >>> 33);
+    }
+
+    /**
+     * Builder for the settings of {@link ExpectimaxAiController}s.
+     */
+    public static final class Builder {
+
+        private long timeBudgetMillis = 100;
+        private LongSupplier clock = System::nanoTime;
+        private int maxDepth = 6;
+        private int breadth = 8;
+        private TranspositionTable table;
+
+        /**
+         * Sets the wall-clock time a decision may take, 100 milliseconds by default.
+         *
+         * @param timeBudgetMillis the time in milliseconds or 0, if only the depth is limited
+         * @return this builder
+         */
+        public Builder timeBudget(final long timeBudgetMillis) {
+            this.timeBudgetMillis = timeBudgetMillis;
+            return this;
+        }
+
+        /**
+         * Sets the clock the time budget is measured by, {@link System#nanoTime()} by default.
+         *
+         * @param clock the clock returning the current time in nanoseconds
+         * @return this builder
+         */
+        Builder clock(final LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Sets the amount of decisions the search looks ahead at most, 6 by default.
+         *
+         * @param maxDepth the maximum depth
+         * @return this builder
+         */
+        public Builder maxDepth(final int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Sets the amount of moves searched below the root, the first ones of the move order, 8 by default.
+         *
+         * @param breadth the amount of moves
+         * @return this builder
+         */
+        public Builder breadth(final int breadth) {
+            this.breadth = breadth;
+            return this;
+        }
+
+        /**
+         * Sets the table the best root moves are stored in, none by default.
+         * The table may be shared with other AIs and games.
+         *
+         * @param table the table or {@code null}
+         * @return this builder
+         */
+        public Builder table(final TranspositionTable table) {
+            this.table = table;
+            return this;
+        }
+
+        /**
+         * Returns a factory creating AIs with the current settings of this builder.
+         *
+         * @return the factory
+         * @throws IllegalStateException if the settings are invalid
+         */
+        public AiControllerFactory factory() {
+            if (timeBudgetMillis < 0) {
+                throw new IllegalStateException("The time budget must not be negative");
+            }
+            if (maxDepth < 1 || breadth < 1) {
+                throw new IllegalStateException("The search must look at least one move ahead");
+            }
+            final Builder settings = new Builder()
+                .timeBudget(timeBudgetMillis).clock(clock).maxDepth(maxDepth).breadth(breadth).table(table);
+            return (playerController, hexGrid, gameState, activePlayerController) ->
+                new ExpectimaxAiController(playerController, hexGrid, gameState, activePlayerController, settings);
+        }
+    }
+}
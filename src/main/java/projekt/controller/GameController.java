@@ -8,6 +8,7 @@ import org.tudalgo.algoutils.student.annotation.DoNotTouch;
 import org.tudalgo.algoutils.student.annotation.StudentImplementationRequired;
 import projekt.Config;
 import projekt.controller.actions.AcceptTradeAction;
+import projekt.controller.actions.IllegalActionException;
 import projekt.controller.actions.PlayerAction;
 import projekt.model.*;
 import projekt.model.buildings.Settlement;
@@ -15,32 +16,50 @@ import projekt.model.tiles.Tile;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * The GameController class represents the controller for the game logic.
  * It manages the game state, player controllers, dice rolling and the overall
  * progression of the game.
  * It tells the players controllers what to do and when to do it.
+ * <p>
+ * The state of the game loop is kept in plain fields. The JavaFX properties exposing it are
+ * created up front unless the controller is headless, in which case they are only created
+ * when requested, so that games without a UI neither need nor notify any properties.
+ * <p>
+ * AIs decide on the game loop unless an {@linkplain #setAiExecutor executor} is set, and progress is only
+ * reported to {@linkplain #addObserver observers} that have been added explicitly.
  */
 public class GameController {
 
     private final GameState state;
     private final Map<Player, PlayerController> playerControllers;
     private final Supplier<Integer> dice;
-    private final IntegerProperty currentDiceRoll = new SimpleIntegerProperty(0);
+    private final boolean headless;
     private final List<AiController> aiControllers = new ArrayList<>();
-    private final Supplier<DevelopmentCardType> availableDevelopmentCards = Config.developmentCardGenerator();
-    private final IntegerProperty roundCounter = new SimpleIntegerProperty(0);
-
-    private final Property<PlayerController> activePlayerControllerProperty = new SimpleObjectProperty<>();
+    private final List<GameObserver> observers = new ArrayList<>();
+    private AiControllerFactory aiControllerFactory = BasicAiController::new;
+    private ExecutorService aiExecutor;
+    private long aiDecisionTimeout;
+    private final Supplier<DevelopmentCardType> availableDevelopmentCards;
+    private int currentDiceRoll;
+    private int roundCounter;
+    private int maxRounds;
+    private PlayerController activePlayerController;
+
+    // mirrors of the fields above, see the class description
+    private IntegerProperty currentDiceRollProperty;
+    private IntegerProperty roundCounterProperty;
+    private Property<PlayerController> activePlayerControllerProperty;
 
     /**
      * Initializes the {@link GameController} with the given {@link GameState},
@@ -54,49 +73,102 @@ public class GameController {
         final GameState state,
         final Map<Player, PlayerController> playerControllers,
         final Supplier<Integer> dice
+    ) {
+        this(state, playerControllers, dice, false);
+    }
+
+    private GameController(
+        final GameState state,
+        final Map<Player, PlayerController> playerControllers,
+        final Supplier<Integer> dice,
+        final boolean headless
     ) {
         this.state = state;
         this.playerControllers = playerControllers;
         this.dice = dice;
+        this.headless = headless;
+        this.availableDevelopmentCards = Config.developmentCardGenerator(state.getRandom().deck());
+        if (!headless) {
+            getCurrentDiceRollProperty();
+            getRoundCounterProperty();
+            getActivePlayerControllerProperty();
+        }
     }
 
     /**
      * Initializes the {@link GameController} with the given {@link GameState} and
      * dice.
-     * The {@link PlayerController}s are initialized with an empty {@link HashMap}.
+     * The {@link PlayerController}s are initialized with an empty {@link LinkedHashMap},
+     * so players take their turns in the order of {@link GameState#getPlayers()}.
      *
      * @param state The {@link GameState}.
      * @param dice  The dice.
      */
     public GameController(final GameState state, final Supplier<Integer> dice) {
-        this.state = state;
-        this.dice = dice;
-        this.playerControllers = new HashMap<>();
+        this(state, dice, false);
+    }
+
+    /**
+     * Initializes the {@link GameController} with the given {@link GameState} and
+     * dice.
+     * The {@link PlayerController}s are initialized with an empty {@link LinkedHashMap}.
+     * <p>
+     * A headless controller does not log to the console and only creates the properties
+     * of itself and its {@link PlayerController}s when they are requested.
+     * Progress can be followed by {@linkplain #addObserver(GameObserver) adding observers} instead.
+     *
+     * @param state    The {@link GameState}.
+     * @param dice     The dice.
+     * @param headless Whether the game is run without a UI.
+     */
+    public GameController(final GameState state, final Supplier<Integer> dice, final boolean headless) {
+        this(state, new LinkedHashMap<>(), dice, headless);
     }
 
     /**
      * Initializes the {@link GameController} with the given {@link GameState}.
-     * The dice is initialized with the Random from {@link Config#RANDOM} and
+     * The dice is initialized with the game's {@linkplain GameRandom#dice() dice stream} and
      * respects the configured dice sides and number of dice.
      *
      * @param state The {@link GameState}.
      * @see #GameController(GameState, Supplier)
      */
     public GameController(final GameState state) {
-        this(state, () -> IntStream.rangeClosed(1, Config.NUMBER_OF_DICE)
-            .map(i -> Config.RANDOM.nextInt(1, Config.DICE_SIDES + 1))
-            .sum());
+        this(state, createDice(state.getRandom()));
     }
 
     /**
      * Initializes the {@link GameController} with a new {@link GameState} that has
      * a new {@link HexGridImpl} that uses the radius from
      * {@link Config#GRID_RADIUS} and an empty list of {@link Player}s.
+     * The game is seeded from {@link Config#RANDOM}.
      *
      * @see #GameController(GameState)
      */
     public GameController() {
-        this(new GameState(new HexGridImpl(Config.GRID_RADIUS), new ArrayList<>()));
+        this(createGameState(new GameRandom(Config.RANDOM.nextLong())));
+    }
+
+    private static GameState createGameState(final GameRandom random) {
+        return new GameState(new HexGridImpl(Config.GRID_RADIUS, random.board()), new ArrayList<>(), random);
+    }
+
+    /**
+     * Creates dice that respect the configured dice sides and number of dice and are rolled with the given game's
+     * {@linkplain GameRandom#dice() dice stream}.
+     *
+     * @param random The sources of randomness of the game.
+     * @return The dice.
+     */
+    public static Supplier<Integer> createDice(final GameRandom random) {
+        final Random stream = random.dice();
+        return () -> {
+            int sum = 0;
+            for (int i = 0; i < Config.NUMBER_OF_DICE; i++) {
+                sum += stream.nextInt(1, Config.DICE_SIDES + 1);
+            }
+            return sum;
+        };
     }
 
     /**
@@ -106,9 +178,11 @@ public class GameController {
         for (final Player player : state.getPlayers()) {
             playerControllers.put(player, new PlayerController(this, player));
             if (player.isAi()) {
-                aiControllers.add(new BasicAiController(playerControllers.get(player), state.getGrid(), state,
-                                                        activePlayerControllerProperty
-                ));
+                final AiController aiController = aiControllerFactory.create(
+                    playerControllers.get(player), state.getGrid(), state, headless ? null : getActivePlayerControllerProperty()
+                );
+                aiController.setExecutor(aiExecutor, aiDecisionTimeout);
+                aiControllers.add(aiController);
             }
         }
     }
@@ -131,12 +205,89 @@ public class GameController {
         return playerControllers;
     }
 
+    /**
+     * Returns whether this controller runs without a UI.
+     *
+     * @return true if this controller is headless, false otherwise
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Adds the given observer to this game.
+     *
+     * @param observer the observer to add
+     */
+    public void addObserver(final GameObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Removes the given observer from this game.
+     *
+     * @param observer the observer to remove
+     */
+    public void removeObserver(final GameObserver observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Sets the factory creating the {@link AiController}s of all players controlled by an AI.
+     * Must be called before the player controllers are initialized, the default creates {@link BasicAiController}s.
+     *
+     * @param aiControllerFactory the factory
+     */
+    public void setAiControllerFactory(final AiControllerFactory aiControllerFactory) {
+        this.aiControllerFactory = aiControllerFactory;
+    }
+
+    /**
+     * Sets the executor the {@link AiController}s of all players controlled by an AI decide on.
+     * Must be called before the player controllers are initialized. By default the AIs decide on the game loop.
+     *
+     * @param aiExecutor      the executor or {@code null} to decide on the game loop
+     * @param decisionTimeout the time in milliseconds after which a decision is cancelled, or 0 to never cancel
+     *                        decisions by time
+     * @see AiController#setExecutor(ExecutorService, long)
+     */
+    public void setAiExecutor(final ExecutorService aiExecutor, final long decisionTimeout) {
+        if (decisionTimeout < 0) {
+            throw new IllegalArgumentException("The decision timeout must not be negative");
+        }
+        this.aiExecutor = aiExecutor;
+        this.aiDecisionTimeout = decisionTimeout;
+    }
+
+    /**
+     * Returns the maximum amount of rounds played before the game ends without a winner.
+     *
+     * @return the maximum amount of rounds or 0, if the amount of rounds is not limited
+     */
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    /**
+     * Sets the maximum amount of rounds played before the game ends without a winner.
+     * Games are not limited by default.
+     *
+     * @param maxRounds the maximum amount of rounds or 0, if the amount of rounds should not be limited
+     */
+    public void setMaxRounds(final int maxRounds) {
+        this.maxRounds = maxRounds;
+    }
+
     /**
      * Returns the active {@link PlayerController} {@link Property}.
      *
      * @return The active {@link PlayerController} {@link Property}.
      */
     public Property<PlayerController> getActivePlayerControllerProperty() {
+        if (activePlayerControllerProperty == null) {
+            activePlayerControllerProperty = new SimpleObjectProperty<>(activePlayerController);
+            activePlayerControllerProperty.addListener((observable, oldValue, newValue) -> setActivePlayerController(newValue));
+        }
         return activePlayerControllerProperty;
     }
 
@@ -146,7 +297,7 @@ public class GameController {
      * @return The active {@link PlayerController}.
      */
     public PlayerController getActivePlayerController() {
-        return activePlayerControllerProperty.getValue();
+        return activePlayerController;
     }
 
     /**
@@ -155,6 +306,19 @@ public class GameController {
      * @return The {@link IntegerProperty} of the current dice roll.
      */
     public IntegerProperty getCurrentDiceRollProperty() {
+        if (currentDiceRollProperty == null) {
+            currentDiceRollProperty = new SimpleIntegerProperty(currentDiceRoll);
+            currentDiceRollProperty.addListener((observable, oldValue, newValue) -> currentDiceRoll = newValue.intValue());
+        }
+        return currentDiceRollProperty;
+    }
+
+    /**
+     * Returns the current dice roll.
+     *
+     * @return The current dice roll.
+     */
+    public int getCurrentDiceRoll() {
         return currentDiceRoll;
     }
 
@@ -164,6 +328,20 @@ public class GameController {
      * @return The {@link IntegerProperty} of the round counter.
      */
     public IntegerProperty getRoundCounterProperty() {
+        if (roundCounterProperty == null) {
+            roundCounterProperty = new SimpleIntegerProperty(roundCounter);
+            roundCounterProperty.addListener((observable, oldValue, newValue) -> roundCounter = newValue.intValue());
+        }
+        return roundCounterProperty;
+    }
+
+    /**
+     * Returns the round counter.
+     * The round counter is 0 during the first round, in which the players place their initial villages and roads.
+     *
+     * @return The round counter.
+     */
+    public int getRoundCounter() {
         return roundCounter;
     }
 
@@ -172,7 +350,36 @@ public class GameController {
      * {@link PlayerController} of the given {@link Player}.
      */
     private void setActivePlayerControllerProperty(final Player activePlayer) {
-        this.activePlayerControllerProperty.setValue(playerControllers.get(activePlayer));
+        setActivePlayerController(playerControllers.get(activePlayer));
+    }
+
+    /**
+     * Sets the active {@link PlayerController} and notifies its property and all observers.
+     */
+    private void setActivePlayerController(final PlayerController playerController) {
+        if (activePlayerController == playerController) {
+            return;
+        }
+        activePlayerController = playerController;
+        if (activePlayerControllerProperty != null) {
+            activePlayerControllerProperty.setValue(playerController);
+        }
+        for (final GameObserver observer : observers) {
+            observer.activePlayerChanged(playerController);
+        }
+    }
+
+    /**
+     * Sets the round counter and notifies its property and all observers.
+     */
+    private void setRoundCounter(final int round) {
+        roundCounter = round;
+        if (roundCounterProperty != null) {
+            roundCounterProperty.set(round);
+        }
+        for (final GameObserver observer : observers) {
+            observer.roundStarted(round);
+        }
     }
 
     /**
@@ -181,8 +388,50 @@ public class GameController {
      * @return The result of the dice roll.
      */
     public int castDice() {
-        currentDiceRoll.set(dice.get());
-        return currentDiceRoll.get();
+        currentDiceRoll = dice.get();
+        if (currentDiceRollProperty != null) {
+            currentDiceRollProperty.set(currentDiceRoll);
+        }
+        for (final GameObserver observer : observers) {
+            observer.diceRolled(currentDiceRoll);
+        }
+        return currentDiceRoll;
+    }
+
+    /**
+     * Notifies all observers that the objective of the given player has changed.
+     */
+    void objectiveChanged(final PlayerController playerController, final PlayerObjective objective) {
+        for (final GameObserver observer : observers) {
+            observer.objectiveChanged(playerController, objective);
+        }
+    }
+
+    /**
+     * Notifies all observers that the given player triggered the given action.
+     */
+    void actionTriggered(final PlayerController playerController, final PlayerAction action) {
+        for (final GameObserver observer : observers) {
+            observer.actionTriggered(playerController, action);
+        }
+    }
+
+    /**
+     * Notifies all observers that the given action of the given player has been executed.
+     */
+    void actionExecuted(final PlayerController playerController, final PlayerAction action) {
+        for (final GameObserver observer : observers) {
+            observer.actionExecuted(playerController, action);
+        }
+    }
+
+    /**
+     * Notifies all observers that the given action of the given player has been rejected.
+     */
+    void actionRejected(final PlayerController playerController, final PlayerAction action, final IllegalActionException exception) {
+        for (final GameObserver observer : observers) {
+            observer.actionRejected(playerController, action, exception);
+        }
     }
 
     /**
@@ -200,18 +449,19 @@ public class GameController {
      * @return The {@link Player}s that have reached the victory condition.
      */
     public Set<Player> getWinners() {
+        if (getState().getGrid() instanceof final HexGridImpl hexGridImpl) {
+            return hexGridImpl.getScoreLedger().getWinners();
+        }
         final Player playerWithMostKnightsPlayed = getState().getPlayers()
             .stream()
             .filter(player -> player.getKnightsPlayed() >= 3)
             .max(Comparator.comparingInt(Player::getKnightsPlayed))
             .orElse(null);
-        final Player playerWithLongestRoad = null; // TODO: uncomment code if getLongestRoad(Player) is implemented in
-        // HexGrid
-        // getState().getPlayers()
-        // .stream()
-        // .max(Comparator.comparingInt(player ->
-        // player.getHexGrid().getLongestRoad(player).size()))
-        // .orElse(null);
+        final Player playerWithLongestRoad = getState().getPlayers()
+            .stream()
+            .filter(player -> player.getHexGrid().getLongestRoad(player).size() >= ScoreLedger.MIN_LONGEST_ROAD)
+            .max(Comparator.comparingInt(player -> player.getHexGrid().getLongestRoad(player).size()))
+            .orElse(null);
 
         return getState().getPlayers()
             .stream()
@@ -225,6 +475,8 @@ public class GameController {
 
     /**
      * Starts the game.
+     * The game ends as soon as a player has won or, if {@linkplain #setMaxRounds(int) limited},
+     * the maximum amount of rounds has been played.
      *
      * @throws IllegalStateException If there are less {@link Player}s than
      *                               configured.
@@ -240,13 +492,17 @@ public class GameController {
 
         firstRound();
 
-        roundCounter.set(1);
-        while (getWinners().isEmpty()) {
+        setRoundCounter(1);
+        while (getWinners().isEmpty() && (maxRounds <= 0 || roundCounter <= maxRounds)) {
             for (final PlayerController playerController : playerControllers.values()) {
+                if (!getWinners().isEmpty()) {
+                    // end the game as soon as a player has won instead of finishing the round
+                    break;
+                }
                 withActivePlayer(playerController, () -> {
                     // Dice roll
                     playerController.waitForNextAction(PlayerObjective.DICE_ROLL);
-                    final var diceRoll = currentDiceRoll.get();
+                    final var diceRoll = currentDiceRoll;
 
                     if (diceRoll == 7) {
                         diceRollSeven();
@@ -257,11 +513,17 @@ public class GameController {
                     regularTurn();
                 });
             }
-            roundCounter.set(roundCounter.get() + 1);
+            setRoundCounter(roundCounter + 1);
         }
 
         // Game End
-        getState().setWinner(getWinners().iterator().next());
+        final Player winner = getWinners().isEmpty() ? null : getWinners().iterator().next();
+        if (winner != null) {
+            getState().setWinner(winner);
+        }
+        for (final GameObserver observer : observers) {
+            observer.gameEnded(winner);
+        }
     }
 
     /**
@@ -275,10 +537,10 @@ public class GameController {
      */
     @DoNotTouch
     public void withActivePlayer(final PlayerController pc, final Runnable r) {
-        activePlayerControllerProperty.setValue(pc);
+        setActivePlayerController(pc);
         r.run();
         pc.setPlayerObjective(PlayerObjective.IDLE);
-        activePlayerControllerProperty.setValue(null);
+        setActivePlayerController(null);
     }
 
     /**
@@ -301,18 +563,23 @@ public class GameController {
     private void firstRound() {
         for (int i = 0; i < 2; i++) {
             for (Player player : state.getPlayers()) {
-                activePlayerControllerProperty.setValue(playerControllers.get(player));
+                setActivePlayerControllerProperty(player);
                 playerControllers.get(player).waitForNextAction(PlayerObjective.PLACE_VILLAGE);
                 playerControllers.get(player).waitForNextAction(PlayerObjective.PLACE_ROAD);
                 playerControllers.get(player).setPlayerObjective(PlayerObjective.IDLE);
             }
         }
-        activePlayerControllerProperty.setValue(null);
+        setActivePlayerController(null);
     }
 
     /**
      * Offer the trade to all players that can accept the trade. As soon as one
      * player accepts the trade, the offering player can continue with his round.
+     * <p>
+     * The AIs deciding on an {@linkplain #setAiExecutor executor} are asked all at once, so they think about the
+     * offer at the same time, and their answers are collected before any answer is executed. The answers are then
+     * executed in the order of the players like the ones of the other players, and the offer is withdrawn from the
+     * AIs after the first player that accepts.
      *
      * @param offeringPlayer The player offering the trade.
      * @param offer          The resources the offering player offers.
@@ -323,47 +590,96 @@ public class GameController {
         final Player offeringPlayer, final Map<ResourceType, Integer> offer,
         final Map<ResourceType, Integer> request
     ) {
-        // Iterate over all players
+        // Collect all players that can accept the trade
+        final List<PlayerController> offeredPlayerControllers = new ArrayList<>();
         for (PlayerController playerController : playerControllers.values()) {
-            AtomicBoolean tradeAccepted = new AtomicBoolean(false);
-            Player player = playerController.getPlayer();
+            if (playerController.canAcceptTradeOffer(offeringPlayer, request)) {
+                offeredPlayerControllers.add(playerController);
+            }
+        }
 
-            if (tradeAccepted.get()) {
-                // Set the active player back to the offering player
-//                activePlayerControllerProperty.setValue(playerControllers.get(offeringPlayer));
-                setActivePlayerControllerProperty(offeringPlayer);
+        // Ask the AIs deciding on the executor first, their decisions run concurrently
+        final PlayerAction[] answers = new PlayerAction[offeredPlayerControllers.size()];
+        if (state.getGrid() instanceof final HexGridImpl hexGridImpl
+            && offeredPlayerControllers.stream().anyMatch(this::decidesOnExecutor)) {
+            hexGridImpl.prepareConcurrentReads(state.getPlayers());
+        }
+        for (PlayerController playerController : offeredPlayerControllers) {
+            if (decidesOnExecutor(playerController)) {
+                playerController.setPlayerTradeOffer(offeringPlayer, offer, request);
+                playerController.setPlayerObjective(PlayerObjective.ACCEPT_TRADE);
+            }
+        }
+        for (int i = 0; i < answers.length; i++) {
+            if (decidesOnExecutor(offeredPlayerControllers.get(i))) {
+                answers[i] = takeAnswer(offeredPlayerControllers.get(i));
+            }
+        }
 
-                return;
+        AtomicBoolean tradeAccepted = new AtomicBoolean(false);
+        for (int i = 0; i < answers.length; i++) {
+            PlayerController playerController = offeredPlayerControllers.get(i);
+            PlayerAction answer = answers[i];
+
+            if (tradeAccepted.get()) {
+                if (answer != null) {
+                    // Withdraw the offer from the AIs that were asked at once
+                    playerController.resetPlayerTradeOffer();
+                    playerController.setPlayerObjective(PlayerObjective.IDLE);
+                }
+                continue;
             }
 
-            // Check if the player can accept the trade
-            if (playerController.canAcceptTradeOffer(offeringPlayer, request)) {
+            if (answer == null) {
                 // Set the trade offer for the player
                 playerController.setPlayerTradeOffer(offeringPlayer, offer, request);
+            } else {
+                // Put the collected answer back, so it is executed like any other action
+                playerController.triggerAction(answer);
+            }
 
-                // Set the active player to the player who is deciding on the trade
-                withActivePlayer(playerController, () -> {
-                    // Wait for the player's action
-                    PlayerAction action = playerController.waitForNextAction(PlayerObjective.ACCEPT_TRADE);
-
-                    // Get the accepted status from the record
-                    boolean accepted = ((AcceptTradeAction) action).accepted();
+            // Set the active player to the player who is deciding on the trade
+            withActivePlayer(playerController, () -> {
+                // Wait for the player's action
+                PlayerAction action = answer == null
+                    ? playerController.waitForNextAction(PlayerObjective.ACCEPT_TRADE)
+                    : playerController.waitForNextAction();
 
-                    // If the trade is accepted, end the loop
-                    if (accepted) {
-                        // reset the trade offer for the player
-                        playerController.resetPlayerTradeOffer();
+                // Stop offering the trade to other players if it was accepted
+                if (((AcceptTradeAction) action).accepted()) {
+                    tradeAccepted.set(true);
+                }
 
-                        // Stop offering the trade to other players
-                        tradeAccepted.set(true);
-                        return;
-                    }
+                // Reset the trade offer for the player
+                playerController.resetPlayerTradeOffer();
+            });
+        }
+    }
 
-                    // Reset the trade offer for the player
-                    playerController.resetPlayerTradeOffer();
-                });
+    /**
+     * Returns whether the given player is controlled by an AI that decides on the executor.
+     */
+    private boolean decidesOnExecutor(final PlayerController playerController) {
+        if (aiExecutor == null) {
+            return false;
+        }
+        for (final AiController aiController : aiControllers) {
+            if (aiController.playerController == playerController) {
+                return true;
             }
         }
+        return false;
+    }
+
+    /**
+     * Waits for the answer of the given player to a trade offer without executing it.
+     */
+    private static PlayerAction takeAnswer(final PlayerController playerController) {
+        try {
+            return playerController.blockingGetNextAction();
+        } catch (final InterruptedException e) {
+            throw new RuntimeException("Main thread was interrupted!", e);
+        }
     }
 
     /**
@@ -381,7 +697,7 @@ public class GameController {
             int totalResources = player.getResources().values().stream().mapToInt(Integer::intValue).sum();
 
             if (totalResources > 7) {
-                activePlayerControllerProperty.setValue(playerControllers.get(player));
+                setActivePlayerControllerProperty(player);
                 playerControllers.get(player).setCardsToSelect(totalResources / 2);
                 playerControllers.get(player).waitForNextAction(PlayerObjective.DROP_CARDS);
                 playerControllers.get(player).setPlayerObjective(PlayerObjective.IDLE);
@@ -401,8 +717,12 @@ public class GameController {
     @StudentImplementationRequired("H2.2")
     public void distributeResources(final int diceRoll) {
         if (diceRoll != 7) {
-            for (final Tile tile : state.getGrid().getTiles().values()) {
-                if (tile.getRollNumber() == diceRoll) {
+            if (state.getGrid() instanceof final HexGridImpl hexGridImpl) {
+                hexGridImpl.getProductionTable().distribute(diceRoll);
+                return;
+            }
+            for (final Tile tile : state.getGrid().getTiles(diceRoll)) {
+                if (!tile.hasRobber()) {
                     for (final Intersection intersection : tile.getIntersections()) {
                         if (intersection.hasSettlement()) {
                             Settlement settlement = intersection.getSettlement();
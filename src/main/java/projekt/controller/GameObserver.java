@@ -0,0 +1,88 @@
+package projekt.controller;
+
+import projekt.controller.actions.IllegalActionException;
+import projekt.controller.actions.PlayerAction;
+import projekt.model.Player;
+
+/**
+ * Receives notifications about the progress of a game run by a {@link GameController}.
+ * All methods are called on the thread running the game and do nothing by default.
+ * <p>
+ * Observers are optional: a {@link GameController} has none attached until they are
+ * {@linkplain GameController#addObserver(GameObserver) added}, and a headless one keeps
+ * its state in plain fields only, see {@link GameController#GameController(projekt.model.GameState, java.util.function.Supplier, boolean)}.
+ */
+public interface GameObserver {
+
+    /**
+     * Called when a new round starts.
+     *
+     * @param round the number of the round, the first round after the placement round is 1
+     */
+    default void roundStarted(final int round) {
+    }
+
+    /**
+     * Called when the active player changes.
+     *
+     * @param playerController the {@link PlayerController} of the active player, may be {@code null}
+     */
+    default void activePlayerChanged(final PlayerController playerController) {
+    }
+
+    /**
+     * Called when the dice have been cast.
+     *
+     * @param diceRoll the result of the dice roll
+     */
+    default void diceRolled(final int diceRoll) {
+    }
+
+    /**
+     * Called when the objective of a player changes.
+     *
+     * @param playerController the {@link PlayerController} of the player
+     * @param objective        the new objective
+     */
+    default void objectiveChanged(final PlayerController playerController, final PlayerObjective objective) {
+    }
+
+    /**
+     * Called when a player triggered an action, before it is checked and executed.
+     *
+     * @param playerController the {@link PlayerController} of the player
+     * @param action           the triggered action
+     */
+    default void actionTriggered(final PlayerController playerController, final PlayerAction action) {
+    }
+
+    /**
+     * Called after an action has been executed.
+     *
+     * @param playerController the {@link PlayerController} of the player
+     * @param action           the executed action
+     */
+    default void actionExecuted(final PlayerController playerController, final PlayerAction action) {
+    }
+
+    /**
+     * Called when an action has been rejected and is ignored.
+     *
+     * @param playerController the {@link PlayerController} of the player
+     * @param action           the rejected action
+     * @param exception        the reason the action has been rejected
+     */
+    default void actionRejected(
+        final PlayerController playerController, final PlayerAction action,
+        final IllegalActionException exception
+    ) {
+    }
+
+    /**
+     * Called when the game has ended.
+     *
+     * @param winner the winner or {@code null}, if the round limit has been reached without a winner
+     */
+    default void gameEnded(final Player winner) {
+    }
+}
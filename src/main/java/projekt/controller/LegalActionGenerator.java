@@ -0,0 +1,491 @@
+package projekt.controller;
+
+import projekt.controller.actions.AcceptTradeAction;
+import projekt.controller.actions.BuildRoadAction;
+import projekt.controller.actions.BuildVillageAction;
+import projekt.controller.actions.BuyDevelopmentCardAction;
+import projekt.controller.actions.EndTurnAction;
+import projekt.controller.actions.PlayDevelopmentCardAction;
+import projekt.controller.actions.PlayerAction;
+import projekt.controller.actions.RollDiceAction;
+import projekt.controller.actions.SelectCardsAction;
+import projekt.controller.actions.SelectRobberTileAction;
+import projekt.controller.actions.StealCardAction;
+import projekt.controller.actions.TradeAction;
+import projekt.controller.actions.UpgradeVillageAction;
+import projekt.model.BuildSites;
+import projekt.model.DevelopmentCardType;
+import projekt.model.HexGrid;
+import projekt.model.HexGridImpl;
+import projekt.model.Intersection;
+import projekt.model.Player;
+import projekt.model.PlayerState;
+import projekt.model.ResourceType;
+import projekt.model.TilePosition;
+import projekt.model.TradePayload;
+import projekt.model.buildings.Edge;
+import projekt.model.buildings.Settlement;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enumerates every action the player of a {@link PlayerController} may trigger for its current
+ * {@link PlayerObjective} and {@link PlayerState} without it being rejected.
+ * <p>
+ * Actions are immutable, so every action is created once and handed out again by every later generation.
+ * On a {@link HexGridImpl} the build sites are read by index from its {@link BuildSites} and the actions are
+ * generated into a reusable {@link ActionBuffer}, so a generation does not create any actions or collections.
+ * On other grids the sites are taken from the {@link PlayerState} and their actions are created on every generation.
+ * <p>
+ * The generated actions cover:
+ * <ul>
+ *     <li>villages, cities and roads on every site the player can afford and is allowed to build on,</li>
+ *     <li>bank trades of each affordable resource type at the player's {@linkplain Player#getTradeRatio trade ratio}
+ *     for every other resource type,</li>
+ *     <li>buying and playing development cards, except for victory point cards, which are not played, and road
+ *     building cards if the player cannot place both roads,</li>
+ *     <li>every tile the robber can be moved to, i.e. every tile except the current one,</li>
+ *     <li>every resource of every player next to the robber that can be stolen,</li>
+ *     <li>every selection of the required amount of cards, limited to the player's hand when dropping cards.</li>
+ * </ul>
+ * Trades with other players are not generated, as there is no sensible bound on what could be offered.
+ * A generator must only be used by one thread at a time.
+ */
+public final class LegalActionGenerator {
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final DevelopmentCardType[] DEVELOPMENT_CARD_TYPES = DevelopmentCardType.values();
+    private static final PlayerAction ROLL_DICE = new RollDiceAction();
+    private static final PlayerAction END_TURN = new EndTurnAction();
+    private static final PlayerAction BUY_DEVELOPMENT_CARD = new BuyDevelopmentCardAction();
+    private static final PlayerAction ACCEPT_TRADE = new AcceptTradeAction(true);
+    private static final PlayerAction DECLINE_TRADE = new AcceptTradeAction(false);
+    private static final PlayerAction[] PLAY_DEVELOPMENT_CARD = Arrays.stream(DEVELOPMENT_CARD_TYPES)
+        .map(PlayDevelopmentCardAction::new).toArray(PlayerAction[]::new);
+    // bits per resource type in the keys of the selection cache
+    private static final int SELECTION_BITS = 12;
+    private static final int MAX_CACHED_SELECTIONS = 1 << 12;
+
+    private final PlayerController playerController;
+    private final Player player;
+    private final HexGrid grid;
+    private final HexGridImpl hexGridImpl;
+    private final int[] hand = new int[RESOURCE_TYPES.length];
+    private final int[] selection = new int[RESOURCE_TYPES.length];
+
+    // actions by index of their intersection, edge or tile, created on first use
+    private final PlayerAction[] villageActions;
+    private final PlayerAction[] upgradeActions;
+    private final PlayerAction[] roadActions;
+    private final PlayerAction[] robberActions;
+    // bank trades by offered type, requested type and ratio
+    private final PlayerAction[] bankTradeActions;
+    private Player[] stealTargets = new Player[0];
+    private PlayerAction[][] stealActions = new PlayerAction[0][];
+    // open addressing table of card selections, keyed by their packed counts
+    private long[] selectionKeys = new long[64];
+    private PlayerAction[] selectionActions = new PlayerAction[64];
+    private int selectionCount;
+
+    /**
+     * Creates a new generator for the given player controller.
+     *
+     * @param playerController the player controller
+     * @param grid             the grid of the game
+     */
+    LegalActionGenerator(final PlayerController playerController, final HexGrid grid) {
+        this.playerController = playerController;
+        this.player = playerController.getPlayer();
+        this.grid = grid;
+        this.hexGridImpl = grid instanceof final HexGridImpl impl ? impl : null;
+        this.villageActions = new PlayerAction[hexGridImpl != null ? hexGridImpl.getIntersectionCount() : 0];
+        this.upgradeActions = new PlayerAction[villageActions.length];
+        this.roadActions = new PlayerAction[hexGridImpl != null ? hexGridImpl.getEdgeCount() : 0];
+        this.robberActions = new PlayerAction[hexGridImpl != null ? hexGridImpl.getTileCount() : 0];
+        this.bankTradeActions = new PlayerAction[
+            RESOURCE_TYPES.length * RESOURCE_TYPES.length * (HexGridImpl.BANK_TRADE_RATIO + 1)];
+    }
+
+    /**
+     * Clears the given buffer and fills it with all legal actions for the current objective and state of the
+     * player controller.
+     *
+     * @param buffer the buffer to generate into
+     * @return the amount of generated actions
+     */
+    public int generate(final ActionBuffer buffer) {
+        buffer.clear();
+        final PlayerState state = playerController.getPlayerState();
+        switch (playerController.getPlayerObjective()) {
+            case DICE_ROLL -> buffer.add(ROLL_DICE);
+            case PLACE_VILLAGE -> generateVillages(state, buffer);
+            case PLACE_ROAD -> generateRoads(state, buffer);
+            case REGULAR_TURN -> {
+                generateVillages(state, buffer);
+                generateUpgrades(state, buffer);
+                generateRoads(state, buffer);
+                generateBankTrades(buffer);
+                generateDevelopmentCards(buffer);
+                buffer.add(END_TURN);
+            }
+            case SELECT_ROBBER_TILE -> generateRobberTiles(buffer);
+            case SELECT_CARD_TO_STEAL -> {
+                generateSteals(state, buffer);
+                buffer.add(END_TURN);
+            }
+            case DROP_CARDS -> {
+                readHand();
+                generateSelections(state.cardsToSelect(), buffer);
+            }
+            case SELECT_CARDS -> {
+                Arrays.fill(hand, state.cardsToSelect());
+                generateSelections(state.cardsToSelect(), buffer);
+            }
+            case ACCEPT_TRADE -> generateTradeAnswers(state, buffer);
+            case IDLE -> {
+            }
+        }
+        return buffer.size();
+    }
+
+    private void generateVillages(final PlayerState state, final ActionBuffer buffer) {
+        if (hexGridImpl == null) {
+            for (final Intersection intersection : state.buildableVillageIntersections()) {
+                buffer.add(new BuildVillageAction(intersection));
+            }
+            return;
+        }
+        if (!playerController.canBuildVillage()) {
+            return;
+        }
+        final BuildSites sites = hexGridImpl.getBuildSites();
+        if (playerController.isFirstRound()) {
+            for (int i = 0; i < villageActions.length; i++) {
+                if (sites.isFree(i)) {
+                    buffer.add(villageAction(i));
+                }
+            }
+        } else {
+            for (int i = sites.nextVillageSite(player, 0); i >= 0; i = sites.nextVillageSite(player, i + 1)) {
+                buffer.add(villageAction(i));
+            }
+        }
+    }
+
+    private void generateUpgrades(final PlayerState state, final ActionBuffer buffer) {
+        if (hexGridImpl == null) {
+            for (final Intersection intersection : state.upgradableVillageIntersections()) {
+                buffer.add(new UpgradeVillageAction(intersection));
+            }
+            return;
+        }
+        if (!playerController.canUpgradeVillage()) {
+            return;
+        }
+        for (final Settlement settlement : hexGridImpl.getSettlements(player)) {
+            if (settlement.type() == Settlement.Type.VILLAGE) {
+                final int i = hexGridImpl.indexOf(settlement.intersection());
+                if (upgradeActions[i] == null) {
+                    upgradeActions[i] = new UpgradeVillageAction(hexGridImpl.getIntersection(i));
+                }
+                buffer.add(upgradeActions[i]);
+            }
+        }
+    }
+
+    private void generateRoads(final PlayerState state, final ActionBuffer buffer) {
+        if (hexGridImpl == null) {
+            for (final Edge edge : state.buildableRoadEdges()) {
+                buffer.add(new BuildRoadAction(edge));
+            }
+            return;
+        }
+        if (!playerController.canBuildRoad()) {
+            return;
+        }
+        final BuildSites sites = hexGridImpl.getBuildSites();
+        if (playerController.isFirstRound()) {
+            for (final Settlement settlement : hexGridImpl.getSettlements(player)) {
+                final int[] edges = hexGridImpl.getAdjacency().intersectionEdges(hexGridImpl.indexOf(settlement.intersection()));
+                if (noneHasRoad(sites, edges)) {
+                    for (final int e : edges) {
+                        buffer.add(roadAction(e));
+                    }
+                }
+            }
+        } else {
+            for (int e = sites.nextRoadSite(player, 0); e >= 0; e = sites.nextRoadSite(player, e + 1)) {
+                buffer.add(roadAction(e));
+            }
+        }
+    }
+
+    private static boolean noneHasRoad(final BuildSites sites, final int[] edges) {
+        for (final int e : edges) {
+            if (sites.hasRoad(e)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void generateBankTrades(final ActionBuffer buffer) {
+        readHand();
+        for (int offer = 0; offer < RESOURCE_TYPES.length; offer++) {
+            final int ratio = player.getTradeRatio(RESOURCE_TYPES[offer]);
+            if (hand[offer] < ratio) {
+                continue;
+            }
+            // trading for the offered type itself only loses resources, so it is left out
+            for (int request = 0; request < RESOURCE_TYPES.length; request++) {
+                if (request != offer) {
+                    buffer.add(bankTradeAction(offer, request, ratio));
+                }
+            }
+        }
+    }
+
+    private void generateDevelopmentCards(final ActionBuffer buffer) {
+        if (playerController.canBuyDevelopmentCard()) {
+            buffer.add(BUY_DEVELOPMENT_CARD);
+        }
+        final Map<DevelopmentCardType, Integer> developmentCards = player.getDevelopmentCards();
+        for (final DevelopmentCardType type : DEVELOPMENT_CARD_TYPES) {
+            // victory point cards only count while they are held
+            if (type != DevelopmentCardType.VICTORY_POINTS && developmentCards.getOrDefault(type, 0) > 0
+                && (type != DevelopmentCardType.ROAD_BUILDING || canPlaceTwoRoads())) {
+                buffer.add(PLAY_DEVELOPMENT_CARD[type.ordinal()]);
+            }
+        }
+    }
+
+    /**
+     * Returns whether both roads of a road building card can be placed.
+     * The second road can usually be placed next to the first one, as long as the player has roads left.
+     */
+    private boolean canPlaceTwoRoads() {
+        if (player.getRemainingRoads() < 2) {
+            return false;
+        }
+        if (hexGridImpl == null) {
+            return !PlayerController.scanBuildableRoadEdges(grid, player, false).isEmpty();
+        }
+        return hexGridImpl.getBuildSites().nextRoadSite(player, 0) >= 0;
+    }
+
+    private void generateRobberTiles(final ActionBuffer buffer) {
+        final TilePosition robber = grid.getRobberPosition();
+        if (hexGridImpl == null) {
+            for (final TilePosition position : grid.getTiles().keySet()) {
+                if (!position.equals(robber)) {
+                    buffer.add(new SelectRobberTileAction(position));
+                }
+            }
+            return;
+        }
+        final int robberTile = robber == null ? -1 : hexGridImpl.tileIndexAt(robber.q(), robber.r());
+        for (int t = 0; t < robberActions.length; t++) {
+            if (t != robberTile) {
+                if (robberActions[t] == null) {
+                    robberActions[t] = new SelectRobberTileAction(hexGridImpl.getTile(t).getPosition());
+                }
+                buffer.add(robberActions[t]);
+            }
+        }
+    }
+
+    private void generateSteals(final PlayerState state, final ActionBuffer buffer) {
+        final List<Player> players = state.playersToStealFrom();
+        for (int j = 0; j < players.size(); j++) {
+            final Player target = players.get(j);
+            // a player with several settlements next to the robber is listed more than once
+            if (listedBefore(players, j)) {
+                continue;
+            }
+            final Map<ResourceType, Integer> resources = target.getResources();
+            final PlayerAction[] actions = stealActionsOf(target);
+            for (int r = 0; r < RESOURCE_TYPES.length; r++) {
+                if (resources.getOrDefault(RESOURCE_TYPES[r], 0) > 0) {
+                    if (actions[r] == null) {
+                        actions[r] = new StealCardAction(RESOURCE_TYPES[r], target);
+                    }
+                    buffer.add(actions[r]);
+                }
+            }
+        }
+    }
+
+    private static boolean listedBefore(final List<Player> players, final int index) {
+        for (int i = 0; i < index; i++) {
+            if (players.get(i) == players.get(index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private PlayerAction[] stealActionsOf(final Player target) {
+        for (int i = 0; i < stealTargets.length; i++) {
+            if (stealTargets[i] == target) {
+                return stealActions[i];
+            }
+        }
+        stealTargets = Arrays.copyOf(stealTargets, stealTargets.length + 1);
+        stealActions = Arrays.copyOf(stealActions, stealActions.length + 1);
+        stealTargets[stealTargets.length - 1] = target;
+        stealActions[stealActions.length - 1] = new PlayerAction[RESOURCE_TYPES.length];
+        return stealActions[stealActions.length - 1];
+    }
+
+    private void generateTradeAnswers(final PlayerState state, final ActionBuffer buffer) {
+        final TradePayload offer = state.offeredTrade();
+        if (offer == null) {
+            return;
+        }
+        buffer.add(DECLINE_TRADE);
+        if (player.hasResources(offer.request()) && offer.player().hasResources(offer.offer())) {
+            buffer.add(ACCEPT_TRADE);
+        }
+    }
+
+    private void readHand() {
+        final Map<ResourceType, Integer> resources = player.getResources();
+        for (int r = 0; r < RESOURCE_TYPES.length; r++) {
+            hand[r] = resources.getOrDefault(RESOURCE_TYPES[r], 0);
+        }
+    }
+
+    /**
+     * Generates every selection of the given amount of cards that takes at most {@link #hand} cards of each type.
+     */
+    private void generateSelections(final int amount, final ActionBuffer buffer) {
+        if (amount <= 0) {
+            return;
+        }
+        int available = 0;
+        for (final int count : hand) {
+            available += count;
+        }
+        if (available >= amount) {
+            generateSelections(0, amount, available, buffer);
+        }
+    }
+
+    private void generateSelections(final int type, final int remaining, final int available, final ActionBuffer buffer) {
+        if (type == RESOURCE_TYPES.length - 1) {
+            selection[type] = remaining;
+            buffer.add(selectionAction());
+            return;
+        }
+        final int availableAfter = available - hand[type];
+        // take at least as many cards as the later types cannot provide
+        for (int count = Math.max(0, remaining - availableAfter); count <= Math.min(hand[type], remaining); count++) {
+            selection[type] = count;
+            generateSelections(type + 1, remaining - count, availableAfter, buffer);
+        }
+    }
+
+    private PlayerAction selectionAction() {
+        long key = 0;
+        for (final int count : selection) {
+            if (count >= 1 << SELECTION_BITS) {
+                return newSelectionAction();
+            }
+            key = key << SELECTION_BITS | count;
+        }
+        // the key is never 0, as at least one card is selected
+        final int mask = selectionKeys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (selectionKeys[slot] != 0) {
+            if (selectionKeys[slot] == key) {
+                return selectionActions[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        final PlayerAction action = newSelectionAction();
+        if (selectionCount >= MAX_CACHED_SELECTIONS) {
+            // hands that large are rare, start over instead of keeping every selection ever seen
+            Arrays.fill(selectionKeys, 0);
+            Arrays.fill(selectionActions, null);
+            selectionCount = 0;
+        } else if ((selectionCount + 1) * 2 > selectionKeys.length) {
+            growSelections();
+        }
+        putSelection(key, action);
+        return action;
+    }
+
+    private void putSelection(final long key, final PlayerAction action) {
+        final int mask = selectionKeys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (selectionKeys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        selectionKeys[slot] = key;
+        selectionActions[slot] = action;
+        selectionCount++;
+    }
+
+    private void growSelections() {
+        final long[] keys = selectionKeys;
+        final PlayerAction[] actions = selectionActions;
+        selectionKeys = new long[keys.length * 2];
+        selectionActions = new PlayerAction[keys.length * 2];
+        selectionCount = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                putSelection(keys[i], actions[i]);
+            }
+        }
+    }
+
+    private PlayerAction newSelectionAction() {
+        final Map<ResourceType, Integer> cards = new EnumMap<>(ResourceType.class);
+        for (int r = 0; r < RESOURCE_TYPES.length; r++) {
+            if (selection[r] > 0) {
+                cards.put(RESOURCE_TYPES[r], selection[r]);
+            }
+        }
+        return new SelectCardsAction(Collections.unmodifiableMap(cards));
+    }
+
+    private PlayerAction villageAction(final int intersection) {
+        if (villageActions[intersection] == null) {
+            villageActions[intersection] = new BuildVillageAction(hexGridImpl.getIntersection(intersection));
+        }
+        return villageActions[intersection];
+    }
+
+    private PlayerAction roadAction(final int edge) {
+        if (roadActions[edge] == null) {
+            roadActions[edge] = new BuildRoadAction(hexGridImpl.getEdge(edge));
+        }
+        return roadActions[edge];
+    }
+
+    private PlayerAction bankTradeAction(final int offer, final int request, final int ratio) {
+        if (ratio > HexGridImpl.BANK_TRADE_RATIO) {
+            return newBankTradeAction(offer, request, ratio);
+        }
+        final int i = (offer * RESOURCE_TYPES.length + request) * (HexGridImpl.BANK_TRADE_RATIO + 1) + ratio;
+        if (bankTradeActions[i] == null) {
+            bankTradeActions[i] = newBankTradeAction(offer, request, ratio);
+        }
+        return bankTradeActions[i];
+    }
+
+    private PlayerAction newBankTradeAction(final int offer, final int request, final int ratio) {
+        return new TradeAction(new TradePayload(
+            Map.of(RESOURCE_TYPES[offer], ratio), Map.of(RESOURCE_TYPES[request], 1), true, player
+        ));
+    }
+
+    @Override
+    public String toString() {
+        return "LegalActionGenerator[player=" + player.getName() + "]";
+    }
+}
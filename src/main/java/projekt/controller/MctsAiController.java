@@ -0,0 +1,642 @@
+package projekt.controller;
+
+import javafx.beans.property.Property;
+import projekt.controller.actions.PlayerAction;
+import projekt.model.CompactGameState;
+import projekt.model.GameState;
+import projekt.model.HexGrid;
+import projekt.model.HexGridImpl;
+import projekt.model.TradePayload;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An AI controller that decides by Monte-Carlo tree search over the legal actions of each objective.
+ * <p>
+ * Every decision the legal actions are generated by the {@link LegalActionGenerator} and the game is copied into a
+ * {@link CompactGameState}. The tree holds the decisions of the player up to the end of its turn, see
+ * {@link CompactMoves}, and every iteration selects a path by UCT, expands a single node, plays the rest of the
+ * game with the built-in policy of the compact state and adds the outcome to the path. The tree is open-loop:
+ * its nodes hold the moves that led to them instead of states, so dice and drawn cards are sampled anew every
+ * iteration. The action that was tried most often is triggered.
+ * <p>
+ * The search runs on several workers, each growing its own tree, whose root statistics are summed up before the
+ * decision. All but one worker run on the configured {@link Executor}, the last one on the calling thread, so the
+ * amount of rollouts per decision grows with the amount of workers and cores. A search stops once the rollout
+ * budget is used up or the time budget has passed, whichever comes first. The rollout budget is split evenly among
+ * the workers, so searches limited only by rollouts are reproducible regardless of the timing of the threads. After a decision every worker keeps the
+ * subtree of the triggered action, so the next decision of the same turn, e.g. moving the robber after playing a
+ * knight, starts with the rollouts already spent on it. The trees are dropped when the objective becomes
+ * {@link PlayerObjective#IDLE}.
+ * <p>
+ * With {@linkplain Builder#ponder(int) pondering} the workers keep searching on the executor after the last decision
+ * of the player's turn: every iteration the other players take their turns with the built-in policy, the player
+ * casts the dice and the tree of the player's next regular turn is grown from there. That tree becomes the root of
+ * the first search of the next regular turn, so the player decides with the rollouts spent while the others were
+ * playing. Pondering is paused for decisions in the turns of other players, e.g. accepting a trade, and stopped
+ * when the player's next turn starts. Since the amount of rollouts spent on pondering depends on how long the
+ * others take, games with pondering are not reproducible.
+ * <p>
+ * On grids other than a {@link HexGridImpl} there is nothing to search on and the first legal action is triggered.
+ */
+public class MctsAiController extends AiController {
+
+    private final int workerCount;
+    private final Executor executor;
+    private final long timeBudgetNanos;
+    private final int rolloutBudget;
+    private final int rolloutTurns;
+    private final double exploration;
+    private final int ponderRollouts;
+
+    // created on first use, as the objective is passed on before the fields are set
+    private ActionBuffer actions;
+    private CompactMoves moves;
+    private Worker[] workers;
+    private long[] rootMoves;
+    private int expectedPhase = CompactMoves.DONE;
+    private int lastRollouts;
+    private int lastPonderedRollouts;
+
+    // the game after the player's turn and the rollouts left to spend on it, while pondering
+    private CompactGameState ponderState;
+    private AtomicInteger ponderBudget;
+    private CompletableFuture<?> pondering;
+
+    /**
+     * Creates a new MctsAiController with the default settings of a {@link Builder}.
+     *
+     * @param playerController       the player controller this belongs to
+     * @param hexGrid                the hex grid
+     * @param gameState              the game state
+     * @param activePlayerController the active player controller
+     */
+    public MctsAiController(
+        final PlayerController playerController, final HexGrid hexGrid, final GameState gameState,
+        final Property<PlayerController> activePlayerController
+    ) {
+        this(playerController, hexGrid, gameState, activePlayerController, new Builder());
+    }
+
+    private MctsAiController(
+        final PlayerController playerController, final HexGrid hexGrid, final GameState gameState,
+        final Property<PlayerController> activePlayerController, final Builder builder
+    ) {
+        super(playerController, hexGrid, gameState, activePlayerController);
+        this.workerCount = builder.workers;
+        this.executor = builder.executor;
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(builder.timeBudgetMillis);
+        this.rolloutBudget = builder.rollouts;
+        this.rolloutTurns = builder.rolloutTurns;
+        this.exploration = builder.exploration;
+        this.ponderRollouts = builder.ponderRollouts;
+    }
+
+    /**
+     * Returns the amount of rollouts of the last search, including the ones reused from earlier searches.
+     *
+     * @return the amount of rollouts
+     */
+    int getLastRollouts() {
+        return lastRollouts;
+    }
+
+    /**
+     * Returns the amount of rollouts of the last search that were spent on pondering.
+     *
+     * @return the amount of rollouts
+     */
+    int getLastPonderedRollouts() {
+        return lastPonderedRollouts;
+    }
+
+    @Override
+    protected void executeActionBasedOnObjective(final PlayerObjective objective) {
+        if (objective == PlayerObjective.IDLE || executor == null) {
+            // the turn is over, or the constructor of AiController passes the first objective before ours has run
+            expectedPhase = CompactMoves.DONE;
+            dropTrees();
+            return;
+        }
+        if (actions == null) {
+            actions = new ActionBuffer();
+        }
+        stopPondering();
+        if (objective == PlayerObjective.DICE_ROLL) {
+            // the player's turn starts, the pondered tree is taken over by the first regular search
+            ponderState = null;
+        }
+        final int count = playerController.generateLegalActions(actions);
+        if (count == 0) {
+            return;
+        }
+        if (!(hexGrid instanceof final HexGridImpl grid)) {
+            triggerAction(actions.get(0));
+            return;
+        }
+        if (moves == null) {
+            moves = new CompactMoves(grid, gameState.getPlayers());
+            workers = new Worker[workerCount];
+            for (int i = 0; i < workerCount; i++) {
+                workers[i] = new Worker();
+            }
+        }
+        final int phase = CompactMoves.phaseOf(
+            objective, expectedPhase, playerController.isFirstRound(), playerController.getPlayerState().cardsToSelect()
+        );
+        final TradePayload offeredTrade = playerController.getPlayerState().offeredTrade();
+        if (rootMoves == null || rootMoves.length < count) {
+            rootMoves = new long[Math.max(count, moves.maxMoves())];
+        }
+        int searchable = 0;
+        for (int i = 0; i < count; i++) {
+            rootMoves[i] = moves.toMove(actions.get(i), offeredTrade);
+            searchable += rootMoves[i] != CompactMoves.NONE ? 1 : 0;
+        }
+        lastPonderedRollouts = 0;
+        final int best = searchable > 1 ? search(phase, count) : firstSearchable(count);
+        final PlayerAction action = actions.get(best);
+        final long move = rootMoves[best];
+        expectedPhase = CompactMoves.next(phase, move);
+        for (final Worker worker : workers) {
+            worker.advance(move, expectedPhase);
+        }
+        if (ponderRollouts > 0 && CompactMoves.inTurn(phase) && expectedPhase == CompactMoves.DONE
+            && !playerController.isFirstRound()) {
+            // the last decision of the turn, the game does not change until the action is executed
+            final CompactGameState state = CompactMoves.snapshot(gameState, playerController, phase);
+            moves.apply(state, gameState.getPlayers().indexOf(playerController.getPlayer()), phase, move,
+                        gameState.getRandom().ai(playerController.getPlayer()));
+            startPondering(state);
+        } else {
+            resumePondering();
+        }
+        triggerAction(action);
+    }
+
+    /**
+     * Starts growing a new tree of the player's next regular turn from the given game after the player's turn.
+     */
+    private void startPondering(final CompactGameState state) {
+        if (state.getWinner() >= 0) {
+            return;
+        }
+        ponderState = state;
+        ponderBudget = new AtomicInteger(ponderRollouts);
+        final int player = gameState.getPlayers().indexOf(playerController.getPlayer());
+        final Random random = gameState.getRandom().ai(playerController.getPlayer());
+        for (final Worker worker : workers) {
+            worker.preparePondering(state, player, random.nextLong());
+        }
+        resumePondering();
+    }
+
+    /**
+     * Continues pondering on the executor, if the player is pondering and has rollouts left.
+     */
+    private void resumePondering() {
+        if (ponderState == null || ponderBudget.get() <= 0) {
+            return;
+        }
+        final AtomicInteger budget = ponderBudget;
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            final Worker worker = workers[i];
+            futures[i] = CompletableFuture.runAsync(() -> worker.ponder(budget), executor);
+        }
+        pondering = CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Pauses pondering and waits for the workers, keeping the rollouts left for resuming.
+     */
+    private void stopPondering() {
+        if (pondering == null) {
+            return;
+        }
+        final int left = ponderBudget.getAndSet(0);
+        pondering.join();
+        pondering = null;
+        ponderBudget.set(Math.max(0, left));
+    }
+
+    private int firstSearchable(final int count) {
+        for (int i = 0; i < count; i++) {
+            if (rootMoves[i] != CompactMoves.NONE) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private void dropTrees() {
+        if (workers != null) {
+            // pondered trees are kept, they are grown on the executor in the meantime
+            for (final Worker worker : workers) {
+                worker.root = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the rollouts the worker with the given index may spend on a search, the first ones taking the rest.
+     */
+    private int rolloutShare(final int worker) {
+        if (rolloutBudget == 0) {
+            return Integer.MAX_VALUE;
+        }
+        return rolloutBudget / workers.length + (worker < rolloutBudget % workers.length ? 1 : 0);
+    }
+
+    /**
+     * Searches the root moves with all workers and returns the index of the most visited one.
+     */
+    private int search(final int phase, final int count) {
+        final CompactGameState root = CompactMoves.snapshot(gameState, playerController, phase);
+        final int player = gameState.getPlayers().indexOf(playerController.getPlayer());
+        final Random random = gameState.getRandom().ai(playerController.getPlayer());
+        final long deadline = timeBudgetNanos > 0 ? System.nanoTime() + timeBudgetNanos : 0;
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[workers.length - 1];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i].prepare(root, player, phase, random.nextLong());
+        }
+        for (int i = 1; i < workers.length; i++) {
+            final Worker worker = workers[i];
+            final int rollouts = rolloutShare(i);
+            futures[i - 1] = CompletableFuture.runAsync(() -> worker.run(count, deadline, rollouts, cancelled), executor);
+        }
+        workers[0].run(count, deadline, rolloutShare(0), cancelled);
+        CompletableFuture.allOf(futures).join();
+        for (final Worker worker : workers) {
+            lastPonderedRollouts += worker.ponderedRollouts;
+        }
+
+        final int[] visits = new int[count];
+        final double[] values = new double[count];
+        for (final Worker worker : workers) {
+            for (int i = 0; i < count; i++) {
+                final int slot = worker.root.slotOf(rootMoves[i]);
+                if (slot >= 0) {
+                    visits[i] += worker.root.visits[slot];
+                    values[i] += worker.root.values[slot];
+                }
+            }
+        }
+        int best = firstSearchable(count);
+        lastRollouts = 0;
+        for (int i = 0; i < count; i++) {
+            lastRollouts += visits[i];
+            if (visits[i] > visits[best] || visits[i] == visits[best] && visits[i] > 0
+                && values[i] / visits[i] > values[best] / visits[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A node of the tree, holding the statistics of the moves tried from it.
+     */
+    private static final class Node {
+
+        private final int phase;
+        private long[] moves = new long[8];
+        private Node[] children = new Node[8];
+        private int[] visits = new int[8];
+        private double[] values = new double[8];
+        private int size;
+        private int visitCount;
+
+        private Node(final int phase) {
+            this.phase = phase;
+        }
+
+        private int slotOf(final long move) {
+            for (int slot = 0; slot < size; slot++) {
+                if (moves[slot] == move) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int add(final long move) {
+            if (size == moves.length) {
+                moves = Arrays.copyOf(moves, size * 2);
+                children = Arrays.copyOf(children, size * 2);
+                visits = Arrays.copyOf(visits, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            moves[size] = move;
+            return size++;
+        }
+
+        private Node child(final int slot, final int phase) {
+            if (children[slot] == null || children[slot].phase != phase) {
+                children[slot] = new Node(phase);
+            }
+            return children[slot];
+        }
+    }
+
+    /**
+     * Grows a tree on a copy of the game. A worker is only used by one thread at a time.
+     */
+    private final class Worker {
+
+        private Node root;
+        private CompactGameState rootState;
+        private Node ponderRoot;
+        private CompactGameState ponderState;
+        private CompactGameState ponderScratch;
+        private Random ponderRandom;
+        private int ponderedRollouts;
+        private CompactGameState state;
+        private int player;
+        private Random random;
+        private long[] buffer;
+        private Node[] pathNodes = new Node[8];
+        private int[] pathSlots = new int[8];
+
+        private void prepare(final CompactGameState rootState, final int player, final int phase, final long seed) {
+            ponderedRollouts = 0;
+            if ((root == null || root.phase != phase) && ponderRoot != null && ponderRoot.phase == phase) {
+                // the first search of the turn the worker has pondered on
+                root = ponderRoot;
+                ponderedRollouts = root.visitCount;
+                ponderRoot = null;
+            } else if (root == null || root.phase != phase) {
+                root = new Node(phase);
+            }
+            this.rootState = rootState;
+            this.state = rootState.copy();
+            this.player = player;
+            this.random = new Random(seed);
+            if (buffer == null) {
+                buffer = new long[moves.maxMoves()];
+            }
+        }
+
+        private void run(final int rootCount, final long deadline, final int rollouts, final AtomicBoolean cancelled) {
+            for (int rollout = 0; rollout < rollouts && (deadline == 0 || System.nanoTime() - deadline < 0); rollout++) {
+                if (cancelled.get()) {
+                    return;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    // the decision was cancelled, stop the other workers as well
+                    cancelled.set(true);
+                    return;
+                }
+                iterate(rootCount);
+            }
+        }
+
+        private void preparePondering(final CompactGameState ponderState, final int player, final long seed) {
+            this.ponderRoot = new Node(CompactMoves.REGULAR);
+            this.ponderState = ponderState;
+            this.ponderScratch = ponderState.copy();
+            this.player = player;
+            this.ponderRandom = new Random(seed);
+            if (buffer == null) {
+                buffer = new long[moves.maxMoves()];
+            }
+        }
+
+        private void ponder(final AtomicInteger budget) {
+            // a decision in between may have replaced the state and random numbers of the worker
+            state = ponderScratch;
+            random = ponderRandom;
+            while (budget.getAndDecrement() > 0) {
+                // the others take their turns and the player casts the dice, then the next turn is searched
+                state.copyFrom(ponderState);
+                while (state.getWinner() < 0 && state.getCurrentPlayer() != player) {
+                    state.playTurn(random);
+                }
+                if (state.getWinner() < 0) {
+                    state.roll(random);
+                    descend(ponderRoot, 0);
+                }
+            }
+        }
+
+        private void iterate(final int rootCount) {
+            state.copyFrom(rootState);
+            descend(root, rootCount);
+        }
+
+        /**
+         * Selects a path from the given node in the current state, plays the game out and adds the outcome to it.
+         */
+        private void descend(final Node start, final int rootCount) {
+            Node node = start;
+            int phase = start.phase;
+            int depth = 0;
+            while (true) {
+                final boolean atRoot = node == start && rootCount > 0;
+                final long[] legal = atRoot ? rootMoves : buffer;
+                final int size = atRoot ? rootCount : moves.generate(state, player, phase, buffer);
+                final int slot = select(node, legal, size);
+                if (slot < 0) {
+                    break;
+                }
+                if (depth == pathNodes.length) {
+                    pathNodes = Arrays.copyOf(pathNodes, depth * 2);
+                    pathSlots = Arrays.copyOf(pathSlots, depth * 2);
+                }
+                pathNodes[depth] = node;
+                pathSlots[depth++] = slot;
+                final boolean expanded = node.visits[slot] == 0;
+                phase = moves.apply(state, player, phase, node.moves[slot], random);
+                if (phase == CompactMoves.DONE || expanded) {
+                    break;
+                }
+                node = node.child(slot, phase);
+            }
+            moves.complete(state, player, phase, buffer, random);
+            state.playout(random, rolloutTurns);
+            final double value = CompactMoves.evaluate(state, player);
+            for (int i = 0; i < depth; i++) {
+                final Node pathNode = pathNodes[i];
+                pathNode.visitCount++;
+                pathNode.visits[pathSlots[i]]++;
+                pathNode.values[pathSlots[i]] += value;
+            }
+        }
+
+        /**
+         * Selects an untried legal move or the legal move with the highest upper confidence bound.
+         *
+         * @return the slot of the move in the node or -1, if there are no legal moves
+         */
+        private int select(final Node node, final long[] legal, final int size) {
+            int best = -1;
+            double bestBound = Double.NEGATIVE_INFINITY;
+            final double logVisits = Math.log(Math.max(1, node.visitCount));
+            for (int i = 0; i < size; i++) {
+                if (legal[i] == CompactMoves.NONE) {
+                    continue;
+                }
+                int slot = node.slotOf(legal[i]);
+                if (slot < 0) {
+                    slot = node.add(legal[i]);
+                }
+                if (node.visits[slot] == 0) {
+                    return slot;
+                }
+                final double bound = node.values[slot] / node.visits[slot]
+                    + exploration * Math.sqrt(logVisits / node.visits[slot]);
+                if (bound > bestBound) {
+                    bestBound = bound;
+                    best = slot;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Keeps the subtree of the given move, if it belongs to the given phase.
+         */
+        private void advance(final long move, final int phase) {
+            if (root == null) {
+                return;
+            }
+            final int slot = root.slotOf(move);
+            final Node child = slot < 0 ? null : root.children[slot];
+            root = child != null && child.phase == phase ? child : null;
+        }
+    }
+
+    /**
+     * Builder for the settings of {@link MctsAiController}s.
+     */
+    public static final class Builder {
+
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private Executor executor = ForkJoinPool.commonPool();
+        private long timeBudgetMillis = 200;
+        private int rollouts = 2000;
+        private int rolloutTurns = 200;
+        private double exploration = 0.7;
+        private int ponderRollouts;
+
+        /**
+         * Sets the amount of workers searching in parallel, the amount of available processors by default.
+         *
+         * @param workers the amount of workers
+         * @return this builder
+         */
+        public Builder workers(final int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Sets the executor running all workers but one, the common fork join pool by default.
+         *
+         * @param executor the executor
+         * @return this builder
+         */
+        public Builder executor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the wall-clock time a decision may take, 200 milliseconds by default.
+         *
+         * @param timeBudgetMillis the time in milliseconds or 0, if only the rollouts are limited
+         * @return this builder
+         */
+        public Builder timeBudget(final long timeBudgetMillis) {
+            this.timeBudgetMillis = timeBudgetMillis;
+            return this;
+        }
+
+        /**
+         * Sets the amount of rollouts a decision may take across all workers, 2000 by default.
+         *
+         * @param rollouts the amount of rollouts or 0, if only the time is limited
+         * @return this builder
+         */
+        public Builder rollouts(final int rollouts) {
+            this.rollouts = rollouts;
+            return this;
+        }
+
+        /**
+         * Sets the amount of turns a rollout plays at most, 200 by default.
+         *
+         * @param rolloutTurns the amount of turns
+         * @return this builder
+         */
+        public Builder rolloutTurns(final int rolloutTurns) {
+            this.rolloutTurns = rolloutTurns;
+            return this;
+        }
+
+        /**
+         * Sets the exploration constant of UCT, 0.7 by default.
+         *
+         * @param exploration the exploration constant
+         * @return this builder
+         */
+        public Builder exploration(final double exploration) {
+            this.exploration = exploration;
+            return this;
+        }
+
+        /**
+         * Sets the amount of rollouts spent on pondering during the turns of the other players, none by default.
+         * The rollouts are spread over all workers on the executor.
+         *
+         * @param ponderRollouts the amount of rollouts per turn or 0, if the player should not ponder
+         * @return this builder
+         */
+        public Builder ponder(final int ponderRollouts) {
+            this.ponderRollouts = ponderRollouts;
+            return this;
+        }
+
+        /**
+         * Returns a factory creating AIs with the current settings of this builder.
+         *
+         * @return the factory
+         * @throws IllegalStateException if the settings are invalid
+         */
+        public AiControllerFactory factory() {
+            if (workers < 1) {
+                throw new IllegalStateException("At least one worker is required");
+            }
+            if (executor == null) {
+                throw new IllegalStateException("An executor is required");
+            }
+            if (timeBudgetMillis < 0 || rollouts < 0 || timeBudgetMillis == 0 && rollouts == 0) {
+                throw new IllegalStateException("A decision needs a time budget, a rollout budget or both");
+            }
+            if (rolloutTurns < 1) {
+                throw new IllegalStateException("A rollout must play at least one turn");
+            }
+            if (ponderRollouts < 0) {
+                throw new IllegalStateException("The amount of rollouts spent on pondering must not be negative");
+            }
+            final Builder settings = new Builder()
+                .workers(workers)
+                .executor(executor)
+                .timeBudget(timeBudgetMillis)
+                .rollouts(rollouts)
+                .rolloutTurns(rolloutTurns)
+                .exploration(exploration)
+                .ponder(ponderRollouts);
+            return (playerController, hexGrid, gameState, activePlayerController) ->
+                new MctsAiController(playerController, hexGrid, gameState, activePlayerController, settings);
+        }
+    }
+}
@@ -8,6 +8,8 @@ import projekt.Config;
 import projekt.controller.actions.IllegalActionException;
 import projekt.controller.actions.PlayerAction;
 import projekt.model.DevelopmentCardType;
+import projekt.model.HexGrid;
+import projekt.model.HexGridImpl;
 import projekt.model.Intersection;
 import projekt.model.Player;
 import projekt.model.PlayerState;
@@ -19,13 +21,19 @@ import projekt.model.buildings.Port;
 import projekt.model.buildings.Settlement;
 import projekt.model.tiles.Tile;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,15 +47,24 @@ import java.util.stream.Stream;
  * player's state.
  */
 public class    PlayerController {
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+
     private final Player player;
 
     private final GameController gameController;
 
     private final BlockingDeque<PlayerAction> actions = new LinkedBlockingDeque<>();
 
-    private final Property<PlayerState> playerStateProperty = new SimpleObjectProperty<>();
+    private PlayerState playerState;
+
+    private PlayerObjective playerObjective = PlayerObjective.IDLE;
+
+    private final List<Consumer<PlayerObjective>> objectiveSubscribers = new ArrayList<>();
 
-    private final Property<PlayerObjective> playerObjectiveProperty = new SimpleObjectProperty<>(PlayerObjective.IDLE);
+    // mirrors of playerState and playerObjective, only created on request in headless games
+    private Property<PlayerState> playerStateProperty;
+
+    private Property<PlayerObjective> playerObjectiveProperty;
 
     private Player tradingPlayer;
 
@@ -61,6 +78,8 @@ public class    PlayerController {
 
     private int cardsToSelect = 0;
 
+    private LegalActionGenerator legalActionGenerator;
+
     /**
      * Creates a new {@link PlayerController} with the given {@link GameController}
      * and {@link Player}.
@@ -74,9 +93,11 @@ public class    PlayerController {
     public PlayerController(final GameController gameController, final Player player) {
         this.gameController = gameController;
         this.player = player;
-        this.playerObjectiveProperty.addListener((observable, oldValue, newValue) -> {
-            updatePlayerState();
-        });
+        if (!gameController.isHeadless()) {
+            // not through the getters, which subclasses may override
+            createPlayerStateProperty();
+            createPlayerObjectiveProperty();
+        }
     }
 
     /**
@@ -96,16 +117,24 @@ public class    PlayerController {
      */
     @DoNotTouch
     public Property<PlayerState> getPlayerStateProperty() {
+        if (playerStateProperty == null) {
+            createPlayerStateProperty();
+        }
         return playerStateProperty;
     }
 
+    private void createPlayerStateProperty() {
+        playerStateProperty = new SimpleObjectProperty<>(playerState);
+        playerStateProperty.addListener((observable, oldValue, newValue) -> playerState = newValue);
+    }
+
     /**
      * Returns the current {@link PlayerState}.
      *
      * @return the current {@link PlayerState}.
      */
     public PlayerState getPlayerState() {
-        return playerStateProperty.getValue();
+        return playerState;
     }
 
     /**
@@ -115,18 +144,83 @@ public class    PlayerController {
      */
     @DoNotTouch
     public Property<PlayerObjective> getPlayerObjectiveProperty() {
+        if (playerObjectiveProperty == null) {
+            createPlayerObjectiveProperty();
+        }
         return playerObjectiveProperty;
     }
 
+    private void createPlayerObjectiveProperty() {
+        playerObjectiveProperty = new SimpleObjectProperty<>(playerObjective);
+        playerObjectiveProperty.addListener((observable, oldValue, newValue) -> setPlayerObjective(newValue));
+    }
+
+    /**
+     * Returns the current {@link PlayerObjective}.
+     *
+     * @return the current {@link PlayerObjective}.
+     */
+    public PlayerObjective getPlayerObjective() {
+        return playerObjective;
+    }
+
     /**
-     * Sets the value of the {@link #playerObjectiveProperty} to the given
-     * objective.
+     * Sets the current objective to the given objective.
+     * If the objective changes, the {@link PlayerState} is updated and all
+     * subscribers are notified.
      *
      * @param nextObjective the objective to set
      */
     @DoNotTouch
     public void setPlayerObjective(final PlayerObjective nextObjective) {
-        playerObjectiveProperty.setValue(nextObjective);
+        if (playerObjective == nextObjective) {
+            return;
+        }
+        playerObjective = nextObjective;
+        updatePlayerState();
+        if (playerObjectiveProperty != null) {
+            playerObjectiveProperty.setValue(nextObjective);
+        }
+        for (int i = 0; i < objectiveSubscribers.size(); i++) {
+            objectiveSubscribers.get(i).accept(nextObjective);
+        }
+        gameController.objectiveChanged(this, nextObjective);
+    }
+
+    /**
+     * Passes the current objective to the given subscriber and then every objective
+     * this controller changes to.
+     * Unlike subscribing to {@link #getPlayerObjectiveProperty()}, this does not
+     * require the property to be created in headless games.
+     *
+     * @param subscriber the subscriber
+     */
+    public void subscribeToObjective(final Consumer<PlayerObjective> subscriber) {
+        subscriber.accept(playerObjective);
+        objectiveSubscribers.add(subscriber);
+    }
+
+    /**
+     * Returns the generator of all actions that are legal for the current objective and state of this controller.
+     *
+     * @return the legal action generator of this controller
+     */
+    public LegalActionGenerator getLegalActionGenerator() {
+        if (legalActionGenerator == null) {
+            legalActionGenerator = new LegalActionGenerator(this, gameController.getState().getGrid());
+        }
+        return legalActionGenerator;
+    }
+
+    /**
+     * Clears the given buffer and fills it with all actions that are legal for the current objective and state.
+     *
+     * @param buffer the buffer to generate into
+     * @return the amount of legal actions
+     * @see LegalActionGenerator
+     */
+    public int generateLegalActions(final ActionBuffer buffer) {
+        return getLegalActionGenerator().generate(buffer);
     }
 
     /**
@@ -135,21 +229,22 @@ public class    PlayerController {
      *
      * @return true if it is the first round of the game
      */
-    private boolean isFirstRound() {
-        return gameController.getRoundCounterProperty().get() == 0;
+    boolean isFirstRound() {
+        return gameController.getRoundCounter() == 0;
     }
 
     /**
-     * Updates the {@link #playerStateProperty} with the current
-     * {@link PlayerState}.
+     * Updates the current {@link PlayerState} and its property, if present.
      */
     @DoNotTouch
     private void updatePlayerState() {
-        playerStateProperty
-            .setValue(new PlayerState(getBuildableVillageIntersections(), getUpgradeableVillageIntersections(),
+        playerState = new PlayerState(getBuildableVillageIntersections(), getUpgradeableVillageIntersections(),
                                       getBuildableRoadEdges(), getPlayersToStealFrom(), getPlayerTradingPayload(),
                                       getCardsToSelect(), getChangedResources()
-            ));
+        );
+        if (playerStateProperty != null) {
+            playerStateProperty.setValue(playerState);
+        }
     }
 
     /**
@@ -158,15 +253,18 @@ public class    PlayerController {
      * @return a map of the changed resources
      */
     private Map<ResourceType, Integer> getChangedResources() {
-        final Map<ResourceType, Integer> changedResources = new HashMap<>();
-        for (final ResourceType resourceType : ResourceType.values()) {
+        Map<ResourceType, Integer> changedResources = null;
+        for (final ResourceType resourceType : RESOURCE_TYPES) {
             final int oldAmount = oldResources.getOrDefault(resourceType, 0);
             final int newAmount = player.getResources().getOrDefault(resourceType, 0);
             if (oldAmount != newAmount) {
+                if (changedResources == null) {
+                    changedResources = new EnumMap<>(ResourceType.class);
+                }
                 changedResources.put(resourceType, newAmount - oldAmount);
             }
         }
-        return changedResources;
+        return changedResources != null ? changedResources : Map.of();
     }
 
     /**
@@ -220,7 +318,7 @@ public class    PlayerController {
         if (selectedResources.values().stream().mapToInt(Integer::intValue).sum() != getCardsToSelect()) {
             throw new IllegalActionException("Wrong amount of cards selected");
         }
-        if (PlayerObjective.DROP_CARDS.equals(playerObjectiveProperty.getValue())) {
+        if (PlayerObjective.DROP_CARDS.equals(playerObjective)) {
             dropSelectedResources(selectedResources);
         }
         this.selectedResources = selectedResources;
@@ -254,13 +352,22 @@ public class    PlayerController {
 
     /**
      * Waits for the next action and executes it.
+     * If the objective does not change, the subscribers are notified again, as another action is awaited.
      *
      * @param nextObjective the objective to set before the action is awaited
      * @return the executed action
      */
     @DoNotTouch
     public PlayerAction waitForNextAction(final PlayerObjective nextObjective) {
-        setPlayerObjective(nextObjective);
+        if (playerObjective == nextObjective) {
+            // the same objective is requested for another action, e.g. the second road of a road building card
+            updatePlayerState();
+            for (int i = 0; i < objectiveSubscribers.size(); i++) {
+                objectiveSubscribers.get(i).accept(nextObjective);
+            }
+        } else {
+            setPlayerObjective(nextObjective);
+        }
         return waitForNextAction();
     }
 
@@ -270,41 +377,66 @@ public class    PlayerController {
      * If a {@link IllegalActionException} is thrown, the action is ignored and the
      * next action is awaited. This is done to ensure only allowed actions are
      * executed.
+     * Actions that are generated by the {@link #getLegalActionGenerator() legal action generator} are never ignored.
      *
      * @return the executed action
      */
     @DoNotTouch
     public PlayerAction waitForNextAction() {
-        try {
-            oldResources = new HashMap<>(player.getResources());
-            // blocking, waiting for viewing thread
-            final PlayerAction action = blockingGetNextAction();
-
-            System.out.println("TRIGGER " + action + " [" + player.getName() + "]");
-
-            if (!playerObjectiveProperty.getValue().allowedActions.contains(action.getClass())) {
-                throw new IllegalActionException(String.format("Illegal Action %s performed. Allowed Actions: %s",
-                                                               action, playerObjectiveProperty.getValue().getAllowedActions()
-                ));
+        while (true) {
+            final PlayerAction action;
+            try {
+                oldResources = new HashMap<>(player.getResources());
+                // blocking, waiting for viewing thread
+                action = blockingGetNextAction();
+            } catch (final InterruptedException e) {
+                throw new RuntimeException("Main thread was interrupted!", e);
+            }
+            if (!gameController.isHeadless()) {
+                System.out.println("TRIGGER " + action + " [" + player.getName() + "]");
+            }
+            gameController.actionTriggered(this, action);
+            try {
+                if (!playerObjective.allowedActions.contains(action.getClass())) {
+                    throw new IllegalActionException(String.format("Illegal Action %s performed. Allowed Actions: %s",
+                                                                   action, playerObjective.getAllowedActions()
+                    ));
+                }
+                action.execute(this);
+            } catch (final IllegalActionException e) {
+                // Ignore and keep going
+                if (!gameController.isHeadless()) {
+                    e.printStackTrace();
+                }
+                gameController.actionRejected(this, action, e);
+                continue;
             }
-            action.execute(this);
             updatePlayerState();
+            gameController.actionExecuted(this, action);
             return action;
-        } catch (final IllegalActionException e) {
-            // Ignore and keep going
-            e.printStackTrace();
-            return waitForNextAction();
-        } catch (final InterruptedException e) {
-            throw new RuntimeException("Main thread was interrupted!", e);
         }
     }
 
     // -- Building methods --
 
+    /**
+     * Returns a collector into an unmodifiable set that keeps the encounter order.
+     * Unlike {@link Collectors#toUnmodifiableSet()} the iteration order does not change between runs,
+     * so the choices of the AIs only depend on the seed of the game.
+     *
+     * @param <T> the type of the elements
+     * @return a collector into an unmodifiable, ordered set
+     */
+    private static <T> Collector<T, ?, Set<T>> toOrderedSet() {
+        return Collectors.collectingAndThen(Collectors.toCollection(LinkedHashSet::new), Collections::unmodifiableSet);
+    }
+
     /**
      * Returns all intersections where a village can be built.
      * During a regular turn, a village can only be built next to an existing road.
      * In the first round the village can be built anywhere.
+     * On a {@link HexGridImpl} the intersections are taken from its {@link projekt.model.BuildSites}, which are
+     * kept up to date as settlements and roads change, instead of scanning the whole grid.
      *
      * <b>A village can never be built on an intersection that is adjacent to
      * another settlement or already has a settlement.</b>
@@ -315,14 +447,33 @@ public class    PlayerController {
         if (!canBuildVillage()) {
             return Set.of();
         }
-        Stream<Intersection> intersections = gameController.getState().getGrid().getIntersections().values().stream()
+        if (gameController.getState().getGrid() instanceof final HexGridImpl hexGridImpl) {
+            return isFirstRound()
+                ? hexGridImpl.getBuildSites().getFreeIntersections()
+                : hexGridImpl.getBuildSites().getVillageSites(player);
+        }
+        return scanBuildableVillageIntersections(gameController.getState().getGrid(), player, isFirstRound());
+    }
+
+    /**
+     * Scans the whole grid for the intersections the given player may build a village on.
+     *
+     * @param grid       the grid
+     * @param player     the player
+     * @param firstRound whether it is the first round, in which villages need no road
+     * @return all intersections where the player may build a village
+     */
+    static Set<Intersection> scanBuildableVillageIntersections(
+        final HexGrid grid, final Player player, final boolean firstRound
+    ) {
+        Stream<Intersection> intersections = grid.getIntersections().values().stream()
             .filter(intersection -> intersection.getSettlement() == null).filter(intersection -> intersection
                 .getAdjacentIntersections().stream().noneMatch(Intersection::hasSettlement));
-        if (!isFirstRound()) {
+        if (!firstRound) {
             intersections = intersections.filter(intersection -> intersection.getConnectedEdges().stream()
                 .anyMatch(edge -> edge.hasRoad() && edge.getRoadOwner().equals(player)));
         }
-        return intersections.collect(Collectors.toUnmodifiableSet());
+        return intersections.collect(toOrderedSet());
     }
 
     /**
@@ -335,7 +486,7 @@ public class    PlayerController {
      */
     @StudentImplementationRequired("H2.4")
     public boolean canBuildVillage() {
-        return (playerObjectiveProperty.getValue() == PlayerObjective.PLACE_VILLAGE
+        return (playerObjective == PlayerObjective.PLACE_VILLAGE
             || player.hasResources(Config.SETTLEMENT_BUILDING_COST.get(Settlement.Type.VILLAGE)))
             && player.getRemainingVillages() > 0;
     }
@@ -354,7 +505,7 @@ public class    PlayerController {
     public void buildVillage(final Intersection intersection) throws IllegalActionException {
         if (!canBuildVillage()) throw new IllegalActionException("Cannot build Village.");
         if(!intersection.placeVillage(player, isFirstRound())) throw new IllegalActionException("Cannot build the Village");
-        if (playerObjectiveProperty.getValue() != PlayerObjective.PLACE_VILLAGE)
+        if (playerObjective != PlayerObjective.PLACE_VILLAGE)
             player.removeResources(Config.SETTLEMENT_BUILDING_COST.get(Settlement.Type.VILLAGE));
     }
 
@@ -368,7 +519,7 @@ public class    PlayerController {
             return Set.of();
         }
         return player.getSettlements().stream().filter(settlement -> settlement.type() == Settlement.Type.VILLAGE)
-            .map(Settlement::intersection).collect(Collectors.toUnmodifiableSet());
+            .map(Settlement::intersection).collect(toOrderedSet());
     }
 
     /**
@@ -407,6 +558,7 @@ public class    PlayerController {
      * During a regular turn, a road can only be built next to an existing road.
      * In the first round the road can only be built next to a village with no
      * adjacent roads.
+     * On a {@link HexGridImpl} the edges are taken from its {@link projekt.model.BuildSites}.
      *
      * <b>A road can never be built on an edge that already has a road.</b>
      *
@@ -416,9 +568,26 @@ public class    PlayerController {
         if (!canBuildRoad()) {
             return Set.of();
         }
-        Stream<Edge> edges = gameController.getState().getGrid().getEdges().values().stream()
+        if (gameController.getState().getGrid() instanceof final HexGridImpl hexGridImpl) {
+            return isFirstRound()
+                ? hexGridImpl.getBuildSites().getInitialRoadSites(player)
+                : hexGridImpl.getBuildSites().getRoadSites(player);
+        }
+        return scanBuildableRoadEdges(gameController.getState().getGrid(), player, isFirstRound());
+    }
+
+    /**
+     * Scans the whole grid for the edges the given player may build a road on.
+     *
+     * @param grid       the grid
+     * @param player     the player
+     * @param firstRound whether it is the first round, in which roads are placed next to a new village
+     * @return all edges where the player may build a road
+     */
+    static Set<Edge> scanBuildableRoadEdges(final HexGrid grid, final Player player, final boolean firstRound) {
+        Stream<Edge> edges = grid.getEdges().values().stream()
             .filter(edge -> !edge.hasRoad());
-        if (isFirstRound()) {
+        if (firstRound) {
             edges = edges.filter(edge -> edge.getIntersections().stream()
                 .anyMatch(intersection -> intersection.playerHasSettlement(player)
                     && intersection.getConnectedEdges().stream().noneMatch(Edge::hasRoad)));
@@ -426,7 +595,7 @@ public class    PlayerController {
             edges = edges.filter(edge -> edge.getConnectedRoads(player).size() < 4)
                 .filter(edge -> !edge.getConnectedRoads(player).isEmpty());
         }
-        return edges.collect(Collectors.toUnmodifiableSet());
+        return edges.collect(toOrderedSet());
     }
 
     /**
@@ -440,7 +609,7 @@ public class    PlayerController {
     @StudentImplementationRequired("H2.4")
     public boolean canBuildRoad() {
         return (player.hasResources(Config.ROAD_BUILDING_COST)
-            || playerObjectiveProperty.getValue() == PlayerObjective.PLACE_ROAD)
+            || playerObjective == PlayerObjective.PLACE_ROAD)
             && player.getRemainingRoads() > 0;
     }
 
@@ -473,7 +642,7 @@ public class    PlayerController {
         if (!canBuildRoad()) throw new IllegalActionException("Cannot build road");
         if (!player.getHexGrid().addRoad(position0, position1, player, isFirstRound()))
             throw new IllegalActionException("Cannot build road");
-        if (playerObjectiveProperty.getValue() != PlayerObjective.PLACE_ROAD)
+        if (playerObjective != PlayerObjective.PLACE_ROAD)
             player.removeResources(Config.ROAD_BUILDING_COST);
     }
 
@@ -670,7 +839,7 @@ public class    PlayerController {
         }
 
         if (!accepted) {
-            playerObjectiveProperty.setValue(PlayerObjective.IDLE);
+            setPlayerObjective(PlayerObjective.IDLE);
             return;
         }
 
@@ -687,7 +856,7 @@ public class    PlayerController {
         tradingPlayer.removeResources(playerTradingOffer);
         tradingPlayer.addResources(playerTradingRequest);
 
-        playerObjectiveProperty.setValue(PlayerObjective.IDLE);
+        setPlayerObjective(PlayerObjective.IDLE);
     }
 
     // Robber methods
@@ -704,7 +873,7 @@ public class    PlayerController {
         if (!player.hasResources(resourcesToDrop)) {
             return;
         }
-        playerObjectiveProperty.setValue(PlayerObjective.IDLE);
+        setPlayerObjective(PlayerObjective.IDLE);
         // remove resources from player
         player.removeResources(resourcesToDrop);
         cardsToSelect = 0;
@@ -723,7 +892,7 @@ public class    PlayerController {
         if (!playerToStealFrom.removeResource(resourceToSteal, 1)) {
             throw new IllegalActionException("Player does not have the selected resource");
         }
-        playerObjectiveProperty.setValue(PlayerObjective.IDLE);
+        setPlayerObjective(PlayerObjective.IDLE);
         // add resource to player
         player.addResource(resourceToSteal, 1);
     }
@@ -746,6 +915,21 @@ public class    PlayerController {
         if (gameController.getState().getGrid().getRobberPosition() == null) {
             return List.of();
         }
+        if (gameController.getState().getGrid() instanceof final HexGridImpl hexGridImpl) {
+            final int robberTile = hexGridImpl.indexOf(hexGridImpl.getTileAt(hexGridImpl.getRobberPosition()));
+            List<Player> players = null;
+            for (final int intersection : hexGridImpl.getAdjacency().tileIntersections(robberTile)) {
+                final Settlement settlement = hexGridImpl.getIntersection(intersection).getSettlement();
+                if (settlement != null && !player.equals(settlement.owner())
+                    && !settlement.owner().getResources().isEmpty()) {
+                    if (players == null) {
+                        players = new ArrayList<>();
+                    }
+                    players.add(settlement.owner());
+                }
+            }
+            return players != null ? Collections.unmodifiableList(players) : List.of();
+        }
         return gameController.getState().getGrid().getTileAt(gameController.getState().getGrid().getRobberPosition())
             .getIntersections().stream()
             .filter(Intersection::hasSettlement)
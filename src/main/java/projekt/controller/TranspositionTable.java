@@ -0,0 +1,253 @@
+package projekt.controller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded table of search results keyed by the hash of a position, see {@link projekt.model.GameState#getStateHash()}.
+ * <p>
+ * An entry holds the value of a position, the best move found for it, the depth it was searched to and the
+ * generation of the search that stored it. The best move is the index of the action in the order of the
+ * {@link LegalActionGenerator}, which is the same whenever the position and objective are the same.
+ * <p>
+ * The table does not lock. Every entry is packed into a single long and stored next to the XOR of the hash and
+ * the packed entry. A reader only accepts an entry whose stored key XOR entry equals the hash it looks for, so
+ * an entry torn by two threads writing the same slot at once is treated like a miss instead of being returned
+ * with the wrong hash. Entries are grouped in buckets of {@value #BUCKET_SIZE} slots. A new entry replaces the
+ * entry for the same hash, an empty slot or else the slot with the least depth, where every generation an entry
+ * is older than the current one counts like {@value #AGE_PENALTY} plies less. Calling {@link #newSearch()}
+ * at the start of each search thus lets deep but stale results be evicted eventually.
+ * <p>
+ * As the table is thread-safe and keys are the same in every game, one table may be shared by any amount of AIs
+ * and games, e.g. by passing it to the AIs of all seats of a {@link projekt.tournament.Tournament}.
+ */
+public final class TranspositionTable {
+
+    /**
+     * The amount of entries per bucket.
+     */
+    public static final int BUCKET_SIZE = 4;
+
+    /**
+     * The amount of bytes an entry takes up.
+     */
+    public static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    /**
+     * The packed entry returned by {@link #probe(long)} on a miss.
+     */
+    public static final long MISS = 0;
+
+    /**
+     * The maximum depth that can be stored, larger depths are clamped.
+     */
+    public static final int MAX_DEPTH = 127;
+
+    /**
+     * The move stored if there is no best move.
+     */
+    public static final int NO_MOVE = -1;
+
+    private static final int AGE_PENALTY = 8;
+    private static final int AGE_BITS = 8;
+    private static final int AGE_MASK = (1 << AGE_BITS) - 1;
+    private static final int DEPTH_SHIFT = 8;
+    private static final long PRESENT = 1L << 15;
+    private static final int MOVE_SHIFT = 16;
+    private static final int MOVE_MASK = 0xffff;
+    private static final int VALUE_SHIFT = 32;
+
+    // slot i is stored at 2 * i (hash XOR entry) and 2 * i + 1 (entry)
+    private final AtomicLongArray slots;
+    private final int bucketMask;
+    private final AtomicInteger generation = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * Creates a new table that takes up at most the given amount of memory for its entries.
+     * The amount of buckets is the largest power of two that fits.
+     *
+     * @param maxBytes the maximum amount of bytes
+     * @throws IllegalArgumentException if not even a single bucket fits
+     */
+    public TranspositionTable(final long maxBytes) {
+        final long buckets = maxBytes / ((long) ENTRY_BYTES * BUCKET_SIZE);
+        if (buckets < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least " + ENTRY_BYTES * BUCKET_SIZE + " bytes");
+        }
+        // the slots array holds two longs per entry and is indexed by int
+        final long bucketCount = Math.min(Long.highestOneBit(buckets), (1L << 30) / (BUCKET_SIZE * 2));
+        this.slots = new AtomicLongArray((int) (bucketCount * BUCKET_SIZE * 2));
+        this.bucketMask = (int) bucketCount - 1;
+    }
+
+    /**
+     * Returns the amount of entries this table can hold.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return slots.length() / 2;
+    }
+
+    /**
+     * Returns the amount of memory taken up by the entries of this table.
+     *
+     * @return the amount of bytes
+     */
+    public long getMemoryBytes() {
+        return (long) getCapacity() * ENTRY_BYTES;
+    }
+
+    /**
+     * Starts a new generation, so that the entries stored so far are preferred for eviction.
+     */
+    public void newSearch() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Looks up the entry for the given hash.
+     *
+     * @param hash the hash of the position
+     * @return the packed entry, to be read with {@link #value(long)}, {@link #move(long)} and {@link #depth(long)},
+     *     or {@link #MISS}, if there is none
+     */
+    public long probe(final long hash) {
+        final int bucket = bucketOf(hash);
+        for (int slot = bucket; slot < bucket + BUCKET_SIZE; slot++) {
+            final long entry = slots.getAcquire(2 * slot + 1);
+            if (entry != MISS && (slots.getAcquire(2 * slot) ^ entry) == hash) {
+                hits.increment();
+                return entry;
+            }
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    /**
+     * Stores the result of a search of the given position.
+     *
+     * @param hash  the hash of the position
+     * @param value the value of the position
+     * @param move  the index of the best move or {@link #NO_MOVE}
+     * @param depth the depth the position was searched to, clamped to {@link #MAX_DEPTH}
+     * @throws IllegalArgumentException if the move cannot be stored
+     */
+    public void store(final long hash, final float value, final int move, final int depth) {
+        if (move < NO_MOVE || move >= MOVE_MASK) {
+            throw new IllegalArgumentException("Move index " + move + " cannot be stored");
+        }
+        final int age = generation.get() & AGE_MASK;
+        final long entry = (long) Float.floatToRawIntBits(value) << VALUE_SHIFT
+            | (long) (move + 1) << MOVE_SHIFT
+            | PRESENT
+            | (long) Math.max(0, Math.min(depth, MAX_DEPTH)) << DEPTH_SHIFT
+            | age;
+        final int bucket = bucketOf(hash);
+        int victim = bucket;
+        int victimPriority = Integer.MAX_VALUE;
+        for (int slot = bucket; slot < bucket + BUCKET_SIZE; slot++) {
+            final long current = slots.getAcquire(2 * slot + 1);
+            if (current == MISS || (slots.getAcquire(2 * slot) ^ current) == hash) {
+                victim = slot;
+                break;
+            }
+            final int priority = depth(current) - AGE_PENALTY * ((age - (int) (current & AGE_MASK)) & AGE_MASK);
+            if (priority < victimPriority) {
+                victimPriority = priority;
+                victim = slot;
+            }
+        }
+        slots.setRelease(2 * victim, hash ^ entry);
+        slots.setRelease(2 * victim + 1, entry);
+        stores.increment();
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     * Must not be called while other threads use the table.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.setPlain(i, 0);
+        }
+        hits.reset();
+        misses.reset();
+        stores.reset();
+    }
+
+    /**
+     * Returns the amount of probes that found an entry.
+     *
+     * @return the amount of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the amount of probes that did not find an entry.
+     *
+     * @return the amount of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the amount of stored entries, including the ones that replaced others.
+     *
+     * @return the amount of stores
+     */
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * Returns the value of the given entry.
+     *
+     * @param entry an entry returned by {@link #probe(long)}
+     * @return the value
+     */
+    public static float value(final long entry) {
+        return Float.intBitsToFloat((int) (entry >>> VALUE_SHIFT));
+    }
+
+    /**
+     * Returns the best move of the given entry.
+     *
+     * @param entry an entry returned by {@link #probe(long)}
+     * @return the index of the best move or {@link #NO_MOVE}
+     */
+    public static int move(final long entry) {
+        return (int) (entry >>> MOVE_SHIFT & MOVE_MASK) - 1;
+    }
+
+    /**
+     * Returns the depth of the given entry.
+     *
+     * @param entry an entry returned by {@link #probe(long)}
+     * @return the depth
+     */
+    public static int depth(final long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    private int bucketOf(final long hash) {
+        // the low bits of the hash select the bucket, mix in the high bits as they are checked anyway
+        return ((int) (hash ^ hash >>> 32) & bucketMask) * BUCKET_SIZE;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "TranspositionTable[capacity=%d, hits=%d, misses=%d, stores=%d]",
+            getCapacity(), getHits(), getMisses(), getStores()
+        );
+    }
+}
@@ -0,0 +1,286 @@
+package projekt.model;
+
+import projekt.model.buildings.Edge;
+import projekt.model.buildings.Settlement;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the intersections and edges every player may build on.
+ * <p>
+ * An intersection is free if neither it nor one of its neighbours is occupied by a settlement. A player may build a
+ * village on a free intersection that one of its roads leads to and a road on an empty edge that is connected to
+ * one of its roads. Instead of scanning the whole grid for every query, the counts these rules are based on are
+ * updated whenever a settlement is placed or removed or the owner of a road changes. Only the entries around the
+ * changed intersection or edge are touched, and the sets handed out are only rebuilt after one of their entries
+ * has changed. The sets are ordered by index and never modified after they have been handed out.
+ */
+public final class BuildSites {
+
+    private final HexGridImpl grid;
+    private final int[] blockers;
+    private final Player[] roadOwners;
+    private final Map<Player, Sites> sites = new HashMap<>();
+    private Set<Intersection> freeIntersections;
+
+    /**
+     * Creates the build sites of the given grid.
+     * The grid's intersections, edges and adjacency must already be initialized.
+     *
+     * @param grid the grid
+     */
+    BuildSites(final HexGridImpl grid) {
+        this.grid = grid;
+        this.blockers = new int[grid.getIntersectionCount()];
+        this.roadOwners = new Player[grid.getEdgeCount()];
+        for (int i = 0; i < blockers.length; i++) {
+            final Settlement settlement = grid.getIntersection(i).getSettlement();
+            if (settlement != null) {
+                settlementChanged(i, null, settlement);
+            }
+        }
+        for (int e = 0; e < roadOwners.length; e++) {
+            final Player owner = grid.getEdge(e).getRoadOwner();
+            if (owner != null) {
+                roadChanged(e, null, owner);
+            }
+        }
+    }
+
+    /**
+     * Returns all free intersections, i.e. the intersections a village can be placed on in the first round.
+     *
+     * @return an unmodifiable set of the free intersections
+     */
+    public Set<Intersection> getFreeIntersections() {
+        if (freeIntersections == null) {
+            final Set<Intersection> free = new LinkedHashSet<>();
+            for (int i = 0; i < blockers.length; i++) {
+                if (blockers[i] == 0) {
+                    free.add(grid.getIntersection(i));
+                }
+            }
+            freeIntersections = Collections.unmodifiableSet(free);
+        }
+        return freeIntersections;
+    }
+
+    /**
+     * Returns all free intersections one of the given player's roads leads to.
+     *
+     * @param player the player
+     * @return an unmodifiable set of the intersections the player can build a village on
+     */
+    public Set<Intersection> getVillageSites(final Player player) {
+        final Sites playerSites = sitesOf(player);
+        if (playerSites.villageSet == null) {
+            final Set<Intersection> villages = new LinkedHashSet<>();
+            playerSites.villages.stream().forEach(i -> villages.add(grid.getIntersection(i)));
+            playerSites.villageSet = Collections.unmodifiableSet(villages);
+        }
+        return playerSites.villageSet;
+    }
+
+    /**
+     * Returns all empty edges that are connected to at least one and at most three roads of the given player.
+     *
+     * @param player the player
+     * @return an unmodifiable set of the edges the player can build a road on
+     */
+    public Set<Edge> getRoadSites(final Player player) {
+        final Sites playerSites = sitesOf(player);
+        if (playerSites.roadSet == null) {
+            final Set<Edge> roads = new LinkedHashSet<>();
+            playerSites.roads.stream().forEach(e -> roads.add(grid.getEdge(e)));
+            playerSites.roadSet = Collections.unmodifiableSet(roads);
+        }
+        return playerSites.roadSet;
+    }
+
+    /**
+     * Returns all edges next to a settlement of the given player that has no road next to it yet,
+     * i.e. the edges a road can be placed on in the first round.
+     *
+     * @param player the player
+     * @return an unmodifiable set of the edges the player can place a road on in the first round
+     */
+    public Set<Edge> getInitialRoadSites(final Player player) {
+        final Set<Edge> roads = new LinkedHashSet<>();
+        for (final Settlement settlement : grid.getSettlements(player)) {
+            final int[] edges = grid.getAdjacency().intersectionEdges(grid.indexOf(settlement.intersection()));
+            if (noneHasRoad(edges)) {
+                for (final int e : edges) {
+                    roads.add(grid.getEdge(e));
+                }
+            }
+        }
+        return Collections.unmodifiableSet(roads);
+    }
+
+    /**
+     * Returns whether the intersection with the given index is free.
+     *
+     * @param intersection the index of the intersection
+     * @return true if neither the intersection nor one of its neighbours has a settlement, false otherwise
+     */
+    public boolean isFree(final int intersection) {
+        return blockers[intersection] == 0;
+    }
+
+    /**
+     * Returns whether the edge with the given index has a road.
+     *
+     * @param edge the index of the edge
+     * @return true if the edge has a road, false otherwise
+     */
+    public boolean hasRoad(final int edge) {
+        return roadOwners[edge] != null;
+    }
+
+    /**
+     * Returns the index of the next intersection the given player can build a village on, starting at the given index.
+     * Unlike {@link #getVillageSites(Player)}, this neither creates nor iterates a set.
+     *
+     * @param player the player
+     * @param from   the index to start at, inclusive
+     * @return the index of the intersection or -1, if there is none
+     */
+    public int nextVillageSite(final Player player, final int from) {
+        return sitesOf(player).villages.nextSetBit(from);
+    }
+
+    /**
+     * Returns the index of the next edge the given player can build a road on, starting at the given index.
+     * Unlike {@link #getRoadSites(Player)}, this neither creates nor iterates a set.
+     *
+     * @param player the player
+     * @param from   the index to start at, inclusive
+     * @return the index of the edge or -1, if there is none
+     */
+    public int nextRoadSite(final Player player, final int from) {
+        return sitesOf(player).roads.nextSetBit(from);
+    }
+
+    private boolean noneHasRoad(final int[] edges) {
+        for (final int e : edges) {
+            if (roadOwners[e] != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Updates the sites after the settlement on the given intersection has changed.
+     *
+     * @param intersection the index of the intersection
+     * @param previous     the previous settlement, may be {@code null}
+     * @param current      the current settlement, may be {@code null}
+     */
+    void settlementChanged(final int intersection, final Settlement previous, final Settlement current) {
+        if ((previous == null) == (current == null)) {
+            return;
+        }
+        final int delta = current != null ? 1 : -1;
+        block(intersection, delta);
+        for (final int neighbour : grid.getAdjacency().intersectionNeighbours(intersection)) {
+            block(neighbour, delta);
+        }
+        freeIntersections = null;
+    }
+
+    private void block(final int intersection, final int delta) {
+        blockers[intersection] += delta;
+        for (final Sites playerSites : sites.values()) {
+            playerSites.updateVillage(intersection);
+        }
+    }
+
+    /**
+     * Updates the sites after the owner of the road on the given edge has changed.
+     *
+     * @param edge     the index of the edge
+     * @param previous the previous owner, may be {@code null}
+     * @param current  the current owner, may be {@code null}
+     */
+    void roadChanged(final int edge, final Player previous, final Player current) {
+        if (previous == current) {
+            return;
+        }
+        // look up the sites first, new sites count the roads of their player that are already registered
+        final Sites previousSites = previous != null ? sitesOf(previous) : null;
+        final Sites currentSites = current != null ? sitesOf(current) : null;
+        roadOwners[edge] = current;
+        if (previousSites != null) {
+            previousSites.roadChanged(edge, -1);
+        }
+        if (currentSites != null) {
+            currentSites.roadChanged(edge, 1);
+        }
+        // the edge itself is no longer available to anyone else, or available again
+        for (final Sites playerSites : sites.values()) {
+            playerSites.updateRoad(edge);
+        }
+    }
+
+    private Sites sitesOf(final Player player) {
+        Sites playerSites = sites.get(player);
+        if (playerSites == null) {
+            playerSites = new Sites();
+            sites.put(player, playerSites);
+            for (int e = 0; e < roadOwners.length; e++) {
+                if (roadOwners[e] == player) {
+                    playerSites.roadChanged(e, 1);
+                }
+            }
+        }
+        return playerSites;
+    }
+
+    /**
+     * The road counts and resulting sites of a single player.
+     */
+    private final class Sites {
+
+        // roads of the player ending at each intersection
+        private final int[] roadEnds = new int[blockers.length];
+        // roads of the player connected to each edge
+        private final int[] connectedRoads = new int[roadOwners.length];
+        private final BitSet villages = new BitSet(blockers.length);
+        private final BitSet roads = new BitSet(roadOwners.length);
+        private Set<Intersection> villageSet;
+        private Set<Edge> roadSet;
+
+        private void roadChanged(final int edge, final int delta) {
+            for (final int intersection : grid.getAdjacency().edgeIntersections(edge)) {
+                roadEnds[intersection] += delta;
+                updateVillage(intersection);
+            }
+            for (final int connected : grid.getAdjacency().edgeConnectedEdges(edge)) {
+                connectedRoads[connected] += delta;
+                updateRoad(connected);
+            }
+        }
+
+        private void updateVillage(final int intersection) {
+            final boolean site = blockers[intersection] == 0 && roadEnds[intersection] > 0;
+            if (villages.get(intersection) != site) {
+                villages.set(intersection, site);
+                villageSet = null;
+            }
+        }
+
+        private void updateRoad(final int edge) {
+            final boolean site = roadOwners[edge] == null && connectedRoads[edge] > 0 && connectedRoads[edge] < 4;
+            if (roads.get(edge) != site) {
+                roads.set(edge, site);
+                roadSet = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,1394 @@
+package projekt.model;
+
+import projekt.Config;
+import projekt.model.buildings.Port;
+import projekt.model.buildings.Settlement;
+import projekt.model.tiles.Tile;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A compact copy of a game that can be played to the end quickly, e.g. for the rollouts of a tree search.
+ * <p>
+ * The state is stored as flat arrays indexed by the dense tile, intersection and edge indices of the
+ * {@link HexGridImpl} it was created from and by the position of the players in the {@link GameState}:
+ * <ul>
+ *     <li>the resource type and roll number of every tile and the tile of the robber,</li>
+ *     <li>the owner and level (1 for a village, 2 for a city) of the settlement on every intersection,</li>
+ *     <li>the owner of the road on every edge,</li>
+ *     <li>the resources, development cards, knights played, trade ratios and points of every player.</li>
+ * </ul>
+ * Everything that does not change during a game, i.e. the tiles, adjacency, ports and development card ratios,
+ * is kept in a {@link Board} shared by all copies, so {@link #copy()} and {@link #copyFrom(CompactGameState)} only
+ * copy a few small arrays. Players are referred to by their index, see {@link #getPlayer(int)}, and -1 stands for
+ * no player.
+ * <p>
+ * The rules mirror those of the {@link projekt.controller.GameController}: the active player rolls the dice,
+ * a 7 makes every player with more than 7 cards drop half of them and lets the active player move the robber and
+ * steal a card, then the dice are cast once more before the player may build, trade with the bank and buy and play
+ * development cards. Development cards are drawn from an endless stack with the configured ratios. A player wins
+ * at the end of a turn with {@link Config#REQUIRED_VICTORY_POINTS}, including the bonuses kept like in the
+ * {@link ScoreLedger}. Trades between players are not simulated.
+ * <p>
+ * {@link #playTurn(Random)} and {@link #playout(Random, int)} play with a simple built-in policy that prefers
+ * cities, villages on the intersections with the most production and roads towards new sites.
+ * A state must only be used by one thread at a time, different copies may be used by different threads.
+ */
+public final class CompactGameState {
+
+    /**
+     * The level of a village.
+     */
+    public static final int VILLAGE = 1;
+
+    /**
+     * The level of a city.
+     */
+    public static final int CITY = 2;
+
+    private static final int RESOURCES = ResourceType.values().length;
+    private static final int CARDS = DevelopmentCardType.values().length;
+    private static final int KNIGHT = DevelopmentCardType.KNIGHT.ordinal();
+    private static final int VICTORY_POINTS = DevelopmentCardType.VICTORY_POINTS.ordinal();
+    private static final int ROAD_BUILDING = DevelopmentCardType.ROAD_BUILDING.ordinal();
+    private static final int INVENTION = DevelopmentCardType.INVENTION.ordinal();
+    private static final int MONOPOLY = DevelopmentCardType.MONOPOLY.ordinal();
+    private static final int[] ROAD_COST = cost(Config.ROAD_BUILDING_COST);
+    private static final int[] VILLAGE_COST = cost(Config.SETTLEMENT_BUILDING_COST.get(Settlement.Type.VILLAGE));
+    private static final int[] CITY_COST = cost(Config.SETTLEMENT_BUILDING_COST.get(Settlement.Type.CITY));
+    private static final int[] DEVELOPMENT_CARD_COST = cost(Config.DEVELOPMENT_CARD_COST);
+    private static final int MAX_DROP_HAND = 7;
+    private static final int MAX_ACTIONS_PER_TURN = 24;
+
+    private final Board board;
+    private final byte[] settlementOwners;
+    private final byte[] settlementLevels;
+    private final byte[] roadOwners;
+    private final int[] resources;
+    private final int[] developmentCards;
+    private final int[] knightsPlayed;
+    private final int[] tradeRatios;
+    private final int[] buildingPoints;
+    private final int[] longestRoads;
+    private final int[] roadsLeft;
+    private final int[] villagesLeft;
+    private final int[] citiesLeft;
+    private int robberTile;
+    private int mostKnightsHolder = -1;
+    private int longestRoadHolder = -1;
+    private int currentPlayer;
+    private boolean rolled;
+    private int turns;
+    private int winner = -1;
+
+    // scratch space of the longest road search, created on first use
+    private boolean[] usedEdges;
+
+    private CompactGameState(final Board board) {
+        final int players = board.players.length;
+        this.board = board;
+        this.settlementOwners = new byte[board.intersectionTiles.length];
+        this.settlementLevels = new byte[board.intersectionTiles.length];
+        this.roadOwners = new byte[board.edgeIntersections.length];
+        this.resources = new int[players * RESOURCES];
+        this.developmentCards = new int[players * CARDS];
+        this.knightsPlayed = new int[players];
+        this.tradeRatios = new int[players * RESOURCES];
+        this.buildingPoints = new int[players];
+        this.longestRoads = new int[players];
+        this.roadsLeft = new int[players];
+        this.villagesLeft = new int[players];
+        this.citiesLeft = new int[players];
+    }
+
+    /**
+     * Creates a compact copy of the given game in a single pass over its grid and players.
+     * The first player is to move and has not rolled the dice yet.
+     *
+     * @param state the game, its grid must be a {@link HexGridImpl}
+     * @return the compact copy
+     * @throws IllegalArgumentException if the grid of the game is not a {@link HexGridImpl}
+     */
+    public static CompactGameState of(final GameState state) {
+        return of(state, null, false);
+    }
+
+    /**
+     * Creates a compact copy of the given game in a single pass over its grid and players.
+     *
+     * @param state         the game, its grid must be a {@link HexGridImpl}
+     * @param currentPlayer the player to move, the first player if {@code null}
+     * @param rolled        whether the player to move has already rolled the dice this turn
+     * @return the compact copy
+     * @throws IllegalArgumentException if the grid of the game is not a {@link HexGridImpl} or the player is not
+     *                                  part of the game
+     */
+    public static CompactGameState of(final GameState state, final Player currentPlayer, final boolean rolled) {
+        if (!(state.getGrid() instanceof final HexGridImpl grid)) {
+            throw new IllegalArgumentException("Compact states can only be created from a HexGridImpl");
+        }
+        final List<Player> players = state.getPlayers();
+        final CompactGameState compact = new CompactGameState(new Board(grid, players));
+        for (int i = 0; i < compact.settlementOwners.length; i++) {
+            final Settlement settlement = grid.getIntersection(i).getSettlement();
+            compact.settlementOwners[i] = (byte) (settlement == null ? -1 : players.indexOf(settlement.owner()));
+            compact.settlementLevels[i] = (byte) (settlement == null ? 0 : settlement.type().resourceAmount);
+        }
+        for (int e = 0; e < compact.roadOwners.length; e++) {
+            final Player owner = grid.getEdge(e).getRoadOwner();
+            compact.roadOwners[e] = (byte) (owner == null ? -1 : players.indexOf(owner));
+        }
+        final ScoreLedger ledger = grid.getScoreLedger();
+        for (int p = 0; p < players.size(); p++) {
+            final Player player = players.get(p);
+            for (final ResourceType resourceType : ResourceType.values()) {
+                compact.resources[p * RESOURCES + resourceType.ordinal()] = player.getResources().getOrDefault(resourceType, 0);
+                compact.tradeRatios[p * RESOURCES + resourceType.ordinal()] = grid.getTradeRatio(player, resourceType);
+            }
+            for (final DevelopmentCardType developmentCardType : DevelopmentCardType.values()) {
+                compact.developmentCards[p * CARDS + developmentCardType.ordinal()] =
+                    player.getDevelopmentCards().getOrDefault(developmentCardType, 0);
+            }
+            compact.knightsPlayed[p] = player.getKnightsPlayed();
+            compact.longestRoads[p] = grid.getLongestRoad(player).size();
+            compact.roadsLeft[p] = player.getRemainingRoads();
+            compact.villagesLeft[p] = player.getRemainingVillages();
+            compact.citiesLeft[p] = player.getRemainingCities();
+            for (final Settlement settlement : grid.getSettlements(player)) {
+                compact.buildingPoints[p] += settlement.type().resourceAmount;
+            }
+        }
+        compact.mostKnightsHolder = players.indexOf(ledger.getMostKnightsHolder());
+        compact.longestRoadHolder = players.indexOf(ledger.getLongestRoadHolder());
+        compact.robberTile = grid.getRobberPosition() == null
+            ? -1
+            : grid.tileIndexAt(grid.getRobberPosition().q(), grid.getRobberPosition().r());
+        compact.currentPlayer = currentPlayer == null ? 0 : players.indexOf(currentPlayer);
+        if (compact.currentPlayer < 0) {
+            throw new IllegalArgumentException("Player " + currentPlayer + " is not part of the game");
+        }
+        compact.rolled = rolled;
+        compact.winner = state.getWinnerProperty().getValue() == null
+            ? -1
+            : players.indexOf(state.getWinnerProperty().getValue());
+        return compact;
+    }
+
+    /**
+     * Returns a copy of this state that shares the board with it.
+     *
+     * @return the copy
+     */
+    public CompactGameState copy() {
+        final CompactGameState copy = new CompactGameState(board);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrites this state with the given one without allocating anything.
+     *
+     * @param other a state of the same game, e.g. created by {@link #copy()}
+     * @throws IllegalArgumentException if the other state does not share the board with this one
+     */
+    public void copyFrom(final CompactGameState other) {
+        if (other.board != board) {
+            throw new IllegalArgumentException("States of different games cannot be copied");
+        }
+        System.arraycopy(other.settlementOwners, 0, settlementOwners, 0, settlementOwners.length);
+        System.arraycopy(other.settlementLevels, 0, settlementLevels, 0, settlementLevels.length);
+        System.arraycopy(other.roadOwners, 0, roadOwners, 0, roadOwners.length);
+        System.arraycopy(other.resources, 0, resources, 0, resources.length);
+        System.arraycopy(other.developmentCards, 0, developmentCards, 0, developmentCards.length);
+        System.arraycopy(other.knightsPlayed, 0, knightsPlayed, 0, knightsPlayed.length);
+        System.arraycopy(other.tradeRatios, 0, tradeRatios, 0, tradeRatios.length);
+        System.arraycopy(other.buildingPoints, 0, buildingPoints, 0, buildingPoints.length);
+        System.arraycopy(other.longestRoads, 0, longestRoads, 0, longestRoads.length);
+        System.arraycopy(other.roadsLeft, 0, roadsLeft, 0, roadsLeft.length);
+        System.arraycopy(other.villagesLeft, 0, villagesLeft, 0, villagesLeft.length);
+        System.arraycopy(other.citiesLeft, 0, citiesLeft, 0, citiesLeft.length);
+        robberTile = other.robberTile;
+        mostKnightsHolder = other.mostKnightsHolder;
+        longestRoadHolder = other.longestRoadHolder;
+        currentPlayer = other.currentPlayer;
+        rolled = other.rolled;
+        turns = other.turns;
+        winner = other.winner;
+    }
+
+
+    // Queries
+
+    /**
+     * Returns the amount of players.
+     *
+     * @return the amount of players
+     */
+    public int getPlayerCount() {
+        return board.players.length;
+    }
+
+    /**
+     * Returns the player with the given index.
+     *
+     * @param player the index of the player
+     * @return the player
+     */
+    public Player getPlayer(final int player) {
+        return board.players[player];
+    }
+
+    /**
+     * Returns the number of tiles.
+     *
+     * @return the number of tiles
+     */
+    public int getTileCount() {
+        return board.tileResources.length;
+    }
+
+    /**
+     * Returns the number of intersections.
+     *
+     * @return the number of intersections
+     */
+    public int getIntersectionCount() {
+        return settlementOwners.length;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return roadOwners.length;
+    }
+
+    /**
+     * Returns the ordinal of the resource type the tile with the given index produces.
+     *
+     * @param tile the index of the tile
+     * @return the ordinal of the {@link ResourceType} or -1, if the tile does not produce anything
+     */
+    public int getTileResource(final int tile) {
+        return board.tileResources[tile];
+    }
+
+    /**
+     * Returns the roll number of the tile with the given index.
+     *
+     * @param tile the index of the tile
+     * @return the roll number or 0, if the tile does not produce anything
+     */
+    public int getTileRoll(final int tile) {
+        return board.tileRolls[tile];
+    }
+
+    /**
+     * Returns the index of the tile the robber is placed on.
+     *
+     * @return the index of the tile or -1, if there is no robber
+     */
+    public int getRobberTile() {
+        return robberTile;
+    }
+
+    /**
+     * Returns the owner of the settlement on the intersection with the given index.
+     *
+     * @param intersection the index of the intersection
+     * @return the index of the owner or -1, if there is no settlement
+     */
+    public int getSettlementOwner(final int intersection) {
+        return settlementOwners[intersection];
+    }
+
+    /**
+     * Returns the level of the settlement on the intersection with the given index.
+     *
+     * @param intersection the index of the intersection
+     * @return {@link #VILLAGE}, {@link #CITY} or 0, if there is no settlement
+     */
+    public int getSettlementLevel(final int intersection) {
+        return settlementLevels[intersection];
+    }
+
+    /**
+     * Returns the owner of the road on the edge with the given index.
+     *
+     * @param edge the index of the edge
+     * @return the index of the owner or -1, if there is no road
+     */
+    public int getRoadOwner(final int edge) {
+        return roadOwners[edge];
+    }
+
+    /**
+     * Returns the amount of the given resource the given player has.
+     *
+     * @param player   the index of the player
+     * @param resource the ordinal of the {@link ResourceType}
+     * @return the amount of the resource
+     */
+    public int getResource(final int player, final int resource) {
+        return resources[player * RESOURCES + resource];
+    }
+
+    /**
+     * Returns the total amount of resources the given player has.
+     *
+     * @param player the index of the player
+     * @return the amount of resources
+     */
+    public int getTotalResources(final int player) {
+        int total = 0;
+        for (int r = 0; r < RESOURCES; r++) {
+            total += resources[player * RESOURCES + r];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the amount of development cards of the given type the given player holds.
+     *
+     * @param player              the index of the player
+     * @param developmentCardType the ordinal of the {@link DevelopmentCardType}
+     * @return the amount of cards
+     */
+    public int getDevelopmentCards(final int player, final int developmentCardType) {
+        return developmentCards[player * CARDS + developmentCardType];
+    }
+
+    /**
+     * Returns the amount of knights the given player has played.
+     *
+     * @param player the index of the player
+     * @return the amount of knights played
+     */
+    public int getKnightsPlayed(final int player) {
+        return knightsPlayed[player];
+    }
+
+    /**
+     * Returns the ratio the given player can trade the given resource at with the bank.
+     *
+     * @param player   the index of the player
+     * @param resource the ordinal of the {@link ResourceType}
+     * @return the trade ratio
+     */
+    public int getTradeRatio(final int player, final int resource) {
+        return tradeRatios[player * RESOURCES + resource];
+    }
+
+    /**
+     * Returns the amount of roads the given player can still build.
+     *
+     * @param player the index of the player
+     * @return the amount of roads left
+     */
+    public int getRemainingRoads(final int player) {
+        return roadsLeft[player];
+    }
+
+    /**
+     * Returns the amount of villages the given player can still build.
+     *
+     * @param player the index of the player
+     * @return the amount of villages left
+     */
+    public int getRemainingVillages(final int player) {
+        return villagesLeft[player];
+    }
+
+    /**
+     * Returns the amount of villages the given player can still upgrade to cities.
+     *
+     * @param player the index of the player
+     * @return the amount of cities left
+     */
+    public int getRemainingCities(final int player) {
+        return citiesLeft[player];
+    }
+
+    /**
+     * Returns the length of the longest road of the given player.
+     *
+     * @param player the index of the player
+     * @return the length of the longest road
+     */
+    public int getLongestRoad(final int player) {
+        return longestRoads[player];
+    }
+
+    /**
+     * Returns the victory points of the given player, including all bonuses.
+     *
+     * @param player the index of the player
+     * @return the victory points
+     */
+    public int getVictoryPoints(final int player) {
+        return buildingPoints[player] + developmentCards[player * CARDS + VICTORY_POINTS]
+            + (player == mostKnightsHolder ? ScoreLedger.BONUS_POINTS : 0)
+            + (player == longestRoadHolder ? ScoreLedger.BONUS_POINTS : 0);
+    }
+
+    /**
+     * Returns the player that holds the bonus for the most knights played.
+     *
+     * @return the index of the player or -1, if no player holds it
+     */
+    public int getMostKnightsHolder() {
+        return mostKnightsHolder;
+    }
+
+    /**
+     * Returns the player that holds the bonus for the longest road.
+     *
+     * @return the index of the player or -1, if no player holds it
+     */
+    public int getLongestRoadHolder() {
+        return longestRoadHolder;
+    }
+
+    /**
+     * Returns the player to move.
+     *
+     * @return the index of the player
+     */
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    /**
+     * Returns whether the player to move has already rolled the dice this turn.
+     *
+     * @return true if the dice have been rolled, false otherwise
+     */
+    public boolean hasRolled() {
+        return rolled;
+    }
+
+    /**
+     * Returns the amount of turns played on this state or the states it was copied from.
+     *
+     * @return the amount of turns
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Returns the winner of the game.
+     *
+     * @return the index of the winner or -1, if nobody has won yet
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns the sum of the pips, i.e. the amount of the 36 possible rolls that produce, of the tiles next to the
+     * intersection with the given index.
+     *
+     * @param intersection the index of the intersection
+     * @return the pips of the intersection
+     */
+    public int getPips(final int intersection) {
+        return board.pips[intersection];
+    }
+
+    /**
+     * Returns whether neither the intersection with the given index nor one of its neighbours has a settlement.
+     *
+     * @param intersection the index of the intersection
+     * @return true if the intersection is free, false otherwise
+     */
+    public boolean isFree(final int intersection) {
+        if (settlementOwners[intersection] >= 0) {
+            return false;
+        }
+        for (final int neighbour : board.intersectionNeighbours[intersection]) {
+            if (settlementOwners[neighbour] >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the given player can build a village on the intersection with the given index during a
+     * regular turn, i.e. the intersection is free and one of the player's roads leads to it.
+     *
+     * @param player       the index of the player
+     * @param intersection the index of the intersection
+     * @return true if the intersection is a village site of the player, false otherwise
+     */
+    public boolean isVillageSite(final int player, final int intersection) {
+        if (!isFree(intersection)) {
+            return false;
+        }
+        for (final int e : board.intersectionEdges[intersection]) {
+            if (roadOwners[e] == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the given player can build a road on the edge with the given index during a regular turn,
+     * i.e. the edge is empty and connected to one to three of the player's roads.
+     *
+     * @param player the index of the player
+     * @param edge   the index of the edge
+     * @return true if the edge is a road site of the player, false otherwise
+     */
+    public boolean isRoadSite(final int player, final int edge) {
+        if (roadOwners[edge] >= 0) {
+            return false;
+        }
+        int connected = 0;
+        for (final int e : board.edgeConnectedEdges[edge]) {
+            if (roadOwners[e] == player) {
+                connected++;
+            }
+        }
+        return connected > 0 && connected < 4;
+    }
+
+
+    // Rules
+
+    /**
+     * Places a village of the given player on the intersection with the given index.
+     *
+     * @param player       the index of the player
+     * @param intersection the index of the intersection
+     * @param initial      whether the village is placed in the first round, i.e. for free and without a road
+     * @return true if the village was built, false if the rules do not allow it
+     */
+    public boolean buildVillage(final int player, final int intersection, final boolean initial) {
+        if (villagesLeft[player] <= 0
+            || !(initial ? isFree(intersection) : isVillageSite(player, intersection) && pay(player, VILLAGE_COST))) {
+            return false;
+        }
+        settlementOwners[intersection] = (byte) player;
+        settlementLevels[intersection] = VILLAGE;
+        villagesLeft[player]--;
+        buildingPoints[player] += VILLAGE;
+        final int port = board.portResources[intersection];
+        if (port != Board.NO_PORT) {
+            for (int r = 0; r < RESOURCES; r++) {
+                if (port == Board.ANY_RESOURCE || port == r) {
+                    tradeRatios[player * RESOURCES + r] = Math.min(tradeRatios[player * RESOURCES + r], board.portRatios[intersection]);
+                }
+            }
+        }
+        // the village breaks the roads of other players running through the intersection
+        for (final int e : board.intersectionEdges[intersection]) {
+            final int owner = roadOwners[e];
+            if (owner >= 0 && owner != player) {
+                updateLongestRoad(owner);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Upgrades the village of the given player on the intersection with the given index to a city.
+     *
+     * @param player       the index of the player
+     * @param intersection the index of the intersection
+     * @return true if the village was upgraded, false if the rules do not allow it
+     */
+    public boolean upgradeVillage(final int player, final int intersection) {
+        if (settlementOwners[intersection] != player || settlementLevels[intersection] != VILLAGE
+            || citiesLeft[player] <= 0 || !pay(player, CITY_COST)) {
+            return false;
+        }
+        settlementLevels[intersection] = CITY;
+        villagesLeft[player]++;
+        citiesLeft[player]--;
+        buildingPoints[player] += CITY - VILLAGE;
+        return true;
+    }
+
+    /**
+     * Builds a road of the given player on the edge with the given index during a regular turn.
+     *
+     * @param player the index of the player
+     * @param edge   the index of the edge
+     * @param free   whether the road is built by a road building card, i.e. for free
+     * @return true if the road was built, false if the rules do not allow it
+     */
+    public boolean buildRoad(final int player, final int edge, final boolean free) {
+        if (roadsLeft[player] <= 0 || !isRoadSite(player, edge) || !free && !pay(player, ROAD_COST)) {
+            return false;
+        }
+        setRoad(player, edge);
+        return true;
+    }
+
+    /**
+     * Places a road of the given player in the first round, i.e. for free next to a village without a road.
+     *
+     * @param player the index of the player
+     * @param edge   the index of the edge
+     * @return true if the road was placed, false if the rules do not allow it
+     */
+    public boolean placeInitialRoad(final int player, final int edge) {
+        if (roadsLeft[player] <= 0 || roadOwners[edge] >= 0 || !nextToUnconnectedVillage(player, edge)) {
+            return false;
+        }
+        setRoad(player, edge);
+        return true;
+    }
+
+    private void setRoad(final int player, final int edge) {
+        roadOwners[edge] = (byte) player;
+        roadsLeft[player]--;
+        updateLongestRoad(player);
+    }
+
+    private boolean nextToUnconnectedVillage(final int player, final int edge) {
+        for (final int intersection : board.edgeIntersections[edge]) {
+            if (settlementOwners[intersection] != player) {
+                continue;
+            }
+            boolean connected = false;
+            for (final int e : board.intersectionEdges[intersection]) {
+                connected |= roadOwners[e] >= 0;
+            }
+            if (!connected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Trades resources of the given player with the bank at the player's trade ratio.
+     *
+     * @param player  the index of the player
+     * @param offer   the ordinal of the offered {@link ResourceType}
+     * @param request the ordinal of the requested {@link ResourceType}
+     * @return true if the trade was made, false if the player does not have enough resources
+     */
+    public boolean tradeWithBank(final int player, final int offer, final int request) {
+        final int ratio = tradeRatios[player * RESOURCES + offer];
+        if (offer == request || resources[player * RESOURCES + offer] < ratio) {
+            return false;
+        }
+        resources[player * RESOURCES + offer] -= ratio;
+        resources[player * RESOURCES + request]++;
+        return true;
+    }
+
+    /**
+     * Buys a development card for the given player, drawn from the endless stack with the configured ratios.
+     *
+     * @param player the index of the player
+     * @param random the source of randomness
+     * @return the ordinal of the drawn {@link DevelopmentCardType} or -1, if the player cannot pay for it
+     */
+    public int buyDevelopmentCard(final int player, final Random random) {
+        if (!pay(player, DEVELOPMENT_CARD_COST)) {
+            return -1;
+        }
+        int draw = random.nextInt(board.deckTotal);
+        int card = 0;
+        while (draw >= board.deckWeights[card]) {
+            draw -= board.deckWeights[card++];
+        }
+        developmentCards[player * CARDS + card]++;
+        return card;
+    }
+
+    /**
+     * Plays a knight of the given player, which moves the robber and steals a card.
+     *
+     * @param player the index of the player
+     * @param tile   the index of the tile to move the robber to
+     * @param victim the index of the player to steal from or -1
+     * @param random the source of randomness for the stolen card
+     * @return true if the knight was played, false if the player does not hold one
+     */
+    public boolean playKnight(final int player, final int tile, final int victim, final Random random) {
+        if (!playDevelopmentCard(player, KNIGHT)) {
+            return false;
+        }
+        moveRobber(player, tile, victim, random);
+        return true;
+    }
+
+    /**
+     * Removes a development card of the given player and counts played knights, but does not apply its effect.
+     * Like in the game, where playing a card only leads to the objectives that apply it, the effect is left to the
+     * caller, e.g. {@link #moveRobber} for a knight or {@link #buildRoad} for a road building card.
+     *
+     * @param player the index of the player
+     * @param card   the ordinal of the {@link DevelopmentCardType}
+     * @return true if the card was played, false if the player does not hold one
+     */
+    public boolean playDevelopmentCard(final int player, final int card) {
+        if (!playCard(player, card)) {
+            return false;
+        }
+        if (card == KNIGHT) {
+            knightsPlayed[player]++;
+            if (knightsPlayed[player] >= ScoreLedger.MIN_KNIGHTS_PLAYED
+                && (mostKnightsHolder < 0 || knightsPlayed[player] > knightsPlayed[mostKnightsHolder])) {
+                mostKnightsHolder = player;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Plays a road building card of the given player, which builds up to two roads for free.
+     *
+     * @param player the index of the player
+     * @param edge0  the index of the edge of the first road
+     * @param edge1  the index of the edge of the second road or -1
+     * @return true if the card was played, false if the player does not hold one
+     */
+    public boolean playRoadBuilding(final int player, final int edge0, final int edge1) {
+        if (!playCard(player, ROAD_BUILDING)) {
+            return false;
+        }
+        buildRoad(player, edge0, true);
+        if (edge1 >= 0) {
+            buildRoad(player, edge1, true);
+        }
+        return true;
+    }
+
+    /**
+     * Plays an invention card of the given player, which takes two resources from the bank.
+     *
+     * @param player    the index of the player
+     * @param resource0 the ordinal of the first {@link ResourceType}
+     * @param resource1 the ordinal of the second {@link ResourceType}
+     * @return true if the card was played, false if the player does not hold one
+     */
+    public boolean playInvention(final int player, final int resource0, final int resource1) {
+        if (!playCard(player, INVENTION)) {
+            return false;
+        }
+        resources[player * RESOURCES + resource0]++;
+        resources[player * RESOURCES + resource1]++;
+        return true;
+    }
+
+    /**
+     * Plays a monopoly card of the given player, which takes all resources of a type from the other players.
+     *
+     * @param player   the index of the player
+     * @param resource the ordinal of the {@link ResourceType}
+     * @return true if the card was played, false if the player does not hold one
+     */
+    public boolean playMonopoly(final int player, final int resource) {
+        if (!playCard(player, MONOPOLY)) {
+            return false;
+        }
+        for (int p = 0; p < board.players.length; p++) {
+            if (p != player) {
+                resources[player * RESOURCES + resource] += resources[p * RESOURCES + resource];
+                resources[p * RESOURCES + resource] = 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hands out the resources for the given roll to all players with settlements next to a producing tile.
+     *
+     * @param roll the rolled number
+     */
+    public void distribute(final int roll) {
+        if (roll <= 0 || roll >= board.tilesByRoll.length) {
+            return;
+        }
+        for (final int tile : board.tilesByRoll[roll]) {
+            if (tile == robberTile) {
+                continue;
+            }
+            final int resource = board.tileResources[tile];
+            for (final int intersection : board.tileIntersections[tile]) {
+                final int owner = settlementOwners[intersection];
+                if (owner >= 0) {
+                    resources[owner * RESOURCES + resource] += settlementLevels[intersection];
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the given amount of a resource to the hand of the given player, e.g. for a stolen or traded card.
+     *
+     * @param player   the index of the player
+     * @param resource the ordinal of the {@link ResourceType}
+     * @param amount   the amount to add, negative to remove resources
+     * @throws IllegalArgumentException if the player would be left with a negative amount
+     */
+    public void addResource(final int player, final int resource, final int amount) {
+        if (resources[player * RESOURCES + resource] + amount < 0) {
+            throw new IllegalArgumentException("Player " + player + " does not have " + -amount + " of resource " + resource);
+        }
+        resources[player * RESOURCES + resource] += amount;
+    }
+
+    /**
+     * Moves the robber and lets the given player steal a random card from the victim.
+     *
+     * @param player the index of the player moving the robber
+     * @param tile   the index of the tile to move the robber to
+     * @param victim the index of the player to steal from or -1
+     * @param random the source of randomness for the stolen card
+     */
+    public void moveRobber(final int player, final int tile, final int victim, final Random random) {
+        robberTile = tile;
+        if (victim < 0 || victim == player) {
+            return;
+        }
+        final int total = getTotalResources(victim);
+        if (total == 0) {
+            return;
+        }
+        final int resource = randomCard(victim, total, random);
+        resources[victim * RESOURCES + resource]--;
+        resources[player * RESOURCES + resource]++;
+    }
+
+    /**
+     * Ends the turn of the player to move, checks whether a player has won and passes the turn on.
+     *
+     * @return the index of the winner or -1, if nobody has won yet
+     */
+    public int endTurn() {
+        if (winner < 0) {
+            for (int k = 0; k < board.players.length && winner < 0; k++) {
+                final int p = (currentPlayer + k) % board.players.length;
+                if (getVictoryPoints(p) >= Config.REQUIRED_VICTORY_POINTS) {
+                    winner = p;
+                }
+            }
+        }
+        currentPlayer = (currentPlayer + 1) % board.players.length;
+        rolled = false;
+        turns++;
+        return winner;
+    }
+
+    private boolean pay(final int player, final int[] cost) {
+        final int offset = player * RESOURCES;
+        for (int r = 0; r < RESOURCES; r++) {
+            if (resources[offset + r] < cost[r]) {
+                return false;
+            }
+        }
+        for (int r = 0; r < RESOURCES; r++) {
+            resources[offset + r] -= cost[r];
+        }
+        return true;
+    }
+
+    private boolean playCard(final int player, final int card) {
+        if (developmentCards[player * CARDS + card] <= 0) {
+            return false;
+        }
+        developmentCards[player * CARDS + card]--;
+        return true;
+    }
+
+    private int randomCard(final int player, final int total, final Random random) {
+        int draw = random.nextInt(total);
+        int resource = 0;
+        while (draw >= resources[player * RESOURCES + resource]) {
+            draw -= resources[player * RESOURCES + resource++];
+        }
+        return resource;
+    }
+
+    /**
+     * Recomputes the longest road of the given player and hands over the bonus like the {@link ScoreLedger}.
+     */
+    private void updateLongestRoad(final int player) {
+        if (usedEdges == null) {
+            usedEdges = new boolean[roadOwners.length];
+        }
+        int length = 0;
+        for (int e = 0; e < roadOwners.length; e++) {
+            if (roadOwners[e] == player) {
+                usedEdges[e] = true;
+                for (final int intersection : board.edgeIntersections[e]) {
+                    length = Math.max(length, extend(player, intersection, 1));
+                }
+                usedEdges[e] = false;
+            }
+        }
+        final int previousLength = longestRoads[player];
+        longestRoads[player] = length;
+        if (player == longestRoadHolder) {
+            if (length < previousLength) {
+                int longest = length >= ScoreLedger.MIN_LONGEST_ROAD ? player : -1;
+                for (int p = 0; p < longestRoads.length; p++) {
+                    if (longestRoads[p] > (longest < 0 ? ScoreLedger.MIN_LONGEST_ROAD - 1 : longestRoads[longest])) {
+                        longest = p;
+                    }
+                }
+                longestRoadHolder = longest;
+            }
+        } else if (length >= ScoreLedger.MIN_LONGEST_ROAD
+            && (longestRoadHolder < 0 || length > longestRoads[longestRoadHolder])) {
+            longestRoadHolder = player;
+        }
+    }
+
+    private int extend(final int player, final int intersection, final int length) {
+        final int owner = settlementOwners[intersection];
+        if (owner >= 0 && owner != player) {
+            return length;
+        }
+        int best = length;
+        for (final int e : board.intersectionEdges[intersection]) {
+            if (usedEdges[e] || roadOwners[e] != player) {
+                continue;
+            }
+            usedEdges[e] = true;
+            for (final int next : board.edgeIntersections[e]) {
+                if (next != intersection) {
+                    best = Math.max(best, extend(player, next, length + 1));
+                }
+            }
+            usedEdges[e] = false;
+        }
+        return best;
+    }
+
+
+    // Playing
+
+    /**
+     * Plays the game with the built-in policy until a player has won or the given amount of turns has been played.
+     * Players that have not placed their two initial villages yet place them first.
+     *
+     * @param random   the source of randomness for dice, cards and the policy
+     * @param maxTurns the maximum amount of turns to play
+     * @return the index of the winner or -1, if nobody has won within the turns
+     */
+    public int playout(final Random random, final int maxTurns) {
+        placeInitialSettlements();
+        for (int turn = 0; turn < maxTurns && winner < 0; turn++) {
+            playTurn(random);
+        }
+        return winner;
+    }
+
+    /**
+     * Plays the rest of the turn of the player to move with the built-in policy and passes the turn on.
+     *
+     * @param random the source of randomness for dice, cards and the policy
+     * @return the index of the winner or -1, if nobody has won yet
+     */
+    public int playTurn(final Random random) {
+        final int player = currentPlayer;
+        roll(random);
+        playBestDevelopmentCard(player, random);
+        for (int actions = 0; actions < MAX_ACTIONS_PER_TURN && buildOrTrade(player, random); actions++) {
+            // keep building while the policy finds something to do
+        }
+        return endTurn();
+    }
+
+    /**
+     * Casts the dice for the player to move, unless they have been cast this turn already.
+     * A 7 makes every player drop half of a hand of more than 7 cards and the player move the robber with the
+     * built-in policy. Like the controller, the dice are cast once more at the start of the regular turn.
+     *
+     * @param random the source of randomness for dice, cards and the policy
+     */
+    public void roll(final Random random) {
+        if (rolled) {
+            return;
+        }
+        final int player = currentPlayer;
+        final int roll = rollDice(random);
+        if (roll == 7) {
+            dropCards(random);
+            final int tile = robberTarget(player);
+            moveRobber(player, tile, randomVictim(player, tile, random), random);
+        } else {
+            distribute(roll);
+        }
+        // the controller casts the dice once more at the start of the regular turn
+        distribute(rollDice(random));
+        rolled = true;
+    }
+
+    private static int rollDice(final Random random) {
+        int sum = 0;
+        for (int i = 0; i < Config.NUMBER_OF_DICE; i++) {
+            sum += random.nextInt(1, Config.DICE_SIDES + 1);
+        }
+        return sum;
+    }
+
+    private void placeInitialSettlements() {
+        for (int round = 0; round < 2; round++) {
+            for (int p = 0; p < board.players.length; p++) {
+                final int settlements = Config.MAX_VILLAGES - villagesLeft[p] + Config.MAX_CITIES - citiesLeft[p];
+                final int intersection = settlements <= round ? bestFreeIntersection() : -1;
+                if (intersection < 0 || !buildVillage(p, intersection, true)) {
+                    continue;
+                }
+                for (final int e : board.intersectionEdges[intersection]) {
+                    if (placeInitialRoad(p, e)) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private int bestFreeIntersection() {
+        int best = -1;
+        for (int i = 0; i < settlementOwners.length; i++) {
+            if (isFree(i) && (best < 0 || board.pips[i] > board.pips[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private void dropCards(final Random random) {
+        for (int p = 0; p < board.players.length; p++) {
+            int total = getTotalResources(p);
+            if (total <= MAX_DROP_HAND) {
+                continue;
+            }
+            for (int drop = total / 2; drop > 0; drop--, total--) {
+                resources[p * RESOURCES + randomCard(p, total, random)]--;
+            }
+        }
+    }
+
+    /**
+     * Returns the tile that blocks the most production of the other players and the least of the given player.
+     */
+    private int robberTarget(final int player) {
+        int bestTile = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (int t = 0; t < board.tileResources.length; t++) {
+            if (t == robberTile) {
+                continue;
+            }
+            int score = 0;
+            for (final int intersection : board.tileIntersections[t]) {
+                final int owner = settlementOwners[intersection];
+                if (owner >= 0) {
+                    score += (owner == player ? -2 : 1) * settlementLevels[intersection] * Board.pips(board.tileRolls[t]);
+                }
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestTile = t;
+            }
+        }
+        return bestTile;
+    }
+
+    /**
+     * Returns a random other player with a settlement next to the given tile that holds at least one card.
+     */
+    private int randomVictim(final int player, final int tile, final Random random) {
+        int victim = -1;
+        int victims = 0;
+        for (final int intersection : board.tileIntersections[tile]) {
+            final int owner = settlementOwners[intersection];
+            // reservoir sampling over the settlements of other players holding cards
+            if (owner >= 0 && owner != player && getTotalResources(owner) > 0 && random.nextInt(++victims) == 0) {
+                victim = owner;
+            }
+        }
+        return victim;
+    }
+
+    private void playBestDevelopmentCard(final int player, final Random random) {
+        final int offset = player * CARDS;
+        if (developmentCards[offset + KNIGHT] > 0 && (robberTouches(player) || random.nextInt(3) == 0)) {
+            final int tile = robberTarget(player);
+            playKnight(player, tile, randomVictim(player, tile, random), random);
+        } else if (developmentCards[offset + ROAD_BUILDING] > 0 && roadsLeft[player] >= 2) {
+            final int first = bestRoadSite(player, random);
+            if (first >= 0 && playCard(player, ROAD_BUILDING)) {
+                buildRoad(player, first, true);
+                final int second = bestRoadSite(player, random);
+                if (second >= 0) {
+                    buildRoad(player, second, true);
+                }
+            }
+        } else if (developmentCards[offset + INVENTION] > 0) {
+            final int[] target = target(player);
+            final int first = missingResource(player, target, -1);
+            playInvention(player, first, missingResource(player, target, first));
+        } else if (developmentCards[offset + MONOPOLY] > 0) {
+            int best = 0;
+            int bestAmount = -1;
+            for (int r = 0; r < RESOURCES; r++) {
+                int amount = 0;
+                for (int p = 0; p < board.players.length; p++) {
+                    amount += p == player ? 0 : resources[p * RESOURCES + r];
+                }
+                if (amount > bestAmount) {
+                    bestAmount = amount;
+                    best = r;
+                }
+            }
+            if (bestAmount > 1) {
+                playMonopoly(player, best);
+            }
+        }
+    }
+
+    private boolean robberTouches(final int player) {
+        if (robberTile < 0) {
+            return false;
+        }
+        for (final int intersection : board.tileIntersections[robberTile]) {
+            if (settlementOwners[intersection] == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes a single action of the policy: a city, a village, a road, a development card or a bank trade towards
+     * one of them.
+     *
+     * @return whether an action was taken
+     */
+    private boolean buildOrTrade(final int player, final Random random) {
+        if (citiesLeft[player] > 0 && affords(player, CITY_COST)) {
+            final int village = bestOwnVillage(player);
+            if (village >= 0 && upgradeVillage(player, village)) {
+                return true;
+            }
+        }
+        final int villageSite = villagesLeft[player] > 0 ? bestVillageSite(player) : -1;
+        if (villageSite >= 0 && buildVillage(player, villageSite, false)) {
+            return true;
+        }
+        if (roadsLeft[player] > 0 && affords(player, ROAD_COST) && (villageSite < 0 || random.nextInt(4) == 0)) {
+            final int edge = bestRoadSite(player, random);
+            if (edge >= 0 && buildRoad(player, edge, false)) {
+                return true;
+            }
+        }
+        if (affords(player, DEVELOPMENT_CARD_COST) && random.nextInt(2) == 0) {
+            return buyDevelopmentCard(player, random) >= 0;
+        }
+        return tradeTowards(player, target(player));
+    }
+
+    private int[] target(final int player) {
+        if (citiesLeft[player] > 0 && bestOwnVillage(player) >= 0) {
+            return CITY_COST;
+        }
+        if (villagesLeft[player] > 0 && bestVillageSite(player) >= 0) {
+            return VILLAGE_COST;
+        }
+        return roadsLeft[player] > 0 ? ROAD_COST : DEVELOPMENT_CARD_COST;
+    }
+
+    private boolean tradeTowards(final int player, final int[] cost) {
+        final int request = missingResource(player, cost, -1);
+        if (affords(player, cost)) {
+            return false;
+        }
+        for (int offer = 0; offer < RESOURCES; offer++) {
+            if (offer != request
+                && resources[player * RESOURCES + offer] - cost[offer] >= tradeRatios[player * RESOURCES + offer]) {
+                return tradeWithBank(player, offer, request);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the resource the given player lacks the most of for the given cost, ignoring one resource.
+     */
+    private int missingResource(final int player, final int[] cost, final int ignored) {
+        int best = ignored == 0 ? 1 : 0;
+        for (int r = 0; r < RESOURCES; r++) {
+            if (r != ignored && cost[r] - resources[player * RESOURCES + r] > cost[best] - resources[player * RESOURCES + best]) {
+                best = r;
+            }
+        }
+        return best;
+    }
+
+    private boolean affords(final int player, final int[] cost) {
+        for (int r = 0; r < RESOURCES; r++) {
+            if (resources[player * RESOURCES + r] < cost[r]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int bestOwnVillage(final int player) {
+        int best = -1;
+        for (int i = 0; i < settlementOwners.length; i++) {
+            if (settlementOwners[i] == player && settlementLevels[i] == VILLAGE
+                && (best < 0 || board.pips[i] > board.pips[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private int bestVillageSite(final int player) {
+        int best = -1;
+        for (int i = 0; i < settlementOwners.length; i++) {
+            if ((best < 0 || board.pips[i] > board.pips[best]) && isVillageSite(player, i)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns a road site leading to a free intersection, if possible, or a random road site otherwise.
+     */
+    private int bestRoadSite(final int player, final Random random) {
+        int best = -1;
+        int bestPips = -1;
+        int sites = 0;
+        for (int e = 0; e < roadOwners.length; e++) {
+            if (!isRoadSite(player, e)) {
+                continue;
+            }
+            int pips = 0;
+            for (final int intersection : board.edgeIntersections[e]) {
+                if (isFree(intersection)) {
+                    pips = Math.max(pips, board.pips[intersection]);
+                }
+            }
+            if (pips > bestPips || pips == bestPips && random.nextInt(++sites) == 0) {
+                if (pips > bestPips) {
+                    sites = 1;
+                }
+                best = e;
+                bestPips = pips;
+            }
+        }
+        return best;
+    }
+
+    private static int[] cost(final Map<ResourceType, Integer> cost) {
+        final int[] amounts = new int[RESOURCES];
+        cost.forEach((resourceType, amount) -> amounts[resourceType.ordinal()] = amount);
+        return amounts;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("CompactGameState[turns=").append(turns)
+            .append(", currentPlayer=").append(currentPlayer)
+            .append(", winner=").append(winner)
+            .append(", points=[");
+        for (int p = 0; p < board.players.length; p++) {
+            builder.append(p == 0 ? "" : ", ").append(getVictoryPoints(p));
+        }
+        return builder.append("], resources=").append(Arrays.toString(resources)).append(']').toString();
+    }
+
+    /**
+     * The parts of a game that do not change while it is played, shared by all copies of a state.
+     */
+    private static final class Board {
+
+        private static final int NO_PORT = -2;
+        private static final int ANY_RESOURCE = -1;
+
+        private final Player[] players;
+        private final int[] tileResources;
+        private final int[] tileRolls;
+        private final int[][] tilesByRoll;
+        private final int[][] tileIntersections;
+        private final int[][] intersectionTiles;
+        private final int[][] intersectionNeighbours;
+        private final int[][] intersectionEdges;
+        private final int[][] edgeIntersections;
+        private final int[][] edgeConnectedEdges;
+        private final int[] portResources;
+        private final int[] portRatios;
+        private final int[] pips;
+        private final int[] deckWeights;
+        private final int deckTotal;
+
+        private Board(final HexGridImpl grid, final List<Player> players) {
+            final GridAdjacency adjacency = grid.getAdjacency();
+            this.players = players.toArray(Player[]::new);
+            this.tileResources = new int[grid.getTileCount()];
+            this.tileRolls = new int[grid.getTileCount()];
+            this.tileIntersections = new int[grid.getTileCount()][];
+            int maxRoll = 0;
+            for (int t = 0; t < tileResources.length; t++) {
+                final Tile tile = grid.getTile(t);
+                tileResources[t] = tile.getType().resourceType == null ? -1 : tile.getType().resourceType.ordinal();
+                tileRolls[t] = tileResources[t] < 0 ? 0 : tile.getRollNumber();
+                tileIntersections[t] = adjacency.tileIntersections(t);
+                maxRoll = Math.max(maxRoll, tileRolls[t]);
+            }
+            this.tilesByRoll = new int[maxRoll + 1][];
+            for (int roll = 0; roll <= maxRoll; roll++) {
+                tilesByRoll[roll] = roll == 0 ? new int[0] : grid.getProductionTable().getTileIndices(roll);
+            }
+            final int intersections = grid.getIntersectionCount();
+            this.intersectionTiles = new int[intersections][];
+            this.intersectionNeighbours = new int[intersections][];
+            this.intersectionEdges = new int[intersections][];
+            this.portResources = new int[intersections];
+            this.portRatios = new int[intersections];
+            this.pips = new int[intersections];
+            for (int i = 0; i < intersections; i++) {
+                intersectionTiles[i] = adjacency.intersectionTiles(i);
+                intersectionNeighbours[i] = adjacency.intersectionNeighbours(i);
+                intersectionEdges[i] = adjacency.intersectionEdges(i);
+                final Port port = grid.getPort(grid.getIntersection(i));
+                portResources[i] = port == null ? NO_PORT : port.resourceType() == null ? ANY_RESOURCE : port.resourceType().ordinal();
+                portRatios[i] = port == null ? HexGridImpl.BANK_TRADE_RATIO : port.ratio();
+                for (final int t : intersectionTiles[i]) {
+                    pips[i] += pips(tileRolls[t]);
+                }
+            }
+            this.edgeIntersections = new int[grid.getEdgeCount()][];
+            this.edgeConnectedEdges = new int[grid.getEdgeCount()][];
+            for (int e = 0; e < edgeIntersections.length; e++) {
+                edgeIntersections[e] = adjacency.edgeIntersections(e);
+                edgeConnectedEdges[e] = adjacency.edgeConnectedEdges(e);
+            }
+            this.deckWeights = new int[CARDS];
+            int total = 0;
+            for (final Map.Entry<DevelopmentCardType, Integer> entry : Config.DEVELOPMENT_CARD_RATIOS.entrySet()) {
+                deckWeights[entry.getKey().ordinal()] = entry.getValue();
+                total += entry.getValue();
+            }
+            this.deckTotal = total;
+        }
+
+        /**
+         * Returns the amount of the 36 rolls of two dice that hit the given roll number.
+         */
+        private static int pips(final int roll) {
+            return roll <= 1 || roll == 7 ? 0 : 6 - Math.abs(7 - roll);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package projekt.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Counts of the constants of an enum, stored as one {@code int} per ordinal.
+ * Used for resources and development cards so that arithmetic on them neither boxes nor hashes.
+ * <p>
+ * The vector is a {@link Map} from the constants to their counts that behaves like a {@link java.util.HashMap} that
+ * only ever holds the counts: a constant is contained once a count has been put or added for it, even if that count
+ * is 0, until it is removed. {@code null} keys and values are not supported.
+ *
+ * @param <E> the type of the counted enum
+ */
+public final class CountVector<E extends Enum<E>> extends AbstractMap<E, Integer> {
+
+    private final E[] constants;
+    private final int[] counts;
+    private final boolean[] present;
+    private int size;
+    private int total;
+    private Set<Entry<E, Integer>> entrySet;
+
+    /**
+     * Creates a new vector without any counts.
+     *
+     * @param type the class of the counted enum
+     */
+    public CountVector(final Class<E> type) {
+        this.constants = type.getEnumConstants();
+        this.counts = new int[constants.length];
+        this.present = new boolean[constants.length];
+    }
+
+    /**
+     * Returns the sum of all values of the given map, without iterating over it if it is a vector.
+     *
+     * @param map the map
+     * @return the sum of all values
+     */
+    public static int total(final Map<?, Integer> map) {
+        if (map instanceof final CountVector<?> vector) {
+            return vector.total;
+        }
+        int total = 0;
+        for (final int value : map.values()) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the count of the given constant, 0 if there is none.
+     *
+     * @param constant the constant
+     * @return the count
+     */
+    public int count(final E constant) {
+        return counts[constant.ordinal()];
+    }
+
+    /**
+     * Adds the given amount to the count of the given constant.
+     *
+     * @param constant the constant
+     * @param amount   the amount to add, may be negative
+     */
+    public void add(final E constant, final int amount) {
+        final int ordinal = constant.ordinal();
+        mark(ordinal);
+        counts[ordinal] += amount;
+        total += amount;
+    }
+
+    /**
+     * Returns whether every count of this vector is at least the amount in the given map.
+     *
+     * @param amounts the amounts to compare to
+     * @return true if this vector dominates the given amounts, false otherwise
+     */
+    public boolean dominates(final Map<E, Integer> amounts) {
+        for (final Map.Entry<E, Integer> entry : amounts.entrySet()) {
+            if (counts[entry.getKey().ordinal()] < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void mark(final int ordinal) {
+        if (!present[ordinal]) {
+            present[ordinal] = true;
+            size++;
+        }
+    }
+
+    private int ordinalOf(final Object key) {
+        if (key instanceof final Enum<?> constant) {
+            final int ordinal = constant.ordinal();
+            if (ordinal < constants.length && constants[ordinal] == constant) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        final int ordinal = ordinalOf(key);
+        return ordinal >= 0 && present[ordinal];
+    }
+
+    @Override
+    public Integer get(final Object key) {
+        final int ordinal = ordinalOf(key);
+        return ordinal >= 0 && present[ordinal] ? counts[ordinal] : null;
+    }
+
+    @Override
+    public Integer getOrDefault(final Object key, final Integer defaultValue) {
+        final int ordinal = ordinalOf(key);
+        return ordinal >= 0 && present[ordinal] ? counts[ordinal] : defaultValue;
+    }
+
+    @Override
+    public Integer put(final E key, final Integer value) {
+        final int ordinal = key.ordinal();
+        final Integer previous = present[ordinal] ? counts[ordinal] : null;
+        mark(ordinal);
+        total += value - counts[ordinal];
+        counts[ordinal] = value;
+        return previous;
+    }
+
+    @Override
+    public Integer remove(final Object key) {
+        final int ordinal = ordinalOf(key);
+        if (ordinal < 0 || !present[ordinal]) {
+            return null;
+        }
+        final int previous = counts[ordinal];
+        removeAt(ordinal);
+        return previous;
+    }
+
+    private void removeAt(final int ordinal) {
+        present[ordinal] = false;
+        size--;
+        total -= counts[ordinal];
+        counts[ordinal] = 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(present, false);
+        size = 0;
+        total = 0;
+    }
+
+    @Override
+    public Set<Entry<E, Integer>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * The entries of the contained constants in the order of their ordinals.
+     */
+    private final class EntrySet extends AbstractSet<Entry<E, Integer>> {
+
+        @Override
+        public Iterator<Entry<E, Integer>> iterator() {
+            return new Iterator<>() {
+                private int next = advance(0);
+                private int last = -1;
+
+                private int advance(int i) {
+                    while (i < present.length && !present[i]) {
+                        i++;
+                    }
+                    return i;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < present.length;
+                }
+
+                @Override
+                public Entry<E, Integer> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next;
+                    next = advance(next + 1);
+                    return new SimpleImmutableEntry<>(constants[last], counts[last]);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0 || !present[last]) {
+                        throw new IllegalStateException();
+                    }
+                    removeAt(last);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package projekt.model;
+
+import projekt.Config;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The sources of randomness of a single game, all derived from one seed.
+ * <p>
+ * The board, the dice, the development card deck and every AI player draw from separate streams, which are split
+ * off a {@link SplittableRandom} seeded with the game's seed. A game can therefore be reproduced exactly from its
+ * seed, and drawing from one stream, e.g. an AI thinking more or less, never changes the values of another.
+ * <p>
+ * The streams are {@link Random}s so they can be passed to the generators in {@link Config}, but they are not
+ * synchronized: each stream must only be used by one thread at a time.
+ */
+public final class GameRandom {
+
+    private final long seed;
+    private final Random board;
+    private final Random dice;
+    private final Random deck;
+    private final Random misc;
+    private final long aiSeed;
+    private final Map<Integer, Random> aiStreams = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the sources of randomness of a game with the given seed.
+     *
+     * @param seed the seed of the game
+     */
+    public GameRandom(final long seed) {
+        this.seed = seed;
+        final SplittableRandom root = new SplittableRandom(seed);
+        this.board = new Stream(root.split());
+        this.dice = new Stream(root.split());
+        this.deck = new Stream(root.split());
+        this.misc = new Stream(root.split());
+        this.aiSeed = root.nextLong();
+    }
+
+    /**
+     * Returns the seed of the game.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the stream used to generate the board, i.e. tile types, roll numbers and ports.
+     *
+     * @return the board stream
+     */
+    public Random board() {
+        return board;
+    }
+
+    /**
+     * Returns the stream used to roll the dice.
+     *
+     * @return the dice stream
+     */
+    public Random dice() {
+        return dice;
+    }
+
+    /**
+     * Returns the stream used to draw development cards.
+     *
+     * @return the deck stream
+     */
+    public Random deck() {
+        return deck;
+    }
+
+    /**
+     * Returns the stream for everything that is not covered by another stream, e.g. code that still draws
+     * from {@link Config#RANDOM} while it is {@linkplain Config#withRandom bound} to this stream.
+     *
+     * @return the miscellaneous stream
+     */
+    public Random misc() {
+        return misc;
+    }
+
+    /**
+     * Returns the stream of the AI controlling the given player.
+     * The stream only depends on the game's seed and the player's id.
+     *
+     * @param player the player
+     * @return the stream of the player's AI
+     */
+    public Random ai(final Player player) {
+        return aiStreams.computeIfAbsent(player.getID(), id -> new Stream(new SplittableRandom(aiSeed + id).split()));
+    }
+
+    @Override
+    public String toString() {
+        return "GameRandom[seed=" + seed + "]";
+    }
+
+    /**
+     * A {@link Random} drawing from a {@link SplittableRandom}.
+     * Every method of {@link Random} is derived from {@link Random#next(int)}, so delegating it is enough.
+     */
+    private static final class Stream extends Random {
+
+        private final SplittableRandom source;
+
+        private Stream(final SplittableRandom source) {
+            this.source = source;
+        }
+
+        @Override
+        protected int next(final int bits) {
+            return source.nextInt() >>> (32 - bits);
+        }
+
+        @Override
+        public void setSeed(final long seed) {
+            // called by the constructor of Random before the source is initialized
+            if (source != null) {
+                throw new UnsupportedOperationException("Streams are derived from the seed of the game");
+            }
+        }
+    }
+}
@@ -28,6 +28,11 @@ public final class GameState {
      */
     private final List<Player> players;
 
+    /**
+     * The sources of randomness of this {@link GameState}.
+     */
+    private final GameRandom random;
+
     /**
      * The game over flag.
      */
@@ -41,8 +46,22 @@ public final class GameState {
      * @param players the {@link Player}s
      */
     public GameState(final HexGrid grid, final List<Player> players) {
+        this(grid, players, new GameRandom(Config.RANDOM.nextLong()));
+    }
+
+    /**
+     * Creates a new {@link GameState} with the given {@link HexGrid},
+     * {@link Player}s and sources of randomness.
+     * To reproduce a game, the grid should have been generated from {@link GameRandom#board()}.
+     *
+     * @param grid    the {@link HexGrid}
+     * @param players the {@link Player}s
+     * @param random  the sources of randomness
+     */
+    public GameState(final HexGrid grid, final List<Player> players, final GameRandom random) {
         this.grid = grid;
         this.players = players;
+        this.random = random;
     }
 
     /**
@@ -54,6 +73,15 @@ public final class GameState {
         return grid;
     }
 
+    /**
+     * Returns the sources of randomness of this {@link GameState}.
+     *
+     * @return the sources of randomness of this {@link GameState}.
+     */
+    public GameRandom getRandom() {
+        return random;
+    }
+
     /**
      * Returns an unmodifiable list of all {@link Player}s in this
      * {@link GameState}.
@@ -136,6 +164,21 @@ public final class GameState {
         return player;
     }
 
+    /**
+     * Returns a 64-bit hash of the current position of this game, e.g. to key a transposition table.
+     * On a {@link HexGridImpl} this is the Zobrist hash kept up to date by the grid and players, see
+     * {@link HexGridImpl#getStateHash()}. Unlike {@link #hashCode()}, it changes whenever the game changes and is
+     * equal for equal positions. Other grids do not keep a hash, for them this falls back to {@link #hashCode()}.
+     *
+     * @return the hash of the current position
+     */
+    public long getStateHash() {
+        if (grid instanceof final HexGridImpl hexGridImpl) {
+            return hexGridImpl.getStateHash();
+        }
+        return hashCode();
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(grid, players);
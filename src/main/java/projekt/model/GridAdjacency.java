@@ -0,0 +1,393 @@
+package projekt.model;
+
+import projekt.model.buildings.Edge;
+import projekt.model.tiles.Tile;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Immutable neighbourhood relations between the tiles, intersections and edges of a {@link HexGridImpl}.
+ * The relations are computed once after the grid has been initialized, so that neighbour queries
+ * are simple lookups instead of scans over all intersections or edges of the grid.
+ * <p>
+ * Relations are available both as arrays of dense indices (see {@link HexGridImpl#getIntersection(int)} etc.)
+ * and as unmodifiable sets of the model objects. Objects that are not part of the grid this adjacency
+ * was built for yield {@code null}, callers are expected to fall back to a scan in that case.
+ */
+public final class GridAdjacency {
+
+    private final HexGridImpl grid;
+
+    private final int[][] tileIntersections;
+    private final int[][] tileNeighbours;
+    private final int[][] intersectionEdges;
+    private final int[][] intersectionNeighbours;
+    private final int[][] intersectionTiles;
+    private final int[][] edgeIntersections;
+    private final int[][] edgeConnectedEdges;
+
+    // object views of the relations above, each set is only created when it is first requested
+    private final SetView<Intersection> tileIntersectionSets;
+    private final SetView<Tile> tileNeighbourSets;
+    private final SetView<Edge> intersectionEdgeSets;
+    private final SetView<Intersection> intersectionNeighbourSets;
+    private final SetView<Tile> intersectionTileSets;
+    private final SetView<Intersection> edgeIntersectionSets;
+    private final SetView<Edge> edgeConnectedEdgeSets;
+
+    /**
+     * Computes the adjacency of the given grid.
+     * All tiles, intersections and edges of the grid must already be indexed.
+     *
+     * @param grid the grid
+     */
+    GridAdjacency(final HexGridImpl grid) {
+        this.grid = grid;
+        final int tileCount = grid.getTileCount();
+        final int intersectionCount = grid.getIntersectionCount();
+        final int edgeCount = grid.getEdgeCount();
+
+        this.tileIntersections = new int[tileCount][];
+        this.tileNeighbours = new int[tileCount][];
+        // q and r of the three positions adjacent to each intersection, recorded when it is first seen
+        final int[] corners = new int[intersectionCount * 6];
+        final boolean[] seen = new boolean[intersectionCount];
+        for (int t = 0; t < tileCount; t++) {
+            final TilePosition position = grid.getTile(t).getPosition();
+            final int[] tileCorners = new int[TilePosition.IntersectionDirection.COUNT];
+            int cornerCount = 0;
+            for (int d = 0; d < TilePosition.IntersectionDirection.COUNT; d++) {
+                final TilePosition.IntersectionDirection direction = TilePosition.IntersectionDirection.get(d);
+                final int left = direction.leftDirection.ordinal();
+                final int right = direction.rightDirection.ordinal();
+                final int leftQ = TilePosition.neighbourQ(position.q(), left);
+                final int leftR = TilePosition.neighbourR(position.r(), left);
+                final int rightQ = TilePosition.neighbourQ(position.q(), right);
+                final int rightR = TilePosition.neighbourR(position.r(), right);
+                final int i = grid.intersectionIndexAt(
+                    position.pack(), TilePosition.pack(leftQ, leftR), TilePosition.pack(rightQ, rightR)
+                );
+                if (i < 0) {
+                    continue;
+                }
+                tileCorners[cornerCount++] = i;
+                if (!seen[i]) {
+                    seen[i] = true;
+                    corners[i * 6] = position.q();
+                    corners[i * 6 + 1] = position.r();
+                    corners[i * 6 + 2] = leftQ;
+                    corners[i * 6 + 3] = leftR;
+                    corners[i * 6 + 4] = rightQ;
+                    corners[i * 6 + 5] = rightR;
+                }
+            }
+            final int[] neighbours = new int[TilePosition.EdgeDirection.COUNT];
+            int neighbourCount = 0;
+            for (int d = 0; d < TilePosition.EdgeDirection.COUNT; d++) {
+                final int n = grid.tileIndexAt(TilePosition.neighbourQ(position.q(), d), TilePosition.neighbourR(position.r(), d));
+                if (n >= 0) {
+                    neighbours[neighbourCount++] = n;
+                }
+            }
+            tileIntersections[t] = Arrays.copyOf(tileCorners, cornerCount);
+            tileNeighbours[t] = Arrays.copyOf(neighbours, neighbourCount);
+        }
+
+        final int[] edgeEndCounts = new int[edgeCount];
+        this.edgeIntersections = new int[edgeCount][2];
+        this.intersectionEdges = new int[intersectionCount][];
+        this.intersectionNeighbours = new int[intersectionCount][];
+        this.intersectionTiles = new int[intersectionCount][];
+        for (int i = 0; i < intersectionCount; i++) {
+            final int[] edges = new int[3];
+            final int[] neighbours = new int[3];
+            final int[] tiles = new int[3];
+            int edgeCountOfIntersection = 0;
+            int neighbourCount = 0;
+            int tileCountOfIntersection = 0;
+            for (int k = 0; k < 3; k++) {
+                final int aQ = corners[i * 6 + k * 2];
+                final int aR = corners[i * 6 + k * 2 + 1];
+                final int bQ = corners[i * 6 + (k + 1) % 3 * 2];
+                final int bR = corners[i * 6 + (k + 1) % 3 * 2 + 1];
+                final int cQ = corners[i * 6 + (k + 2) % 3 * 2];
+                final int cR = corners[i * 6 + (k + 2) % 3 * 2 + 1];
+                final long a = TilePosition.pack(aQ, aR);
+                final long b = TilePosition.pack(bQ, bR);
+                final int e = grid.edgeIndexAt(a, b);
+                if (e >= 0) {
+                    edges[edgeCountOfIntersection++] = e;
+                    edgeIntersections[e][edgeEndCounts[e]++] = i;
+                }
+                // the other intersection sharing a and b lies opposite of c
+                final int n = grid.intersectionIndexAt(a, b, TilePosition.pack(aQ + bQ - cQ, aR + bR - cR));
+                if (n >= 0) {
+                    neighbours[neighbourCount++] = n;
+                }
+                final int t = grid.tileIndexAt(aQ, aR);
+                if (t >= 0) {
+                    tiles[tileCountOfIntersection++] = t;
+                }
+            }
+            intersectionEdges[i] = Arrays.copyOf(edges, edgeCountOfIntersection);
+            intersectionNeighbours[i] = Arrays.copyOf(neighbours, neighbourCount);
+            intersectionTiles[i] = Arrays.copyOf(tiles, tileCountOfIntersection);
+        }
+
+        this.edgeConnectedEdges = new int[edgeCount][];
+        for (int e = 0; e < edgeCount; e++) {
+            edgeIntersections[e] = Arrays.copyOf(edgeIntersections[e], edgeEndCounts[e]);
+            final int[] connected = new int[5];
+            int connectedCount = 0;
+            for (final int i : edgeIntersections[e]) {
+                for (final int other : intersectionEdges[i]) {
+                    if (!contains(connected, connectedCount, other)) {
+                        connected[connectedCount++] = other;
+                    }
+                }
+            }
+            edgeConnectedEdges[e] = Arrays.copyOf(connected, connectedCount);
+        }
+
+        this.tileIntersectionSets = new SetView<>(tileIntersections, grid::getIntersection);
+        this.tileNeighbourSets = new SetView<>(tileNeighbours, grid::getTile);
+        this.intersectionEdgeSets = new SetView<>(intersectionEdges, grid::getEdge);
+        this.intersectionNeighbourSets = new SetView<>(intersectionNeighbours, grid::getIntersection);
+        this.intersectionTileSets = new SetView<>(intersectionTiles, grid::getTile);
+        this.edgeIntersectionSets = new SetView<>(edgeIntersections, grid::getIntersection);
+        this.edgeConnectedEdgeSets = new SetView<>(edgeConnectedEdges, grid::getEdge);
+    }
+
+    private static boolean contains(final int[] array, final int length, final int value) {
+        for (int i = 0; i < length; i++) {
+            if (array[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lazily created unmodifiable sets of the objects of one index based relation.
+     */
+    private static final class SetView<T> {
+        private final int[][] indices;
+        private final IntFunction<T> mapper;
+        private final Object[] sets;
+
+        private SetView(final int[][] indices, final IntFunction<T> mapper) {
+            this.indices = indices;
+            this.mapper = mapper;
+            this.sets = new Object[indices.length];
+        }
+
+        @SuppressWarnings("unchecked")
+        private Set<T> get(final int index) {
+            if (sets[index] == null) {
+                final Object[] elements = new Object[indices[index].length];
+                for (int k = 0; k < elements.length; k++) {
+                    elements[k] = mapper.apply(indices[index][k]);
+                }
+                sets[index] = new ArraySet<>(elements);
+            }
+            return (Set<T>) sets[index];
+        }
+    }
+
+    /**
+     * Unmodifiable set of a few distinct elements that iterates in the order of their indices.
+     * Unlike {@link Set#of}, the iteration order is the same in every run.
+     */
+    private static final class ArraySet<T> extends AbstractSet<T> {
+        private final Object[] elements;
+
+        private ArraySet(final Object[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            for (final Object element : elements) {
+                if (element.equals(o)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterator<T> iterator() {
+            return (Iterator<T>) Arrays.asList(elements).iterator();
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+    }
+
+
+    // Index based relations, the returned arrays must not be modified
+
+    /**
+     * Returns the indices of the intersections at the corners of the tile with the given index.
+     *
+     * @param tile the index of the tile
+     * @return the indices of the intersections
+     */
+    public int[] tileIntersections(final int tile) {
+        return tileIntersections[tile];
+    }
+
+    /**
+     * Returns the indices of the tiles next to the tile with the given index.
+     *
+     * @param tile the index of the tile
+     * @return the indices of the neighbouring tiles
+     */
+    public int[] tileNeighbours(final int tile) {
+        return tileNeighbours[tile];
+    }
+
+    /**
+     * Returns the indices of the edges connected to the intersection with the given index.
+     *
+     * @param intersection the index of the intersection
+     * @return the indices of the connected edges
+     */
+    public int[] intersectionEdges(final int intersection) {
+        return intersectionEdges[intersection];
+    }
+
+    /**
+     * Returns the indices of the intersections adjacent to the intersection with the given index.
+     *
+     * @param intersection the index of the intersection
+     * @return the indices of the adjacent intersections
+     */
+    public int[] intersectionNeighbours(final int intersection) {
+        return intersectionNeighbours[intersection];
+    }
+
+    /**
+     * Returns the indices of the tiles adjacent to the intersection with the given index.
+     *
+     * @param intersection the index of the intersection
+     * @return the indices of the adjacent tiles
+     */
+    public int[] intersectionTiles(final int intersection) {
+        return intersectionTiles[intersection];
+    }
+
+    /**
+     * Returns the indices of the intersections on either end of the edge with the given index.
+     *
+     * @param edge the index of the edge
+     * @return the indices of the intersections
+     */
+    public int[] edgeIntersections(final int edge) {
+        return edgeIntersections[edge];
+    }
+
+    /**
+     * Returns the indices of all edges connected to the edge with the given index, including the edge itself.
+     *
+     * @param edge the index of the edge
+     * @return the indices of the connected edges
+     */
+    public int[] edgeConnectedEdges(final int edge) {
+        return edgeConnectedEdges[edge];
+    }
+
+
+    // Object based relations
+
+    /**
+     * Returns the intersections at the corners of the given tile.
+     *
+     * @param tile the tile
+     * @return the intersections or {@code null}, if the tile is unknown
+     */
+    public Set<Intersection> getIntersections(final Tile tile) {
+        final int t = grid.indexOf(tile);
+        return t < 0 ? null : tileIntersectionSets.get(t);
+    }
+
+    /**
+     * Returns the tiles next to the given tile.
+     *
+     * @param tile the tile
+     * @return the neighbouring tiles or {@code null}, if the tile is unknown
+     */
+    public Set<Tile> getNeighbours(final Tile tile) {
+        final int t = grid.indexOf(tile);
+        return t < 0 ? null : tileNeighbourSets.get(t);
+    }
+
+    /**
+     * Returns the edges connected to the given intersection.
+     *
+     * @param intersection the intersection
+     * @return the connected edges or {@code null}, if the intersection is unknown
+     */
+    public Set<Edge> getConnectedEdges(final Intersection intersection) {
+        final int i = grid.indexOf(intersection);
+        return i < 0 ? null : intersectionEdgeSets.get(i);
+    }
+
+    /**
+     * Returns the intersections adjacent to the given intersection.
+     *
+     * @param intersection the intersection
+     * @return the adjacent intersections or {@code null}, if the intersection is unknown
+     */
+    public Set<Intersection> getAdjacentIntersections(final Intersection intersection) {
+        final int i = grid.indexOf(intersection);
+        return i < 0 ? null : intersectionNeighbourSets.get(i);
+    }
+
+    /**
+     * Returns the tiles adjacent to the given intersection.
+     *
+     * @param intersection the intersection
+     * @return the adjacent tiles or {@code null}, if the intersection is unknown
+     */
+    public Set<Tile> getAdjacentTiles(final Intersection intersection) {
+        final int i = grid.indexOf(intersection);
+        return i < 0 ? null : intersectionTileSets.get(i);
+    }
+
+    /**
+     * Returns the intersections on either end of the given edge.
+     *
+     * @param edge the edge
+     * @return the intersections or {@code null}, if the edge is unknown
+     */
+    public Set<Intersection> getIntersections(final Edge edge) {
+        final int e = grid.indexOf(edge);
+        return e < 0 ? null : edgeIntersectionSets.get(e);
+    }
+
+    /**
+     * Returns all edges connected to the given edge, including the edge itself.
+     *
+     * @param edge the edge
+     * @return the connected edges or {@code null}, if the edge is unknown
+     */
+    public Set<Edge> getConnectedEdges(final Edge edge) {
+        final int e = grid.indexOf(edge);
+        return e < 0 ? null : edgeConnectedEdgeSets.get(e);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GridAdjacency[tiles=%d, intersections=%d, edges=%d]",
+                             tileIntersections.length, intersectionEdges.length, edgeIntersections.length
+        );
+    }
+}
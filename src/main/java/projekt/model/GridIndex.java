@@ -0,0 +1,283 @@
+package projekt.model;
+
+import java.util.Arrays;
+
+/**
+ * Maps axial coordinates of tiles, intersections and edges to dense indices.
+ * <p>
+ * All positions of a grid with the given radius, including the virtual ring around it,
+ * lie in a square of cells with q and r in {@code [-radius, radius]}. Each cell owns
+ * <ul>
+ *     <li>at most one tile,</li>
+ *     <li>two intersections: the one at its north corner and the one at its south corner,</li>
+ *     <li>three edges: the ones towards its east, north-east and north-west neighbour.</li>
+ * </ul>
+ * Every intersection and edge of the grid is owned by exactly one cell this way,
+ * so lookups are plain array accesses without any allocation.
+ */
+final class GridIndex {
+
+    /**
+     * Slot of the intersection at the north corner of a cell.
+     */
+    static final int NORTH = 0;
+
+    /**
+     * Slot of the intersection at the south corner of a cell.
+     */
+    static final int SOUTH = 1;
+
+    private final int radius;
+    private final int width;
+    private final int[] tiles;
+    private final int[] intersections;
+    private final int[] edges;
+
+    /**
+     * Creates a new, empty index for a grid with the given radius.
+     *
+     * @param radius radius of the grid, center is included
+     */
+    GridIndex(final int radius) {
+        this.radius = Math.max(radius, 0);
+        this.width = 2 * this.radius + 1;
+        this.tiles = new int[width * width];
+        this.intersections = new int[width * width * 2];
+        this.edges = new int[width * width * 3];
+        Arrays.fill(tiles, -1);
+        Arrays.fill(intersections, -1);
+        Arrays.fill(edges, -1);
+    }
+
+    /**
+     * Returns the cell of the given coordinates or -1, if they lie outside this index.
+     *
+     * @param q the q-coordinate
+     * @param r the r-coordinate
+     * @return the cell or -1
+     */
+    int cell(final int q, final int r) {
+        if (q < -radius || q > radius || r < -radius || r > radius) {
+            return -1;
+        }
+        return (q + radius) * width + r + radius;
+    }
+
+    /**
+     * Returns the key of the edge between the given coordinates or -1, if there is no such edge.
+     *
+     * @param q0 the q-coordinate of the first position
+     * @param r0 the r-coordinate of the first position
+     * @param q1 the q-coordinate of the second position
+     * @param r1 the r-coordinate of the second position
+     * @return the key of the edge or -1
+     */
+    int edgeKey(final int q0, final int r0, final int q1, final int r1) {
+        final int dq = q1 - q0;
+        final int dr = r1 - r0;
+        final int slot;
+        final int cell;
+        if (dq == 1 && dr == 0) {
+            slot = 0;
+            cell = cell(q0, r0);
+        } else if (dq == 1 && dr == -1) {
+            slot = 1;
+            cell = cell(q0, r0);
+        } else if (dq == 0 && dr == -1) {
+            slot = 2;
+            cell = cell(q0, r0);
+        } else if (dq == -1 && dr == 0) {
+            slot = 0;
+            cell = cell(q1, r1);
+        } else if (dq == -1 && dr == 1) {
+            slot = 1;
+            cell = cell(q1, r1);
+        } else if (dq == 0 && dr == 1) {
+            slot = 2;
+            cell = cell(q1, r1);
+        } else {
+            return -1;
+        }
+        return cell < 0 ? -1 : cell * 3 + slot;
+    }
+
+    /**
+     * Returns the key of the intersection between the given coordinates or -1, if there is no such intersection.
+     * The order of the coordinates does not matter.
+     *
+     * @param q0 the q-coordinate of the first position
+     * @param r0 the r-coordinate of the first position
+     * @param q1 the q-coordinate of the second position
+     * @param r1 the r-coordinate of the second position
+     * @param q2 the q-coordinate of the third position
+     * @param r2 the r-coordinate of the third position
+     * @return the key of the intersection or -1
+     */
+    int intersectionKey(final int q0, final int r0, final int q1, final int r1, final int q2, final int r2) {
+        int key = cornerKey(q0, r0, q1, r1, q2, r2);
+        if (key == -1) {
+            key = cornerKey(q1, r1, q2, r2, q0, r0);
+        }
+        if (key == -1) {
+            key = cornerKey(q2, r2, q0, r0, q1, r1);
+        }
+        return key;
+    }
+
+    /**
+     * Returns the key of the intersection, if it is the north or south corner of the first position.
+     *
+     * @return the key of the intersection or -1
+     */
+    private int cornerKey(final int q, final int r, final int qa, final int ra, final int qb, final int rb) {
+        final int slot;
+        // north corner: north-west (0, -1) and north-east (1, -1) neighbour
+        if (isOffsetPair(q, r, qa, ra, qb, rb, 0, -1, 1, -1)) {
+            slot = NORTH;
+        // south corner: south-east (0, 1) and south-west (-1, 1) neighbour
+        } else if (isOffsetPair(q, r, qa, ra, qb, rb, 0, 1, -1, 1)) {
+            slot = SOUTH;
+        } else {
+            return -1;
+        }
+        final int cell = cell(q, r);
+        return cell < 0 ? -1 : cell * 2 + slot;
+    }
+
+    /**
+     * Returns the key of the intersection in the given direction of the given position.
+     * This is the same as {@link #intersectionKey(int, int, int, int, int, int)} for the position and
+     * its neighbours in the direction's left and right direction, but only needs a table lookup.
+     *
+     * @param q         the q-coordinate of the position
+     * @param r         the r-coordinate of the position
+     * @param direction the direction of the intersection
+     * @return the key of the intersection or -1, if it lies outside this index
+     */
+    int intersectionKey(final int q, final int r, final TilePosition.IntersectionDirection direction) {
+        final int d = direction.ordinal();
+        final int cell = cell(q + CORNER_DQ[d], r + CORNER_DR[d]);
+        return cell < 0 ? -1 : cell * 2 + CORNER_SLOT[d];
+    }
+
+    // for each intersection direction: the offset of the position owning the intersection and its slot there
+    private static final int[] CORNER_DQ = new int[TilePosition.IntersectionDirection.COUNT];
+    private static final int[] CORNER_DR = new int[TilePosition.IntersectionDirection.COUNT];
+    private static final int[] CORNER_SLOT = new int[TilePosition.IntersectionDirection.COUNT];
+
+    static {
+        corner(TilePosition.IntersectionDirection.NORTH, 0, 0, NORTH);
+        corner(TilePosition.IntersectionDirection.NORTH_EAST, 1, -1, SOUTH);
+        corner(TilePosition.IntersectionDirection.SOUTH_EAST, 0, 1, NORTH);
+        corner(TilePosition.IntersectionDirection.SOUTH, 0, 0, SOUTH);
+        corner(TilePosition.IntersectionDirection.SOUTH_WEST, -1, 1, NORTH);
+        corner(TilePosition.IntersectionDirection.NORTH_WEST, 0, -1, SOUTH);
+    }
+
+    private static void corner(final TilePosition.IntersectionDirection direction, final int dq, final int dr, final int slot) {
+        CORNER_DQ[direction.ordinal()] = dq;
+        CORNER_DR[direction.ordinal()] = dr;
+        CORNER_SLOT[direction.ordinal()] = slot;
+    }
+
+    private static boolean isOffsetPair(
+        final int q, final int r, final int qa, final int ra, final int qb, final int rb,
+        final int dq0, final int dr0, final int dq1, final int dr1
+    ) {
+        return qa - q == dq0 && ra - r == dr0 && qb - q == dq1 && rb - r == dr1
+            || qa - q == dq1 && ra - r == dr1 && qb - q == dq0 && rb - r == dr0;
+    }
+
+    /**
+     * Returns the index of the tile at the given coordinates or -1, if there is none.
+     *
+     * @param q the q-coordinate
+     * @param r the r-coordinate
+     * @return the index of the tile or -1
+     */
+    int tileIndex(final int q, final int r) {
+        final int cell = cell(q, r);
+        return cell < 0 ? -1 : tiles[cell];
+    }
+
+    /**
+     * Returns the index of the edge between the given coordinates or -1, if there is none.
+     *
+     * @param q0 the q-coordinate of the first position
+     * @param r0 the r-coordinate of the first position
+     * @param q1 the q-coordinate of the second position
+     * @param r1 the r-coordinate of the second position
+     * @return the index of the edge or -1
+     */
+    int edgeIndex(final int q0, final int r0, final int q1, final int r1) {
+        final int key = edgeKey(q0, r0, q1, r1);
+        return key < 0 ? -1 : edgeAt(key);
+    }
+
+    /**
+     * Returns the index of the intersection between the given coordinates or -1, if there is none.
+     *
+     * @param q0 the q-coordinate of the first position
+     * @param r0 the r-coordinate of the first position
+     * @param q1 the q-coordinate of the second position
+     * @param r1 the r-coordinate of the second position
+     * @param q2 the q-coordinate of the third position
+     * @param r2 the r-coordinate of the third position
+     * @return the index of the intersection or -1
+     */
+    int intersectionIndex(final int q0, final int r0, final int q1, final int r1, final int q2, final int r2) {
+        final int key = intersectionKey(q0, r0, q1, r1, q2, r2);
+        return key < 0 ? -1 : intersectionAt(key);
+    }
+
+    /**
+     * Returns the index of the edge with the given key or -1, if it has not been registered.
+     *
+     * @param key the key of the edge, see {@link #edgeKey(int, int, int, int)}
+     * @return the index of the edge or -1
+     */
+    int edgeAt(final int key) {
+        return edges[key];
+    }
+
+    /**
+     * Returns the index of the intersection with the given key or -1, if it has not been registered.
+     *
+     * @param key the key of the intersection, see {@link #intersectionKey(int, int, int, int, int, int)}
+     * @return the index of the intersection or -1
+     */
+    int intersectionAt(final int key) {
+        return intersections[key];
+    }
+
+    /**
+     * Registers the tile at the given coordinates.
+     *
+     * @param q     the q-coordinate
+     * @param r     the r-coordinate
+     * @param index the index of the tile
+     */
+    void putTile(final int q, final int r, final int index) {
+        tiles[cell(q, r)] = index;
+    }
+
+    /**
+     * Registers the edge with the given key.
+     *
+     * @param key   the key of the edge, see {@link #edgeKey(int, int, int, int)}
+     * @param index the index of the edge
+     */
+    void putEdge(final int key, final int index) {
+        edges[key] = index;
+    }
+
+    /**
+     * Registers the intersection with the given key.
+     *
+     * @param key   the key of the intersection, see {@link #intersectionKey(int, int, int, int, int, int)}
+     * @param index the index of the intersection
+     */
+    void putIntersection(final int key, final int index) {
+        intersections[key] = index;
+    }
+}
@@ -16,19 +16,44 @@ import projekt.model.tiles.Tile;
 import projekt.model.tiles.TileImpl;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
  * Default implementation of {@link HexGrid}.
  */
 public class HexGridImpl implements HexGrid {
 
+    /**
+     * The ratio resources can be traded with the bank at without a port.
+     */
+    public static final int BANK_TRADE_RATIO = 4;
+
     private final Map<TilePosition, Tile> tiles = new HashMap<>();
-    private final Map<Set<TilePosition>, Intersection> intersections = new HashMap<>();
-    private final Map<Set<TilePosition>, Edge> edges = new HashMap<>();
+    private final Map<Set<TilePosition>, Intersection> intersections = new ElementMap<>(this::intersectionReplaced);
+    private final Map<Set<TilePosition>, Edge> edges = new ElementMap<>(this::edgeReplaced);
+    private final GridIndex index;
+    private Tile[] tilesByIndex;
+    private Intersection[] intersectionsByIndex;
+    private Edge[] edgesByIndex;
+    private GridAdjacency adjacency;
+    private List<Set<Tile>> tilesByRoll;
+    private ProductionTable productionTable;
+    private RoadNetwork roadNetwork;
+    private BuildSites buildSites;
+    private OpeningPlanner openingPlanner;
+    private final Map<Player, Map<Set<TilePosition>, Edge>> roadsByOwner = new HashMap<>();
+    private final Map<Player, Set<Settlement>> settlementsByOwner = new HashMap<>();
+    private final MoveJournal journal = new MoveJournal(this);
+    private final ScoreLedger scoreLedger = new ScoreLedger(journal);
+    private Port[] portsByIntersection;
+    // the settlement of every intersection the derived information was last updated for
+    private Settlement[] knownSettlements;
+    private boolean elementsReplaced;
+    private final Map<Player, int[]> tradeRatiosByOwner = new HashMap<>();
     private TilePosition robberPosition;
+    private long stateHash;
     private final ObservableDoubleValue tileWidth;
     private final ObservableDoubleValue tileHeight;
     private final DoubleProperty tileSize = new SimpleDoubleProperty(50);
@@ -42,12 +67,52 @@ public class HexGridImpl implements HexGrid {
      */
     @DoNotTouch
     public HexGridImpl(final int radius, final Supplier<Integer> rollNumberGenerator, final Supplier<Tile.Type> tileTypeGenerator) {
+        this(radius, rollNumberGenerator, tileTypeGenerator, Config.generatePortMapper());
+    }
+
+    /**
+     * Constructs a new hex grid with the specified radius.
+     * Tile types, roll numbers and ports are generated by drawing from the given source of randomness,
+     * e.g. {@link GameRandom#board()}. Ports are placed like {@link Config#generatePortMapper()} does.
+     *
+     * @param radius radius of the grid, center is included
+     * @param random the source of randomness
+     */
+    public HexGridImpl(final int radius, final Random random) {
+        this(
+            radius,
+            Config.generateRollNumbers(random),
+            Config.generateTileTypes(random),
+            Config.generatePortMapper(Config.GRID_RADIUS, random)
+        );
+    }
+
+    /**
+     * Constructs a new hex grid with the specified radius, generators and ports.
+     * Use {@link Config#generatePortMapper(int)} to place the ports on the outermost ring of a grid of any radius,
+     * the other constructors place them like {@link Config#generatePortMapper()} does.
+     *
+     * @param radius              radius of the grid, center is included
+     * @param rollNumberGenerator a supplier returning a tile's roll number
+     * @param tileTypeGenerator   a supplier returning a tile's type
+     * @param portMapper          a function returning the port of an edge, given by a tile position and direction
+     */
+    public HexGridImpl(
+        final int radius, final Supplier<Integer> rollNumberGenerator, final Supplier<Tile.Type> tileTypeGenerator,
+        final BiFunction<TilePosition, TilePosition.EdgeDirection, Port> portMapper
+    ) {
         this.tileHeight = Bindings.createDoubleBinding(() -> tileSize.get() * 2, tileSize);
         this.tileWidth = Bindings.createDoubleBinding(() -> Math.sqrt(3) * tileSize.get(), tileSize);
+        this.index = new GridIndex(radius);
         initTiles(radius, rollNumberGenerator, tileTypeGenerator);
         initIntersections();
-        initEdges();
+        initEdges(portMapper);
+        initAdjacency();
+        initPorts();
         initRobber();
+        initProduction();
+        initRoadNetwork();
+        this.stateHash = Zobrist.compute(this, List.of());
     }
 
     /**
@@ -63,6 +128,7 @@ public class HexGridImpl implements HexGrid {
 
     /**
      * Initializes the tiles in this grid.
+     * Tiles are indexed in the order they are visited on the spiral around the center.
      *
      * @param grid_radius         radius of the grid, center is included
      * @param rollNumberGenerator a supplier returning a tile's roll number
@@ -70,53 +136,126 @@ public class HexGridImpl implements HexGrid {
      */
     @DoNotTouch
     private void initTiles(final int grid_radius, final Supplier<Integer> rollNumberGenerator, final Supplier<Tile.Type> tileTypeGenerator) {
-        final TilePosition center = new TilePosition(0, 0);
+        final List<Tile> tileList = new ArrayList<>();
 
         TilePosition.forEachSpiral(
-            center,
+            0, 0,
             grid_radius,
-            (position, params) -> addTile(position, tileTypeGenerator.get(), rollNumberGenerator)
+            (q, r, radius, side, tile) -> {
+                final TilePosition position = new TilePosition(q, r);
+                addTile(position, tileTypeGenerator.get(), rollNumberGenerator);
+                this.index.putTile(q, r, tileList.size());
+                tileList.add(this.tiles.get(position));
+            }
         );
+        this.tilesByIndex = tileList.toArray(Tile[]::new);
     }
 
     /**
      * Initializes the intersections in this grid.
+     * Intersections are indexed in the order they are first encountered when visiting the tiles by index.
      */
     @DoNotTouch
     private void initIntersections() {
-        for (final var tile : this.tiles.values()) {
-            Arrays.stream(TilePosition.IntersectionDirection.values())
-                .map(tile::getIntersectionPositions)
-                .forEach(
-                    ps -> this.intersections.putIfAbsent(ps, new IntersectionImpl(this, ps.stream().toList())));
+        final List<Intersection> intersectionList = new ArrayList<>();
+        for (final Tile tile : this.tilesByIndex) {
+            final TilePosition position = tile.getPosition();
+            for (int d = 0; d < TilePosition.IntersectionDirection.COUNT; d++) {
+                final TilePosition.IntersectionDirection direction = TilePosition.IntersectionDirection.get(d);
+                final int key = this.index.intersectionKey(position.q(), position.r(), direction);
+                if (this.index.intersectionAt(key) >= 0) {
+                    continue;
+                }
+                // positions are only created for intersections that have not been visited yet
+                final IntersectionImpl intersection = new IntersectionImpl(
+                    position,
+                    TilePosition.neighbour(position, direction.leftDirection),
+                    TilePosition.neighbour(position, direction.rightDirection),
+                    this
+                );
+                intersection.setIndex(intersectionList.size());
+                this.index.putIntersection(key, intersectionList.size());
+                intersectionList.add(intersection);
+            }
+        }
+        this.intersectionsByIndex = intersectionList.toArray(Intersection[]::new);
+        this.knownSettlements = new Settlement[intersectionsByIndex.length];
+        for (final Intersection intersection : this.intersectionsByIndex) {
+            this.intersections.put(intersection.getAdjacentTilePositions(), intersection);
         }
     }
 
     /**
      * Initializes the edges in this grid.
+     * Edges are indexed in the order they are first encountered when visiting the tiles by index.
+     *
+     * @param portMapper a function returning the port of an edge, given by a tile position and direction
      */
     @DoNotTouch
-    private void initEdges() {
-        final BiFunction<TilePosition, TilePosition.EdgeDirection, Port> portMapper = Config.generatePortMapper();
-
-        for (final var tile : this.tiles.values()) {
-            Arrays.stream(TilePosition.EdgeDirection.values())
-                .forEach(
-                    ed -> this.edges.putIfAbsent(
-                        Set.of(
-                            tile.getPosition(),
-                            TilePosition.neighbour(tile.getPosition(), ed)
-                        ),
-                        new EdgeImpl(
-                            this,
-                            tile.getPosition(),
-                            TilePosition.neighbour(tile.getPosition(), ed),
-                            new SimpleObjectProperty<>(null),
-                            portMapper.apply(tile.getPosition(), ed)
-                        )
-                    )
+    private void initEdges(final BiFunction<TilePosition, TilePosition.EdgeDirection, Port> portMapper) {
+        final List<Edge> edgeList = new ArrayList<>();
+
+        for (final Tile tile : this.tilesByIndex) {
+            final TilePosition position = tile.getPosition();
+            for (int d = 0; d < TilePosition.EdgeDirection.COUNT; d++) {
+                final int key = this.index.edgeKey(
+                    position.q(), position.r(),
+                    TilePosition.neighbourQ(position.q(), d), TilePosition.neighbourR(position.r(), d)
                 );
+                if (this.index.edgeAt(key) >= 0) {
+                    continue;
+                }
+                final TilePosition.EdgeDirection direction = TilePosition.EdgeDirection.get(d);
+                final Edge edge = new EdgeImpl(
+                    this,
+                    position,
+                    TilePosition.neighbour(position, direction),
+                    new SimpleObjectProperty<>(null),
+                    portMapper.apply(position, direction)
+                );
+                this.index.putEdge(key, edgeList.size());
+                edgeList.add(edge);
+            }
+        }
+        this.edgesByIndex = edgeList.toArray(Edge[]::new);
+        for (final Edge edge : this.edgesByIndex) {
+            this.edges.put(Set.of(edge.getPosition1(), edge.getPosition2()), edge);
+        }
+    }
+
+    /**
+     * Initializes the adjacency of tiles, intersections and edges.
+     * Must be called after all of them have been initialized.
+     */
+    private void initAdjacency() {
+        this.adjacency = new GridAdjacency(this);
+    }
+
+    /**
+     * Initializes the ports of all intersections.
+     * Must be called after the adjacency has been initialized.
+     */
+    private void initPorts() {
+        this.portsByIntersection = new Port[intersectionsByIndex.length];
+        for (int i = 0; i < intersectionsByIndex.length; i++) {
+            portsByIntersection[i] = findPort(i);
+        }
+    }
+
+    /**
+     * Returns the port of the first edge connected to the given intersection that has one, in the order of the
+     * adjacency.
+     *
+     * @param i the index of the intersection
+     * @return the port of the intersection or {@code null}, if it has none
+     */
+    private Port findPort(final int i) {
+        for (final int e : adjacency.intersectionEdges(i)) {
+            if (edgesByIndex[e].hasPort()) {
+                return edgesByIndex[e].getPort();
+            }
         }
+        return null;
     }
 
     /**
@@ -128,6 +267,540 @@ public class HexGridImpl implements HexGrid {
             .ifPresent(tile -> robberPosition = tile.getPosition());
     }
 
+    /**
+     * Initializes the roll number index and the production table.
+     * Must be called after the robber has been initialized.
+     */
+    private void initProduction() {
+        this.productionTable = new ProductionTable(
+            this,
+            robberPosition == null ? -1 : index.tileIndex(robberPosition.q(), robberPosition.r())
+        );
+        final int maxRoll = Arrays.stream(this.tilesByIndex).mapToInt(Tile::getRollNumber).max().orElse(0);
+        this.tilesByRoll = new ArrayList<>(maxRoll + 1);
+        for (int roll = 0; roll <= maxRoll; roll++) {
+            this.tilesByRoll.add(Set.copyOf(
+                Arrays.stream(this.productionTable.getTileIndices(roll)).mapToObj(this::getTile).toList()
+            ));
+        }
+    }
+
+    /**
+     * Initializes the road network and the build sites and keeps them and the road registry in sync with the
+     * road owners of all edges.
+     */
+    private void initRoadNetwork() {
+        this.roadNetwork = new RoadNetwork(this);
+        this.buildSites = new BuildSites(this);
+        this.openingPlanner = new OpeningPlanner(this);
+        for (int i = 0; i < edgesByIndex.length; i++) {
+            final int edgeIndex = i;
+            edgesByIndex[i].getRoadOwnerProperty().addListener(
+                (observable, oldOwner, newOwner) -> onRoadOwnerChanged(edgeIndex, oldOwner, newOwner)
+            );
+        }
+    }
+
+
+    /**
+     * Returns the precomputed adjacency of this grid's tiles, intersections and edges.
+     *
+     * @return the adjacency of this grid
+     */
+    public GridAdjacency getAdjacency() {
+        return adjacency;
+    }
+
+    /**
+     * Returns the road network of this grid.
+     *
+     * @return the road network of this grid
+     */
+    public RoadNetwork getRoadNetwork() {
+        return roadNetwork;
+    }
+
+    /**
+     * Returns the intersections and edges the players can build on.
+     *
+     * @return the build sites of this grid
+     */
+    public BuildSites getBuildSites() {
+        return buildSites;
+    }
+
+    /**
+     * Returns the ranking of the intersections of this grid as places for villages.
+     *
+     * @return the opening planner of this grid
+     */
+    public OpeningPlanner getOpeningPlanner() {
+        return openingPlanner;
+    }
+
+    /**
+     * Returns the score ledger of the players on this grid.
+     *
+     * @return the score ledger of this grid
+     */
+    public ScoreLedger getScoreLedger() {
+        return scoreLedger;
+    }
+
+    /**
+     * Returns the journal that records the changes to this grid and its players.
+     *
+     * @return the move journal of this grid
+     */
+    public MoveJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns the 64-bit Zobrist hash of this grid and the players on it.
+     * The hash covers the tiles, ports, settlements, roads and robber of this grid and the resources and
+     * development cards of every player on it, and is updated whenever one of them changes, see {@link Zobrist}.
+     *
+     * @return the hash of the current state
+     */
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    /**
+     * Toggles the given key in the hash of this grid.
+     * Called by the players on this grid whenever their resources or development cards change.
+     *
+     * @param key the key of the old or new value of a feature
+     */
+    void toggleStateHash(final long key) {
+        stateHash ^= key;
+    }
+
+    /**
+     * Computes everything about this grid and the given players that is otherwise derived on first use, so that
+     * the grid can be read from several threads at once as long as nobody changes it in the meantime,
+     * e.g. by AIs deciding on a trade offer at the same time.
+     *
+     * @param players the players that are read about
+     */
+    public void prepareConcurrentReads(final Collection<? extends Player> players) {
+        pickUpSettlements();
+        buildSites.getFreeIntersections();
+        openingPlanner.getRankedFreeIntersections();
+        for (final Player player : players) {
+            buildSites.getVillageSites(player);
+            buildSites.getRoadSites(player);
+        }
+    }
+
+    /**
+     * Returns the production table of this grid.
+     *
+     * @return the production table of this grid
+     */
+    public ProductionTable getProductionTable() {
+        return productionTable;
+    }
+
+    /**
+     * Updates all information derived from settlements after the settlement on the given intersection has changed.
+     *
+     * @param intersection the intersection
+     * @param previous     the previous settlement, may be {@code null}
+     * @param current      the current settlement, may be {@code null}
+     */
+    void onSettlementChanged(final Intersection intersection, final Settlement previous, final Settlement current) {
+        final int i = indexOf(intersection);
+        if (i < 0) {
+            return;
+        }
+        journal.settlementChanged(i, previous);
+        settlementChanged(i, current);
+    }
+
+    /**
+     * Takes over the given intersection that has replaced the given one in the intersection map from outside of this
+     * grid, e.g. by reflection, together with its settlement.
+     *
+     * @param previous the replaced intersection
+     * @param current  the replacing intersection
+     */
+    private void intersectionReplaced(final Intersection previous, final Intersection current) {
+        final int i = indexOf(previous);
+        if (i < 0) {
+            return;
+        }
+        intersectionsByIndex[i] = current;
+        if (current instanceof final IntersectionImpl intersectionImpl) {
+            intersectionImpl.setIndex(i);
+        }
+        settlementChanged(i, current.getSettlement());
+        elementsReplaced = true;
+    }
+
+    /**
+     * Picks up the settlements set on the intersections of this grid without going through
+     * {@link IntersectionImpl#placeVillage(Player, boolean)} or {@link IntersectionImpl#upgradeSettlement(Player)}
+     * once after elements have been replaced in the maps of this grid from outside, e.g. by reflection.
+     * Such changes are not recorded by the journal.
+     * Otherwise, the information derived from settlements is only ever updated by their events.
+     */
+    private void pickUpSettlements() {
+        if (!elementsReplaced) {
+            return;
+        }
+        elementsReplaced = false;
+        for (int i = 0; i < intersectionsByIndex.length; i++) {
+            final Settlement settlement = intersectionsByIndex[i].getSettlement();
+            if (settlement != knownSettlements[i]) {
+                settlementChanged(i, settlement);
+            }
+        }
+    }
+
+    /**
+     * Takes over the given edge that has replaced the given one in the edge map from outside of this grid,
+     * e.g. by reflection, together with its road owner and port.
+     *
+     * @param previous the replaced edge
+     * @param current  the replacing edge
+     */
+    private void edgeReplaced(final Edge previous, final Edge current) {
+        final int e = indexOf(previous);
+        if (e < 0) {
+            return;
+        }
+        edgesByIndex[e] = current;
+        if (current.getRoadOwnerProperty() != previous.getRoadOwnerProperty()) {
+            current.getRoadOwnerProperty().addListener(
+                (observable, oldOwner, newOwner) -> onRoadOwnerChanged(e, oldOwner, newOwner)
+            );
+            if (current.getRoadOwner() != previous.getRoadOwner()) {
+                onRoadOwnerChanged(e, previous.getRoadOwner(), current.getRoadOwner());
+            }
+        }
+        for (final int i : adjacency.edgeIntersections(e)) {
+            portsByIntersection[i] = findPort(i);
+            if (knownSettlements[i] != null) {
+                updateTradeRatios(knownSettlements[i].owner());
+            }
+        }
+        elementsReplaced = true;
+    }
+
+    /**
+     * Updates all information derived from settlements from the settlement they were last updated for to the
+     * given settlement of the given intersection.
+     *
+     * @param i       the index of the intersection
+     * @param current the current settlement, may be {@code null}
+     */
+    private void settlementChanged(final int i, final Settlement current) {
+        final Settlement previous = knownSettlements[i];
+        knownSettlements[i] = current;
+        stateHash ^= Zobrist.settlement(i, previous) ^ Zobrist.settlement(i, current);
+        if (previous != null) {
+            settlementsByOwner.get(previous.owner()).remove(previous);
+        }
+        if (current != null) {
+            settlementsByOwner.computeIfAbsent(current.owner(), owner -> new LinkedHashSet<>()).add(current);
+        }
+        productionTable.settlementChanged(i, previous, current);
+        roadNetwork.settlementChanged(i, previous, current);
+        buildSites.settlementChanged(i, previous, current);
+        openingPlanner.settlementChanged(i, previous, current);
+        scoreLedger.settlementChanged(previous, current);
+        if (portsByIntersection[i] != null) {
+            if (previous != null && (current == null || current.owner() != previous.owner())) {
+                // only happens if a settlement is removed, so the ratios are recomputed from scratch
+                updateTradeRatios(previous.owner());
+            }
+            if (current != null) {
+                addPorts(current.owner(), i);
+            }
+        }
+    }
+
+    /**
+     * Updates all information derived from roads after the owner of the road on the given edge has changed.
+     *
+     * @param edgeIndex the index of the edge
+     * @param previous  the previous owner, may be {@code null}
+     * @param current   the current owner, may be {@code null}
+     */
+    private void onRoadOwnerChanged(final int edgeIndex, final Player previous, final Player current) {
+        journal.roadChanged(edgeIndex, previous);
+        stateHash ^= Zobrist.road(edgeIndex, previous) ^ Zobrist.road(edgeIndex, current);
+        final Edge edge = edgesByIndex[edgeIndex];
+        final Set<TilePosition> key = Set.of(edge.getPosition1(), edge.getPosition2());
+        if (previous != null) {
+            roadsByOwner.get(previous).remove(key);
+        }
+        if (current != null) {
+            roadsByOwner.computeIfAbsent(current, owner -> new LinkedHashMap<>()).put(key, edge);
+        }
+        roadNetwork.roadChanged(edgeIndex, previous, current);
+        buildSites.roadChanged(edgeIndex, previous, current);
+    }
+
+    /**
+     * Recomputes the trade ratios of the given player from the ports of all of its settlements.
+     *
+     * @param player the player
+     */
+    private void updateTradeRatios(final Player player) {
+        tradeRatiosByOwner.remove(player);
+        for (final Settlement settlement : settlementsByOwner.getOrDefault(player, Set.of())) {
+            final int i = indexOf(settlement.intersection());
+            if (i >= 0) {
+                addPorts(player, i);
+            }
+        }
+    }
+
+    /**
+     * Lowers the trade ratios of the given player according to the ports of all edges connected to the given
+     * intersection.
+     *
+     * @param player the player
+     * @param i      the index of the intersection
+     */
+    private void addPorts(final Player player, final int i) {
+        if (portsByIntersection[i] == null) {
+            return;
+        }
+        final int[] ratios = tradeRatiosByOwner.computeIfAbsent(player, owner -> newTradeRatios());
+        for (final int e : adjacency.intersectionEdges(i)) {
+            final Port port = edgesByIndex[e].getPort();
+            if (port == null) {
+                continue;
+            }
+            if (port.resourceType() == null) {
+                for (int r = 0; r < ratios.length; r++) {
+                    ratios[r] = Math.min(ratios[r], port.ratio());
+                }
+            } else {
+                ratios[port.resourceType().ordinal()] = Math.min(ratios[port.resourceType().ordinal()], port.ratio());
+            }
+        }
+    }
+
+    private static int[] newTradeRatios() {
+        final int[] ratios = new int[ResourceType.values().length];
+        Arrays.fill(ratios, BANK_TRADE_RATIO);
+        return ratios;
+    }
+
+    /**
+     * Returns the port of the given intersection.
+     *
+     * @param intersection the intersection
+     * @return the port of the intersection or {@code null}, if it has none or is not part of this grid
+     */
+    public Port getPort(final Intersection intersection) {
+        final int i = indexOf(intersection);
+        return i < 0 ? null : portsByIntersection[i];
+    }
+
+    /**
+     * Returns the ratio the given player can trade the given resource type at.
+     * The ratios are updated whenever the player gains a settlement on an intersection with a port or the ports of
+     * the player's intersections change, see {@link #pickUpSettlements()}.
+     *
+     * @param player       the player
+     * @param resourceType the resource type to trade
+     * @return the trade ratio
+     */
+    public int getTradeRatio(final Player player, final ResourceType resourceType) {
+        pickUpSettlements();
+        final int[] ratios = tradeRatiosByOwner.get(player);
+        return ratios == null ? BANK_TRADE_RATIO : ratios[resourceType.ordinal()];
+    }
+
+    /**
+     * Returns the number of tiles in this grid.
+     * Tiles are indexed densely from {@code 0} (inclusive) to this number (exclusive).
+     *
+     * @return the number of tiles
+     */
+    public int getTileCount() {
+        return tilesByIndex.length;
+    }
+
+    /**
+     * Returns the number of intersections in this grid.
+     * Intersections are indexed densely from {@code 0} (inclusive) to this number (exclusive).
+     *
+     * @return the number of intersections
+     */
+    public int getIntersectionCount() {
+        return intersectionsByIndex.length;
+    }
+
+    /**
+     * Returns the number of edges in this grid.
+     * Edges are indexed densely from {@code 0} (inclusive) to this number (exclusive).
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return edgesByIndex.length;
+    }
+
+    /**
+     * Returns the tile with the given index.
+     *
+     * @param index the index of the tile
+     * @return the tile with the given index
+     */
+    public Tile getTile(final int index) {
+        return tilesByIndex[index];
+    }
+
+    /**
+     * Returns the intersection with the given index.
+     *
+     * @param index the index of the intersection
+     * @return the intersection with the given index
+     */
+    public Intersection getIntersection(final int index) {
+        return intersectionsByIndex[index];
+    }
+
+    /**
+     * Returns the edge with the given index.
+     *
+     * @param index the index of the edge
+     * @return the edge with the given index
+     */
+    public Edge getEdge(final int index) {
+        return edgesByIndex[index];
+    }
+
+    /**
+     * Returns the index of the given tile.
+     *
+     * @param tile the tile
+     * @return the index of the tile or -1, if it is not part of this grid
+     */
+    public int indexOf(final Tile tile) {
+        final int i = index.tileIndex(tile.getPosition().q(), tile.getPosition().r());
+        return i >= 0 && tilesByIndex[i] == tile ? i : -1;
+    }
+
+    /**
+     * Returns the index of the given intersection.
+     *
+     * @param intersection the intersection
+     * @return the index of the intersection or -1, if it is not part of this grid
+     */
+    public int indexOf(final Intersection intersection) {
+        final int i;
+        if (intersection instanceof final IntersectionImpl intersectionImpl) {
+            i = intersectionImpl.getIndex();
+        } else {
+            final List<TilePosition> positions = List.copyOf(intersection.getAdjacentTilePositions());
+            i = index.intersectionIndex(
+                positions.get(0).q(), positions.get(0).r(),
+                positions.get(1).q(), positions.get(1).r(),
+                positions.get(2).q(), positions.get(2).r()
+            );
+        }
+        return i >= 0 && i < intersectionsByIndex.length && intersectionsByIndex[i] == intersection ? i : -1;
+    }
+
+    /**
+     * Returns the index of the given edge.
+     *
+     * @param edge the edge
+     * @return the index of the edge or -1, if it is not part of this grid
+     */
+    public int indexOf(final Edge edge) {
+        final int i = index.edgeIndex(
+            edge.getPosition1().q(), edge.getPosition1().r(),
+            edge.getPosition2().q(), edge.getPosition2().r()
+        );
+        return i >= 0 && edgesByIndex[i] == edge ? i : -1;
+    }
+
+    /**
+     * Returns the index of the tile at the given position.
+     *
+     * @param q the q-coordinate of the tile
+     * @param r the r-coordinate of the tile
+     * @return the index of the tile or -1, if there is none
+     */
+    public int tileIndexAt(final int q, final int r) {
+        return index.tileIndex(q, r);
+    }
+
+    /**
+     * Returns the index of the edge between the given positions.
+     *
+     * @param position0 the first position, packed by {@link TilePosition#pack(int, int)}
+     * @param position1 the second position, packed by {@link TilePosition#pack(int, int)}
+     * @return the index of the edge or -1, if there is none
+     */
+    public int edgeIndexAt(final long position0, final long position1) {
+        return index.edgeIndex(
+            TilePosition.unpackQ(position0), TilePosition.unpackR(position0),
+            TilePosition.unpackQ(position1), TilePosition.unpackR(position1)
+        );
+    }
+
+    /**
+     * Returns the index of the intersection between the given positions.
+     *
+     * @param position0 the first position, packed by {@link TilePosition#pack(int, int)}
+     * @param position1 the second position, packed by {@link TilePosition#pack(int, int)}
+     * @param position2 the third position, packed by {@link TilePosition#pack(int, int)}
+     * @return the index of the intersection or -1, if there is none
+     */
+    public int intersectionIndexAt(final long position0, final long position1, final long position2) {
+        return index.intersectionIndex(
+            TilePosition.unpackQ(position0), TilePosition.unpackR(position0),
+            TilePosition.unpackQ(position1), TilePosition.unpackR(position1),
+            TilePosition.unpackQ(position2), TilePosition.unpackR(position2)
+        );
+    }
+
+    /**
+     * Returns the tile at the given position.
+     *
+     * @param position the position of the tile, packed by {@link TilePosition#pack(int, int)}
+     * @return the tile at the given position or {@code null}, if there is none
+     */
+    public Tile getTileAt(final long position) {
+        final int i = index.tileIndex(TilePosition.unpackQ(position), TilePosition.unpackR(position));
+        return i < 0 ? null : tilesByIndex[i];
+    }
+
+    /**
+     * Returns the edge between the given positions.
+     *
+     * @param position0 the first position, packed by {@link TilePosition#pack(int, int)}
+     * @param position1 the second position, packed by {@link TilePosition#pack(int, int)}
+     * @return the edge between the given positions or {@code null}, if there is none
+     */
+    public Edge getEdge(final long position0, final long position1) {
+        final int i = edgeIndexAt(position0, position1);
+        return i < 0 ? null : edgesByIndex[i];
+    }
+
+    /**
+     * Returns the intersection between the given positions.
+     *
+     * @param position0 the first position, packed by {@link TilePosition#pack(int, int)}
+     * @param position1 the second position, packed by {@link TilePosition#pack(int, int)}
+     * @param position2 the third position, packed by {@link TilePosition#pack(int, int)}
+     * @return the intersection between the given positions or {@code null}, if there is none
+     */
+    public Intersection getIntersectionAt(final long position0, final long position1, final long position2) {
+        final int i = intersectionIndexAt(position0, position1, position2);
+        return i < 0 ? null : intersectionsByIndex[i];
+    }
+
 
     // Tiles
 
@@ -168,17 +841,18 @@ public class HexGridImpl implements HexGrid {
 
     @Override
     public Set<Tile> getTiles(final int diceRoll) {
-        return tiles.values().stream().filter(tile -> tile.getRollNumber() == diceRoll).collect(Collectors.toSet());
+        return diceRoll > 0 && diceRoll < tilesByRoll.size() ? tilesByRoll.get(diceRoll) : Set.of();
     }
 
     @Override
     public Tile getTileAt(final int q, final int r) {
-        return getTileAt(new TilePosition(q, r));
+        final int i = index.tileIndex(q, r);
+        return i < 0 ? null : tilesByIndex[i];
     }
 
     @Override
     public Tile getTileAt(final TilePosition position) {
-        return tiles.get(position);
+        return getTileAt(position.q(), position.r());
     }
 
     /**
@@ -203,7 +877,21 @@ public class HexGridImpl implements HexGrid {
 
     @Override
     public Intersection getIntersectionAt(final TilePosition position0, final TilePosition position1, final TilePosition position2) {
-        return intersections.get(Set.of(position0, position1, position2));
+        final int i = index.intersectionIndex(
+            position0.q(), position0.r(), position1.q(), position1.r(), position2.q(), position2.r()
+        );
+        return i < 0 ? null : intersectionsByIndex[i];
+    }
+
+    /**
+     * Returns all settlements of a player, see {@link #pickUpSettlements()}.
+     *
+     * @param player the player to get the settlements of
+     * @return an unmodifiable set of all settlements of the player
+     */
+    public Set<Settlement> getSettlements(final Player player) {
+        pickUpSettlements();
+        return Collections.unmodifiableSet(settlementsByOwner.getOrDefault(player, Set.of()));
     }
 
 
@@ -216,39 +904,27 @@ public class HexGridImpl implements HexGrid {
 
     @Override
     public Edge getEdge(final TilePosition position0, final TilePosition position1) {
-        return edges.get(Set.of(position0, position1));
+        final int i = index.edgeIndex(position0.q(), position0.r(), position1.q(), position1.r());
+        return i < 0 ? null : edgesByIndex[i];
     }
 
     /**
      * Returns all roads of a player.
      * @param player the player to get the roads of
-     * @return a map of all roads of the player
+     * @return an unmodifiable map of all roads of the player
      */
     @Override
     @StudentImplementationRequired("H1.3")
     public Map<Set<TilePosition>, Edge> getRoads(final Player player) {
         // H1.3
-        Map<Set<TilePosition>, Edge> playerEdges = new HashMap<>();
-
-        // Iterate through the entrySet of the edges map.
-        for (Map.Entry<Set<TilePosition>, Edge> edgeEntry : edges.entrySet()) {
-            // Check if the edge is owned by the player.
-            Player roadOwner = edgeEntry.getValue().getRoadOwner();
-            if (roadOwner != null && roadOwner.equals(player)) {
-                // If so, add the edge to the playerEdges map.
-                playerEdges.put(edgeEntry.getKey(), edgeEntry.getValue());
-            }
-        }
-
-        // Return the map of edges owned by the player.
-        return playerEdges;
-
+        // Roads are registered by owner whenever the owner of an edge changes, see onRoadOwnerChanged.
+        return Collections.unmodifiableMap(roadsByOwner.getOrDefault(player, Map.of()));
     }
 
     @Override
     @DoNotTouch
     public List<Edge> getLongestRoad(final Player player) {
-        throw new UnsupportedOperationException("Unimplemented method 'getLongestRoad'");
+        return roadNetwork.getLongestRoad(player);
     }
 
     /**
@@ -302,7 +978,7 @@ public class HexGridImpl implements HexGrid {
 
     @Override
     public boolean removeRoad(final TilePosition position0, final TilePosition position1) {
-        edges.get(Set.of(position0, position1)).getRoadOwnerProperty().setValue(null);
+        getEdge(position0, position1).getRoadOwnerProperty().setValue(null);
         return true;
     }
 
@@ -316,6 +992,36 @@ public class HexGridImpl implements HexGrid {
 
     @Override
     public void setRobberPosition(final TilePosition position) {
+        journal.robberMoved(robberPosition);
+        final int tile = position == null ? -1 : index.tileIndex(position.q(), position.r());
+        stateHash ^= Zobrist.robber(robberPosition == null ? -1 : index.tileIndex(robberPosition.q(), robberPosition.r()))
+            ^ Zobrist.robber(tile);
         robberPosition = position;
+        productionTable.robberMoved(tile);
+    }
+
+    /**
+     * A map of the elements of this grid by their positions that reports elements replaced in it from outside of
+     * this grid, e.g. by reflection, so the indexed elements and the information derived from them follow.
+     * Only {@link #put(Object, Object)} is reported, the grid itself never replaces any element.
+     *
+     * @param <V> the type of the elements
+     */
+    private static final class ElementMap<V> extends HashMap<Set<TilePosition>, V> {
+
+        private final BiConsumer<V, V> onReplaced;
+
+        private ElementMap(final BiConsumer<V, V> onReplaced) {
+            this.onReplaced = onReplaced;
+        }
+
+        @Override
+        public V put(final Set<TilePosition> key, final V value) {
+            final V previous = super.put(key, value);
+            if (previous != null && previous != value) {
+                onReplaced.accept(previous, value);
+            }
+            return previous;
+        }
     }
 }
@@ -5,6 +5,7 @@ import org.tudalgo.algoutils.student.annotation.StudentImplementationRequired;
 import projekt.model.buildings.Edge;
 import projekt.model.buildings.Port;
 import projekt.model.buildings.Settlement;
+import projekt.model.tiles.Tile;
 
 import java.util.List;
 import java.util.Map;
@@ -22,6 +23,7 @@ public class IntersectionImpl implements Intersection {
     private final TilePosition position2;
     private final HexGrid hexGrid;
     private Settlement settlement;
+    private int index = -1;
 
     /**
      * Creates a new intersection with the given positions.
@@ -50,8 +52,8 @@ public class IntersectionImpl implements Intersection {
         if (position0.equals(position1) || position0.equals(position2) || position1.equals(position2))
             throw new IllegalArgumentException("Positions must not be equal");
 
-        if (!TilePosition.neighbours(position0).containsAll(Set.of(position1, position2))
-            || !TilePosition.neighbours(position1).containsAll(Set.of(position0, position2)))
+        if (!TilePosition.isNeighbour(position0, position1) || !TilePosition.isNeighbour(position0, position2)
+            || !TilePosition.isNeighbour(position1, position2))
             throw new IllegalArgumentException(String.format("Positions must be neighbours: %s, %s, %s",
                                                              position0, position1, position2
             ));
@@ -62,6 +64,25 @@ public class IntersectionImpl implements Intersection {
         this.hexGrid = hexGrid;
     }
 
+    /**
+     * Returns the dense index of this intersection in its grid.
+     *
+     * @return the index of this intersection or -1, if it has not been indexed by a {@link HexGridImpl}
+     * @see HexGridImpl#getIntersection(int)
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets the dense index of this intersection in its grid.
+     *
+     * @param index the index of this intersection
+     */
+    void setIndex(final int index) {
+        this.index = index;
+    }
+
     @Override
     public HexGrid getHexGrid() {
         return hexGrid;
@@ -104,7 +125,7 @@ public class IntersectionImpl implements Intersection {
         }
         // If the intersection is not occupied and (if required) there is a connected road,
         // place a village for the player.
-        this.settlement = new Settlement(player, Settlement.Type.VILLAGE, this);
+        setSettlement(new Settlement(player, Settlement.Type.VILLAGE, this));
         return true;
     }
 
@@ -125,14 +146,39 @@ public class IntersectionImpl implements Intersection {
                 return false;
             }
             // Upgrade the village to a city.
-            this.settlement = new Settlement(player, Settlement.Type.CITY, this);
+            setSettlement(new Settlement(player, Settlement.Type.CITY, this));
             return true;
         }
         return false; // No settlement to upgrade or not owned by the player.
     }
 
+    /**
+     * Restores a previous settlement on this intersection, see {@link MoveJournal#rollback(int)}.
+     *
+     * @param settlement the previous settlement, may be {@code null}
+     */
+    void restoreSettlement(final Settlement settlement) {
+        setSettlement(settlement);
+    }
+
+    /**
+     * Replaces the settlement on this intersection and lets the grid update its derived information.
+     *
+     * @param settlement the new settlement
+     */
+    private void setSettlement(final Settlement settlement) {
+        final Settlement previous = this.settlement;
+        this.settlement = settlement;
+        if (hexGrid instanceof final HexGridImpl hexGridImpl) {
+            hexGridImpl.onSettlementChanged(this, previous, settlement);
+        }
+    }
+
     @Override
     public Port getPort() {
+        if (hexGrid instanceof final HexGridImpl hexGridImpl && hexGridImpl.indexOf(this) >= 0) {
+            return hexGridImpl.getPort(this);
+        }
         return getConnectedEdges().stream()
             .filter(Edge::hasPort)
             .map(Edge::getPort)
@@ -142,6 +188,12 @@ public class IntersectionImpl implements Intersection {
 
     @Override
     public Set<Edge> getConnectedEdges() {
+        if (hexGrid instanceof final HexGridImpl hexGridImpl) {
+            final Set<Edge> connectedEdges = hexGridImpl.getAdjacency().getConnectedEdges(this);
+            if (connectedEdges != null) {
+                return connectedEdges;
+            }
+        }
         return Stream.of(
                 Set.of(this.position1, this.position2),
                 Set.of(this.position2, this.position0),
@@ -160,6 +212,12 @@ public class IntersectionImpl implements Intersection {
 
     @Override
     public Set<Intersection> getAdjacentIntersections() {
+        if (hexGrid instanceof final HexGridImpl hexGridImpl) {
+            final Set<Intersection> adjacentIntersections = hexGridImpl.getAdjacency().getAdjacentIntersections(this);
+            if (adjacentIntersections != null) {
+                return adjacentIntersections;
+            }
+        }
         return hexGrid.getIntersections().entrySet().stream().filter(
                 entry -> entry.getKey().containsAll(Set.of(position0, position1)) ||
                     entry.getKey().containsAll(Set.of(position1, position2)) ||
@@ -174,6 +232,17 @@ public class IntersectionImpl implements Intersection {
         return Set.of(position0, position1, position2);
     }
 
+    @Override
+    public Set<Tile> getAdjacentTiles() {
+        if (hexGrid instanceof final HexGridImpl hexGridImpl) {
+            final Set<Tile> adjacentTiles = hexGridImpl.getAdjacency().getAdjacentTiles(this);
+            if (adjacentTiles != null) {
+                return adjacentTiles;
+            }
+        }
+        return Intersection.super.getAdjacentTiles();
+    }
+
     @Override
     public boolean isConnectedTo(final TilePosition... positions) {
         return Stream.of(positions)
@@ -182,7 +251,8 @@ public class IntersectionImpl implements Intersection {
 
     @Override
     public int hashCode() {
-        return getAdjacentTilePositions().hashCode();
+        // same as the hash code of the set of adjacent tile positions, without creating the set
+        return position0.hashCode() + position1.hashCode() + position2.hashCode();
     }
 
     @Override
@@ -192,6 +262,12 @@ public class IntersectionImpl implements Intersection {
         if (o == null || getClass() != o.getClass())
             return false;
         final IntersectionImpl intersection = (IntersectionImpl) o;
-        return getAdjacentTilePositions().equals(intersection.getAdjacentTilePositions());
+        // the positions of an intersection are distinct, so they are equal as sets if all of them are contained
+        return isAdjacentTo(intersection.position0) && isAdjacentTo(intersection.position1)
+            && isAdjacentTo(intersection.position2);
+    }
+
+    private boolean isAdjacentTo(final TilePosition position) {
+        return position0.equals(position) || position1.equals(position) || position2.equals(position);
     }
 }
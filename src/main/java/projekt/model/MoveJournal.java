@@ -0,0 +1,254 @@
+package projekt.model;
+
+import projekt.model.buildings.Settlement;
+
+import java.util.Arrays;
+
+/**
+ * Records the inverse of every change to the model of a {@link HexGridImpl} and its players, so that tentative
+ * moves can be taken back.
+ * <p>
+ * While the journal is recording, every settlement placed or upgraded, every change of a road owner, every move of
+ * the robber and every change of a player's resources and development cards is appended as a single entry. These
+ * are exactly the changes the {@link projekt.controller.actions.PlayerAction}s make to the model, so an action can
+ * be executed in place and {@linkplain #rollback(int) rolled back} afterwards instead of copying the game state:
+ * <pre>{@code
+ * final int mark = journal.mark();
+ * action.execute(playerController);
+ * // evaluate the resulting state
+ * journal.rollback(mark);
+ * }</pre>
+ * Rolling back to a mark reverts the entries after it in reverse order, so it takes time proportional to the amount
+ * of changes since the mark.
+ * <p>
+ * The journal only records while a mark is open. A mark is opened by {@link #mark()} and closed by
+ * {@link #rollback(int)} or {@link #commit(int)}, which close the marks opened after it as well. Marks may be nested;
+ * the changes kept by committing an inner mark are still reverted when an outer mark is rolled back. Once the
+ * outermost mark is closed, the journal stops recording and discards its entries, so it never grows beyond the
+ * changes of one tentative line of moves. The information derived from the model, i.e. production, road network, build sites,
+ * trade ratios and scores, is updated by the same hooks as for regular changes. The holders of the longest road and
+ * most knights bonus are recorded as well, as a bonus is not necessarily handed back when the count that won it
+ * is decreased again.
+ * <p>
+ * Only the model is covered: the random streams of the game, e.g. the drawn development cards and dice rolls, and
+ * the state of the controllers are not reverted. A journal must only be used by the thread running the game.
+ */
+public final class MoveJournal {
+
+    private static final int SETTLEMENT = 0;
+    private static final int ROAD = 1;
+    private static final int ROBBER = 2;
+    private static final int RESOURCE = 3;
+    private static final int DEVELOPMENT_CARD = 4;
+    private static final int PLAYED_DEVELOPMENT_CARD = 5;
+    private static final int MOST_KNIGHTS_HOLDER = 6;
+    private static final int LONGEST_ROAD_HOLDER = 7;
+
+    private final HexGridImpl grid;
+    // entry i consists of an operation, up to two ints and a reference
+    private int[] operations = new int[64];
+    private int[] firstArguments = new int[64];
+    private int[] secondArguments = new int[64];
+    private Object[] references = new Object[64];
+    private int size;
+    // the positions of the open marks, innermost last
+    private int[] marks = new int[8];
+    private int openMarks;
+    private boolean replaying;
+
+    /**
+     * Creates a new journal for the given grid that is not recording.
+     *
+     * @param grid the grid
+     */
+    MoveJournal(final HexGridImpl grid) {
+        this.grid = grid;
+    }
+
+    /**
+     * Opens a mark of the current position in the journal and starts recording, if not already started.
+     *
+     * @return the mark
+     */
+    public int mark() {
+        if (openMarks == marks.length) {
+            marks = Arrays.copyOf(marks, openMarks * 2);
+        }
+        marks[openMarks++] = size;
+        return size;
+    }
+
+    /**
+     * Reverts all changes recorded after the given mark, latest first, and removes them from the journal.
+     * Closes the mark and all marks opened after it.
+     *
+     * @param mark an open mark returned by {@link #mark()}
+     * @throws IllegalArgumentException if the mark is not open
+     */
+    public void rollback(final int mark) {
+        close(mark);
+        replaying = true;
+        try {
+            while (size > mark) {
+                size--;
+                revert(size);
+                references[size] = null;
+            }
+        } finally {
+            replaying = false;
+        }
+        if (openMarks == 0) {
+            clear();
+        }
+    }
+
+    /**
+     * Keeps all changes recorded after the given mark and closes the mark and all marks opened after it.
+     * The changes are still reverted if an outer mark is rolled back.
+     *
+     * @param mark an open mark returned by {@link #mark()}
+     * @throws IllegalArgumentException if the mark is not open
+     */
+    public void commit(final int mark) {
+        close(mark);
+        if (openMarks == 0) {
+            clear();
+        }
+    }
+
+    /**
+     * Closes all marks, stops recording and discards all entries, the changes they recorded are kept.
+     */
+    public void clear() {
+        Arrays.fill(references, 0, size, null);
+        size = 0;
+        openMarks = 0;
+    }
+
+    /**
+     * Returns whether changes are currently recorded, i.e. whether a mark is open.
+     *
+     * @return true if the journal is recording, false otherwise
+     */
+    public boolean isRecording() {
+        return openMarks > 0;
+    }
+
+    /**
+     * Returns whether the journal is currently reverting changes.
+     * Changes made while replaying are not recorded.
+     *
+     * @return true if the journal is rolling back, false otherwise
+     */
+    public boolean isReplaying() {
+        return replaying;
+    }
+
+    /**
+     * Returns the amount of recorded changes.
+     *
+     * @return the amount of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    private void close(final int mark) {
+        int open = openMarks;
+        while (open > 0 && marks[open - 1] > mark) {
+            open--;
+        }
+        if (open == 0 || marks[open - 1] != mark || mark > size) {
+            throw new IllegalArgumentException("Journal has no open mark " + mark + ", size is " + size);
+        }
+        openMarks = open - 1;
+    }
+
+    private void revert(final int entry) {
+        final int first = firstArguments[entry];
+        final int second = secondArguments[entry];
+        final Object reference = references[entry];
+        switch (operations[entry]) {
+            case SETTLEMENT -> ((IntersectionImpl) grid.getIntersection(first)).restoreSettlement((Settlement) reference);
+            case ROAD -> grid.getEdge(first).getRoadOwnerProperty().setValue((Player) reference);
+            case ROBBER -> grid.setRobberPosition((TilePosition) reference);
+            case RESOURCE -> ((PlayerImpl) reference).revertResource(first, second);
+            case DEVELOPMENT_CARD -> ((PlayerImpl) reference).revertDevelopmentCard(first, second, false);
+            case PLAYED_DEVELOPMENT_CARD -> ((PlayerImpl) reference).revertDevelopmentCard(first, second, true);
+            case MOST_KNIGHTS_HOLDER -> grid.getScoreLedger().restoreMostKnightsHolder((Player) reference);
+            case LONGEST_ROAD_HOLDER -> grid.getScoreLedger().restoreLongestRoadHolder((Player) reference);
+            default -> throw new IllegalStateException("Unknown journal operation " + operations[entry]);
+        }
+    }
+
+    private boolean accepts() {
+        return openMarks > 0 && !replaying;
+    }
+
+    private void append(final int operation, final int first, final int second, final Object reference) {
+        if (size == operations.length) {
+            final int capacity = size * 2;
+            operations = Arrays.copyOf(operations, capacity);
+            firstArguments = Arrays.copyOf(firstArguments, capacity);
+            secondArguments = Arrays.copyOf(secondArguments, capacity);
+            references = Arrays.copyOf(references, capacity);
+        }
+        operations[size] = operation;
+        firstArguments[size] = first;
+        secondArguments[size] = second;
+        references[size] = reference;
+        size++;
+    }
+
+
+    // Hooks of the model, called before or after a change with the previous value
+
+    void settlementChanged(final int intersection, final Settlement previous) {
+        if (accepts()) {
+            append(SETTLEMENT, intersection, 0, previous);
+        }
+    }
+
+    void roadChanged(final int edge, final Player previousOwner) {
+        if (accepts()) {
+            append(ROAD, edge, 0, previousOwner);
+        }
+    }
+
+    void robberMoved(final TilePosition previousPosition) {
+        if (accepts()) {
+            append(ROBBER, 0, 0, previousPosition);
+        }
+    }
+
+    void resourceChanged(final PlayerImpl player, final ResourceType resourceType, final int amount) {
+        if (accepts() && amount != 0) {
+            append(RESOURCE, resourceType.ordinal(), amount, player);
+        }
+    }
+
+    void developmentCardChanged(
+        final PlayerImpl player, final DevelopmentCardType developmentCardType, final int amount, final boolean played
+    ) {
+        if (accepts()) {
+            append(played ? PLAYED_DEVELOPMENT_CARD : DEVELOPMENT_CARD, developmentCardType.ordinal(), amount, player);
+        }
+    }
+
+    void mostKnightsHolderChanged(final Player previousHolder) {
+        if (accepts()) {
+            append(MOST_KNIGHTS_HOLDER, 0, 0, previousHolder);
+        }
+    }
+
+    void longestRoadHolderChanged(final Player previousHolder) {
+        if (accepts()) {
+            append(LONGEST_ROAD_HOLDER, 0, 0, previousHolder);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MoveJournal[size=%d, openMarks=%d]", size, openMarks);
+    }
+}
@@ -0,0 +1,245 @@
+package projekt.model;
+
+import projekt.Config;
+import projekt.model.buildings.Port;
+import projekt.model.buildings.Settlement;
+import projekt.model.tiles.Tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ranks the intersections of a grid by how good a place they are for a village, e.g. in the first round.
+ * <p>
+ * The score of an intersection is computed once from the board: the pips of the tiles next to it, i.e. the amount
+ * of ways their roll numbers can be cast, plus a bonus for every distinct resource they produce and for a port.
+ * A generic port is worth more than one of a single resource. The intersections are ranked by their score once,
+ * and the free ones are kept as bits over the ranks. Whenever a settlement is placed or removed, only the bits of
+ * the intersection and its neighbours are updated, so the best free intersection is found without sorting or
+ * scanning the grid.
+ * <p>
+ * For a given player, the score is raised by a bonus for every resource the player's settlements do not produce
+ * yet, so the second village of the first round complements the first one.
+ */
+public final class OpeningPlanner {
+
+    /**
+     * The bonus for every distinct resource produced next to an intersection.
+     */
+    public static final int DIVERSITY_BONUS = 2;
+
+    /**
+     * The bonus for every resource next to an intersection that the player does not produce yet.
+     */
+    public static final int COMPLEMENT_BONUS = 3;
+
+    /**
+     * The bonus for an intersection with a generic port.
+     */
+    public static final int GENERIC_PORT_BONUS = 3;
+
+    /**
+     * The bonus for an intersection with a port of a single resource.
+     */
+    public static final int RESOURCE_PORT_BONUS = 2;
+
+    private static final int RESOURCES = ResourceType.values().length;
+
+    private final HexGridImpl grid;
+    private final int[] scores;
+    // the resources produced next to each intersection, one bit per resource type
+    private final int[] producedResources;
+    private final int[] ranked;
+    private final int[] ranks;
+    private final BitSet free;
+    private final int maxTiles;
+    private List<Intersection> rankedFreeIntersections;
+
+    /**
+     * Creates the planner of the given grid.
+     * The grid's tiles, intersections, ports, adjacency and build sites must already be initialized.
+     *
+     * @param grid the grid
+     */
+    OpeningPlanner(final HexGridImpl grid) {
+        this.grid = grid;
+        final int count = grid.getIntersectionCount();
+        this.scores = new int[count];
+        this.producedResources = new int[count];
+        int mostTiles = 0;
+        for (int i = 0; i < count; i++) {
+            scores[i] = score(i);
+            mostTiles = Math.max(mostTiles, grid.getAdjacency().intersectionTiles(i).length);
+        }
+        this.maxTiles = mostTiles;
+        final Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        // by score, highest first, and by index for equal scores
+        Arrays.sort(order, (a, b) -> scores[a] != scores[b] ? Integer.compare(scores[b], scores[a]) : Integer.compare(a, b));
+        this.ranked = new int[count];
+        this.ranks = new int[count];
+        this.free = new BitSet(count);
+        for (int rank = 0; rank < count; rank++) {
+            ranked[rank] = order[rank];
+            ranks[order[rank]] = rank;
+            free.set(rank, grid.getBuildSites().isFree(order[rank]));
+        }
+    }
+
+    private int score(final int intersection) {
+        int pips = 0;
+        int resources = 0;
+        for (final int t : grid.getAdjacency().intersectionTiles(intersection)) {
+            final Tile tile = grid.getTile(t);
+            final ResourceType resourceType = tile.getType().resourceType;
+            if (resourceType != null) {
+                pips += pips(tile.getRollNumber());
+                resources |= 1 << resourceType.ordinal();
+            }
+        }
+        producedResources[intersection] = resources;
+        int score = pips + DIVERSITY_BONUS * Integer.bitCount(resources);
+        final Port port = grid.getPort(grid.getIntersection(intersection));
+        if (port != null) {
+            score += port.resourceType() == null ? GENERIC_PORT_BONUS : RESOURCE_PORT_BONUS;
+        }
+        return score;
+    }
+
+    /**
+     * Returns the amount of ways the dice can show the given roll number.
+     */
+    private static int pips(final int roll) {
+        if (roll < Config.NUMBER_OF_DICE || roll > Config.NUMBER_OF_DICE * Config.DICE_SIDES) {
+            return 0;
+        }
+        // the amount of ways two dice can show the sum, e.g. 5 for a 6 or an 8
+        return Config.DICE_SIDES - Math.abs(roll - Config.DICE_SIDES - 1);
+    }
+
+    /**
+     * Returns the score of the intersection with the given index.
+     *
+     * @param intersection the index of the intersection
+     * @return the score, independent of whether the intersection is free
+     */
+    public int getScore(final int intersection) {
+        return scores[intersection];
+    }
+
+    /**
+     * Returns the score of the given intersection for the given player, including the bonus for the resources the
+     * player does not produce yet.
+     *
+     * @param player       the player
+     * @param intersection the index of the intersection
+     * @return the score
+     */
+    public int getScore(final Player player, final int intersection) {
+        return getScore(intersection, resourcesOf(player));
+    }
+
+    private int getScore(final int intersection, final int playerResources) {
+        return scores[intersection] + COMPLEMENT_BONUS * Integer.bitCount(producedResources[intersection] & ~playerResources);
+    }
+
+    /**
+     * Returns all free intersections, highest score first.
+     *
+     * @return an unmodifiable list of the free intersections
+     */
+    public List<Intersection> getRankedFreeIntersections() {
+        if (rankedFreeIntersections == null) {
+            final List<Intersection> intersections = new ArrayList<>(free.cardinality());
+            for (int rank = free.nextSetBit(0); rank >= 0; rank = free.nextSetBit(rank + 1)) {
+                intersections.add(grid.getIntersection(ranked[rank]));
+            }
+            rankedFreeIntersections = Collections.unmodifiableList(intersections);
+        }
+        return rankedFreeIntersections;
+    }
+
+    /**
+     * Returns the free intersection with the highest score.
+     *
+     * @return the index of the intersection or -1, if no intersection is free
+     */
+    public int getBestIntersection() {
+        final int rank = free.nextSetBit(0);
+        return rank < 0 ? -1 : ranked[rank];
+    }
+
+    /**
+     * Returns the one of the given sites with the highest score for the given player.
+     * All sites must be free, which holds for every site a village can be built on. The free intersections are
+     * visited by rank until no later one can beat the best site found, even with the highest complement bonus.
+     *
+     * @param player the player
+     * @param sites  the free intersections to choose from
+     * @return the best site or {@code null}, if there are no sites
+     */
+    public Intersection getBestSite(final Player player, final Set<Intersection> sites) {
+        if (sites.isEmpty()) {
+            return null;
+        }
+        final int playerResources = resourcesOf(player);
+        final int maxBonus = COMPLEMENT_BONUS * Math.min(maxTiles, RESOURCES - Integer.bitCount(playerResources));
+        Intersection best = null;
+        int bestScore = Integer.MIN_VALUE;
+        int found = 0;
+        for (int rank = free.nextSetBit(0); rank >= 0 && found < sites.size(); rank = free.nextSetBit(rank + 1)) {
+            final int intersection = ranked[rank];
+            if (best != null && scores[intersection] + maxBonus <= bestScore) {
+                break;
+            }
+            final Intersection candidate = grid.getIntersection(intersection);
+            if (!sites.contains(candidate)) {
+                continue;
+            }
+            found++;
+            final int score = getScore(intersection, playerResources);
+            if (score > bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private int resourcesOf(final Player player) {
+        int resources = 0;
+        for (final Settlement settlement : grid.getSettlements(player)) {
+            resources |= producedResources[grid.indexOf(settlement.intersection())];
+        }
+        return resources;
+    }
+
+    /**
+     * Updates the ranking after the settlement on the given intersection has changed.
+     * Must be called after the {@link BuildSites} have been updated.
+     *
+     * @param intersection the index of the intersection
+     * @param previous     the previous settlement, may be {@code null}
+     * @param current      the current settlement, may be {@code null}
+     */
+    void settlementChanged(final int intersection, final Settlement previous, final Settlement current) {
+        if ((previous == null) == (current == null)) {
+            return;
+        }
+        update(intersection);
+        for (final int neighbour : grid.getAdjacency().intersectionNeighbours(intersection)) {
+            update(neighbour);
+        }
+        rankedFreeIntersections = null;
+    }
+
+    private void update(final int intersection) {
+        free.set(ranks[intersection], grid.getBuildSites().isFree(intersection));
+    }
+}
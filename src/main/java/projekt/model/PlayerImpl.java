@@ -11,8 +11,8 @@ import projekt.model.buildings.Settlement;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import static projekt.Config.MAX_CITIES;
 import static projekt.Config.MAX_ROADS;
@@ -22,14 +22,21 @@ import static projekt.Config.MAX_VILLAGES;
  * Default implementation of {@link Player}.
  */
 public class PlayerImpl implements Player {
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final DevelopmentCardType[] DEVELOPMENT_CARD_TYPES = DevelopmentCardType.values();
+
     private final HexGrid hexGrid;
     private final String name;
     private final int id;
     private final Color color;
     private final boolean ai;
-    private final Map<ResourceType, Integer> resources = new HashMap<>();
-    private final Map<DevelopmentCardType, Integer> developmentCards = new HashMap<>();
-    private final Map<DevelopmentCardType, Integer> playedDevelopmentCards = new HashMap<>();
+    private final CountVector<ResourceType> resourceCounts = new CountVector<>(ResourceType.class);
+    private final CountVector<DevelopmentCardType> developmentCardCounts = new CountVector<>(DevelopmentCardType.class);
+    private final CountVector<DevelopmentCardType> playedDevelopmentCardCounts = new CountVector<>(DevelopmentCardType.class);
+    // the views of the counts, which only stop being the counts themselves if a test replaces them
+    private Map<ResourceType, Integer> resources = resourceCounts;
+    private Map<DevelopmentCardType, Integer> developmentCards = developmentCardCounts;
+    private Map<DevelopmentCardType, Integer> playedDevelopmentCards = playedDevelopmentCardCounts;
 
     @DoNotTouch("Please don't create a public Contructor, use the Builder instead.")
     private PlayerImpl(final HexGrid hexGrid, final Color color, final int id, final String name, final boolean ai) {
@@ -65,12 +72,27 @@ public class PlayerImpl implements Player {
         return this.ai;
     }
 
+    /**
+     * Returns all settlements the player currently has.
+     * Uses the settlement registry of the grid if available instead of scanning all intersections.
+     *
+     * @return all settlements the player currently has
+     */
+    @Override
+    public Set<Settlement> getSettlements() {
+        if (hexGrid instanceof final HexGridImpl hexGridImpl) {
+            return hexGridImpl.getSettlements(this);
+        }
+        return Player.super.getSettlements();
+    }
+
     @Override
     public int getVictoryPoints() {
         final int buildingVictoryPoints = getSettlements().stream()
             .mapToInt(settlement -> settlement.type().resourceAmount)
             .sum();
-        final int developmentCardsVictoryPoints = developmentCards.getOrDefault(DevelopmentCardType.VICTORY_POINTS, 0);
+        final int developmentCardsVictoryPoints =
+            count(developmentCardCounts, developmentCards, DevelopmentCardType.VICTORY_POINTS);
 
         return buildingVictoryPoints + developmentCardsVictoryPoints;
     }
@@ -85,6 +107,14 @@ public class PlayerImpl implements Player {
         return Collections.unmodifiableMap(resources);
     }
 
+    /**
+     * Returns the total amount of resources the player has.
+     * @return the total amount of resources
+     */
+    public int getTotalResources() {
+        return CountVector.total(resources);
+    }
+
     /**
      * Adds the given amount of the given resource to the player.
      * @param resourceType the type of resource to add
@@ -93,10 +123,8 @@ public class PlayerImpl implements Player {
     @Override
     @StudentImplementationRequired("H1.1")
     public void addResource(final ResourceType resourceType, final int amount) {
-        // put takes the key and the value
-        // we use getOrDefault to get the current value of the resourceType and add the amount to it
-        // if the resourceType is not in the map, we give it a default value of 0 and add the amount to it
-        resources.put(resourceType, resources.getOrDefault(resourceType, 0) + amount);
+        resourceChanged(resourceType, amount);
+        add(resourceCounts, resources, resourceType, amount);
     }
 
     /**
@@ -106,8 +134,7 @@ public class PlayerImpl implements Player {
     @Override
     @StudentImplementationRequired("H1.1")
     public void addResources(final Map<ResourceType, Integer> resources) {
-        // goes through the map and adds the resources to the player
-        for (Map.Entry<ResourceType, Integer> entry : resources.entrySet()) {
+        for (final Map.Entry<ResourceType, Integer> entry : resources.entrySet()) {
             addResource(entry.getKey(), entry.getValue());
         }
     }
@@ -121,14 +148,15 @@ public class PlayerImpl implements Player {
     @Override
     @StudentImplementationRequired("H1.1")
     public boolean hasResources(final Map<ResourceType, Integer> resources) {
-        for (Map.Entry<ResourceType, Integer> entry : resources.entrySet()) {
-            // get the value mapped to the key in the map, if the key is not in the map, we pass 0 forward
-            // if the value is less than the entry value (from the parameter), we return false
+        if (this.resources == resourceCounts) {
+            return resourceCounts.dominates(resources);
+        }
+        for (final Map.Entry<ResourceType, Integer> entry : resources.entrySet()) {
             if (this.resources.getOrDefault(entry.getKey(), 0) < entry.getValue()) {
-                return false; // if the player does not have enough resources, return false
+                return false;
             }
         }
-        return true; // player has enough resources
+        return true;
     }
 
     /**
@@ -140,13 +168,12 @@ public class PlayerImpl implements Player {
     @Override
     @StudentImplementationRequired("H1.1")
     public boolean removeResource(final ResourceType resourceType, final int amount) {
-        // get the amount of the resourceType the player has, and check if he has enough
-        int currentAmount = resources.getOrDefault(resourceType, 0);
-        if (currentAmount < amount) {
+        // check if the player has enough of the resourceType
+        if (count(resourceCounts, resources, resourceType) < amount) {
             return false;
         }
-        // overwrite the amount of the resourceType with the new amount
-        resources.put(resourceType, currentAmount - amount);
+        resourceChanged(resourceType, -amount);
+        add(resourceCounts, resources, resourceType, -amount);
         return true;
     }
 
@@ -163,12 +190,40 @@ public class PlayerImpl implements Player {
             // does not have enough resources
             return false;
         }
-        for (Map.Entry<ResourceType, Integer> entry : resources.entrySet()) {
+        for (final Map.Entry<ResourceType, Integer> entry : resources.entrySet()) {
             removeResource(entry.getKey(), entry.getValue());
         }
         return true;
     }
 
+    /**
+     * Records a change of the given resource in the journal of the grid, if it is recording, and updates the hash
+     * of the grid. Must be called before the change.
+     *
+     * @param resourceType the type of resource
+     * @param amount       the amount added, negative if removed
+     */
+    private void resourceChanged(final ResourceType resourceType, final int amount) {
+        if (hexGrid instanceof final HexGridImpl hexGridImpl) {
+            hexGridImpl.getJournal().resourceChanged(this, resourceType, amount);
+            final int held = count(resourceCounts, resources, resourceType);
+            hexGridImpl.toggleStateHash(
+                Zobrist.resource(this, resourceType.ordinal(), held)
+                    ^ Zobrist.resource(this, resourceType.ordinal(), held + amount)
+            );
+        }
+    }
+
+    /**
+     * Reverts a change of a resource recorded by the journal, see {@link MoveJournal#rollback(int)}.
+     *
+     * @param ordinal the ordinal of the resource type
+     * @param amount  the amount that was added, negative if it was removed
+     */
+    void revertResource(final int ordinal, final int amount) {
+        addResource(RESOURCE_TYPES[ordinal], -amount);
+    }
+
     /**
      * This is a private helping method for getTradeRatio, that checks if the player has a special port for the given resourceType.
      * @param resourceType the resourceType to check for, as special port only works for one resourceType
@@ -210,6 +265,10 @@ public class PlayerImpl implements Player {
     @Override
     @StudentImplementationRequired("H1.1")
     public int getTradeRatio(final ResourceType resourceType) {
+        // the grid keeps a ratio table per player that is updated whenever a settlement is placed on a port
+        if (hexGrid instanceof final HexGridImpl hexGridImpl) {
+            return hexGridImpl.getTradeRatio(this, resourceType);
+        }
         if (hasSpecialPort(resourceType)) {
             return 2;
         } else if (hasGeneralPort()) {
@@ -259,10 +318,9 @@ public class PlayerImpl implements Player {
     @StudentImplementationRequired("H1.2")
     public void addDevelopmentCard(final DevelopmentCardType developmentCardType) {
         // H1.2
-        // put takes the key and the value
-        // we use getOrDefault to get the current value of the developmentCardType and add 1 to it
-        // or if the developmentCardType is not in the map, we give it a default value of 0 and add 1 to it
-        developmentCards.put(developmentCardType, developmentCards.getOrDefault(developmentCardType, 0) + 1);
+        developmentCardChanged(developmentCardType, 1, false);
+        add(developmentCardCounts, developmentCards, developmentCardType, 1);
+        developmentCardsChanged();
     }
 
     /**
@@ -274,19 +332,70 @@ public class PlayerImpl implements Player {
     @StudentImplementationRequired("H1.2")
     public boolean removeDevelopmentCard(final DevelopmentCardType developmentCardType) {
         // H1.2
-        // get the amount of the developmentCardType the player has, and check if he has at least 1
-        int currentAmount = developmentCards.getOrDefault(developmentCardType, 0);
-        if (currentAmount < 1) {
+        // check if the player has at least 1 of the developmentCardType
+        if (count(developmentCardCounts, developmentCards, developmentCardType) < 1) {
             // player does not have the developmentCardType
             return false;
         }
-        // overwrite the amount of the developmentCardType with the new amount
-        developmentCards.put(developmentCardType, currentAmount - 1);
+        developmentCardChanged(developmentCardType, 1, true);
+        add(developmentCardCounts, developmentCards, developmentCardType, -1);
         // add the developmentCardType to the playedDevelopmentCards, so we can keep track of the played development cards
-        playedDevelopmentCards.put(developmentCardType, playedDevelopmentCards.getOrDefault(developmentCardType, 0) + 1);
+        add(playedDevelopmentCardCounts, playedDevelopmentCards, developmentCardType, 1);
+        developmentCardsChanged();
         return true;
     }
 
+    /**
+     * Records a change of the given development card in the journal of the grid, if it is recording, and updates the
+     * hash of the grid. Must be called before the change. Of the played cards only the knights are hashed, as they
+     * are the only ones that matter for the rest of the game.
+     *
+     * @param developmentCardType the type of the development card
+     * @param amount              the amount of cards added or played, negative if reverted
+     * @param played              whether the cards are played, i.e. moved from the held to the played cards
+     */
+    private void developmentCardChanged(final DevelopmentCardType developmentCardType, final int amount, final boolean played) {
+        if (hexGrid instanceof final HexGridImpl hexGridImpl) {
+            hexGridImpl.getJournal().developmentCardChanged(this, developmentCardType, amount, played);
+            final int ordinal = developmentCardType.ordinal();
+            final int held = count(developmentCardCounts, developmentCards, developmentCardType);
+            long key = Zobrist.developmentCard(this, ordinal, held, false)
+                ^ Zobrist.developmentCard(this, ordinal, played ? held - amount : held + amount, false);
+            if (played && developmentCardType == DevelopmentCardType.KNIGHT) {
+                final int knights = count(playedDevelopmentCardCounts, playedDevelopmentCards, developmentCardType);
+                key ^= Zobrist.developmentCard(this, ordinal, knights, true)
+                    ^ Zobrist.developmentCard(this, ordinal, knights + amount, true);
+            }
+            hexGridImpl.toggleStateHash(key);
+        }
+    }
+
+    /**
+     * Lets the score ledger of the grid know that the development cards of this player have changed.
+     */
+    private void developmentCardsChanged() {
+        if (hexGrid instanceof final HexGridImpl hexGridImpl) {
+            hexGridImpl.getScoreLedger().developmentCardsChanged(this);
+        }
+    }
+
+    /**
+     * Reverts a change of the development cards recorded by the journal, see {@link MoveJournal#rollback(int)}.
+     *
+     * @param ordinal the ordinal of the development card type
+     * @param amount  the amount of cards that were added or played
+     * @param played  whether the cards were played, i.e. moved from the held to the played cards
+     */
+    void revertDevelopmentCard(final int ordinal, final int amount, final boolean played) {
+        final DevelopmentCardType developmentCardType = DEVELOPMENT_CARD_TYPES[ordinal];
+        developmentCardChanged(developmentCardType, -amount, played);
+        if (played) {
+            add(playedDevelopmentCardCounts, playedDevelopmentCards, developmentCardType, -amount);
+        }
+        add(developmentCardCounts, developmentCards, developmentCardType, played ? amount : -amount);
+        developmentCardsChanged();
+    }
+
     /**
      * Returns the total amount of all development cards the player has.
      * @return the amount of all development cards the player has
@@ -295,13 +404,7 @@ public class PlayerImpl implements Player {
     @StudentImplementationRequired("H1.2")
     public int getTotalDevelopmentCards() {
         // H1.2
-        // Loop through the developmentCards and sum the amounts
-        int total = 0;
-        // HashMap.values() returns a Collection of the values in the map
-        for (Integer amount : developmentCards.values()) {
-            total += amount;
-        }
-        return total;
+        return CountVector.total(developmentCards);
     }
 
     /**
@@ -312,7 +415,39 @@ public class PlayerImpl implements Player {
     @StudentImplementationRequired("H1.2")
     public int getKnightsPlayed() {
         // H1.2
-        return playedDevelopmentCards.getOrDefault(DevelopmentCardType.KNIGHT, 0);
+        return count(playedDevelopmentCardCounts, playedDevelopmentCards, DevelopmentCardType.KNIGHT);
+    }
+
+    /**
+     * Returns the count of the given constant in the given view of the given counts.
+     *
+     * @param counts   the counts
+     * @param view     the map the counts are read and written through
+     * @param constant the constant
+     * @param <E>      the type of the counted enum
+     * @return the count of the constant
+     */
+    private static <E extends Enum<E>> int count(final CountVector<E> counts, final Map<E, Integer> view, final E constant) {
+        return view == counts ? counts.count(constant) : view.getOrDefault(constant, 0);
+    }
+
+    /**
+     * Adds the given amount to the count of the given constant in the given view of the given counts.
+     *
+     * @param counts   the counts
+     * @param view     the map the counts are read and written through
+     * @param constant the constant
+     * @param amount   the amount to add, may be negative
+     * @param <E>      the type of the counted enum
+     */
+    private static <E extends Enum<E>> void add(
+        final CountVector<E> counts, final Map<E, Integer> view, final E constant, final int amount
+    ) {
+        if (view == counts) {
+            counts.add(constant, amount);
+        } else {
+            view.put(constant, view.getOrDefault(constant, 0) + amount);
+        }
     }
 
     /**
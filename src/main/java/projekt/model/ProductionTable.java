@@ -0,0 +1,144 @@
+package projekt.model;
+
+import projekt.model.buildings.Settlement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds which player receives how many resources from every tile, indexed by roll number.
+ * The table is updated incrementally whenever a settlement is placed or upgraded, so that resolving a dice roll
+ * only visits the few tiles with the rolled number and the players receiving something from them.
+ * Tiles the robber is placed on do not produce any resources.
+ */
+public final class ProductionTable {
+
+    private final HexGridImpl grid;
+    private final int[][] tilesByRoll;
+    private final List<Map<Player, Integer>> producers;
+    private int robberTile;
+
+    /**
+     * Creates a new production table for the given grid.
+     * The grid's tiles and adjacency must already be initialized.
+     *
+     * @param grid       the grid
+     * @param robberTile the index of the tile the robber is placed on or -1
+     */
+    ProductionTable(final HexGridImpl grid, final int robberTile) {
+        this.grid = grid;
+        this.robberTile = robberTile;
+
+        int maxRoll = 0;
+        for (int t = 0; t < grid.getTileCount(); t++) {
+            maxRoll = Math.max(maxRoll, grid.getTile(t).getRollNumber());
+        }
+        final int[] counts = new int[maxRoll + 1];
+        for (int t = 0; t < grid.getTileCount(); t++) {
+            final int rollNumber = grid.getTile(t).getRollNumber();
+            if (rollNumber > 0) {
+                counts[rollNumber]++;
+            }
+        }
+        this.tilesByRoll = new int[maxRoll + 1][];
+        for (int roll = 0; roll <= maxRoll; roll++) {
+            tilesByRoll[roll] = new int[counts[roll]];
+        }
+        Arrays.fill(counts, 0);
+        this.producers = new ArrayList<>(grid.getTileCount());
+        for (int t = 0; t < grid.getTileCount(); t++) {
+            final int rollNumber = grid.getTile(t).getRollNumber();
+            if (rollNumber > 0) {
+                tilesByRoll[rollNumber][counts[rollNumber]++] = t;
+            }
+            producers.add(new LinkedHashMap<>());
+        }
+    }
+
+    /**
+     * Returns the indices of all tiles with the given roll number.
+     * The returned array must not be modified.
+     *
+     * @param roll the roll number
+     * @return the indices of the tiles
+     */
+    public int[] getTileIndices(final int roll) {
+        return roll > 0 && roll < tilesByRoll.length ? tilesByRoll[roll] : new int[0];
+    }
+
+    /**
+     * Returns how many resources of the given type the given player receives when the given number is rolled.
+     *
+     * @param roll         the rolled number
+     * @param player       the player
+     * @param resourceType the type of resource
+     * @return the amount of resources
+     */
+    public int getProduction(final int roll, final Player player, final ResourceType resourceType) {
+        int amount = 0;
+        for (final int tile : getTileIndices(roll)) {
+            if (tile != robberTile && grid.getTile(tile).getType().resourceType == resourceType) {
+                amount += producers.get(tile).getOrDefault(player, 0);
+            }
+        }
+        return amount;
+    }
+
+    /**
+     * Hands out the resources for the given roll to all players with adjacent settlements.
+     * Every player receives the resources of each tile at once.
+     *
+     * @param roll the rolled number
+     */
+    public void distribute(final int roll) {
+        for (final int tile : getTileIndices(roll)) {
+            if (tile == robberTile) {
+                continue;
+            }
+            final ResourceType resourceType = grid.getTile(tile).getType().resourceType;
+            for (final Map.Entry<Player, Integer> entry : producers.get(tile).entrySet()) {
+                entry.getKey().addResource(resourceType, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Updates the table after the settlement on the given intersection has changed.
+     *
+     * @param intersection the index of the intersection
+     * @param previous     the previous settlement, may be {@code null}
+     * @param current      the current settlement, may be {@code null}
+     */
+    void settlementChanged(final int intersection, final Settlement previous, final Settlement current) {
+        for (final int tile : grid.getAdjacency().intersectionTiles(intersection)) {
+            if (grid.getTile(tile).getRollNumber() <= 0) {
+                continue;
+            }
+            if (previous != null) {
+                add(tile, previous.owner(), -previous.type().resourceAmount);
+            }
+            if (current != null) {
+                add(tile, current.owner(), current.type().resourceAmount);
+            }
+        }
+    }
+
+    /**
+     * Updates the table after the robber has been moved.
+     *
+     * @param tile the index of the tile the robber has been moved to or -1
+     */
+    void robberMoved(final int tile) {
+        robberTile = tile;
+    }
+
+    private void add(final int tile, final Player player, final int amount) {
+        final Map<Player, Integer> amounts = producers.get(tile);
+        if (amounts.merge(player, amount, Integer::sum) == 0) {
+            amounts.remove(player);
+        }
+    }
+}
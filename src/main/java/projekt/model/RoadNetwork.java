@@ -0,0 +1,253 @@
+package projekt.model;
+
+import projekt.model.buildings.Edge;
+import projekt.model.buildings.Settlement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the road components of every player and the longest road of each component.
+ * <p>
+ * A component is a maximal set of roads of one player that are connected through intersections
+ * which are not occupied by a settlement of another player. Whenever a road is added or removed or
+ * a settlement is placed on an intersection, only the components touching the changed edge or
+ * intersection are rebuilt and searched again, so querying the longest road is a lookup.
+ */
+public final class RoadNetwork {
+
+    private final HexGridImpl grid;
+    private final Player[] owners;
+    private final Component[] componentOf;
+    private final Map<Player, Set<Component>> components = new HashMap<>();
+    private final Map<Player, List<Edge>> longestRoads = new HashMap<>();
+
+    // scratch space of the longest road search
+    private final boolean[] used;
+    private final int[] path;
+    private int[] bestPath = new int[0];
+
+    /**
+     * Creates a new road network for the given grid.
+     * The grid's edges and adjacency must already be initialized.
+     *
+     * @param grid the grid
+     */
+    RoadNetwork(final HexGridImpl grid) {
+        this.grid = grid;
+        this.owners = new Player[grid.getEdgeCount()];
+        this.componentOf = new Component[grid.getEdgeCount()];
+        this.used = new boolean[grid.getEdgeCount()];
+        this.path = new int[grid.getEdgeCount()];
+        for (int e = 0; e < owners.length; e++) {
+            final Player owner = grid.getEdge(e).getRoadOwner();
+            if (owner != null) {
+                roadChanged(e, null, owner);
+            }
+        }
+    }
+
+    /**
+     * Returns the longest road of the given player.
+     *
+     * @param player the player
+     * @return the road segments of the longest road in order
+     */
+    public List<Edge> getLongestRoad(final Player player) {
+        return longestRoads.getOrDefault(player, List.of());
+    }
+
+    /**
+     * Updates the network after the owner of the road on the given edge has changed.
+     *
+     * @param edge     the index of the edge
+     * @param previous the previous owner, may be {@code null}
+     * @param current  the current owner, may be {@code null}
+     */
+    void roadChanged(final int edge, final Player previous, final Player current) {
+        owners[edge] = current;
+        if (previous != null) {
+            rebuild(previous, new int[] {edge});
+        }
+        if (current != null) {
+            rebuild(current, new int[] {edge});
+        }
+    }
+
+    /**
+     * Updates the network after the settlement on the given intersection has changed.
+     * A settlement of another player breaks the roads running through the intersection.
+     *
+     * @param intersection the index of the intersection
+     * @param previous     the previous settlement, may be {@code null}
+     * @param current      the current settlement, may be {@code null}
+     */
+    void settlementChanged(final int intersection, final Settlement previous, final Settlement current) {
+        if (previous != null && current != null && previous.owner() == current.owner()) {
+            return;
+        }
+        final int[] edges = grid.getAdjacency().intersectionEdges(intersection);
+        final Set<Player> affected = new LinkedHashSet<>();
+        for (final int e : edges) {
+            if (owners[e] != null) {
+                affected.add(owners[e]);
+            }
+        }
+        for (final Player player : affected) {
+            rebuild(player, edges);
+        }
+    }
+
+    /**
+     * Rebuilds all components of the given player touching the given edges.
+     */
+    private void rebuild(final Player player, final int[] seeds) {
+        final Set<Component> playerComponents = components.computeIfAbsent(player, p -> new LinkedHashSet<>());
+        final List<Integer> pending = new ArrayList<>();
+        for (final int seed : seeds) {
+            pending.add(seed);
+            for (final int i : grid.getAdjacency().edgeIntersections(seed)) {
+                for (final int e : grid.getAdjacency().intersectionEdges(i)) {
+                    if (owners[e] == player) {
+                        pending.add(e);
+                    }
+                }
+            }
+        }
+        for (int k = 0; k < pending.size(); k++) {
+            final Component component = componentOf[pending.get(k)];
+            if (component != null && component.owner == player) {
+                dissolve(component, playerComponents, pending);
+            }
+        }
+        for (final int e : pending) {
+            if (owners[e] == player && componentOf[e] == null) {
+                playerComponents.add(collect(player, e, playerComponents));
+            }
+        }
+        if (playerComponents.isEmpty()) {
+            components.remove(player);
+            longestRoads.remove(player);
+            grid.getScoreLedger().longestRoadChanged(player, 0);
+            return;
+        }
+        Component best = null;
+        for (final Component component : playerComponents) {
+            if (best == null || component.longestRoad.size() > best.longestRoad.size()) {
+                best = component;
+            }
+        }
+        longestRoads.put(player, best.longestRoad);
+        grid.getScoreLedger().longestRoadChanged(player, best.longestRoad.size());
+    }
+
+    private void dissolve(final Component component, final Set<Component> playerComponents, final List<Integer> pending) {
+        playerComponents.remove(component);
+        for (final int e : component.edges) {
+            if (componentOf[e] == component) {
+                componentOf[e] = null;
+                pending.add(e);
+            }
+        }
+    }
+
+    /**
+     * Collects the component containing the given edge and searches its longest road.
+     */
+    private Component collect(final Player player, final int start, final Set<Component> playerComponents) {
+        final Component component = new Component(player);
+        int[] edges = new int[8];
+        int size = 0;
+        componentOf[start] = component;
+        edges[size++] = start;
+        for (int k = 0; k < size; k++) {
+            for (final int i : grid.getAdjacency().edgeIntersections(edges[k])) {
+                if (isBlocked(i, player)) {
+                    continue;
+                }
+                for (final int e : grid.getAdjacency().intersectionEdges(i)) {
+                    if (owners[e] != player || componentOf[e] == component) {
+                        continue;
+                    }
+                    if (componentOf[e] != null) {
+                        // only happens if a settlement has been removed and two components merge
+                        playerComponents.remove(componentOf[e]);
+                    }
+                    componentOf[e] = component;
+                    if (size == edges.length) {
+                        edges = Arrays.copyOf(edges, size * 2);
+                    }
+                    edges[size++] = e;
+                }
+            }
+        }
+        component.edges = Arrays.copyOf(edges, size);
+        component.longestRoad = searchLongestRoad(player, component.edges);
+        return component;
+    }
+
+    private boolean isBlocked(final int intersection, final Player player) {
+        final Settlement settlement = grid.getIntersection(intersection).getSettlement();
+        return settlement != null && settlement.owner() != player;
+    }
+
+    /**
+     * Searches the longest trail of distinct edges within the given component.
+     */
+    private List<Edge> searchLongestRoad(final Player player, final int[] edges) {
+        bestPath = new int[0];
+        for (final int e : edges) {
+            used[e] = true;
+            path[0] = e;
+            for (final int i : grid.getAdjacency().edgeIntersections(e)) {
+                extend(player, i, 1);
+            }
+            used[e] = false;
+        }
+        final List<Edge> road = new ArrayList<>(bestPath.length);
+        for (final int e : bestPath) {
+            road.add(grid.getEdge(e));
+        }
+        return List.copyOf(road);
+    }
+
+    private void extend(final Player player, final int intersection, final int length) {
+        if (length > bestPath.length) {
+            bestPath = Arrays.copyOf(path, length);
+        }
+        if (isBlocked(intersection, player)) {
+            return;
+        }
+        for (final int e : grid.getAdjacency().intersectionEdges(intersection)) {
+            if (used[e] || owners[e] != player) {
+                continue;
+            }
+            used[e] = true;
+            path[length] = e;
+            for (final int next : grid.getAdjacency().edgeIntersections(e)) {
+                if (next != intersection) {
+                    extend(player, next, length + 1);
+                }
+            }
+            used[e] = false;
+        }
+    }
+
+    /**
+     * A connected set of roads of one player.
+     */
+    private static final class Component {
+        private final Player owner;
+        private int[] edges;
+        private List<Edge> longestRoad;
+
+        private Component(final Player owner) {
+            this.owner = owner;
+        }
+    }
+}
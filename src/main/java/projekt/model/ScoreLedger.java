@@ -0,0 +1,244 @@
+package projekt.model;
+
+import projekt.Config;
+import projekt.model.buildings.Settlement;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the victory points of all players on a grid up to date.
+ * <p>
+ * Instead of recomputing the points of every player after each round, the ledger is notified whenever
+ * a settlement is placed or upgraded, the development cards of a player change or the longest road of
+ * a player changes. The current standings and the set of players that reached
+ * {@link Config#REQUIRED_VICTORY_POINTS} can then be read without any computation.
+ * <p>
+ * The bonus for the most knights played (at least 3) and for the longest road (at least 5 roads) each award 2 points.
+ * A player only takes over a bonus from its current holder by exceeding the holder's count.
+ * As the holders depend on the order of events, they are recorded by the {@link MoveJournal} and restored from it
+ * instead of being decided again while rolling back.
+ */
+public final class ScoreLedger {
+
+    /**
+     * The amount of victory points awarded for the most knights played and for the longest road.
+     */
+    public static final int BONUS_POINTS = 2;
+
+    /**
+     * The minimum amount of knights a player has to play to be awarded the knights bonus.
+     */
+    public static final int MIN_KNIGHTS_PLAYED = 3;
+
+    /**
+     * The minimum length of a player's longest road for the player to be awarded the longest road bonus.
+     */
+    public static final int MIN_LONGEST_ROAD = 5;
+
+    private final MoveJournal journal;
+    private final Map<Player, Score> scores = new LinkedHashMap<>();
+    private final Set<Player> winners = new LinkedHashSet<>();
+    private Player mostKnightsHolder;
+    private Player longestRoadHolder;
+
+    /**
+     * Creates a new, empty ledger that records the changes of the bonus holders in the given journal.
+     *
+     * @param journal the journal
+     */
+    ScoreLedger(final MoveJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Returns the victory points of the given player, including all bonuses.
+     *
+     * @param player the player
+     * @return the victory points of the player
+     */
+    public int getVictoryPoints(final Player player) {
+        final Score score = scores.get(player);
+        return score == null ? 0 : score.total;
+    }
+
+    /**
+     * Returns the player that currently holds the bonus for the most knights played.
+     *
+     * @return the player or {@code null}, if no player has played enough knights
+     */
+    public Player getMostKnightsHolder() {
+        return mostKnightsHolder;
+    }
+
+    /**
+     * Returns the player that currently holds the bonus for the longest road.
+     *
+     * @return the player or {@code null}, if no player has built a road
+     */
+    public Player getLongestRoadHolder() {
+        return longestRoadHolder;
+    }
+
+    /**
+     * Returns all players that have reached the required amount of victory points.
+     *
+     * @return an unmodifiable set of the winners
+     */
+    public Set<Player> getWinners() {
+        return Collections.unmodifiableSet(winners);
+    }
+
+    /**
+     * Returns whether a player has reached the required amount of victory points.
+     *
+     * @return true if there is at least one winner, false otherwise
+     */
+    public boolean hasWinner() {
+        return !winners.isEmpty();
+    }
+
+    /**
+     * Updates the building points after the settlement on an intersection has changed.
+     *
+     * @param previous the previous settlement, may be {@code null}
+     * @param current  the current settlement, may be {@code null}
+     */
+    void settlementChanged(final Settlement previous, final Settlement current) {
+        if (previous != null) {
+            score(previous.owner()).buildingPoints -= previous.type().resourceAmount;
+            update(previous.owner());
+        }
+        if (current != null) {
+            score(current.owner()).buildingPoints += current.type().resourceAmount;
+            update(current.owner());
+        }
+    }
+
+    /**
+     * Updates the development card points and knights bonus after the development cards of the given player changed.
+     *
+     * @param player the player
+     */
+    void developmentCardsChanged(final Player player) {
+        final Score score = score(player);
+        score.cardPoints = player.getDevelopmentCards().getOrDefault(DevelopmentCardType.VICTORY_POINTS, 0);
+        score.knightsPlayed = player.getKnightsPlayed();
+        final Player previousHolder = mostKnightsHolder;
+        if (!journal.isReplaying() && score.knightsPlayed >= MIN_KNIGHTS_PLAYED
+            && (previousHolder == null || score.knightsPlayed > scores.get(previousHolder).knightsPlayed)) {
+            journal.mostKnightsHolderChanged(previousHolder);
+            mostKnightsHolder = player;
+        }
+        update(player);
+        if (previousHolder != null && previousHolder != mostKnightsHolder) {
+            update(previousHolder);
+        }
+    }
+
+    /**
+     * Updates the longest road bonus after the longest road of the given player changed.
+     *
+     * @param player the player
+     * @param length the length of the player's longest road
+     */
+    void longestRoadChanged(final Player player, final int length) {
+        final Score score = score(player);
+        final int previousLength = score.longestRoad;
+        score.longestRoad = length;
+        final Player previousHolder = longestRoadHolder;
+        if (journal.isReplaying()) {
+            // the holder is restored by the journal
+        } else if (player == previousHolder) {
+            if (length < previousLength) {
+                // the holder only keeps the bonus if nobody has a longer road now
+                Player longest = length >= MIN_LONGEST_ROAD ? player : null;
+                for (final Map.Entry<Player, Score> entry : scores.entrySet()) {
+                    if (entry.getValue().longestRoad
+                        > (longest == null ? MIN_LONGEST_ROAD - 1 : scores.get(longest).longestRoad)) {
+                        longest = entry.getKey();
+                    }
+                }
+                if (longest != previousHolder) {
+                    journal.longestRoadHolderChanged(previousHolder);
+                    longestRoadHolder = longest;
+                }
+            }
+        } else if (length >= MIN_LONGEST_ROAD
+            && (previousHolder == null || length > scores.get(previousHolder).longestRoad)) {
+            journal.longestRoadHolderChanged(previousHolder);
+            longestRoadHolder = player;
+        }
+        update(player);
+        if (previousHolder != null && previousHolder != longestRoadHolder) {
+            update(previousHolder);
+        }
+        if (longestRoadHolder != null && longestRoadHolder != player) {
+            update(longestRoadHolder);
+        }
+    }
+
+    /**
+     * Restores a previous holder of the knights bonus, see {@link MoveJournal#rollback(int)}.
+     *
+     * @param holder the previous holder, may be {@code null}
+     */
+    void restoreMostKnightsHolder(final Player holder) {
+        final Player current = mostKnightsHolder;
+        mostKnightsHolder = holder;
+        updateHolders(current, holder);
+    }
+
+    /**
+     * Restores a previous holder of the longest road bonus, see {@link MoveJournal#rollback(int)}.
+     *
+     * @param holder the previous holder, may be {@code null}
+     */
+    void restoreLongestRoadHolder(final Player holder) {
+        final Player current = longestRoadHolder;
+        longestRoadHolder = holder;
+        updateHolders(current, holder);
+    }
+
+    private void updateHolders(final Player current, final Player restored) {
+        if (current != null) {
+            update(current);
+        }
+        if (restored != null && restored != current) {
+            update(restored);
+        }
+    }
+
+    private Score score(final Player player) {
+        return scores.computeIfAbsent(player, p -> new Score());
+    }
+
+    /**
+     * Recomputes the total of the given player and whether it has won.
+     */
+    private void update(final Player player) {
+        final Score score = score(player);
+        score.total = score.buildingPoints + score.cardPoints
+            + (player == mostKnightsHolder ? BONUS_POINTS : 0)
+            + (player == longestRoadHolder ? BONUS_POINTS : 0);
+        if (score.total >= Config.REQUIRED_VICTORY_POINTS) {
+            winners.add(player);
+        } else {
+            winners.remove(player);
+        }
+    }
+
+    /**
+     * The points of a single player.
+     */
+    private static final class Score {
+        private int buildingPoints;
+        private int cardPoints;
+        private int knightsPlayed;
+        private int longestRoad;
+        private int total;
+    }
+}
@@ -4,10 +4,9 @@ import org.jetbrains.annotations.NotNull;
 import org.tudalgo.algoutils.student.annotation.DoNotTouch;
 
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -28,6 +27,50 @@ public record TilePosition(int q, int r) implements Comparable<TilePosition> {
         return -this.q - this.r;
     }
 
+    /**
+     * Packs the given coordinates into a single {@code long} key.
+     * The q-coordinate is stored in the upper, the r-coordinate in the lower 32 bits.
+     *
+     * @param q the q-coordinate
+     * @param r the r-coordinate
+     * @return the packed coordinates
+     * @see #unpackQ(long)
+     * @see #unpackR(long)
+     */
+    public static long pack(final int q, final int r) {
+        return ((long) q << 32) | (r & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Packs this position into a single {@code long} key.
+     *
+     * @return the packed coordinates of this position
+     * @see #pack(int, int)
+     */
+    public long pack() {
+        return pack(this.q, this.r);
+    }
+
+    /**
+     * Returns the q-coordinate of the given packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the q-coordinate
+     */
+    public static int unpackQ(final long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Returns the r-coordinate of the given packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the r-coordinate
+     */
+    public static int unpackR(final long key) {
+        return (int) key;
+    }
+
     /**
      * Scales up the given position by the given amount.
      *
@@ -72,6 +115,49 @@ public record TilePosition(int q, int r) implements Comparable<TilePosition> {
         return TilePosition.add(position, direction.position);
     }
 
+    /**
+     * Returns the position of the neighbour in the direction with the given index.
+     *
+     * @param direction the index of the direction, see {@link EdgeDirection#get(int)}
+     * @return the position of the neighbour in the given direction
+     */
+    public TilePosition neighbour(final int direction) {
+        return new TilePosition(neighbourQ(this.q, direction), neighbourR(this.r, direction));
+    }
+
+    /**
+     * Returns the q-coordinate of the neighbour in the direction with the given index.
+     *
+     * @param q         the q-coordinate to start from
+     * @param direction the index of the direction, see {@link EdgeDirection#get(int)}
+     * @return the q-coordinate of the neighbour
+     */
+    public static int neighbourQ(final int q, final int direction) {
+        return q + EdgeDirection.DQ[direction];
+    }
+
+    /**
+     * Returns the r-coordinate of the neighbour in the direction with the given index.
+     *
+     * @param r         the r-coordinate to start from
+     * @param direction the index of the direction, see {@link EdgeDirection#get(int)}
+     * @return the r-coordinate of the neighbour
+     */
+    public static int neighbourR(final int r, final int direction) {
+        return r + EdgeDirection.DR[direction];
+    }
+
+    /**
+     * Returns whether the given positions are next to each other.
+     *
+     * @param position0 the first position
+     * @param position1 the second position
+     * @return true if the positions are neighbours, false otherwise
+     */
+    public static boolean isNeighbour(final TilePosition position0, final TilePosition position1) {
+        return EdgeDirection.fromRelative(position1.q - position0.q, position1.r - position0.r) != null;
+    }
+
     /**
      * Returns all neighbours of the given position.
      *
@@ -79,8 +165,68 @@ public record TilePosition(int q, int r) implements Comparable<TilePosition> {
      * @return all neighbours of the given position
      */
     public static Set<TilePosition> neighbours(final TilePosition position) {
-        return Arrays.stream(EdgeDirection.values()).map(direction -> neighbour(position, direction))
-            .collect(Collectors.toSet());
+        final TilePosition[] neighbours = new TilePosition[EdgeDirection.COUNT];
+        for (int direction = 0; direction < EdgeDirection.COUNT; direction++) {
+            neighbours[direction] = position.neighbour(direction);
+        }
+        return Set.of(neighbours);
+    }
+
+    /**
+     * Callback of the primitive ring and spiral traversals.
+     */
+    @FunctionalInterface
+    public interface RingVisitor {
+
+        /**
+         * Visits a position on a ring.
+         *
+         * @param q      the q-coordinate of the position
+         * @param r      the r-coordinate of the position
+         * @param radius the radius of the ring
+         * @param side   the index of the side of the ring
+         * @param tile   the index of the position on the side
+         */
+        void visit(int q, int r, int radius, int side, int tile);
+    }
+
+    /**
+     * Visits each position on a ring with the given radius around the given center without allocating.
+     * The ring starts in the south-west and runs counterclockwise.
+     *
+     * @param q       the q-coordinate of the center
+     * @param r       the r-coordinate of the center
+     * @param radius  the radius of the ring
+     * @param visitor the visitor
+     */
+    public static void forEachRing(final int q, final int r, final int radius, final RingVisitor visitor) {
+        if (radius == 0) {
+            visitor.visit(q, r, 0, 0, 0);
+            return;
+        }
+        int currentQ = q + EdgeDirection.DQ[EdgeDirection.SOUTH_WEST.ordinal()] * radius;
+        int currentR = r + EdgeDirection.DR[EdgeDirection.SOUTH_WEST.ordinal()] * radius;
+        for (int side = 0; side < EdgeDirection.COUNT; side++) {
+            for (int tile = 0; tile < radius; tile++) {
+                visitor.visit(currentQ, currentR, radius, side, tile);
+                currentQ += EdgeDirection.DQ[side];
+                currentR += EdgeDirection.DR[side];
+            }
+        }
+    }
+
+    /**
+     * Visits each position on a spiral with the given radius around the given center without allocating.
+     *
+     * @param q       the q-coordinate of the center
+     * @param r       the r-coordinate of the center
+     * @param radius  the radius of the spiral including the center
+     * @param visitor the visitor
+     */
+    public static void forEachSpiral(final int q, final int r, final int radius, final RingVisitor visitor) {
+        for (int i = 0; i < radius; i++) {
+            forEachRing(q, r, i, visitor);
+        }
     }
 
     /**
@@ -96,17 +242,10 @@ public record TilePosition(int q, int r) implements Comparable<TilePosition> {
         final TilePosition center, final int radius,
         final BiConsumer<TilePosition, Integer[]> function
     ) {
-        if (radius == 0) {
-            function.accept(center, new Integer[]{radius, 0, 0});
-            return;
-        }
-        TilePosition current = TilePosition.add(center, TilePosition.scale(EdgeDirection.values()[4].position, radius));
-        for (int side = 0; side < 6; side++) {
-            for (int tile = 0; tile < radius; tile++) {
-                function.accept(current, new Integer[]{radius, side, tile});
-                current = TilePosition.neighbour(current, EdgeDirection.values()[side]);
-            }
-        }
+        forEachRing(
+            center.q, center.r, radius,
+            (q, r, ringRadius, side, tile) -> function.accept(new TilePosition(q, r), new Integer[]{ringRadius, side, tile})
+        );
     }
 
     /**
@@ -138,6 +277,25 @@ public record TilePosition(int q, int r) implements Comparable<TilePosition> {
         SOUTH_WEST(new TilePosition(-1, 1)),
         SOUTH_EAST(new TilePosition(0, 1));
 
+        /**
+         * The number of directions.
+         */
+        public static final int COUNT = 6;
+
+        private static final EdgeDirection[] VALUES = values();
+        private static final int[] DQ = new int[COUNT];
+        private static final int[] DR = new int[COUNT];
+        // directions by (q + 1) * 3 + (r + 1) of their relative position
+        private static final EdgeDirection[] BY_RELATIVE_POSITION = new EdgeDirection[9];
+
+        static {
+            for (final EdgeDirection direction : VALUES) {
+                DQ[direction.ordinal()] = direction.position.q;
+                DR[direction.ordinal()] = direction.position.r;
+                BY_RELATIVE_POSITION[(direction.position.q + 1) * 3 + direction.position.r + 1] = direction;
+            }
+        }
+
         /**
          * The relative position this direction is pointing to; with q, r, s in [-1, 1].
          */
@@ -183,10 +341,35 @@ public record TilePosition(int q, int r) implements Comparable<TilePosition> {
          * @return the direction of the edge
          */
         public static EdgeDirection fromRelativePosition(final TilePosition position) {
-            return Arrays.stream(EdgeDirection.values())
-                .filter(direction -> direction.position.equals(position))
-                .findFirst()
-                .orElseThrow();
+            final EdgeDirection direction = fromRelative(position.q, position.r);
+            if (direction == null) {
+                throw new NoSuchElementException("No value present");
+            }
+            return direction;
+        }
+
+        /**
+         * Looks up the edge direction of the given relative coordinates.
+         *
+         * @param dq the relative q-coordinate
+         * @param dr the relative r-coordinate
+         * @return the direction or {@code null}, if the coordinates do not point to a neighbour
+         */
+        public static EdgeDirection fromRelative(final int dq, final int dr) {
+            if (dq < -1 || dq > 1 || dr < -1 || dr > 1) {
+                return null;
+            }
+            return BY_RELATIVE_POSITION[(dq + 1) * 3 + dr + 1];
+        }
+
+        /**
+         * Returns the direction with the given index without copying {@link #values()}.
+         *
+         * @param index the index of the direction
+         * @return the direction
+         */
+        public static EdgeDirection get(final int index) {
+            return VALUES[index];
         }
 
         /**
@@ -215,7 +398,7 @@ public record TilePosition(int q, int r) implements Comparable<TilePosition> {
          * @return a stream of all possible edge directions
          */
         public static Stream<EdgeDirection> stream() {
-            return Arrays.stream(EdgeDirection.values());
+            return Arrays.stream(VALUES);
         }
 
         EdgeDirection(final TilePosition position) {
@@ -235,6 +418,23 @@ public record TilePosition(int q, int r) implements Comparable<TilePosition> {
         SOUTH_WEST(EdgeDirection.SOUTH_WEST, EdgeDirection.WEST),
         NORTH_WEST(EdgeDirection.WEST, EdgeDirection.NORTH_WEST);
 
+        /**
+         * The number of directions.
+         */
+        public static final int COUNT = 6;
+
+        private static final IntersectionDirection[] VALUES = values();
+
+        /**
+         * Returns the direction with the given index without copying {@link #values()}.
+         *
+         * @param index the index of the direction
+         * @return the direction
+         */
+        public static IntersectionDirection get(final int index) {
+            return VALUES[index];
+        }
+
         /**
          * Direction of the third tile needed to derive the left intersection's position.
          */
@@ -262,9 +462,8 @@ public record TilePosition(int q, int r) implements Comparable<TilePosition> {
     public int compareTo(@NotNull final TilePosition otherPosition) {
         // top to bottom
         // left to right
-        return Comparator.comparingInt(TilePosition::q)
-            .thenComparingInt(TilePosition::r)
-            .compare(this, otherPosition);
+        final int byQ = Integer.compare(this.q, otherPosition.q);
+        return byQ != 0 ? byQ : Integer.compare(this.r, otherPosition.r);
     }
 
     /**
@@ -0,0 +1,173 @@
+package projekt.model;
+
+import projekt.model.buildings.Edge;
+import projekt.model.buildings.Settlement;
+import projekt.model.tiles.Tile;
+
+import java.util.Collection;
+
+/**
+ * The keys of the 64-bit Zobrist hash of a game, see {@link HexGridImpl#getStateHash()}.
+ * <p>
+ * The hash of a game is the XOR of one key per feature of the game: the type and roll number of every tile, the
+ * port of every edge, every settlement, every road, the position of the robber and, for every player and type,
+ * the amount of resources, held development cards and played development cards. An amount of 0 does not
+ * contribute, so a player that holds nothing does not change the hash. As XOR is its own inverse, the hash is
+ * kept up to date by XORing the key of the old value of a feature and the key of the new one.
+ * <p>
+ * Instead of tables of random numbers, a key is derived by mixing the feature, its index and its value with the
+ * finalizer of SplitMix64. The keys are thus the same in every game and for any player id, so hashes of positions
+ * of different games can be compared, e.g. in a table shared by the games of a tournament.
+ */
+final class Zobrist {
+
+    private static final long TILE = 1;
+    private static final long PORT = 2;
+    private static final long SETTLEMENT = 3;
+    private static final long ROAD = 4;
+    private static final long ROBBER = 5;
+    private static final long RESOURCE = 6;
+    private static final long DEVELOPMENT_CARD = 7;
+    private static final long PLAYED_DEVELOPMENT_CARD = 8;
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key of the tile with the given index.
+     *
+     * @param tile the index of the tile
+     * @param type the type of the tile
+     * @param roll the roll number of the tile
+     * @return the key
+     */
+    static long tile(final int tile, final Tile.Type type, final int roll) {
+        return key(TILE, tile, type.ordinal() * 16L + roll);
+    }
+
+    /**
+     * Returns the key of a port on the edge with the given index.
+     *
+     * @param edge     the index of the edge
+     * @param ratio    the ratio of the port
+     * @param resource the type of resource of the port, {@code null} for any resource
+     * @return the key
+     */
+    static long port(final int edge, final int ratio, final ResourceType resource) {
+        return key(PORT, edge, ratio * 8L + (resource == null ? 7 : resource.ordinal()));
+    }
+
+    /**
+     * Returns the key of the given settlement on the intersection with the given index.
+     *
+     * @param intersection the index of the intersection
+     * @param settlement   the settlement, may be {@code null}
+     * @return the key or 0, if there is no settlement
+     */
+    static long settlement(final int intersection, final Settlement settlement) {
+        return settlement == null
+            ? 0
+            : key(SETTLEMENT, intersection, (long) settlement.owner().getID() << 2 | settlement.type().ordinal());
+    }
+
+    /**
+     * Returns the key of a road of the given player on the edge with the given index.
+     *
+     * @param edge  the index of the edge
+     * @param owner the owner of the road, may be {@code null}
+     * @return the key or 0, if there is no road
+     */
+    static long road(final int edge, final Player owner) {
+        return owner == null ? 0 : key(ROAD, edge, owner.getID());
+    }
+
+    /**
+     * Returns the key of the robber on the tile with the given index.
+     *
+     * @param tile the index of the tile or -1
+     * @return the key or 0, if there is no robber
+     */
+    static long robber(final int tile) {
+        return tile < 0 ? 0 : key(ROBBER, tile, 0);
+    }
+
+    /**
+     * Returns the key of the given amount of a resource held by the given player.
+     *
+     * @param player   the player
+     * @param resource the ordinal of the resource type
+     * @param amount   the amount
+     * @return the key or 0, if the amount is 0
+     */
+    static long resource(final Player player, final int resource, final int amount) {
+        return amount == 0 ? 0 : key(RESOURCE, (long) player.getID() << 4 | resource, amount);
+    }
+
+    /**
+     * Returns the key of the given amount of a development card held or played by the given player.
+     *
+     * @param player the player
+     * @param card   the ordinal of the development card type
+     * @param amount the amount
+     * @param played whether the cards have been played
+     * @return the key or 0, if the amount is 0
+     */
+    static long developmentCard(final Player player, final int card, final int amount, final boolean played) {
+        return amount == 0
+            ? 0
+            : key(played ? PLAYED_DEVELOPMENT_CARD : DEVELOPMENT_CARD, (long) player.getID() << 4 | card, amount);
+    }
+
+    /**
+     * Computes the hash of the given grid and players from scratch.
+     *
+     * @param grid    the grid
+     * @param players the players
+     * @return the hash
+     */
+    static long compute(final HexGridImpl grid, final Collection<Player> players) {
+        long hash = 0;
+        for (int t = 0; t < grid.getTileCount(); t++) {
+            hash ^= tile(t, grid.getTile(t).getType(), grid.getTile(t).getRollNumber());
+        }
+        for (int e = 0; e < grid.getEdgeCount(); e++) {
+            final Edge edge = grid.getEdge(e);
+            if (edge.hasPort()) {
+                hash ^= port(e, edge.getPort().ratio(), edge.getPort().resourceType());
+            }
+            hash ^= road(e, edge.getRoadOwner());
+        }
+        for (int i = 0; i < grid.getIntersectionCount(); i++) {
+            hash ^= settlement(i, grid.getIntersection(i).getSettlement());
+        }
+        if (grid.getRobberPosition() != null) {
+            hash ^= robber(grid.tileIndexAt(grid.getRobberPosition().q(), grid.getRobberPosition().r()));
+        }
+        for (final Player player : players) {
+            for (final ResourceType resourceType : ResourceType.values()) {
+                hash ^= resource(player, resourceType.ordinal(), player.getResources().getOrDefault(resourceType, 0));
+            }
+            for (final DevelopmentCardType developmentCardType : DevelopmentCardType.values()) {
+                hash ^= developmentCard(
+                    player, developmentCardType.ordinal(),
+                    player.getDevelopmentCards().getOrDefault(developmentCardType, 0), false
+                );
+            }
+            hash ^= developmentCard(player, DevelopmentCardType.KNIGHT.ordinal(), player.getKnightsPlayed(), true);
+        }
+        return hash;
+    }
+
+    private static long key(final long feature, final long index, final long value) {
+        return mix(mix(mix(feature) ^ index) ^ value);
+    }
+
+    /**
+     * The finalizer of SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
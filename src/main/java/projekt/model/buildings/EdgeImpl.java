@@ -3,6 +3,7 @@ package projekt.model.buildings;
 import javafx.beans.property.Property;
 import org.tudalgo.algoutils.student.annotation.StudentImplementationRequired;
 import projekt.model.HexGrid;
+import projekt.model.HexGridImpl;
 import projekt.model.Intersection;
 import projekt.model.Player;
 import projekt.model.TilePosition;
@@ -71,11 +72,39 @@ public record EdgeImpl(
     @StudentImplementationRequired("H1.3")
     public Set<Intersection> getIntersections() {
         // H1.3
+        if (grid instanceof final HexGridImpl hexGridImpl) {
+            final Set<Intersection> intersections = hexGridImpl.getAdjacency().getIntersections(this);
+            if (intersections != null) {
+                return intersections;
+            }
+        }
         return grid.getIntersections().values().stream()
             .filter(intersection -> intersection.getAdjacentTilePositions().containsAll(Set.of(position1, position2)))
             .collect(Collectors.toSet());
     }
 
+    @Override
+    public Set<Edge> getConnectedEdges() {
+        if (grid instanceof final HexGridImpl hexGridImpl) {
+            final Set<Edge> connectedEdges = hexGridImpl.getAdjacency().getConnectedEdges(this);
+            if (connectedEdges != null) {
+                return connectedEdges;
+            }
+        }
+        return Edge.super.getConnectedEdges();
+    }
+
+    /**
+     * Returns a hash code that only depends on the positions of this edge, so that hash based collections
+     * of edges are iterated in the same order in every run.
+     *
+     * @return the hash code of this edge
+     */
+    @Override
+    public int hashCode() {
+        return position1.hashCode() + position2.hashCode();
+    }
+
     @Override
     public Property<Player> getRoadOwnerProperty() {
         return roadOwner;
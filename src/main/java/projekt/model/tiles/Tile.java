@@ -106,7 +106,7 @@ public interface Tile {
      */
     default Set<Tile> getNeighbours() {
         return getHexGrid().getTiles().entrySet().stream()
-            .filter(entrySet -> TilePosition.neighbours(getPosition()).contains(entrySet.getKey()))
+            .filter(entrySet -> TilePosition.isNeighbour(getPosition(), entrySet.getKey()))
             .map(Map.Entry::getValue)
             .collect(Collectors.toSet());
     }
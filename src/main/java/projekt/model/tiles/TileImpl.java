@@ -3,6 +3,7 @@ package projekt.model.tiles;
 import javafx.beans.value.ObservableDoubleValue;
 import org.tudalgo.algoutils.student.annotation.DoNotTouch;
 import projekt.model.HexGrid;
+import projekt.model.HexGridImpl;
 import projekt.model.Intersection;
 import projekt.model.Player;
 import projekt.model.TilePosition;
@@ -80,11 +81,39 @@ public record TileImpl(
 
     @Override
     public Set<Intersection> getIntersections() {
+        if (hexGrid instanceof final HexGridImpl hexGridImpl) {
+            final Set<Intersection> intersections = hexGridImpl.getAdjacency().getIntersections(this);
+            if (intersections != null) {
+                return intersections;
+            }
+        }
         return Arrays.stream(TilePosition.IntersectionDirection.values())
             .map(this::getIntersection)
             .collect(Collectors.toSet());
     }
 
+    @Override
+    public Set<Tile> getNeighbours() {
+        if (hexGrid instanceof final HexGridImpl hexGridImpl) {
+            final Set<Tile> neighbours = hexGridImpl.getAdjacency().getNeighbours(this);
+            if (neighbours != null) {
+                return neighbours;
+            }
+        }
+        return Tile.super.getNeighbours();
+    }
+
+    /**
+     * Returns a hash code that only depends on the position of this tile, so that hash based collections
+     * of tiles are iterated in the same order in every run.
+     *
+     * @return the hash code of this tile
+     */
+    @Override
+    public int hashCode() {
+        return position.hashCode();
+    }
+
     @Override
     public Edge getEdge(final EdgeDirection direction) {
         final var neighbour = TilePosition.neighbour(this.position, direction);
@@ -0,0 +1,178 @@
+package projekt.selfplay;
+
+import projekt.controller.actions.AcceptTradeAction;
+import projekt.controller.actions.BuildRoadAction;
+import projekt.controller.actions.BuildVillageAction;
+import projekt.controller.actions.BuyDevelopmentCardAction;
+import projekt.controller.actions.EndTurnAction;
+import projekt.controller.actions.PlayDevelopmentCardAction;
+import projekt.controller.actions.PlayerAction;
+import projekt.controller.actions.RollDiceAction;
+import projekt.controller.actions.SelectCardsAction;
+import projekt.controller.actions.SelectRobberTileAction;
+import projekt.controller.actions.StealCardAction;
+import projekt.controller.actions.TradeAction;
+import projekt.controller.actions.UpgradeVillageAction;
+import projekt.model.DevelopmentCardType;
+import projekt.model.HexGridImpl;
+import projekt.model.Player;
+import projekt.model.ResourceType;
+import projekt.model.TradePayload;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the actions of a game to the indices of a fixed action space, so the chosen action and the legal actions of
+ * every decision can be stored as an index and a bit mask of the same size.
+ * <p>
+ * The space depends on the size of the grid and the amount of players only and is laid out as follows:
+ * <ol>
+ *     <li>a village on every intersection,</li>
+ *     <li>a city on every intersection,</li>
+ *     <li>a road on every edge,</li>
+ *     <li>a bank trade for every offered and requested resource type,</li>
+ *     <li>buying a development card,</li>
+ *     <li>playing every type of development card,</li>
+ *     <li>moving the robber to every tile,</li>
+ *     <li>stealing every resource type from every player,</li>
+ *     <li>selecting cards, the selected cards themselves are not part of the index,</li>
+ *     <li>declining and accepting a trade,</li>
+ *     <li>rolling the dice,</li>
+ *     <li>ending the turn and</li>
+ *     <li>any other action, i.e. a trade with other players.</li>
+ * </ol>
+ */
+public final class ActionSpace {
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final int RESOURCES = RESOURCE_TYPES.length;
+    private static final int DEVELOPMENT_CARDS = DevelopmentCardType.values().length;
+
+    private final HexGridImpl grid;
+    private final List<Player> players;
+    private final int intersections;
+    private final int cities;
+    private final int roads;
+    private final int bankTrades;
+    private final int buyDevelopmentCard;
+    private final int playDevelopmentCard;
+    private final int robberTiles;
+    private final int steals;
+    private final int selectCards;
+    private final int declineTrade;
+    private final int acceptTrade;
+    private final int rollDice;
+    private final int endTurn;
+    private final int other;
+
+    /**
+     * Creates the action space of the given grid and players.
+     *
+     * @param grid    the grid
+     * @param players the players in turn order
+     */
+    public ActionSpace(final HexGridImpl grid, final List<Player> players) {
+        this.grid = grid;
+        this.players = players;
+        this.intersections = 0;
+        this.cities = intersections + grid.getIntersectionCount();
+        this.roads = cities + grid.getIntersectionCount();
+        this.bankTrades = roads + grid.getEdgeCount();
+        this.buyDevelopmentCard = bankTrades + RESOURCES * RESOURCES;
+        this.playDevelopmentCard = buyDevelopmentCard + 1;
+        this.robberTiles = playDevelopmentCard + DEVELOPMENT_CARDS;
+        this.steals = robberTiles + grid.getTileCount();
+        this.selectCards = steals + players.size() * RESOURCES;
+        this.declineTrade = selectCards + 1;
+        this.acceptTrade = declineTrade + 1;
+        this.rollDice = acceptTrade + 1;
+        this.endTurn = rollDice + 1;
+        this.other = endTurn + 1;
+    }
+
+    /**
+     * Returns the size of an action space for the given grid dimensions and amount of players.
+     *
+     * @param intersections the amount of intersections
+     * @param edges         the amount of edges
+     * @param tiles         the amount of tiles
+     * @param players       the amount of players
+     * @return the amount of indices
+     */
+    public static int size(final int intersections, final int edges, final int tiles, final int players) {
+        return 2 * intersections + edges + RESOURCES * RESOURCES + 1 + DEVELOPMENT_CARDS + tiles
+            + players * RESOURCES + 6;
+    }
+
+    /**
+     * Returns the amount of indices of this action space.
+     *
+     * @return the size
+     */
+    public int size() {
+        return other + 1;
+    }
+
+    /**
+     * Returns the index of the given action.
+     *
+     * @param action the action
+     * @return the index
+     */
+    public int indexOf(final PlayerAction action) {
+        if (action instanceof final BuildVillageAction village) {
+            return intersections + grid.indexOf(village.intersection());
+        } else if (action instanceof final UpgradeVillageAction upgrade) {
+            return cities + grid.indexOf(upgrade.intersection());
+        } else if (action instanceof final BuildRoadAction road) {
+            return roads + grid.indexOf(road.edge());
+        } else if (action instanceof final TradeAction trade) {
+            return bankTradeIndex(trade.payload());
+        } else if (action instanceof BuyDevelopmentCardAction) {
+            return buyDevelopmentCard;
+        } else if (action instanceof final PlayDevelopmentCardAction play) {
+            return playDevelopmentCard + play.developmentCard().ordinal();
+        } else if (action instanceof final SelectRobberTileAction robber) {
+            return robberTiles + grid.tileIndexAt(robber.tilePosition().q(), robber.tilePosition().r());
+        } else if (action instanceof final StealCardAction steal) {
+            return steals + players.indexOf(steal.playerToStealFrom()) * RESOURCES + steal.resourceToSteal().ordinal();
+        } else if (action instanceof SelectCardsAction) {
+            return selectCards;
+        } else if (action instanceof final AcceptTradeAction accept) {
+            return accept.accepted() ? acceptTrade : declineTrade;
+        } else if (action instanceof RollDiceAction) {
+            return rollDice;
+        } else if (action instanceof EndTurnAction) {
+            return endTurn;
+        }
+        return other;
+    }
+
+    /**
+     * Returns the index of a trade with the bank of a single offered and requested resource type.
+     */
+    private int bankTradeIndex(final TradePayload payload) {
+        if (!payload.withBank() || payload.offer().size() != 1 || payload.request().size() != 1) {
+            return other;
+        }
+        final ResourceType offer = payload.offer().keySet().iterator().next();
+        final ResourceType request = payload.request().keySet().iterator().next();
+        return bankTrades + offer.ordinal() * RESOURCES + request.ordinal();
+    }
+
+    /**
+     * Returns the amount of cards of the given resource type the given action selects.
+     *
+     * @param action   the action
+     * @param resource the ordinal of the resource type
+     * @return the amount of selected cards or 0, if the action does not select cards
+     */
+    static int selectedCards(final PlayerAction action, final int resource) {
+        if (action instanceof final SelectCardsAction select) {
+            final Map<ResourceType, Integer> selectedCards = select.selectedCards();
+            return selectedCards.getOrDefault(RESOURCE_TYPES[resource], 0);
+        }
+        return 0;
+    }
+}
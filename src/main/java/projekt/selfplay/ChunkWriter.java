@@ -0,0 +1,271 @@
+package projekt.selfplay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects samples into chunks and writes every full chunk to a file of its own on a dedicated thread.
+ * <p>
+ * A chunk is a direct buffer with a region for every column that can hold the values of a fixed amount of samples,
+ * so the samples are stored column by column as they are appended. Only a fixed amount of chunks is ever
+ * allocated: they are taken from a pool while they are filled and returned to it once they have been written.
+ * If the disk cannot keep up, appending blocks until a chunk has been written, which slows down the games instead
+ * of buffering more samples. The chunks are allocated once, so writing creates almost no garbage.
+ * <p>
+ * Every file starts with a header, all values little-endian:
+ * <ol>
+ *     <li>the {@linkplain #MAGIC magic number} and the {@linkplain #VERSION version} as ints,</li>
+ *     <li>the amount of samples and of columns as ints,</li>
+ *     <li>for every column the ordinal of its {@link SampleLayout.ColumnType} as a byte, its width as an int and
+ *     its name as a short length followed by the UTF-8 bytes,</li>
+ * </ol>
+ * followed by the values of the columns, one column after the other. Files are written under a temporary name and
+ * renamed once complete, so readers never see a partial chunk.
+ *
+ * @see SampleChunk
+ */
+final class ChunkWriter {
+
+    /**
+     * The first four bytes of every chunk file, {@code "CSPL"}.
+     */
+    static final int MAGIC = 0x4C505343;
+
+    /**
+     * The version of the file format.
+     */
+    static final int VERSION = 1;
+
+    private final SampleLayout layout;
+    private final Path directory;
+    private final int chunkSamples;
+    // the size of the values of one sample of every column and their offset in a sample of all columns
+    private final int[] columnBytes;
+    private final int[] columnOffsets;
+    private final BlockingQueue<Chunk> freeChunks;
+    private final BlockingQueue<Chunk> fullChunks;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Thread thread;
+    private final ByteBuffer header;
+    private Chunk current;
+    private int chunkCount;
+    private long sampleCount;
+    private volatile IOException failure;
+
+    /**
+     * Creates a writer of chunks into the given directory and starts its thread.
+     *
+     * @param layout         the layout of the samples
+     * @param directory      the directory, which must exist
+     * @param chunkSamples   the amount of samples per chunk
+     * @param bufferedChunks the amount of chunks held in memory, at least 2
+     */
+    ChunkWriter(final SampleLayout layout, final Path directory, final int chunkSamples, final int bufferedChunks) {
+        this.layout = layout;
+        this.directory = directory;
+        this.chunkSamples = chunkSamples;
+        this.columnBytes = new int[layout.getColumns().size()];
+        this.columnOffsets = new int[columnBytes.length];
+        for (int c = 0; c < columnBytes.length; c++) {
+            columnBytes[c] = layout.getColumns().get(c).bytes();
+            columnOffsets[c] = layout.getOffset(c);
+        }
+        this.freeChunks = new ArrayBlockingQueue<>(bufferedChunks);
+        // one more for the chunk ending the thread
+        this.fullChunks = new ArrayBlockingQueue<>(bufferedChunks + 1);
+        for (int i = 0; i < bufferedChunks; i++) {
+            freeChunks.add(new Chunk(false));
+        }
+        this.header = createHeader(layout);
+        this.thread = new Thread(this::writeChunks, "ChunkWriter");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static ByteBuffer createHeader(final SampleLayout layout) {
+        final List<SampleLayout.Column> columns = layout.getColumns();
+        int size = 4 * Integer.BYTES;
+        for (final SampleLayout.Column column : columns) {
+            size += Byte.BYTES + Integer.BYTES + Short.BYTES + column.name().getBytes(StandardCharsets.UTF_8).length;
+        }
+        final ByteBuffer header = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(0).putInt(columns.size());
+        for (final SampleLayout.Column column : columns) {
+            final byte[] name = column.name().getBytes(StandardCharsets.UTF_8);
+            header.put((byte) column.type().ordinal()).putInt(column.width()).putShort((short) name.length).put(name);
+        }
+        return header.flip();
+    }
+
+    /**
+     * Appends the given samples, which are stored one sample after the other with all columns of the layout.
+     * Blocks while all chunks are full and waiting to be written.
+     *
+     * @param samples the buffer holding the samples from index 0
+     * @param count   the amount of samples
+     * @throws IOException          if writing a previous chunk has failed
+     * @throws InterruptedException if interrupted while waiting for a chunk
+     */
+    void append(final ByteBuffer samples, final int count) throws IOException, InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            for (int s = 0; s < count; s++) {
+                checkFailure();
+                if (current == null) {
+                    current = freeChunks.take();
+                }
+                current.append(samples, s * layout.getSampleBytes());
+                if (current.samples == chunkSamples) {
+                    submit();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the last chunk, even if it is not full, and waits until all chunks have been written.
+     *
+     * @throws IOException          if writing a chunk has failed
+     * @throws InterruptedException if interrupted while waiting for the chunks to be written
+     */
+    void close() throws IOException, InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (current != null && current.samples > 0) {
+                submit();
+            }
+            fullChunks.put(new Chunk(true));
+        } finally {
+            lock.unlock();
+        }
+        thread.join();
+        checkFailure();
+    }
+
+    /**
+     * Returns the amount of chunks that have been submitted for writing.
+     *
+     * @return the amount of chunks
+     */
+    int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Returns the amount of samples that have been appended.
+     *
+     * @return the amount of samples
+     */
+    long getSampleCount() {
+        return sampleCount;
+    }
+
+    private void submit() throws InterruptedException {
+        current.index = chunkCount++;
+        sampleCount += current.samples;
+        fullChunks.put(current);
+        current = null;
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes full chunks until the chunk without a buffer ends the thread.
+     * After a failure, chunks are only returned to the pool, so appending never blocks forever.
+     */
+    private void writeChunks() {
+        final ByteBuffer[] buffers = new ByteBuffer[layout.getColumns().size() + 1];
+        while (true) {
+            final Chunk chunk;
+            try {
+                chunk = fullChunks.take();
+            } catch (final InterruptedException e) {
+                return;
+            }
+            if (chunk.buffer == null) {
+                return;
+            }
+            if (failure == null) {
+                try {
+                    write(chunk, buffers);
+                } catch (final IOException e) {
+                    failure = e;
+                }
+            }
+            chunk.samples = 0;
+            freeChunks.add(chunk);
+        }
+    }
+
+    private void write(final Chunk chunk, final ByteBuffer[] buffers) throws IOException {
+        header.putInt(2 * Integer.BYTES, chunk.samples).rewind();
+        buffers[0] = header;
+        for (int c = 0; c < chunk.regions.length; c++) {
+            buffers[c + 1] = chunk.buffer.slice(chunk.regions[c], chunk.samples * columnBytes[c]);
+        }
+        final String name = String.format("samples-%06d.bin", chunk.index);
+        final Path temporary = directory.resolve(name + ".part");
+        try (FileChannel channel = FileChannel.open(
+            temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE
+        )) {
+            long remaining = 0;
+            for (final ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+        }
+        Files.move(temporary, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * A direct buffer with a region for the values of every column.
+     */
+    private final class Chunk {
+
+        private final ByteBuffer buffer;
+        // the start of the region of every column
+        private final int[] regions;
+        private int samples;
+        private int index;
+
+        /**
+         * Creates a chunk or, if it is the last one, the chunk without a buffer that ends the thread.
+         */
+        private Chunk(final boolean last) {
+            this.buffer = last ? null : ByteBuffer.allocateDirect(chunkSamples * layout.getSampleBytes());
+            this.regions = new int[last ? 0 : columnBytes.length];
+            for (int c = 1; c < regions.length; c++) {
+                regions[c] = regions[c - 1] + chunkSamples * columnBytes[c - 1];
+            }
+        }
+
+        /**
+         * Copies the values of the sample at the given offset into the regions of the columns.
+         */
+        private void append(final ByteBuffer source, final int offset) {
+            for (int c = 0; c < regions.length; c++) {
+                buffer.put(regions[c] + samples * columnBytes[c], source, offset + columnOffsets[c], columnBytes[c]);
+            }
+            samples++;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package projekt.selfplay;
+
+import projekt.controller.ActionBuffer;
+import projekt.controller.GameObserver;
+import projekt.controller.PlayerController;
+import projekt.controller.actions.IllegalActionException;
+import projekt.controller.actions.PlayerAction;
+import projekt.model.DevelopmentCardType;
+import projekt.model.HexGridImpl;
+import projekt.model.Player;
+import projekt.model.ResourceType;
+import projekt.model.TilePosition;
+import projekt.model.buildings.Port;
+import projekt.model.buildings.Settlement;
+import projekt.model.tiles.Tile;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records a sample of every decision of a game into a buffer, one sample after the other in the order of the
+ * columns of the {@link SampleLayout}.
+ * <p>
+ * A sample is taken when an action is triggered, i.e. before it is executed, and kept once the action has been
+ * executed. Decisions with a single legal action, e.g. rolling the dice, are not recorded, as nothing is decided.
+ * The final outcome is filled into all samples of the game when it has ended.
+ * A recorder belongs to one thread and is reused for all of its games, so the buffer only grows until it can hold
+ * the longest game and recording does not allocate.
+ */
+final class GameRecorder implements GameObserver {
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final DevelopmentCardType[] DEVELOPMENT_CARD_TYPES = DevelopmentCardType.values();
+
+    private final SampleLayout layout;
+    private final int sampleBytes;
+    private final ActionBuffer legalActions = new ActionBuffer();
+    private final long[] legalMask;
+    private final int winnerOffset;
+    private final int finalVictoryPointsOffset;
+    private ByteBuffer samples;
+    private int sampleCount;
+    private boolean pending;
+
+    private int game;
+    private int round;
+    private HexGridImpl grid;
+    private List<Player> players;
+    private ActionSpace actionSpace;
+    // the static part of the board of the current game
+    private byte[] tiles = new byte[0];
+    private byte[] ports = new byte[0];
+
+    /**
+     * Creates a recorder of samples of the given layout.
+     *
+     * @param layout the layout
+     */
+    GameRecorder(final SampleLayout layout) {
+        this.layout = layout;
+        this.sampleBytes = layout.getSampleBytes();
+        this.legalMask = new long[layout.getColumns().get(layout.indexOf(SampleLayout.LEGAL_ACTIONS)).width()];
+        this.winnerOffset = layout.getOffset(layout.indexOf(SampleLayout.WINNER));
+        this.finalVictoryPointsOffset = layout.getOffset(layout.indexOf(SampleLayout.FINAL_VICTORY_POINTS));
+        this.samples = ByteBuffer.allocate(sampleBytes * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Drops the samples of the previous game and starts recording the given game.
+     *
+     * @param game    the number of the game
+     * @param grid    the grid of the game
+     * @param players the players of the game in turn order
+     */
+    void start(final int game, final HexGridImpl grid, final List<Player> players) {
+        this.game = game;
+        this.round = 0;
+        this.grid = grid;
+        this.players = players;
+        this.actionSpace = new ActionSpace(grid, players);
+        if (actionSpace.size() != layout.getActionSpaceSize()) {
+            throw new IllegalArgumentException("The game does not match the layout of the samples");
+        }
+        this.sampleCount = 0;
+        this.pending = false;
+        if (tiles.length != grid.getTileCount()) {
+            tiles = new byte[grid.getTileCount()];
+        }
+        for (int t = 0; t < tiles.length; t++) {
+            final Tile tile = grid.getTile(t);
+            final ResourceType resourceType = tile.getType().resourceType;
+            tiles[t] = (byte) (resourceType == null ? 0 : tile.getRollNumber() << 3 | resourceType.ordinal() + 1);
+        }
+        if (ports.length != grid.getIntersectionCount()) {
+            ports = new byte[grid.getIntersectionCount()];
+        }
+        for (int i = 0; i < ports.length; i++) {
+            final Port port = grid.getPort(grid.getIntersection(i));
+            ports[i] = (byte) (port == null ? 0 : port.resourceType() == null ? 1 : port.resourceType().ordinal() + 2);
+        }
+    }
+
+    /**
+     * Fills the outcome of the game into all of its samples.
+     *
+     * @param winner the winner or {@code null}, if the game ended without one
+     */
+    void finish(final Player winner) {
+        final byte winnerSeat = (byte) (winner == null ? -1 : players.indexOf(winner));
+        for (int s = 0; s < sampleCount; s++) {
+            final int sample = s * sampleBytes;
+            samples.put(sample + winnerOffset, winnerSeat);
+            for (int p = 0; p < players.size(); p++) {
+                samples.put(sample + finalVictoryPointsOffset + p, (byte) victoryPoints(players.get(p)));
+            }
+        }
+    }
+
+    /**
+     * Returns the buffer holding the samples of the current game, one sample after the other from index 0.
+     *
+     * @return the buffer
+     */
+    ByteBuffer getSamples() {
+        return samples;
+    }
+
+    /**
+     * Returns the amount of samples of the current game.
+     *
+     * @return the amount of samples
+     */
+    int getSampleCount() {
+        return sampleCount;
+    }
+
+    @Override
+    public void roundStarted(final int round) {
+        this.round = round;
+    }
+
+    @Override
+    public void actionTriggered(final PlayerController playerController, final PlayerAction action) {
+        pending = false;
+        // the state and the objective have not changed since the action was decided on
+        // actions such as rolling the dice are not compared by value, so they are compared by their index
+        if (playerController.generateLegalActions(legalActions) == 1
+            && actionSpace.indexOf(legalActions.get(0)) == actionSpace.indexOf(action)) {
+            return;
+        }
+        Arrays.fill(legalMask, 0);
+        for (int a = 0; a < legalActions.size(); a++) {
+            final int index = actionSpace.indexOf(legalActions.get(a));
+            legalMask[index >>> 6] |= 1L << index;
+        }
+        if (samples.capacity() < (sampleCount + 1) * sampleBytes) {
+            samples = ByteBuffer.allocate(samples.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN)
+                .put(samples.clear());
+        }
+        samples.position(sampleCount * sampleBytes);
+        record(playerController, action);
+        pending = true;
+    }
+
+    @Override
+    public void actionExecuted(final PlayerController playerController, final PlayerAction action) {
+        if (pending) {
+            sampleCount++;
+            pending = false;
+        }
+    }
+
+    @Override
+    public void actionRejected(
+        final PlayerController playerController, final PlayerAction action,
+        final IllegalActionException exception
+    ) {
+        pending = false;
+    }
+
+    /**
+     * Writes the sample of the given decision at the position of the buffer, in the order of the columns.
+     */
+    private void record(final PlayerController playerController, final PlayerAction action) {
+        samples.putInt(game);
+        samples.putShort((short) round);
+        samples.put((byte) players.indexOf(playerController.getPlayer()));
+        samples.put((byte) playerController.getPlayerObjective().ordinal());
+        samples.put(tiles);
+        for (int i = 0; i < ports.length; i++) {
+            final Settlement settlement = grid.getIntersection(i).getSettlement();
+            int value = ports[i] << 4;
+            if (settlement != null) {
+                value |= players.indexOf(settlement.owner()) + 1;
+                if (settlement.type() == Settlement.Type.CITY) {
+                    value |= 8;
+                }
+            }
+            samples.put((byte) value);
+        }
+        for (int e = 0; e < grid.getEdgeCount(); e++) {
+            final Player owner = grid.getEdge(e).getRoadOwner();
+            samples.put((byte) (owner == null ? 0 : players.indexOf(owner) + 1));
+        }
+        final TilePosition robber = grid.getRobberPosition();
+        samples.putShort((short) (robber == null ? -1 : grid.tileIndexAt(robber.q(), robber.r())));
+        for (final Player player : players) {
+            final Map<ResourceType, Integer> resources = player.getResources();
+            for (final ResourceType resourceType : RESOURCE_TYPES) {
+                samples.putShort((short) (int) resources.getOrDefault(resourceType, 0));
+            }
+        }
+        for (final Player player : players) {
+            final Map<DevelopmentCardType, Integer> developmentCards = player.getDevelopmentCards();
+            for (final DevelopmentCardType type : DEVELOPMENT_CARD_TYPES) {
+                samples.put((byte) (int) developmentCards.getOrDefault(type, 0));
+            }
+        }
+        for (final Player player : players) {
+            samples.put((byte) victoryPoints(player));
+        }
+        for (final long word : legalMask) {
+            samples.putLong(word);
+        }
+        samples.putShort((short) actionSpace.indexOf(action));
+        for (int r = 0; r < RESOURCE_TYPES.length; r++) {
+            samples.put((byte) ActionSpace.selectedCards(action, r));
+        }
+        // the outcome is filled in when the game has ended
+        samples.put((byte) -1);
+        for (int p = 0; p < players.size(); p++) {
+            samples.put((byte) 0);
+        }
+    }
+
+    private int victoryPoints(final Player player) {
+        return grid.getScoreLedger().getVictoryPoints(player);
+    }
+}
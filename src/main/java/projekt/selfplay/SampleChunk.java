@@ -0,0 +1,107 @@
+package projekt.selfplay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A chunk file written by {@link SelfPlay}, mapped into memory.
+ * <p>
+ * The values of a column are read through a {@linkplain #getColumn(String) buffer} of all of its values, the
+ * values of sample {@code s} start at index {@code s * width} of the buffer's values.
+ */
+public final class SampleChunk {
+
+    private final int sampleCount;
+    private final List<SampleLayout.Column> columns;
+    private final List<ByteBuffer> values;
+
+    private SampleChunk(final int sampleCount, final List<SampleLayout.Column> columns, final List<ByteBuffer> values) {
+        this.sampleCount = sampleCount;
+        this.columns = Collections.unmodifiableList(columns);
+        this.values = values;
+    }
+
+    /**
+     * Reads the chunk file at the given path.
+     *
+     * @param path the path of the file
+     * @return the chunk
+     * @throws IOException if the file cannot be read or is not a chunk file
+     */
+    public static SampleChunk read(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                .order(ByteOrder.LITTLE_ENDIAN);
+            if (file.getInt() != ChunkWriter.MAGIC) {
+                throw new IOException("Not a chunk file: " + path);
+            }
+            final int version = file.getInt();
+            if (version != ChunkWriter.VERSION) {
+                throw new IOException(String.format("Unsupported version %d of chunk file %s", version, path));
+            }
+            final int sampleCount = file.getInt();
+            final int columnCount = file.getInt();
+            final List<SampleLayout.Column> columns = new ArrayList<>(columnCount);
+            for (int c = 0; c < columnCount; c++) {
+                final SampleLayout.ColumnType type = SampleLayout.ColumnType.values()[file.get()];
+                final int width = file.getInt();
+                final byte[] name = new byte[file.getShort()];
+                file.get(name);
+                columns.add(new SampleLayout.Column(new String(name, StandardCharsets.UTF_8), type, width));
+            }
+            final List<ByteBuffer> values = new ArrayList<>(columnCount);
+            int offset = file.position();
+            for (final SampleLayout.Column column : columns) {
+                final int length = sampleCount * column.bytes();
+                if (offset + length > file.limit()) {
+                    throw new IOException("Truncated chunk file: " + path);
+                }
+                values.add(file.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN));
+                offset += length;
+            }
+            return new SampleChunk(sampleCount, columns, values);
+        }
+    }
+
+    /**
+     * Returns the amount of samples of this chunk.
+     *
+     * @return the amount of samples
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Returns the columns of this chunk in the order they are stored.
+     *
+     * @return an unmodifiable list of the columns
+     */
+    public List<SampleLayout.Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns a little-endian buffer of all values of the column with the given name.
+     *
+     * @param name the name of the column
+     * @return a new read-only buffer of the values
+     * @throws IllegalArgumentException if there is no column with the given name
+     */
+    public ByteBuffer getColumn(final String name) {
+        for (int c = 0; c < columns.size(); c++) {
+            if (columns.get(c).name().equals(name)) {
+                return values.get(c).duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        throw new IllegalArgumentException("No column " + name);
+    }
+}
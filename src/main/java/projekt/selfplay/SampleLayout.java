@@ -0,0 +1,187 @@
+package projekt.selfplay;
+
+import projekt.model.DevelopmentCardType;
+import projekt.model.ResourceType;
+
+import java.util.List;
+
+/**
+ * The columns of the samples written by {@link SelfPlay}, one sample per decision of a player.
+ * <p>
+ * Every column holds a fixed amount of values of one {@link ColumnType} per sample:
+ * <ul>
+ *     <li>{@value #GAME}: the number of the game,</li>
+ *     <li>{@value #ROUND}: the round of the decision, 0 for the placement round,</li>
+ *     <li>{@value #PLAYER}: the position of the deciding player in the turn order,</li>
+ *     <li>{@value #OBJECTIVE}: the ordinal of the player's {@link projekt.controller.PlayerObjective},</li>
+ *     <li>{@value #TILES}: per tile the roll number shifted left by 3, plus the ordinal of its resource type plus 1,
+ *     or 0 if it produces nothing,</li>
+ *     <li>{@value #INTERSECTIONS}: per intersection the position of the settlement's owner plus 1 in bits 0 to 2,
+ *     8 for a city and the port shifted left by 4, which is 1 for a generic port and the ordinal of its resource type
+ *     plus 2 otherwise,</li>
+ *     <li>{@value #ROADS}: per edge the position of the road's owner plus 1 or 0,</li>
+ *     <li>{@value #ROBBER}: the index of the robber's tile or -1,</li>
+ *     <li>{@value #RESOURCES}: per player the amount of each resource type,</li>
+ *     <li>{@value #DEVELOPMENT_CARDS}: per player the amount of each development card type,</li>
+ *     <li>{@value #VICTORY_POINTS}: per player the current victory points,</li>
+ *     <li>{@value #LEGAL_ACTIONS}: the legal actions as bits over the {@link ActionSpace},</li>
+ *     <li>{@value #ACTION}: the index of the chosen action in the {@link ActionSpace},</li>
+ *     <li>{@value #SELECTION}: the amount of each resource type selected by the chosen action,</li>
+ *     <li>{@value #WINNER}: the position of the winner of the game or -1, if it ended without a winner,</li>
+ *     <li>{@value #FINAL_VICTORY_POINTS}: per player the victory points at the end of the game.</li>
+ * </ul>
+ * Players are always given by their position in the turn order, values of several players are stored one player
+ * after the other.
+ */
+public final class SampleLayout {
+
+    public static final String GAME = "game";
+    public static final String ROUND = "round";
+    public static final String PLAYER = "player";
+    public static final String OBJECTIVE = "objective";
+    public static final String TILES = "tiles";
+    public static final String INTERSECTIONS = "intersections";
+    public static final String ROADS = "roads";
+    public static final String ROBBER = "robber";
+    public static final String RESOURCES = "resources";
+    public static final String DEVELOPMENT_CARDS = "developmentCards";
+    public static final String VICTORY_POINTS = "victoryPoints";
+    public static final String LEGAL_ACTIONS = "legalActions";
+    public static final String ACTION = "action";
+    public static final String SELECTION = "selection";
+    public static final String WINNER = "winner";
+    public static final String FINAL_VICTORY_POINTS = "finalVictoryPoints";
+
+    /**
+     * The type of the values of a column, all values are stored little-endian.
+     */
+    public enum ColumnType {
+        BYTE(Byte.BYTES),
+        SHORT(Short.BYTES),
+        INT(Integer.BYTES),
+        LONG(Long.BYTES);
+
+        /**
+         * The size of a value in bytes.
+         */
+        public final int bytes;
+
+        ColumnType(final int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * A column of the samples.
+     *
+     * @param name  the name of the column
+     * @param type  the type of its values
+     * @param width the amount of values per sample
+     */
+    public record Column(String name, ColumnType type, int width) {
+
+        /**
+         * Returns the size of the values of one sample in bytes.
+         *
+         * @return the size in bytes
+         */
+        public int bytes() {
+            return type.bytes * width;
+        }
+    }
+
+    private final List<Column> columns;
+    private final int[] offsets;
+    private final int sampleBytes;
+    private final int actionSpaceSize;
+
+    /**
+     * Creates the layout of the samples of games on grids of the given dimensions.
+     *
+     * @param tiles         the amount of tiles
+     * @param intersections the amount of intersections
+     * @param edges         the amount of edges
+     * @param players       the amount of players
+     */
+    public SampleLayout(final int tiles, final int intersections, final int edges, final int players) {
+        final int resources = ResourceType.values().length;
+        this.actionSpaceSize = ActionSpace.size(intersections, edges, tiles, players);
+        this.columns = List.of(
+            new Column(GAME, ColumnType.INT, 1),
+            new Column(ROUND, ColumnType.SHORT, 1),
+            new Column(PLAYER, ColumnType.BYTE, 1),
+            new Column(OBJECTIVE, ColumnType.BYTE, 1),
+            new Column(TILES, ColumnType.BYTE, tiles),
+            new Column(INTERSECTIONS, ColumnType.BYTE, intersections),
+            new Column(ROADS, ColumnType.BYTE, edges),
+            new Column(ROBBER, ColumnType.SHORT, 1),
+            new Column(RESOURCES, ColumnType.SHORT, players * resources),
+            new Column(DEVELOPMENT_CARDS, ColumnType.BYTE, players * DevelopmentCardType.values().length),
+            new Column(VICTORY_POINTS, ColumnType.BYTE, players),
+            new Column(LEGAL_ACTIONS, ColumnType.LONG, (actionSpaceSize + Long.SIZE - 1) / Long.SIZE),
+            new Column(ACTION, ColumnType.SHORT, 1),
+            new Column(SELECTION, ColumnType.BYTE, resources),
+            new Column(WINNER, ColumnType.BYTE, 1),
+            new Column(FINAL_VICTORY_POINTS, ColumnType.BYTE, players)
+        );
+        this.offsets = new int[columns.size()];
+        int offset = 0;
+        for (int c = 0; c < columns.size(); c++) {
+            offsets[c] = offset;
+            offset += columns.get(c).bytes();
+        }
+        this.sampleBytes = offset;
+    }
+
+    /**
+     * Returns the columns in the order they are stored.
+     *
+     * @return an unmodifiable list of the columns
+     */
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the index of the column with the given name.
+     *
+     * @param name the name of the column
+     * @return the index of the column or -1, if there is none
+     */
+    public int indexOf(final String name) {
+        for (int c = 0; c < columns.size(); c++) {
+            if (columns.get(c).name().equals(name)) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the offset of the given column in a sample of all columns, one column after the other.
+     *
+     * @param column the index of the column
+     * @return the offset in bytes
+     */
+    public int getOffset(final int column) {
+        return offsets[column];
+    }
+
+    /**
+     * Returns the size of a sample of all columns in bytes.
+     *
+     * @return the size in bytes
+     */
+    public int getSampleBytes() {
+        return sampleBytes;
+    }
+
+    /**
+     * Returns the size of the {@link ActionSpace}.
+     *
+     * @return the amount of actions
+     */
+    public int getActionSpaceSize() {
+        return actionSpaceSize;
+    }
+}
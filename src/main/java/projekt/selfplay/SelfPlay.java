@@ -0,0 +1,426 @@
+package projekt.selfplay;
+
+import projekt.Config;
+import projekt.controller.AiControllerFactory;
+import projekt.controller.BasicAiController;
+import projekt.controller.GameController;
+import projekt.model.GameRandom;
+import projekt.model.GameState;
+import projekt.model.HexGridImpl;
+import projekt.model.Player;
+import projekt.model.PlayerImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays a number of independent headless games with a fixed line-up of AI players and writes a sample of every
+ * decision into chunk files, e.g. to train evaluation functions offline.
+ * <p>
+ * Games are scheduled like the ones of a {@link projekt.tournament.Tournament}: on a work-stealing
+ * {@link ForkJoinPool}, each game on one worker thread with its own {@link GameRandom}, seeded with
+ * {@link #getGameSeed(int)}. Every worker thread records the decisions of its games into a buffer of its own,
+ * see {@link GameRecorder}. Once a game has ended, its outcome is filled into its samples and they are appended to
+ * the chunks of a {@link ChunkWriter}, which writes full chunks on a thread of its own. Only a fixed amount of chunks
+ * is held in memory, so the games wait for the disk instead of filling the heap if it cannot keep up.
+ * <p>
+ * The chunk files are named {@code samples-000000.bin}, {@code samples-000001.bin} and so on, in the order they are
+ * completed, and store the columns of the {@link SampleLayout}. They can be read by {@link SampleChunk#read(Path)}.
+ */
+public final class SelfPlay {
+
+    /**
+     * Receives the progress of a running self-play.
+     * Called from the worker threads after every finished game.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * Called after a game has finished.
+         *
+         * @param finishedGames the amount of finished games
+         * @param totalGames    the amount of games to play
+         */
+        void progress(int finishedGames, int totalGames);
+    }
+
+    /**
+     * The summary of a self-play.
+     *
+     * @param games     the amount of finished games
+     * @param samples   the amount of written samples
+     * @param chunks    the amount of written chunk files
+     * @param cancelled whether the self-play has been cancelled before all games were played
+     */
+    public record Result(int games, long samples, int chunks, boolean cancelled) {
+    }
+
+    private final List<AiControllerFactory> seats;
+    private final int games;
+    private final int gridRadius;
+    private final int maxRounds;
+    private final int parallelism;
+    private final long seed;
+    private final Path directory;
+    private final int chunkSamples;
+    private final int bufferedChunks;
+    private final ProgressListener progressListener;
+    private volatile boolean cancelled;
+
+    private SelfPlay(final Builder builder) {
+        this.seats = List.copyOf(builder.seats);
+        this.games = builder.games;
+        this.gridRadius = builder.gridRadius;
+        this.maxRounds = builder.maxRounds;
+        this.parallelism = builder.parallelism;
+        this.seed = builder.seed;
+        this.directory = builder.directory;
+        this.chunkSamples = builder.chunkSamples;
+        this.bufferedChunks = builder.bufferedChunks;
+        this.progressListener = builder.progressListener;
+    }
+
+    /**
+     * Returns the layout of the samples written by this self-play.
+     *
+     * @return the layout
+     */
+    public SampleLayout getLayout() {
+        final HexGridImpl grid = new HexGridImpl(gridRadius);
+        return new SampleLayout(grid.getTileCount(), grid.getIntersectionCount(), grid.getEdgeCount(), seats.size());
+    }
+
+    /**
+     * Plays all games of this self-play and blocks until they are finished and all samples have been written, or
+     * the self-play is cancelled.
+     *
+     * @return the summary of the self-play
+     * @throws IOException          if the directory cannot be created or a chunk cannot be written
+     * @throws InterruptedException if interrupted while waiting for the chunks to be written
+     */
+    public Result run() throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        final SampleLayout layout = getLayout();
+        final ChunkWriter writer = new ChunkWriter(layout, directory, chunkSamples, bufferedChunks);
+        final ThreadLocal<GameRecorder> recorders = ThreadLocal.withInitial(() -> new GameRecorder(layout));
+        final AtomicInteger finishedGames = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new Games(0, games, writer, recorders, finishedGames));
+        } catch (final UncheckedIOException e) {
+            cancelled = true;
+            throw e.getCause();
+        } finally {
+            pool.shutdownNow();
+            writer.close();
+        }
+        return new Result(finishedGames.get(), writer.getSampleCount(), writer.getChunkCount(), cancelled);
+    }
+
+    /**
+     * Cancels this self-play.
+     * Games that have already started are finished and written, all others are skipped.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether this self-play has been cancelled.
+     *
+     * @return true if this self-play has been cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the seed of the game with the given number.
+     *
+     * @param game the number of the game, starting at 0
+     * @return the seed of the game
+     */
+    public long getGameSeed(final int game) {
+        return new SplittableRandom(seed + game).nextLong();
+    }
+
+    /**
+     * Plays the game with the given number and records its decisions with the given recorder.
+     */
+    private void play(final int game, final GameRecorder recorder) {
+        final GameRandom random = new GameRandom(getGameSeed(game));
+        Config.withRandom(random.misc(), () -> {
+            final HexGridImpl grid = new HexGridImpl(gridRadius, random.board());
+            final GameState state = new GameState(grid, new ArrayList<>(), random);
+            for (int i = 0; i < seats.size(); i++) {
+                state.addPlayer(new PlayerImpl.Builder(i + 1).ai(true).build(grid));
+            }
+            final GameController gameController = new GameController(state, GameController.createDice(random), true);
+            gameController.setMaxRounds(maxRounds);
+            gameController.setAiControllerFactory(
+                (playerController, hexGrid, gameState, activePlayerController) -> seats
+                    .get(state.getPlayers().indexOf(playerController.getPlayer()))
+                    .create(playerController, hexGrid, gameState, activePlayerController)
+            );
+            recorder.start(game, grid, state.getPlayers());
+            gameController.addObserver(recorder);
+            gameController.startGame();
+
+            final Player winner = state.getWinnerProperty().getValue();
+            recorder.finish(winner);
+            return null;
+        });
+    }
+
+    /**
+     * Plays a range of games, splitting it until a single game is left.
+     */
+    private final class Games extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final ChunkWriter writer;
+        private final ThreadLocal<GameRecorder> recorders;
+        private final AtomicInteger finishedGames;
+
+        private Games(
+            final int from, final int to, final ChunkWriter writer, final ThreadLocal<GameRecorder> recorders,
+            final AtomicInteger finishedGames
+        ) {
+            this.from = from;
+            this.to = to;
+            this.writer = writer;
+            this.recorders = recorders;
+            this.finishedGames = finishedGames;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled || from >= to) {
+                return;
+            }
+            if (to - from > 1) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(
+                    new Games(from, middle, writer, recorders, finishedGames),
+                    new Games(middle, to, writer, recorders, finishedGames)
+                );
+                return;
+            }
+            final GameRecorder recorder = recorders.get();
+            play(from, recorder);
+            try {
+                writer.append(recorder.getSamples(), recorder.getSampleCount());
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+                return;
+            }
+            final int finished = finishedGames.incrementAndGet();
+            if (progressListener != null) {
+                progressListener.progress(finished, games);
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link SelfPlay}s.
+     */
+    public static final class Builder {
+
+        private final List<AiControllerFactory> seats = new ArrayList<>();
+        private int games = 1000;
+        private int gridRadius = Config.GRID_RADIUS;
+        private int maxRounds = 500;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private long seed = System.nanoTime();
+        private Path directory;
+        private int chunkSamples = 1 << 16;
+        private int bufferedChunks = 4;
+        private ProgressListener progressListener;
+
+        /**
+         * Adds a seat to the line-up. Seats take their turns in the order they are added.
+         *
+         * @param factory the factory creating the AI
+         * @return this builder
+         */
+        public Builder seat(final AiControllerFactory factory) {
+            seats.add(factory);
+            return this;
+        }
+
+        /**
+         * Sets the amount of games to play, 1000 by default.
+         *
+         * @param games the amount of games
+         * @return this builder
+         */
+        public Builder games(final int games) {
+            this.games = games;
+            return this;
+        }
+
+        /**
+         * Sets the radius of the grids, {@link Config#GRID_RADIUS} by default.
+         *
+         * @param gridRadius the radius of the grids
+         * @return this builder
+         */
+        public Builder gridRadius(final int gridRadius) {
+            this.gridRadius = gridRadius;
+            return this;
+        }
+
+        /**
+         * Sets the amount of rounds after which a game ends without a winner, 500 by default.
+         *
+         * @param maxRounds the maximum amount of rounds or 0, if games should not be limited
+         * @return this builder
+         */
+        public Builder maxRounds(final int maxRounds) {
+            this.maxRounds = maxRounds;
+            return this;
+        }
+
+        /**
+         * Sets the amount of worker threads playing games, the amount of available processors by default.
+         *
+         * @param parallelism the amount of worker threads
+         * @return this builder
+         */
+        public Builder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the seed all games are derived from. Random by default.
+         *
+         * @param seed the seed
+         * @return this builder
+         */
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the directory the chunk files are written to. Created if it does not exist.
+         *
+         * @param directory the directory
+         * @return this builder
+         */
+        public Builder directory(final Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * Sets the amount of samples per chunk file, 65536 by default. Only the last chunk may hold fewer samples.
+         *
+         * @param chunkSamples the amount of samples per chunk
+         * @return this builder
+         */
+        public Builder chunkSamples(final int chunkSamples) {
+            this.chunkSamples = chunkSamples;
+            return this;
+        }
+
+        /**
+         * Sets the amount of chunks held in memory while they are filled or written, 4 by default.
+         * Games wait for a chunk to be written once all of them are full.
+         *
+         * @param bufferedChunks the amount of chunks, at least 2
+         * @return this builder
+         */
+        public Builder bufferedChunks(final int bufferedChunks) {
+            this.bufferedChunks = bufferedChunks;
+            return this;
+        }
+
+        /**
+         * Sets the listener receiving the progress of the self-play.
+         *
+         * @param progressListener the listener
+         * @return this builder
+         */
+        public Builder onProgress(final ProgressListener progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        /**
+         * Builds the self-play.
+         *
+         * @return the self-play
+         * @throws IllegalStateException if the amount of seats is not supported or a setting is invalid
+         */
+        public SelfPlay build() {
+            if (seats.size() < Config.MIN_PLAYERS || seats.size() > Config.MAX_PLAYERS) {
+                throw new IllegalStateException(String.format(
+                    "A self-play needs %d to %d seats, got %d", Config.MIN_PLAYERS, Config.MAX_PLAYERS, seats.size()
+                ));
+            }
+            if (games < 0) {
+                throw new IllegalStateException("The amount of games must not be negative");
+            }
+            if (parallelism < 1) {
+                throw new IllegalStateException("At least one worker thread is required");
+            }
+            if (directory == null) {
+                throw new IllegalStateException("The directory must be set");
+            }
+            if (chunkSamples < 1) {
+                throw new IllegalStateException("A chunk needs at least one sample");
+            }
+            if (bufferedChunks < 2) {
+                throw new IllegalStateException("At least two chunks must be buffered");
+            }
+            return new SelfPlay(this);
+        }
+    }
+
+    /**
+     * Plays games of {@link BasicAiController}s and writes their samples.
+     *
+     * @param args the directory and optionally the amount of games and the amount of seats
+     * @throws IOException          if a chunk cannot be written
+     * @throws InterruptedException if interrupted while waiting for the chunks to be written
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final Path directory = Path.of(args.length > 0 ? args[0] : "selfplay");
+        final int games = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        final int seatCount = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        final Builder builder = new Builder()
+            .directory(directory)
+            .games(games)
+            .onProgress((finished, total) -> {
+                if (finished % Math.max(1, total / 10) == 0) {
+                    System.out.printf("%d / %d games%n", finished, total);
+                }
+            });
+        for (int i = 0; i < seatCount; i++) {
+            builder.seat(BasicAiController::new);
+        }
+        final long start = System.nanoTime();
+        final Result result = builder.build().run();
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(
+            "%d games, %d samples in %d chunks written to %s%n", result.games(), result.samples(), result.chunks(),
+            directory.toAbsolutePath()
+        );
+        System.out.printf("%.1f s, %.0f samples per hour%n", seconds, result.samples() / seconds * 3600);
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Plays headless self-play games of AI players in parallel and writes a sample of every decision to columnar chunk
+ * files.
+ */
+package projekt.selfplay;
@@ -0,0 +1,348 @@
+package projekt.tournament;
+
+import projekt.Config;
+import projekt.controller.AiControllerFactory;
+import projekt.controller.BasicAiController;
+import projekt.controller.GameController;
+import projekt.model.GameRandom;
+import projekt.model.GameState;
+import projekt.model.HexGridImpl;
+import projekt.model.Player;
+import projekt.model.PlayerImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays a number of independent headless games with a fixed line-up of AI players.
+ * <p>
+ * Games are scheduled on a work-stealing {@link ForkJoinPool}, each game runs entirely on one worker thread.
+ * Every game draws from its own {@link GameRandom}, seeded with {@link #getGameSeed(int)}, so games neither
+ * share nor contend on random state and every game can be reproduced from its seed.
+ * While a game runs, {@link Config#RANDOM} is bound to the game's {@linkplain GameRandom#misc() miscellaneous stream}.
+ * The turn order is rotated by one seat every game, game {@code g} is opened by seat {@code g % seats}, so no seat
+ * keeps the advantage or disadvantage of its position. The results are recorded per seat, not per position.
+ * A game that throws is recorded as a {@linkplain TournamentResult.Failure failure} and the other games go on.
+ *
+ * @see TournamentResult
+ */
+public final class Tournament {
+
+    /**
+     * Receives the progress of a running tournament.
+     * Called from the worker threads after every finished game.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * Called after a game has finished.
+         *
+         * @param finishedGames the amount of finished games
+         * @param totalGames    the amount of games of the tournament
+         */
+        void progress(int finishedGames, int totalGames);
+    }
+
+    private final List<Seat> seats;
+    private final int games;
+    private final int gridRadius;
+    private final int maxRounds;
+    private final int parallelism;
+    private final long seed;
+    private final ProgressListener progressListener;
+    private volatile boolean cancelled;
+
+    private Tournament(final Builder builder) {
+        this.seats = List.copyOf(builder.seats);
+        this.games = builder.games;
+        this.gridRadius = builder.gridRadius;
+        this.maxRounds = builder.maxRounds;
+        this.parallelism = builder.parallelism;
+        this.seed = builder.seed;
+        this.progressListener = builder.progressListener;
+    }
+
+    /**
+     * Plays all games of this tournament and blocks until they are finished or the tournament is cancelled.
+     *
+     * @return the aggregated results of all finished games
+     */
+    public TournamentResult run() {
+        final TournamentResult.Accumulator accumulator = new TournamentResult.Accumulator(seats, games);
+        final AtomicInteger finishedGames = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new Games(0, games, accumulator, finishedGames));
+        } finally {
+            pool.shutdownNow();
+        }
+        return accumulator.toResult(cancelled);
+    }
+
+    /**
+     * Cancels this tournament.
+     * Games that have already started are finished, all others are skipped.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether this tournament has been cancelled.
+     *
+     * @return true if this tournament has been cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the seed of the game with the given number.
+     *
+     * @param game the number of the game, starting at 0
+     * @return the seed of the game
+     */
+    public long getGameSeed(final int game) {
+        return new SplittableRandom(seed + game).nextLong();
+    }
+
+    /**
+     * Plays the game with the given number and records its result.
+     */
+    private void play(final int game, final TournamentResult.Accumulator accumulator) {
+        final GameRandom random = new GameRandom(getGameSeed(game));
+        final int offset = game % seats.size();
+        Config.withRandom(random.misc(), () -> {
+            final GameState state = new GameState(new HexGridImpl(gridRadius, random.board()), new ArrayList<>(), random);
+            for (int i = 0; i < seats.size(); i++) {
+                final Seat seat = seats.get((i + offset) % seats.size());
+                state.addPlayer(new PlayerImpl.Builder(i + 1).name(seat.name()).ai(true).build(state.getGrid()));
+            }
+            final GameController gameController = new GameController(state, GameController.createDice(random), true);
+            gameController.setMaxRounds(maxRounds);
+            gameController.setAiControllerFactory(
+                (playerController, hexGrid, gameState, activePlayerController) -> seats
+                    .get(seatOf(state, playerController.getPlayer(), offset))
+                    .factory()
+                    .create(playerController, hexGrid, gameState, activePlayerController)
+            );
+            gameController.startGame();
+
+            final Player winner = state.getWinnerProperty().getValue();
+            final int[] victoryPoints = new int[seats.size()];
+            for (final Player player : state.getPlayers()) {
+                victoryPoints[seatOf(state, player, offset)] = state.getGrid() instanceof final HexGridImpl hexGridImpl
+                                                               ? hexGridImpl.getScoreLedger().getVictoryPoints(player)
+                                                               : player.getVictoryPoints();
+            }
+            accumulator.add(
+                winner == null ? -1 : seatOf(state, winner, offset),
+                gameController.getRoundCounter() - 1,
+                victoryPoints
+            );
+            return null;
+        });
+    }
+
+    /**
+     * Returns the seat of the given player in a game whose turn order is rotated by the given offset.
+     */
+    private int seatOf(final GameState state, final Player player, final int offset) {
+        return (state.getPlayers().indexOf(player) + offset) % seats.size();
+    }
+
+    /**
+     * Plays a range of games, splitting it until a single game is left.
+     */
+    private final class Games extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final TournamentResult.Accumulator accumulator;
+        private final AtomicInteger finishedGames;
+
+        private Games(final int from, final int to, final TournamentResult.Accumulator accumulator, final AtomicInteger finishedGames) {
+            this.from = from;
+            this.to = to;
+            this.accumulator = accumulator;
+            this.finishedGames = finishedGames;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled || from >= to) {
+                return;
+            }
+            if (to - from > 1) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(
+                    new Games(from, middle, accumulator, finishedGames),
+                    new Games(middle, to, accumulator, finishedGames)
+                );
+                return;
+            }
+            try {
+                play(from, accumulator);
+            } catch (final RuntimeException e) {
+                // a broken game must not abort the others
+                accumulator.fail(new TournamentResult.Failure(from, getGameSeed(from), e));
+            }
+            final int finished = finishedGames.incrementAndGet();
+            if (progressListener != null) {
+                progressListener.progress(finished, games);
+            }
+        }
+    }
+
+    /**
+     * A seat of the line-up.
+     *
+     * @param name    the name of the AI, used for the player and to aggregate results
+     * @param factory the factory creating the AI
+     */
+    record Seat(String name, AiControllerFactory factory) {
+    }
+
+    /**
+     * Builder for {@link Tournament}s.
+     */
+    public static final class Builder {
+
+        private final List<Seat> seats = new ArrayList<>();
+        private int games = 1000;
+        private int gridRadius = Config.GRID_RADIUS;
+        private int maxRounds = 500;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private long seed = System.nanoTime();
+        private ProgressListener progressListener;
+
+        /**
+         * Adds a seat to the line-up. Seats take their turns in the order they are added, starting with a
+         * different seat every game.
+         *
+         * @param name    the name of the AI
+         * @param factory the factory creating the AI
+         * @return this builder
+         */
+        public Builder seat(final String name, final AiControllerFactory factory) {
+            seats.add(new Seat(name, factory));
+            return this;
+        }
+
+        /**
+         * Sets the amount of games to play, 1000 by default.
+         *
+         * @param games the amount of games
+         * @return this builder
+         */
+        public Builder games(final int games) {
+            this.games = games;
+            return this;
+        }
+
+        /**
+         * Sets the radius of the grids, {@link Config#GRID_RADIUS} by default.
+         *
+         * @param gridRadius the radius of the grids
+         * @return this builder
+         */
+        public Builder gridRadius(final int gridRadius) {
+            this.gridRadius = gridRadius;
+            return this;
+        }
+
+        /**
+         * Sets the amount of rounds after which a game ends without a winner, 500 by default.
+         *
+         * @param maxRounds the maximum amount of rounds or 0, if games should not be limited
+         * @return this builder
+         */
+        public Builder maxRounds(final int maxRounds) {
+            this.maxRounds = maxRounds;
+            return this;
+        }
+
+        /**
+         * Sets the amount of worker threads, the amount of available processors by default.
+         *
+         * @param parallelism the amount of worker threads
+         * @return this builder
+         */
+        public Builder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the seed all games are derived from. Random by default.
+         *
+         * @param seed the seed
+         * @return this builder
+         */
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the listener receiving the progress of the tournament.
+         *
+         * @param progressListener the listener
+         * @return this builder
+         */
+        public Builder onProgress(final ProgressListener progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        /**
+         * Builds the tournament.
+         *
+         * @return the tournament
+         * @throws IllegalStateException if the amount of seats is not supported
+         */
+        public Tournament build() {
+            if (seats.size() < Config.MIN_PLAYERS || seats.size() > Config.MAX_PLAYERS) {
+                throw new IllegalStateException(String.format(
+                    "A tournament needs %d to %d seats, got %d", Config.MIN_PLAYERS, Config.MAX_PLAYERS, seats.size()
+                ));
+            }
+            if (games < 0) {
+                throw new IllegalStateException("The amount of games must not be negative");
+            }
+            if (parallelism < 1) {
+                throw new IllegalStateException("At least one worker thread is required");
+            }
+            return new Tournament(this);
+        }
+    }
+
+    /**
+     * Plays a tournament of {@link BasicAiController}s and prints its results.
+     *
+     * @param args optionally the amount of games and the amount of seats
+     */
+    public static void main(final String[] args) {
+        final int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        final int seatCount = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        final Builder builder = new Builder()
+            .games(games)
+            .onProgress((finished, total) -> {
+                if (finished % Math.max(1, total / 10) == 0) {
+                    System.out.printf("%d / %d games%n", finished, total);
+                }
+            });
+        for (int i = 0; i < seatCount; i++) {
+            builder.seat("Basic AI", BasicAiController::new);
+        }
+        final long start = System.nanoTime();
+        final TournamentResult result = builder.build().run();
+        System.out.println(result);
+        System.out.printf("%.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+}
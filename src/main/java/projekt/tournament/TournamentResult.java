@@ -0,0 +1,271 @@
+package projekt.tournament;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The aggregated results of the games played in a {@link Tournament}.
+ * Seats are numbered in the order they were added to the line-up, starting at 0, regardless of their position in
+ * the turn order of a game. Failed games are not counted as played, they are listed as
+ * {@linkplain #getFailures() failures}.
+ */
+public final class TournamentResult {
+
+    private final List<Tournament.Seat> seats;
+    private final int totalGames;
+    private final int games;
+    private final int draws;
+    private final int[] wins;
+    private final long[] victoryPoints;
+    private final long rounds;
+    private final int minRounds;
+    private final int maxRounds;
+    private final List<Failure> failures;
+    private final boolean cancelled;
+
+    private TournamentResult(final Accumulator accumulator, final boolean cancelled) {
+        this.seats = accumulator.seats;
+        this.totalGames = accumulator.totalGames;
+        this.games = accumulator.games;
+        this.draws = accumulator.draws;
+        this.wins = accumulator.wins.clone();
+        this.victoryPoints = accumulator.victoryPoints.clone();
+        this.rounds = accumulator.rounds;
+        this.minRounds = accumulator.games == 0 ? 0 : accumulator.minRounds;
+        this.maxRounds = accumulator.maxRounds;
+        this.failures = accumulator.failures.stream().sorted(Comparator.comparingInt(Failure::game)).toList();
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Returns the amount of games that have been played.
+     *
+     * @return the amount of played games
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the amount of games the tournament was supposed to play.
+     *
+     * @return the amount of games of the tournament
+     */
+    public int getTotalGames() {
+        return totalGames;
+    }
+
+    /**
+     * Returns the games that threw an exception instead of ending, ordered by the number of the game.
+     *
+     * @return an unmodifiable list of the failed games
+     */
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns whether the tournament has been cancelled before all games were played.
+     *
+     * @return true if the tournament has been cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the amount of seats.
+     *
+     * @return the amount of seats
+     */
+    public int getSeatCount() {
+        return seats.size();
+    }
+
+    /**
+     * Returns the name of the AI on the given seat.
+     *
+     * @param seat the seat
+     * @return the name of the AI
+     */
+    public String getSeatName(final int seat) {
+        return seats.get(seat).name();
+    }
+
+    /**
+     * Returns the amount of games won by the given seat.
+     *
+     * @param seat the seat
+     * @return the amount of won games
+     */
+    public int getWins(final int seat) {
+        return wins[seat];
+    }
+
+    /**
+     * Returns the share of played games won by the given seat.
+     *
+     * @param seat the seat
+     * @return the win rate between 0 and 1
+     */
+    public double getWinRate(final int seat) {
+        return games == 0 ? 0 : (double) wins[seat] / games;
+    }
+
+    /**
+     * Returns the share of played games won by the AI with the given name, over all seats it occupies.
+     *
+     * @param name the name of the AI
+     * @return the win rate between 0 and 1 per seat occupied by the AI
+     */
+    public double getWinRate(final String name) {
+        int seatCount = 0;
+        int seatWins = 0;
+        for (int seat = 0; seat < seats.size(); seat++) {
+            if (seats.get(seat).name().equals(name)) {
+                seatCount++;
+                seatWins += wins[seat];
+            }
+        }
+        return games == 0 || seatCount == 0 ? 0 : (double) seatWins / ((long) games * seatCount);
+    }
+
+    /**
+     * Returns the average victory points of the given seat at the end of a game.
+     *
+     * @param seat the seat
+     * @return the average victory points
+     */
+    public double getAverageVictoryPoints(final int seat) {
+        return games == 0 ? 0 : (double) victoryPoints[seat] / games;
+    }
+
+    /**
+     * Returns the amount of games that reached the round limit without a winner.
+     *
+     * @return the amount of games without a winner
+     */
+    public int getDraws() {
+        return draws;
+    }
+
+    /**
+     * Returns the average amount of rounds played per game, not counting the placement round.
+     *
+     * @return the average amount of rounds
+     */
+    public double getAverageRounds() {
+        return games == 0 ? 0 : (double) rounds / games;
+    }
+
+    /**
+     * Returns the least amount of rounds played in a game.
+     *
+     * @return the least amount of rounds
+     */
+    public int getMinRounds() {
+        return minRounds;
+    }
+
+    /**
+     * Returns the most rounds played in a game.
+     *
+     * @return the most rounds
+     */
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(String.format(
+            Locale.ROOT, "%d of %d games%s, %d without winner, %d failed, rounds: avg %.1f, min %d, max %d%n",
+            games, totalGames, cancelled ? " (cancelled)" : "", draws, failures.size(), getAverageRounds(), minRounds,
+            maxRounds
+        ));
+        builder.append(String.format(Locale.ROOT, "%4s %-20s %8s %8s %8s%n", "seat", "name", "wins", "win %", "avg VP"));
+        for (int seat = 0; seat < seats.size(); seat++) {
+            builder.append(String.format(
+                Locale.ROOT, "%4d %-20s %8d %8.2f %8.2f%n",
+                seat, getSeatName(seat), wins[seat], getWinRate(seat) * 100, getAverageVictoryPoints(seat)
+            ));
+        }
+        for (final Failure failure : failures) {
+            builder.append(String.format(
+                Locale.ROOT, "game %d (seed %d) failed: %s%n", failure.game(), failure.seed(), failure.exception()
+            ));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A game that threw an exception instead of ending.
+     *
+     * @param game      the number of the game
+     * @param seed      the seed the game can be reproduced with
+     * @param exception the exception thrown by the game
+     */
+    public record Failure(int game, long seed, RuntimeException exception) {
+    }
+
+    /**
+     * Collects the results of single games, may be used by multiple threads.
+     */
+    static final class Accumulator {
+
+        private final List<Tournament.Seat> seats;
+        private final int totalGames;
+        private final int[] wins;
+        private final long[] victoryPoints;
+        private final List<Failure> failures = new ArrayList<>();
+        private int games;
+        private int draws;
+        private long rounds;
+        private int minRounds = Integer.MAX_VALUE;
+        private int maxRounds;
+
+        Accumulator(final List<Tournament.Seat> seats, final int totalGames) {
+            this.seats = seats;
+            this.totalGames = totalGames;
+            this.wins = new int[seats.size()];
+            this.victoryPoints = new long[seats.size()];
+        }
+
+        /**
+         * Adds the result of a game.
+         *
+         * @param winner            the seat of the winner or -1, if the game ended without a winner
+         * @param gameRounds        the amount of rounds played
+         * @param seatVictoryPoints the victory points of each seat at the end of the game
+         */
+        synchronized void add(final int winner, final int gameRounds, final int[] seatVictoryPoints) {
+            games++;
+            if (winner < 0) {
+                draws++;
+            } else {
+                wins[winner]++;
+            }
+            rounds += gameRounds;
+            minRounds = Math.min(minRounds, gameRounds);
+            maxRounds = Math.max(maxRounds, gameRounds);
+            for (int seat = 0; seat < seatVictoryPoints.length; seat++) {
+                victoryPoints[seat] += seatVictoryPoints[seat];
+            }
+        }
+
+        /**
+         * Adds a game that threw an exception instead of ending.
+         *
+         * @param failure the failed game
+         */
+        synchronized void fail(final Failure failure) {
+            failures.add(failure);
+        }
+
+        synchronized TournamentResult toResult(final boolean cancelled) {
+            return new TournamentResult(this, cancelled);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Runs many headless games of AI players in parallel and aggregates their results.
+ */
+package projekt.tournament;
@@ -0,0 +1,260 @@
+package projekt.controller;
+
+import javafx.beans.property.Property;
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.controller.actions.AcceptTradeAction;
+import projekt.controller.actions.EndTurnAction;
+import projekt.controller.actions.PlayerAction;
+import projekt.controller.actions.RollDiceAction;
+import projekt.model.GameRandom;
+import projekt.model.GameState;
+import projekt.model.HexGrid;
+import projekt.model.HexGridImpl;
+import projekt.model.Player;
+import projekt.model.PlayerImpl;
+import projekt.model.ResourceType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the decisions of {@link AiController}s dispatched to an executor.
+ */
+public class AiControllerTest {
+
+    @Test
+    public void testExecutorPlaysTheSameGame() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (long seed = 0; seed < 3; seed++) {
+                final Thread gameLoop = Thread.currentThread();
+                final AtomicInteger onGameLoop = new AtomicInteger();
+                final List<String> expected = play(seed, null, 0, BasicAiController::new);
+                final List<String> actual = play(seed, executor, 0, (playerController, hexGrid, gameState, active) ->
+                    new BasicAiController(playerController, hexGrid, gameState, active) {
+                        @Override
+                        protected void executeActionBasedOnObjective(final PlayerObjective objective) {
+                            // the first objective is passed on by the constructor, before the executor is set
+                            onGameLoop.addAndGet(Thread.currentThread() == gameLoop && objective != PlayerObjective.IDLE ? 1 : 0);
+                            super.executeActionBasedOnObjective(objective);
+                        }
+                    });
+                assertEquals(0, onGameLoop.get(), "decisions ran on the game loop");
+                assertEquals(expected, actual, "seed " + seed);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimesOutSlowDecisions() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final AtomicInteger interrupted = new AtomicInteger();
+            final List<String> actions = play(0, executor, 20, (playerController, hexGrid, gameState, active) ->
+                new BasicAiController(playerController, hexGrid, gameState, active) {
+                    @Override
+                    protected void executeActionBasedOnObjective(final PlayerObjective objective) {
+                        if (objective == PlayerObjective.REGULAR_TURN) {
+                            try {
+                                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                            } catch (final InterruptedException e) {
+                                interrupted.incrementAndGet();
+                                return;
+                            }
+                        }
+                        super.executeActionBasedOnObjective(objective);
+                    }
+                });
+            assertFalse(actions.isEmpty());
+            assertTrue(interrupted.get() > 0, "no decision was interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimeoutWaitsForCancelledDecision() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final GameController gameController = createGame(0, executor, 0);
+            final PlayerController playerController = new PlayerController(
+                gameController, gameController.getState().getPlayers().get(0)
+            );
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final AtomicBoolean stopped = new AtomicBoolean();
+            final AiController aiController = new AiController(playerController, gameController.getState().getGrid(),
+                                                               gameController.getState(), null) {
+                @Override
+                protected void executeActionBasedOnObjective(final PlayerObjective objective) {
+                    if (objective == PlayerObjective.DICE_ROLL) {
+                        started.countDown();
+                        // ignores the interrupt, like a search that only checks it every now and then
+                        awaitUninterruptibly(release);
+                        stopped.set(true);
+                    }
+                }
+            };
+            aiController.setExecutor(executor, 20);
+            playerController.setPlayerObjective(PlayerObjective.DICE_ROLL);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            final Thread releasing = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (final InterruptedException e) {
+                    // release at once
+                }
+                release.countDown();
+            });
+            releasing.start();
+            final PlayerAction action = playerController.blockingGetNextAction();
+            assertTrue(stopped.get(), "the first legal action was triggered while the decision was still running");
+            assertTrue(action instanceof RollDiceAction, "the first legal action was not triggered: " + action);
+            releasing.join();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDropsActionsOfCancelledDecisions() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final GameController gameController = createGame(0, executor, 0);
+            final PlayerController playerController = new PlayerController(
+                gameController, gameController.getState().getPlayers().get(0)
+            );
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final AiController aiController = new AiController(playerController, gameController.getState().getGrid(),
+                                                               gameController.getState(), null) {
+                @Override
+                protected void executeActionBasedOnObjective(final PlayerObjective objective) {
+                    if (objective == PlayerObjective.DICE_ROLL) {
+                        started.countDown();
+                        // ignores the interrupt, the action must be dropped anyway
+                        awaitUninterruptibly(release);
+                        triggerAction(new RollDiceAction());
+                    } else if (objective == PlayerObjective.REGULAR_TURN) {
+                        triggerAction(new EndTurnAction());
+                    }
+                }
+            };
+            aiController.setExecutor(executor, 0);
+            playerController.setPlayerObjective(PlayerObjective.DICE_ROLL);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            playerController.setPlayerObjective(PlayerObjective.REGULAR_TURN);
+            release.countDown();
+            final PlayerAction action = playerController.blockingGetNextAction();
+            assertTrue(action instanceof EndTurnAction, "the action of the cancelled decision was triggered: " + action);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAsksTradeOffersConcurrently() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final GameController gameController = createGame(0, executor, 0);
+            final CountDownLatch deciding = new CountDownLatch(2);
+            final AtomicInteger together = new AtomicInteger();
+            gameController.setAiControllerFactory((playerController, hexGrid, gameState, active) ->
+                new AiController(playerController, hexGrid, gameState, active) {
+                    @Override
+                    protected void executeActionBasedOnObjective(final PlayerObjective objective) {
+                        if (objective == PlayerObjective.ACCEPT_TRADE) {
+                            deciding.countDown();
+                            try {
+                                together.addAndGet(deciding.await(10, TimeUnit.SECONDS) ? 1 : 0);
+                            } catch (final InterruptedException e) {
+                                return;
+                            }
+                            triggerAction(new AcceptTradeAction(true));
+                        }
+                    }
+                });
+            gameController.initPlayerControllers();
+            final List<Player> players = gameController.getState().getPlayers();
+            players.get(0).addResource(ResourceType.WOOD, 1);
+            players.get(1).addResource(ResourceType.CLAY, 1);
+            players.get(2).addResource(ResourceType.CLAY, 1);
+
+            gameController.offerTrade(players.get(0), Map.of(ResourceType.WOOD, 1), Map.of(ResourceType.CLAY, 1));
+            assertEquals(2, together.get(), "the AIs did not decide on the offer at the same time");
+            assertEquals(Map.of(ResourceType.WOOD, 1), withoutZeros(players.get(1).getResources()),
+                         "the first player accepting did not get the offer");
+            assertEquals(Map.of(ResourceType.CLAY, 1), withoutZeros(players.get(2).getResources()),
+                         "the offer was not withdrawn after it was accepted");
+            for (final Player player : players.subList(1, 3)) {
+                assertEquals(PlayerObjective.IDLE, gameController.getPlayerControllers().get(player).getPlayerObjective());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Map<ResourceType, Integer> withoutZeros(final Map<ResourceType, Integer> resources) {
+        final Map<ResourceType, Integer> counts = new HashMap<>(resources);
+        counts.values().removeIf(count -> count == 0);
+        return counts;
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (final InterruptedException e) {
+                // keep waiting
+            }
+        }
+    }
+
+    private static GameController createGame(final long seed, final ExecutorService executor, final long timeout) {
+        final GameRandom random = new GameRandom(seed);
+        final GameState state = new GameState(new HexGridImpl(Config.GRID_RADIUS, random.board()), new ArrayList<>(), random);
+        for (int i = 1; i <= 3; i++) {
+            state.addPlayer(new PlayerImpl.Builder(i).ai(true).build(state.getGrid()));
+        }
+        final GameController gameController = new GameController(state, GameController.createDice(random), true);
+        gameController.setAiExecutor(executor, timeout);
+        return gameController;
+    }
+
+    /**
+     * Plays a headless game and returns every executed action with the victory points of its player afterwards.
+     */
+    private static List<String> play(
+        final long seed, final ExecutorService executor, final long timeout, final AiControllerFactory factory
+    ) {
+        final GameController gameController = createGame(seed, executor, timeout);
+        gameController.setMaxRounds(timeout > 0 ? 5 : 100);
+        gameController.setAiControllerFactory(factory);
+        final List<String> actions = new ArrayList<>();
+        gameController.addObserver(new GameObserver() {
+            @Override
+            public void actionExecuted(final PlayerController playerController, final PlayerAction action) {
+                actions.add(playerController.getPlayer().getID() + ": " + action.getClass().getSimpleName()
+                                + ", " + playerController.getPlayer().getVictoryPoints() + " VP");
+            }
+        });
+        gameController.startGame();
+        return actions;
+    }
+}
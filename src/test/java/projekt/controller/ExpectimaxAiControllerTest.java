@@ -0,0 +1,127 @@
+package projekt.controller;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.controller.actions.IllegalActionException;
+import projekt.controller.actions.PlayerAction;
+import projekt.model.GameRandom;
+import projekt.model.GameState;
+import projekt.model.HexGridImpl;
+import projekt.model.PlayerImpl;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Plays headless games of an {@link ExpectimaxAiController} against {@link BasicAiController}s.
+ */
+public class ExpectimaxAiControllerTest {
+
+    private static final int MAX_DEPTH = 2;
+    private static final long TIME_BUDGET = 20;
+    // the time that passes on the clock of the search whenever it is read
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testBeatsBasicAi() {
+        final AiControllerFactory factory = new ExpectimaxAiController.Builder()
+            .timeBudget(0)
+            .maxDepth(MAX_DEPTH)
+            .table(new TranspositionTable(1 << 16))
+            .factory();
+        int wins = 0;
+        for (long seed = 0; seed < 3; seed++) {
+            final Game game = play(seed, factory, System::nanoTime);
+            wins += game.state.getWinnerProperty().getValue() == game.state.getPlayers().get(0) ? 1 : 0;
+        }
+        assertTrue(wins >= 2, "the search only won " + wins + " of 3 games");
+    }
+
+    @Test
+    public void testKeepsDeadline() {
+        // a clock that only advances when the search reads it, so the deadline hits after the same nodes every run
+        final AtomicLong time = new AtomicLong();
+        final AiControllerFactory factory = new ExpectimaxAiController.Builder()
+            .timeBudget(TIME_BUDGET)
+            .clock(() -> time.addAndGet(TICK_NANOS))
+            .maxDepth(50)
+            .factory();
+        final Game game = play(3, factory, time::get);
+        assertTrue(game.state.getWinnerProperty().getValue() != null, "the game has no winner");
+        assertTrue(game.timedOut > 0, "no search reached the deadline");
+        // the search reads the clock once when it starts and stops at the first check past the deadline
+        assertTrue(
+            game.maxDecisionNanos <= TimeUnit.MILLISECONDS.toNanos(TIME_BUDGET) + 2 * TICK_NANOS,
+            "a decision took " + TimeUnit.NANOSECONDS.toMillis(game.maxDecisionNanos) + " ms on the clock"
+        );
+        assertTrue(game.maxDepth >= 2, "the search never looked past the next roll");
+    }
+
+    /**
+     * Plays a game in which the first player is controlled by the given AI and the others by basic AIs.
+     * The decisions of the first player are timed by the given clock. Fails if an action of the first player is
+     * rejected.
+     */
+    private static Game play(final long seed, final AiControllerFactory factory, final LongSupplier clock) {
+        final GameRandom random = new GameRandom(seed);
+        final GameState state = new GameState(new HexGridImpl(Config.GRID_RADIUS, random.board()), new ArrayList<>(), random);
+        for (int i = 1; i <= 3; i++) {
+            state.addPlayer(new PlayerImpl.Builder(i).ai(true).build(state.getGrid()));
+        }
+        final GameController gameController = new GameController(state, GameController.createDice(random), true);
+        gameController.setMaxRounds(150);
+        final Game game = new Game(state);
+        gameController.setAiControllerFactory((playerController, hexGrid, gameState, activePlayerController) -> {
+            if (playerController.getPlayer() != state.getPlayers().get(0)) {
+                return new BasicAiController(playerController, hexGrid, gameState, activePlayerController);
+            }
+            game.controller = (ExpectimaxAiController) factory.create(playerController, hexGrid, gameState, activePlayerController);
+            return game.controller;
+        });
+        gameController.addObserver(new GameObserver() {
+            private long decisionStart = clock.getAsLong();
+
+            @Override
+            public void actionExecuted(final PlayerController playerController, final PlayerAction action) {
+                final long now = clock.getAsLong();
+                if (playerController.getPlayer() == state.getPlayers().get(0)) {
+                    // the decision started when the action before was executed
+                    game.maxDecisionNanos = Math.max(game.maxDecisionNanos, now - decisionStart);
+                    game.maxDepth = Math.max(game.maxDepth, game.controller.getLastDepth());
+                    game.timedOut += game.controller.isLastTimedOut() ? 1 : 0;
+                }
+                decisionStart = clock.getAsLong();
+            }
+
+            @Override
+            public void actionRejected(
+                final PlayerController playerController, final PlayerAction action,
+                final IllegalActionException exception
+            ) {
+                if (playerController.getPlayer() == state.getPlayers().get(0)) {
+                    fail("seed " + seed + ": action " + action + " was rejected: " + exception.getMessage());
+                }
+            }
+        });
+        gameController.startGame();
+        return game;
+    }
+
+    private static final class Game {
+
+        private final GameState state;
+        private ExpectimaxAiController controller;
+        private long maxDecisionNanos;
+        private int maxDepth;
+        private int timedOut;
+
+        private Game(final GameState state) {
+            this.state = state;
+        }
+    }
+}
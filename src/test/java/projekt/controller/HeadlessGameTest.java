@@ -0,0 +1,100 @@
+package projekt.controller;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.controller.actions.PlayerAction;
+import projekt.model.GameRandom;
+import projekt.model.GameState;
+import projekt.model.HexGridImpl;
+import projekt.model.PlayerImpl;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Plays headless games and checks that they neither need any JavaFX properties nor play differently from games with
+ * a UI.
+ */
+public class HeadlessGameTest {
+
+    @Test
+    public void testCreatesNoProperties() throws ReflectiveOperationException {
+        final GameController gameController = createGame(0, true);
+        final List<Integer> rounds = new ArrayList<>();
+        gameController.addObserver(new GameObserver() {
+            @Override
+            public void roundStarted(final int round) {
+                rounds.add(round);
+            }
+        });
+        gameController.startGame();
+        assertFalse(rounds.isEmpty());
+        assertEquals((int) rounds.get(rounds.size() - 1), gameController.getRoundCounter());
+        for (final String field : List.of("currentDiceRollProperty", "roundCounterProperty", "activePlayerControllerProperty")) {
+            assertNull(get(GameController.class, field, gameController), field + " of the game controller");
+        }
+        for (final PlayerController playerController : gameController.getPlayerControllers().values()) {
+            for (final String field : List.of("playerStateProperty", "playerObjectiveProperty")) {
+                assertNull(get(PlayerController.class, field, playerController), field + " of " + playerController.getPlayer().getID());
+            }
+        }
+
+        // created on request with the current value
+        assertEquals(gameController.getRoundCounter(), gameController.getRoundCounterProperty().get());
+        assertEquals(gameController.getCurrentDiceRoll(), gameController.getCurrentDiceRollProperty().get());
+    }
+
+    @Test
+    public void testPlaysLikeGameWithUi() {
+        final PrintStream out = System.out;
+        final PrintStream err = System.err;
+        final List<String> withUi;
+        try {
+            // games with a UI log every action and every rejected action to the console
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+            withUi = play(createGame(1, false));
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+        }
+        assertEquals(withUi, play(createGame(1, true)));
+    }
+
+    private static GameController createGame(final long seed, final boolean headless) {
+        final GameRandom random = new GameRandom(seed);
+        final GameState state = new GameState(new HexGridImpl(Config.GRID_RADIUS, random.board()), new ArrayList<>(), random);
+        for (int i = 1; i <= 3; i++) {
+            state.addPlayer(new PlayerImpl.Builder(i).ai(true).build(state.getGrid()));
+        }
+        final GameController gameController = new GameController(state, GameController.createDice(random), headless);
+        gameController.setMaxRounds(20);
+        return gameController;
+    }
+
+    private static List<String> play(final GameController gameController) {
+        final List<String> actions = new ArrayList<>();
+        gameController.addObserver(new GameObserver() {
+            @Override
+            public void actionExecuted(final PlayerController playerController, final PlayerAction action) {
+                actions.add(playerController.getPlayer().getID() + ": " + action.getClass().getSimpleName()
+                                + ", " + playerController.getPlayer().getVictoryPoints() + " VP");
+            }
+        });
+        gameController.startGame();
+        return actions;
+    }
+
+    private static Object get(final Class<?> type, final String name, final Object instance) throws ReflectiveOperationException {
+        final Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(instance);
+    }
+}
@@ -0,0 +1,122 @@
+package projekt.controller;
+
+import javafx.beans.property.Property;
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.controller.actions.BuildRoadAction;
+import projekt.controller.actions.BuildVillageAction;
+import projekt.controller.actions.IllegalActionException;
+import projekt.controller.actions.PlayerAction;
+import projekt.controller.actions.UpgradeVillageAction;
+import projekt.model.GameRandom;
+import projekt.model.GameState;
+import projekt.model.HexGrid;
+import projekt.model.HexGridImpl;
+import projekt.model.Intersection;
+import projekt.model.PlayerImpl;
+import projekt.model.buildings.Edge;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Plays headless games in which every AI triggers a random generated action and checks that none of them is rejected
+ * and that the generated build actions match the {@link projekt.model.PlayerState}.
+ */
+public class LegalActionGeneratorTest {
+
+    @Test
+    public void testGeneratedActionsAreNeverRejected() {
+        for (long seed = 0; seed < 10; seed++) {
+            final GameRandom random = new GameRandom(seed);
+            final GameState state = new GameState(new HexGridImpl(Config.GRID_RADIUS, random.board()), new ArrayList<>(), random);
+            for (int i = 1; i <= 3; i++) {
+                state.addPlayer(new PlayerImpl.Builder(i).ai(true).build(state.getGrid()));
+            }
+            final GameController gameController = new GameController(state, GameController.createDice(random), true);
+            gameController.setMaxRounds(100);
+            gameController.setAiControllerFactory(RandomLegalAiController::new);
+            final int[] executed = new int[1];
+            final long currentSeed = seed;
+            gameController.addObserver(new GameObserver() {
+                @Override
+                public void actionExecuted(final PlayerController playerController, final PlayerAction action) {
+                    executed[0]++;
+                }
+
+                @Override
+                public void actionRejected(
+                    final PlayerController playerController, final PlayerAction action,
+                    final IllegalActionException exception
+                ) {
+                    fail("seed " + currentSeed + ": generated action " + action + " was rejected: " + exception.getMessage());
+                }
+            });
+            gameController.startGame();
+            assertTrue(executed[0] > 0, "seed " + seed + ": no action executed");
+        }
+    }
+
+    /**
+     * Triggers a random generated action for every objective and compares the generated build actions with the
+     * sites of the player state.
+     */
+    private static final class RandomLegalAiController extends AiController {
+
+        private ActionBuffer buffer;
+
+        private RandomLegalAiController(
+            final PlayerController playerController, final HexGrid hexGrid, final GameState gameState,
+            final Property<PlayerController> activePlayerController
+        ) {
+            super(playerController, hexGrid, gameState, activePlayerController);
+        }
+
+        @Override
+        protected void executeActionBasedOnObjective(final PlayerObjective objective) {
+            if (objective == PlayerObjective.IDLE) {
+                return;
+            }
+            if (buffer == null) {
+                buffer = new ActionBuffer();
+            }
+            final int size = playerController.generateLegalActions(buffer);
+            if (size == 0) {
+                fail("no legal action for " + objective);
+            }
+            assertBuildActionsMatchState(objective);
+            final Random random = gameState.getRandom().ai(playerController.getPlayer());
+            playerController.triggerAction(buffer.get(random.nextInt(size)));
+        }
+
+        private void assertBuildActionsMatchState(final PlayerObjective objective) {
+            final Set<Intersection> villages = new LinkedHashSet<>();
+            final Set<Intersection> upgrades = new LinkedHashSet<>();
+            final Set<Edge> roads = new LinkedHashSet<>();
+            for (int i = 0; i < buffer.size(); i++) {
+                if (buffer.get(i) instanceof final BuildVillageAction action) {
+                    villages.add(action.intersection());
+                } else if (buffer.get(i) instanceof final UpgradeVillageAction action) {
+                    upgrades.add(action.intersection());
+                } else if (buffer.get(i) instanceof final BuildRoadAction action) {
+                    roads.add(action.edge());
+                }
+            }
+            if (objective.getAllowedActions().contains(BuildVillageAction.class)) {
+                assertEquals(playerController.getPlayerState().buildableVillageIntersections(), villages, "villages");
+            }
+            if (objective.getAllowedActions().contains(UpgradeVillageAction.class)) {
+                assertEquals(playerController.getPlayerState().upgradableVillageIntersections(), upgrades, "upgrades");
+            }
+            if (objective.getAllowedActions().contains(BuildRoadAction.class)) {
+                assertEquals(playerController.getPlayerState().buildableRoadEdges(), roads, "roads");
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package projekt.controller;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.controller.actions.IllegalActionException;
+import projekt.controller.actions.PlayerAction;
+import projekt.model.GameRandom;
+import projekt.model.GameState;
+import projekt.model.HexGridImpl;
+import projekt.model.PlayerImpl;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Plays headless games of a {@link MctsAiController} against {@link BasicAiController}s.
+ */
+public class MctsAiControllerTest {
+
+    private static final int ROLLOUTS = 60;
+
+    @Test
+    public void testBeatsBasicAiAndReusesTrees() {
+        final AiControllerFactory factory = new MctsAiController.Builder().workers(1).timeBudget(0).rollouts(ROLLOUTS).factory();
+        int wins = 0;
+        int maxRollouts = 0;
+        for (long seed = 0; seed < 3; seed++) {
+            final Game game = play(seed, factory);
+            wins += game.state.getWinnerProperty().getValue() == game.state.getPlayers().get(0) ? 1 : 0;
+            maxRollouts = Math.max(maxRollouts, game.maxRollouts);
+        }
+        assertTrue(wins >= 2, "the search only won " + wins + " of 3 games");
+        assertTrue(maxRollouts > ROLLOUTS, "no decision reused the rollouts of the one before");
+    }
+
+    @Test
+    public void testParallelWorkers() {
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final AiControllerFactory factory = new MctsAiController.Builder()
+                .workers(4).executor(executor).timeBudget(0).rollouts(ROLLOUTS).factory();
+            final Game game = play(3, factory);
+            assertTrue(game.state.getWinnerProperty().getValue() != null, "the game has no winner");
+            assertTrue(game.maxRollouts > 0, "no decision was searched");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPonderingDuringOtherTurns() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final AiControllerFactory factory = new MctsAiController.Builder()
+                .workers(2).executor(executor).timeBudget(0).rollouts(ROLLOUTS).ponder(10 * ROLLOUTS).factory();
+            final Game game = play(4, factory);
+            assertTrue(game.maxPonderedRollouts > 0, "no search started with the pondered tree");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays a game in which the first player is controlled by the given AI and the others by basic AIs.
+     * Fails if an action of the first player is rejected.
+     */
+    private static Game play(final long seed, final AiControllerFactory factory) {
+        final GameRandom random = new GameRandom(seed);
+        final GameState state = new GameState(new HexGridImpl(Config.GRID_RADIUS, random.board()), new ArrayList<>(), random);
+        for (int i = 1; i <= 3; i++) {
+            state.addPlayer(new PlayerImpl.Builder(i).ai(true).build(state.getGrid()));
+        }
+        final GameController gameController = new GameController(state, GameController.createDice(random), true);
+        gameController.setMaxRounds(150);
+        final Game game = new Game(state);
+        gameController.setAiControllerFactory((playerController, hexGrid, gameState, activePlayerController) -> {
+            if (playerController.getPlayer() != state.getPlayers().get(0)) {
+                return new BasicAiController(playerController, hexGrid, gameState, activePlayerController);
+            }
+            game.controller = (MctsAiController) factory.create(playerController, hexGrid, gameState, activePlayerController);
+            return game.controller;
+        });
+        gameController.addObserver(new GameObserver() {
+            @Override
+            public void actionExecuted(final PlayerController playerController, final PlayerAction action) {
+                if (playerController.getPlayer() == state.getPlayers().get(0)) {
+                    game.maxRollouts = Math.max(game.maxRollouts, game.controller.getLastRollouts());
+                    game.maxPonderedRollouts = Math.max(game.maxPonderedRollouts, game.controller.getLastPonderedRollouts());
+                }
+            }
+
+            @Override
+            public void actionRejected(
+                final PlayerController playerController, final PlayerAction action,
+                final IllegalActionException exception
+            ) {
+                if (playerController.getPlayer() == state.getPlayers().get(0)) {
+                    fail("seed " + seed + ": action " + action + " was rejected: " + exception.getMessage());
+                }
+            }
+        });
+        gameController.startGame();
+        return game;
+    }
+
+    private static final class Game {
+
+        private final GameState state;
+        private MctsAiController controller;
+        private int maxRollouts;
+        private int maxPonderedRollouts;
+
+        private Game(final GameState state) {
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package projekt.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks storing, eviction and concurrent use of the {@link TranspositionTable}.
+ */
+public class TranspositionTableTest {
+
+    @Test
+    public void testStoreAndProbe() {
+        final TranspositionTable table = new TranspositionTable(1 << 16);
+        assertEquals(1 << 12, table.getCapacity());
+        assertEquals(TranspositionTable.MISS, table.probe(42));
+        table.store(42, -0.25f, 7, 3);
+        final long entry = table.probe(42);
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(-0.25f, TranspositionTable.value(entry));
+        assertEquals(7, TranspositionTable.move(entry));
+        assertEquals(3, TranspositionTable.depth(entry));
+        table.store(42, 1f, TranspositionTable.NO_MOVE, 500);
+        assertEquals(TranspositionTable.NO_MOVE, TranspositionTable.move(table.probe(42)));
+        assertEquals(TranspositionTable.MAX_DEPTH, TranspositionTable.depth(table.probe(42)));
+        assertEquals(3, table.getHits());
+        assertEquals(1, table.getMisses());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(8));
+    }
+
+    @Test
+    public void testEvictsShallowAndOldEntries() {
+        // a single bucket, so every hash competes for the same slots
+        final TranspositionTable table = new TranspositionTable(TranspositionTable.ENTRY_BYTES * TranspositionTable.BUCKET_SIZE);
+        for (int i = 0; i < TranspositionTable.BUCKET_SIZE; i++) {
+            table.store(i + 1, i, 0, 10 + i);
+        }
+        table.store(100, 0, 0, 20);
+        assertEquals(TranspositionTable.MISS, table.probe(1), "the shallowest entry is evicted");
+        assertNotEquals(TranspositionTable.MISS, table.probe(100));
+
+        // after a few searches the deep entries are older than a shallow new one is worth
+        table.newSearch();
+        table.newSearch();
+        table.newSearch();
+        table.store(101, 0, 0, 1);
+        table.store(102, 0, 0, 1);
+        assertNotEquals(TranspositionTable.MISS, table.probe(101));
+        assertNotEquals(TranspositionTable.MISS, table.probe(102));
+    }
+
+    @Test
+    public void testConcurrentUseNeverReturnsForeignEntries() throws InterruptedException {
+        final TranspositionTable table = new TranspositionTable(1 << 12);
+        final AtomicInteger wrong = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final SplittableRandom random = new SplittableRandom(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    // the hashes of a small range collide in the buckets all the time
+                    final long hash = random.nextLong(1, 2048) * 0x9e3779b97f4a7c15L;
+                    final long entry = table.probe(hash);
+                    if (entry != TranspositionTable.MISS && TranspositionTable.move(entry) != (int) (hash >>> 50)) {
+                        wrong.incrementAndGet();
+                    }
+                    table.store(hash, (float) hash, (int) (hash >>> 50), random.nextInt(20));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, wrong.get());
+        assertTrue(table.getHits() > 0);
+        assertEquals(800_000, table.getHits() + table.getMisses());
+    }
+}
@@ -0,0 +1,102 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.model.buildings.Edge;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the {@link BuildSites} of a grid against scanning the whole grid for the rules they are based on.
+ */
+public class BuildSitesTest {
+
+    @Test
+    public void testRandomPlacements() {
+        for (long seed = 0; seed < RandomGrid.SEEDS; seed++) {
+            final RandomGrid randomGrid = new RandomGrid(seed);
+            for (int step = 0; step < 60; step++) {
+                randomGrid.change();
+                assertSitesMatch(randomGrid.grid(), randomGrid.players(), "seed " + seed + ", step " + step);
+            }
+        }
+    }
+
+    @Test
+    public void testSetsAreOnlyRebuiltAfterChange() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final Player other = new PlayerImpl.Builder(2).build(grid);
+        final BuildSites sites = grid.getBuildSites();
+        final int village = 0;
+        final int edge = grid.getAdjacency().intersectionEdges(village)[0];
+
+        final Set<Intersection> free = sites.getFreeIntersections();
+        assertSame(free, sites.getFreeIntersections(), "rebuilt without a change");
+        assertTrue(grid.getIntersection(village).placeVillage(player, true));
+        final Set<Intersection> freeAfterVillage = sites.getFreeIntersections();
+        assertNotSame(free, freeAfterVillage);
+        assertTrue(free.contains(grid.getIntersection(village)), "a set was modified after it was handed out");
+        assertFalse(freeAfterVillage.contains(grid.getIntersection(village)));
+        for (final int neighbour : grid.getAdjacency().intersectionNeighbours(village)) {
+            assertFalse(freeAfterVillage.contains(grid.getIntersection(neighbour)), "neighbour " + neighbour + " is free");
+        }
+        assertEquals(Set.of(), sites.getRoadSites(player));
+
+        grid.getEdge(edge).getRoadOwnerProperty().setValue(player);
+        final Set<Edge> roadSites = sites.getRoadSites(player);
+        assertFalse(roadSites.isEmpty());
+        assertFalse(roadSites.contains(grid.getEdge(edge)));
+        assertSame(freeAfterVillage, sites.getFreeIntersections(), "a road does not change the free intersections");
+        assertSame(roadSites, sites.getRoadSites(player), "rebuilt without a change");
+        assertEquals(Set.of(), sites.getRoadSites(other), "the road of another player leads somewhere");
+        assertSitesMatch(grid, List.of(player, other), "after a road");
+    }
+
+    private static void assertSitesMatch(final HexGridImpl grid, final List<Player> players, final String context) {
+        final BuildSites sites = grid.getBuildSites();
+        for (final Player player : players) {
+            assertEquals(scanVillageSites(grid, player, true), sites.getFreeIntersections(), "free intersections, " + context);
+            assertEquals(
+                scanVillageSites(grid, player, false),
+                sites.getVillageSites(player), "village sites of " + player.getID() + ", " + context
+            );
+            assertEquals(
+                scanRoadSites(grid, player, true),
+                sites.getInitialRoadSites(player), "initial road sites of " + player.getID() + ", " + context
+            );
+            assertEquals(
+                scanRoadSites(grid, player, false),
+                sites.getRoadSites(player), "road sites of " + player.getID() + ", " + context
+            );
+        }
+    }
+
+    private static Set<Intersection> scanVillageSites(final HexGrid grid, final Player player, final boolean firstRound) {
+        return grid.getIntersections().values().stream()
+            .filter(intersection -> !intersection.hasSettlement())
+            .filter(intersection -> intersection.getAdjacentIntersections().stream().noneMatch(Intersection::hasSettlement))
+            .filter(intersection -> firstRound || intersection.getConnectedEdges().stream()
+                .anyMatch(edge -> edge.hasRoad() && edge.getRoadOwner().equals(player)))
+            .collect(Collectors.toSet());
+    }
+
+    private static Set<Edge> scanRoadSites(final HexGrid grid, final Player player, final boolean firstRound) {
+        return grid.getEdges().values().stream()
+            .filter(edge -> !edge.hasRoad())
+            .filter(edge -> firstRound
+                ? edge.getIntersections().stream().anyMatch(intersection -> intersection.playerHasSettlement(player)
+                    && intersection.getConnectedEdges().stream().noneMatch(Edge::hasRoad))
+                : !edge.getConnectedRoads(player).isEmpty() && edge.getConnectedRoads(player).size() < 4)
+            .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,109 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.controller.GameController;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares {@link CompactGameState}s with the games they were created from and plays them to the end.
+ */
+public class CompactGameStateTest {
+
+    @Test
+    public void testSnapshotMatchesGame() {
+        for (long seed = 0; seed < 5; seed++) {
+            final GameState state = playedGame(seed, 30);
+            final HexGridImpl grid = (HexGridImpl) state.getGrid();
+            final CompactGameState compact = CompactGameState.of(state);
+            for (int i = 0; i < grid.getIntersectionCount(); i++) {
+                final var settlement = grid.getIntersection(i).getSettlement();
+                assertEquals(settlement == null ? -1 : state.getPlayers().indexOf(settlement.owner()), compact.getSettlementOwner(i));
+                assertEquals(settlement == null ? 0 : settlement.type().resourceAmount, compact.getSettlementLevel(i));
+            }
+            for (int e = 0; e < grid.getEdgeCount(); e++) {
+                assertEquals(state.getPlayers().indexOf(grid.getEdge(e).getRoadOwner()), compact.getRoadOwner(e));
+            }
+            for (int p = 0; p < state.getPlayers().size(); p++) {
+                final Player player = state.getPlayers().get(p);
+                assertEquals(grid.getScoreLedger().getVictoryPoints(player), compact.getVictoryPoints(p), "points of " + p);
+                assertEquals(grid.getLongestRoad(player).size(), compact.getLongestRoad(p), "longest road of " + p);
+                for (final ResourceType resourceType : ResourceType.values()) {
+                    assertEquals((int) player.getResources().getOrDefault(resourceType, 0), compact.getResource(p, resourceType.ordinal()));
+                    assertEquals(player.getTradeRatio(resourceType), compact.getTradeRatio(p, resourceType.ordinal()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCopiesAreIndependent() {
+        final CompactGameState compact = CompactGameState.of(playedGame(1, 10));
+        final CompactGameState copy = compact.copy();
+        copy.playout(new Random(1), 1000);
+        assertEquals(-1, compact.getWinner());
+        assertNotEquals(compact.getTurns(), copy.getTurns());
+        copy.copyFrom(compact);
+        assertEquals(compact.toString(), copy.toString());
+    }
+
+    @Test
+    public void testPlayouts() {
+        final CompactGameState compact = CompactGameState.of(playedGame(2, 10));
+        final CompactGameState rollout = compact.copy();
+        int won = 0;
+        for (int i = 0; i < 200; i++) {
+            rollout.copyFrom(compact);
+            if (rollout.playout(new Random(i), 1000) >= 0) {
+                won++;
+                assertTrue(rollout.getVictoryPoints(rollout.getWinner()) >= Config.REQUIRED_VICTORY_POINTS);
+            }
+            for (int p = 0; p < rollout.getPlayerCount(); p++) {
+                for (int r = 0; r < ResourceType.values().length; r++) {
+                    assertTrue(rollout.getResource(p, r) >= 0, "negative resources");
+                }
+            }
+            // the same source of randomness plays the same game
+            final CompactGameState replay = compact.copy();
+            replay.playout(new Random(i), 1000);
+            assertEquals(rollout.toString(), replay.toString());
+        }
+        assertTrue(won > 150, "only " + won + " of 200 playouts had a winner");
+    }
+
+    @Test
+    public void testPlayoutFromFirstRound() {
+        final GameRandom random = new GameRandom(3);
+        final GameState state = new GameState(new HexGridImpl(Config.GRID_RADIUS, random.board()), new ArrayList<>(), random);
+        for (int i = 1; i <= 4; i++) {
+            state.addPlayer(new PlayerImpl.Builder(i).ai(true).build(state.getGrid()));
+        }
+        final CompactGameState compact = CompactGameState.of(state);
+        compact.playout(new Random(3), 1000);
+        for (int p = 0; p < compact.getPlayerCount(); p++) {
+            int settlements = 0;
+            for (int i = 0; i < compact.getIntersectionCount(); i++) {
+                settlements += compact.getSettlementOwner(i) == p ? 1 : 0;
+            }
+            assertTrue(settlements >= 2, "player " + p + " has " + settlements + " settlements");
+        }
+    }
+
+    private static GameState playedGame(final long seed, final int rounds) {
+        final GameRandom random = new GameRandom(seed);
+        final GameState state = new GameState(new HexGridImpl(Config.GRID_RADIUS, random.board()), new ArrayList<>(), random);
+        for (int i = 1; i <= 3; i++) {
+            state.addPlayer(new PlayerImpl.Builder(i).ai(true).build(state.getGrid()));
+        }
+        final GameController gameController = new GameController(state, GameController.createDice(random), true);
+        gameController.setMaxRounds(rounds);
+        gameController.startGame();
+        return state;
+    }
+}
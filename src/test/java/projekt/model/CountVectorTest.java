@@ -0,0 +1,113 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link CountVector} against a {@link HashMap} the same operations are applied to, and the inventories of
+ * {@link PlayerImpl} kept in such vectors.
+ */
+public class CountVectorTest {
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+
+    @Test
+    public void testBehavesLikeHashMap() {
+        final Random random = new Random(0);
+        for (int run = 0; run < 50; run++) {
+            final CountVector<ResourceType> vector = new CountVector<>(ResourceType.class);
+            final Map<ResourceType, Integer> expected = new HashMap<>();
+            for (int step = 0; step < 100; step++) {
+                final ResourceType resourceType = RESOURCE_TYPES[random.nextInt(RESOURCE_TYPES.length)];
+                final int amount = random.nextInt(5) - 1;
+                final String context = "run " + run + ", step " + step;
+                switch (random.nextInt(6)) {
+                    case 0 -> assertEquals(expected.put(resourceType, amount), vector.put(resourceType, amount), context);
+                    case 1 -> {
+                        expected.merge(resourceType, amount, Integer::sum);
+                        vector.add(resourceType, amount);
+                    }
+                    case 2 -> assertEquals(expected.remove(resourceType), vector.remove(resourceType), context);
+                    case 3 -> {
+                        final Iterator<Map.Entry<ResourceType, Integer>> iterator = vector.entrySet().iterator();
+                        while (iterator.hasNext()) {
+                            if (iterator.next().getValue() == amount) {
+                                iterator.remove();
+                            }
+                        }
+                        expected.values().removeIf(value -> value == amount);
+                    }
+                    case 4 -> {
+                        if (random.nextInt(10) == 0) {
+                            expected.clear();
+                            vector.clear();
+                        }
+                    }
+                    default -> assertEquals(
+                        expected.getOrDefault(resourceType, 0), vector.getOrDefault(resourceType, 0), context
+                    );
+                }
+                assertEquals(expected, vector, context);
+                assertEquals(vector, expected, context);
+                assertEquals(expected.hashCode(), vector.hashCode(), context);
+                assertEquals(expected.size(), vector.size(), context);
+                final Map<ResourceType, Integer> ordered = new EnumMap<>(ResourceType.class);
+                ordered.putAll(expected);
+                assertEquals(ordered.toString(), vector.toString(), context);
+                int total = 0;
+                for (final ResourceType type : RESOURCE_TYPES) {
+                    assertEquals(expected.containsKey(type), vector.containsKey(type), type + ", " + context);
+                    assertEquals(expected.get(type), vector.get(type), type + ", " + context);
+                    assertEquals((int) expected.getOrDefault(type, 0), vector.count(type), type + ", " + context);
+                    total += expected.getOrDefault(type, 0);
+                }
+                assertEquals(total, CountVector.total(vector), context);
+                assertEquals(total, CountVector.total(expected), context);
+            }
+        }
+    }
+
+    @Test
+    public void testDominates() {
+        final CountVector<ResourceType> vector = new CountVector<>(ResourceType.class);
+        vector.add(ResourceType.WOOD, 2);
+        vector.add(ResourceType.ORE, 1);
+        assertTrue(vector.dominates(Map.of()));
+        assertTrue(vector.dominates(Map.of(ResourceType.WOOD, 2, ResourceType.ORE, 1)));
+        assertFalse(vector.dominates(Map.of(ResourceType.WOOD, 3)));
+        assertFalse(vector.dominates(Map.of(ResourceType.GRAIN, 1)));
+    }
+
+    @Test
+    public void testPlayerInventories() {
+        final HexGridImpl grid = new HexGridImpl(1);
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        player.addResources(Map.of(ResourceType.WOOD, 2, ResourceType.CLAY, 1));
+        assertEquals(Map.of(ResourceType.WOOD, 2, ResourceType.CLAY, 1), player.getResources());
+        assertEquals(3, CountVector.total(player.getResources()));
+        assertFalse(player.removeResources(Map.of(ResourceType.WOOD, 3)));
+        assertFalse(player.removeResource(ResourceType.ORE, 1));
+        assertEquals(Map.of(ResourceType.WOOD, 2, ResourceType.CLAY, 1), player.getResources(), "failed removals changed resources");
+        assertTrue(player.removeResources(Map.of(ResourceType.WOOD, 2, ResourceType.CLAY, 1)));
+        assertEquals(0, CountVector.total(player.getResources()));
+        assertEquals(Map.of(ResourceType.WOOD, 0, ResourceType.CLAY, 0), player.getResources());
+
+        player.addDevelopmentCard(DevelopmentCardType.KNIGHT);
+        player.addDevelopmentCard(DevelopmentCardType.VICTORY_POINTS);
+        assertEquals(2, player.getTotalDevelopmentCards());
+        assertEquals(1, player.getVictoryPoints());
+        assertTrue(player.removeDevelopmentCard(DevelopmentCardType.KNIGHT));
+        assertFalse(player.removeDevelopmentCard(DevelopmentCardType.KNIGHT));
+        assertEquals(1, player.getKnightsPlayed());
+        assertEquals(1, player.getTotalDevelopmentCards());
+    }
+}
@@ -0,0 +1,137 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.controller.GameController;
+import projekt.controller.GameObserver;
+import projekt.controller.PlayerController;
+import projekt.controller.actions.PlayerAction;
+import projekt.model.tiles.Tile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that the streams of {@link GameRandom} only depend on the seed and never on draws from other streams, and
+ * that games played with the same seed are the same.
+ */
+public class GameRandomTest {
+
+    private static final List<Function<GameRandom, Random>> STREAMS = List.of(
+        GameRandom::board, GameRandom::dice, GameRandom::deck, GameRandom::misc
+    );
+
+    @Test
+    public void testSameSeedSameStreams() {
+        for (long seed = 0; seed < 5; seed++) {
+            final GameRandom first = new GameRandom(seed);
+            final GameRandom second = new GameRandom(seed);
+            final GameRandom other = new GameRandom(seed + 1);
+            assertEquals(seed, first.getSeed());
+            for (int stream = 0; stream < STREAMS.size(); stream++) {
+                final List<Long> values = draw(STREAMS.get(stream).apply(first));
+                assertEquals(values, draw(STREAMS.get(stream).apply(second)), "stream " + stream + ", seed " + seed);
+                assertNotEquals(values, draw(STREAMS.get(stream).apply(other)), "stream " + stream + ", seed " + seed);
+            }
+            final Player player = playerWithId(2);
+            assertSame(first.ai(player), first.ai(player));
+            assertEquals(draw(first.ai(player)), draw(second.ai(playerWithId(2))));
+        }
+    }
+
+    @Test
+    public void testStreamsAreIndependent() {
+        final List<List<Long>> expected = new ArrayList<>();
+        for (final Function<GameRandom, Random> stream : STREAMS) {
+            expected.add(draw(stream.apply(new GameRandom(0))));
+        }
+        final List<Long> expectedAi = draw(new GameRandom(0).ai(playerWithId(1)));
+
+        final GameRandom random = new GameRandom(0);
+        final Player first = playerWithId(1);
+        final Player second = playerWithId(2);
+        // drawing from the other streams first, in reverse order
+        draw(random.ai(second));
+        for (int stream = STREAMS.size() - 1; stream >= 0; stream--) {
+            assertEquals(expected.get(stream), draw(STREAMS.get(stream).apply(random)), "stream " + stream);
+        }
+        assertEquals(expectedAi, draw(random.ai(first)));
+        assertNotEquals(expectedAi, draw(new GameRandom(0).ai(second)), "players share a stream");
+        assertNotEquals(expected.get(0), expected.get(1), "streams are not split");
+    }
+
+    @Test
+    public void testSeedsAreFixed() {
+        assertThrows(UnsupportedOperationException.class, () -> new GameRandom(0).dice().setSeed(1));
+    }
+
+    @Test
+    public void testBindsConfigRandom() {
+        final List<Long> expected = draw(new GameRandom(0).misc());
+        final GameRandom random = new GameRandom(0);
+        assertEquals(expected, Config.withRandom(random.misc(), () -> draw(Config.RANDOM)));
+    }
+
+    @Test
+    public void testSameSeedSameBoard() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new GameRandom(4).board());
+        final HexGridImpl same = new HexGridImpl(Config.GRID_RADIUS, new GameRandom(4).board());
+        for (final Tile tile : grid.getTiles().values()) {
+            final Tile sameTile = same.getTileAt(tile.getPosition());
+            assertEquals(tile.getType(), sameTile.getType(), tile.getPosition().toString());
+            assertEquals(tile.getRollNumber(), sameTile.getRollNumber(), tile.getPosition().toString());
+        }
+        for (final var entry : grid.getEdges().entrySet()) {
+            assertEquals(entry.getValue().getPort(), same.getEdges().get(entry.getKey()).getPort(), entry.getKey().toString());
+        }
+    }
+
+    @Test
+    public void testSameSeedSameGame() {
+        final List<String> actions = play(5);
+        assertEquals(actions, play(5));
+        assertNotEquals(actions, play(6));
+    }
+
+    private static List<String> play(final long seed) {
+        final GameRandom random = new GameRandom(seed);
+        return Config.withRandom(random.misc(), () -> {
+            final GameState state = new GameState(new HexGridImpl(Config.GRID_RADIUS, random.board()), new ArrayList<>(), random);
+            for (int i = 1; i <= 3; i++) {
+                state.addPlayer(new PlayerImpl.Builder(i).ai(true).build(state.getGrid()));
+            }
+            final GameController gameController = new GameController(state, GameController.createDice(random), true);
+            gameController.setMaxRounds(20);
+            final List<String> actions = new ArrayList<>();
+            gameController.addObserver(new GameObserver() {
+                @Override
+                public void actionExecuted(final PlayerController playerController, final PlayerAction action) {
+                    actions.add(playerController.getPlayer().getID() + ": " + action.getClass().getSimpleName()
+                                    + ", rolled " + gameController.getCurrentDiceRoll()
+                                    + ", " + CountVector.total(playerController.getPlayer().getResources()) + " resources");
+                }
+            });
+            gameController.startGame();
+            return actions;
+        });
+    }
+
+    private static Player playerWithId(final int id) {
+        return new PlayerImpl.Builder(id).build(new HexGridImpl(1));
+    }
+
+    private static List<Long> draw(final Random random) {
+        final List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            values.add(random.nextLong());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,127 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.model.buildings.Edge;
+import projekt.model.tiles.Tile;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the relations of the {@link GridAdjacency} against comparing the tile positions of all elements of the grid.
+ */
+public class GridAdjacencyTest {
+
+    @Test
+    public void testRelationsMatchPositions() {
+        for (final int radius : new int[] {1, Config.GRID_RADIUS, 5}) {
+            final HexGridImpl grid = new HexGridImpl(radius, new Random(radius));
+            final GridAdjacency adjacency = grid.getAdjacency();
+            for (int t = 0; t < grid.getTileCount(); t++) {
+                final Tile tile = grid.getTile(t);
+                final Set<Intersection> intersections = new HashSet<>();
+                for (int i = 0; i < grid.getIntersectionCount(); i++) {
+                    if (grid.getIntersection(i).getAdjacentTilePositions().contains(tile.getPosition())) {
+                        intersections.add(grid.getIntersection(i));
+                    }
+                }
+                assertEquals(intersections, intersections(grid, adjacency.tileIntersections(t)), "intersections of tile " + t);
+                assertEquals(intersections, adjacency.getIntersections(tile), "intersections of tile " + t);
+                final Set<Tile> neighbours = new HashSet<>();
+                for (final TilePosition position : TilePosition.neighbours(tile.getPosition())) {
+                    if (grid.getTileAt(position) != null) {
+                        neighbours.add(grid.getTileAt(position));
+                    }
+                }
+                assertEquals(neighbours, tiles(grid, adjacency.tileNeighbours(t)), "neighbours of tile " + t);
+            }
+            for (int i = 0; i < grid.getIntersectionCount(); i++) {
+                final Intersection intersection = grid.getIntersection(i);
+                final Set<Intersection> neighbours = new HashSet<>();
+                for (final Intersection other : grid.getIntersections().values()) {
+                    final Set<TilePosition> shared = new HashSet<>(other.getAdjacentTilePositions());
+                    shared.retainAll(intersection.getAdjacentTilePositions());
+                    if (shared.size() == 2) {
+                        neighbours.add(other);
+                    }
+                }
+                assertEquals(neighbours, intersections(grid, adjacency.intersectionNeighbours(i)), "neighbours of intersection " + i);
+                assertEquals(neighbours, intersection.getAdjacentIntersections(), "neighbours of intersection " + i);
+                final Set<Edge> edges = new HashSet<>();
+                for (final Edge edge : grid.getEdges().values()) {
+                    if (intersection.getAdjacentTilePositions().containsAll(edge.getAdjacentTilePositions())) {
+                        edges.add(edge);
+                    }
+                }
+                assertEquals(edges, edges(grid, adjacency.intersectionEdges(i)), "edges of intersection " + i);
+                assertEquals(edges, intersection.getConnectedEdges(), "edges of intersection " + i);
+                final Set<Tile> tiles = new HashSet<>();
+                for (final TilePosition position : intersection.getAdjacentTilePositions()) {
+                    if (grid.getTileAt(position) != null) {
+                        tiles.add(grid.getTileAt(position));
+                    }
+                }
+                assertEquals(tiles, tiles(grid, adjacency.intersectionTiles(i)), "tiles of intersection " + i);
+            }
+            for (int e = 0; e < grid.getEdgeCount(); e++) {
+                final Edge edge = grid.getEdge(e);
+                final Set<Intersection> intersections = new HashSet<>();
+                for (final Intersection intersection : grid.getIntersections().values()) {
+                    if (intersection.getAdjacentTilePositions().containsAll(edge.getAdjacentTilePositions())) {
+                        intersections.add(intersection);
+                    }
+                }
+                assertEquals(intersections, intersections(grid, adjacency.edgeIntersections(e)), "intersections of edge " + e);
+                assertEquals(intersections, edge.getIntersections(), "intersections of edge " + e);
+                final Set<Edge> connected = new HashSet<>();
+                for (final Edge other : grid.getEdges().values()) {
+                    for (final Intersection intersection : intersections) {
+                        if (intersection.getAdjacentTilePositions().containsAll(other.getAdjacentTilePositions())) {
+                            connected.add(other);
+                        }
+                    }
+                }
+                assertEquals(connected, edges(grid, adjacency.edgeConnectedEdges(e)), "edges connected to edge " + e);
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownElements() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final HexGridImpl other = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final GridAdjacency adjacency = grid.getAdjacency();
+        assertNull(adjacency.getIntersections(other.getTile(0)));
+        assertNull(adjacency.getAdjacentIntersections(other.getIntersection(0)));
+        assertNull(adjacency.getConnectedEdges(other.getEdge(0)));
+    }
+
+    private static Set<Tile> tiles(final HexGridImpl grid, final int[] indices) {
+        final Set<Tile> tiles = new HashSet<>();
+        for (final int t : indices) {
+            tiles.add(grid.getTile(t));
+        }
+        return tiles;
+    }
+
+    private static Set<Intersection> intersections(final HexGridImpl grid, final int[] indices) {
+        final Set<Intersection> intersections = new HashSet<>();
+        for (final int i : indices) {
+            intersections.add(grid.getIntersection(i));
+        }
+        return intersections;
+    }
+
+    private static Set<Edge> edges(final HexGridImpl grid, final int[] indices) {
+        final Set<Edge> edges = new HashSet<>();
+        for (final int e : indices) {
+            edges.add(grid.getEdge(e));
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,112 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.model.TilePosition.EdgeDirection;
+import projekt.model.buildings.Edge;
+import projekt.model.buildings.Port;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks grids of large radii and the ports placed on them against placing ports with sets of tile positions.
+ */
+public class GridConstructionTest {
+
+    @Test
+    public void testPortMapperMatchesPositionSets() {
+        for (final int radius : new int[] {2, Config.GRID_RADIUS, 8}) {
+            for (long seed = 0; seed < 5; seed++) {
+                final BiFunction<TilePosition, EdgeDirection, Port> mapper = Config.generatePortMapper(radius, new Random(seed));
+                final BiFunction<TilePosition, EdgeDirection, Port> expected = positionSetPortMapper(radius, new Random(seed));
+                final List<TilePosition> positions = new ArrayList<>();
+                TilePosition.forEachSpiral(new TilePosition(0, 0), radius, (position, indices) -> positions.add(position));
+                for (final TilePosition position : positions) {
+                    for (final EdgeDirection direction : EdgeDirection.values()) {
+                        assertEquals(
+                            expected.apply(position, direction), mapper.apply(position, direction),
+                            "radius " + radius + ", seed " + seed + ", " + position + " " + direction
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLargeRadius() {
+        final int radius = 20;
+        final HexGridImpl grid = new HexGridImpl(
+            radius, Config.generateRollNumbers(new Random(0)), Config.generateTileTypes(new Random(0)),
+            Config.generatePortMapper(radius, new Random(0))
+        );
+        assertEquals(3 * radius * radius - 3 * radius + 1, grid.getTileCount());
+        assertEquals(6 * radius * radius, grid.getIntersectionCount());
+        assertEquals(9 * radius * radius - 3 * radius, grid.getEdgeCount());
+        final Set<Intersection> portIntersections = new HashSet<>();
+        int ports = 0;
+        for (final Edge edge : grid.getEdges().values()) {
+            if (!edge.hasPort()) {
+                continue;
+            }
+            ports++;
+            final int distance1 = distanceToCenter(edge.getPosition1());
+            final int distance2 = distanceToCenter(edge.getPosition2());
+            assertEquals(radius - 1, Math.min(distance1, distance2), "port not on the outermost ring " + edge);
+            assertEquals(radius, Math.max(distance1, distance2), "port not facing outwards " + edge);
+            for (final Intersection intersection : edge.getIntersections()) {
+                assertTrue(portIntersections.add(intersection), "intersection next to two ports " + intersection);
+            }
+        }
+        assertTrue(ports > 0);
+    }
+
+    @Test
+    public void testSmallGridsHaveNoPorts() {
+        final HexGridImpl grid = new HexGridImpl(1);
+        for (final Edge edge : grid.getEdges().values()) {
+            assertNull(edge.getPort(), "port on a grid smaller than the configured radius " + edge);
+        }
+    }
+
+    /**
+     * Places ports like {@link Config#generatePortMapper(int, Random)}, tracking the visited intersections as sets
+     * of tile positions.
+     */
+    private static BiFunction<TilePosition, EdgeDirection, Port> positionSetPortMapper(final int radius, final Random random) {
+        final Iterator<ResourceType> resourceTypes = Spliterators.iterator(Arrays.spliterator(ResourceType.values()));
+        final Set<Set<TilePosition>> visitedIntersections = new HashSet<>();
+        return (position, direction) -> {
+            final TilePosition neighbour = TilePosition.neighbour(position, direction);
+            final Set<Set<TilePosition>> intersections = Set.of(
+                Set.of(position, neighbour, TilePosition.add(position, direction.left().position)),
+                Set.of(position, neighbour, TilePosition.add(position, direction.right().position))
+            );
+            if (distanceToCenter(position) != radius - 1 || distanceToCenter(neighbour) < radius
+                || intersections.stream().anyMatch(visitedIntersections::contains)) {
+                return null;
+            }
+            if (random.nextDouble() < 0.65) {
+                visitedIntersections.addAll(intersections);
+                return resourceTypes.hasNext() && random.nextBoolean() ? new Port(2, resourceTypes.next()) : new Port(3);
+            }
+            return null;
+        };
+    }
+
+    private static int distanceToCenter(final TilePosition position) {
+        return Math.max(Math.abs(position.q()), Math.max(Math.abs(position.r()), Math.abs(position.s())));
+    }
+}
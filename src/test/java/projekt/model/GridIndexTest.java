@@ -0,0 +1,87 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.model.buildings.Edge;
+import projekt.model.tiles.Tile;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks the dense indices and packed position lookups of {@link HexGridImpl} against its keyed maps.
+ */
+public class GridIndexTest {
+
+    @Test
+    public void testPackRoundTrip() {
+        for (final int q : new int[] {Integer.MIN_VALUE, -7, -1, 0, 1, 7, Integer.MAX_VALUE}) {
+            for (final int r : new int[] {Integer.MIN_VALUE, -7, -1, 0, 1, 7, Integer.MAX_VALUE}) {
+                final long key = TilePosition.pack(q, r);
+                assertEquals(q, TilePosition.unpackQ(key), "q of " + q + ", " + r);
+                assertEquals(r, TilePosition.unpackR(key), "r of " + q + ", " + r);
+                assertEquals(key, new TilePosition(q, r).pack());
+            }
+        }
+    }
+
+    @Test
+    public void testIndicesMatchMaps() {
+        for (final int radius : new int[] {1, Config.GRID_RADIUS, 5}) {
+            final HexGridImpl grid = new HexGridImpl(radius, new Random(radius));
+            assertEquals(grid.getTiles().size(), grid.getTileCount(), "tiles of radius " + radius);
+            assertEquals(grid.getIntersections().size(), grid.getIntersectionCount(), "intersections of radius " + radius);
+            assertEquals(grid.getEdges().size(), grid.getEdgeCount(), "edges of radius " + radius);
+            for (int t = 0; t < grid.getTileCount(); t++) {
+                final Tile tile = grid.getTile(t);
+                final TilePosition position = tile.getPosition();
+                assertSame(grid.getTileAt(position), tile, "tile " + t);
+                assertEquals(t, grid.indexOf(tile), "tile " + t);
+                assertEquals(t, grid.tileIndexAt(position.q(), position.r()), "tile " + t);
+                assertSame(tile, grid.getTileAt(position.pack()), "tile " + t);
+            }
+            for (int i = 0; i < grid.getIntersectionCount(); i++) {
+                final Intersection intersection = grid.getIntersection(i);
+                final List<TilePosition> positions = List.copyOf(intersection.getAdjacentTilePositions());
+                assertSame(grid.getIntersections().get(Set.copyOf(positions)), intersection, "intersection " + i);
+                assertEquals(i, grid.indexOf(intersection), "intersection " + i);
+                // the order of the positions does not matter
+                assertEquals(i, grid.intersectionIndexAt(
+                    positions.get(0).pack(), positions.get(1).pack(), positions.get(2).pack()), "intersection " + i);
+                assertSame(intersection, grid.getIntersectionAt(
+                    positions.get(2).pack(), positions.get(0).pack(), positions.get(1).pack()), "intersection " + i);
+            }
+            for (int e = 0; e < grid.getEdgeCount(); e++) {
+                final Edge edge = grid.getEdge(e);
+                final long position1 = edge.getPosition1().pack();
+                final long position2 = edge.getPosition2().pack();
+                assertSame(grid.getEdges().get(edge.getAdjacentTilePositions()), edge, "edge " + e);
+                assertEquals(e, grid.indexOf(edge), "edge " + e);
+                assertEquals(e, grid.edgeIndexAt(position1, position2), "edge " + e);
+                assertSame(edge, grid.getEdge(position2, position1), "edge " + e);
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownPositions() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final int outside = Config.GRID_RADIUS + 3;
+        assertEquals(-1, grid.tileIndexAt(outside, 0));
+        assertNull(grid.getTileAt(TilePosition.pack(outside, 0)));
+        assertEquals(-1, grid.edgeIndexAt(TilePosition.pack(outside, 0), TilePosition.pack(outside + 1, 0)));
+        // not neighbours
+        assertEquals(-1, grid.edgeIndexAt(TilePosition.pack(0, 0), TilePosition.pack(2, 0)));
+        assertNull(grid.getIntersectionAt(TilePosition.pack(0, 0), TilePosition.pack(1, 0), TilePosition.pack(2, 0)));
+
+        final HexGridImpl other = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        assertEquals(-1, grid.indexOf(other.getTile(0)));
+        assertEquals(-1, grid.indexOf(other.getIntersection(0)));
+        assertEquals(-1, grid.indexOf(other.getEdge(0)));
+    }
+}
@@ -0,0 +1,141 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applies random changes to a grid and its players and checks that rolling back the {@link MoveJournal} restores
+ * the model and all information derived from it.
+ */
+public class MoveJournalTest {
+
+    @Test
+    public void testRollbackRestoresState() {
+        for (long seed = 0; seed < RandomGrid.SEEDS; seed++) {
+            final RandomGrid randomGrid = new RandomGrid(seed);
+            final HexGridImpl grid = randomGrid.grid();
+            final List<Player> players = randomGrid.players();
+            // changes made before recording are kept
+            for (int step = 0; step < 40; step++) {
+                randomGrid.change();
+            }
+            final MoveJournal journal = grid.getJournal();
+            final List<Object> initial = snapshot(grid, players);
+            final int outer = journal.mark();
+            for (int step = 0; step < 40; step++) {
+                randomGrid.change();
+            }
+            final List<Object> intermediate = snapshot(grid, players);
+            final int inner = journal.mark();
+            for (int step = 0; step < 40; step++) {
+                randomGrid.change();
+            }
+            journal.rollback(inner);
+            assertEquals(intermediate, snapshot(grid, players), "seed " + seed + ", inner mark");
+            journal.rollback(outer);
+            assertEquals(initial, snapshot(grid, players), "seed " + seed + ", outer mark");
+            assertEquals(0, journal.size(), "seed " + seed + ", size");
+        }
+    }
+    @Test
+    public void testRecordsOnlyWhileMarkIsOpen() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final MoveJournal journal = grid.getJournal();
+        player.addResource(ResourceType.WOOD, 1);
+        assertFalse(journal.isRecording());
+        assertEquals(0, journal.size());
+
+        final int outer = journal.mark();
+        player.addResource(ResourceType.WOOD, 1);
+        final int inner = journal.mark();
+        player.addResource(ResourceType.WOOD, 1);
+        journal.rollback(inner);
+        assertTrue(journal.isRecording(), "the outer mark was closed with the inner one");
+        assertEquals(1, journal.size());
+        journal.rollback(outer);
+        assertFalse(journal.isRecording(), "still recording after the outermost mark was rolled back");
+        assertEquals(0, journal.size());
+        assertEquals(1, player.getResources().get(ResourceType.WOOD));
+
+        player.addResource(ResourceType.WOOD, 1);
+        assertEquals(0, journal.size(), "recorded a change without an open mark");
+        assertThrows(IllegalArgumentException.class, () -> journal.rollback(outer));
+    }
+
+    @Test
+    public void testCommitKeepsChanges() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final MoveJournal journal = grid.getJournal();
+
+        final int outer = journal.mark();
+        player.addResource(ResourceType.ORE, 2);
+        final int inner = journal.mark();
+        grid.getEdge(0).getRoadOwnerProperty().setValue(player);
+        journal.commit(inner);
+        assertEquals(player, grid.getEdge(0).getRoadOwner());
+        assertEquals(2, journal.size(), "the changes of a committed inner mark are needed by the outer one");
+        journal.rollback(outer);
+        assertNull(grid.getEdge(0).getRoadOwner(), "the committed inner change was not rolled back with the outer mark");
+        assertEquals(0, player.getResources().get(ResourceType.ORE));
+
+        final int mark = journal.mark();
+        player.addResource(ResourceType.ORE, 2);
+        journal.commit(mark);
+        assertEquals(2, player.getResources().get(ResourceType.ORE));
+        assertFalse(journal.isRecording());
+        assertEquals(0, journal.size(), "the entries were kept after the outermost mark was committed");
+    }
+
+    private static List<Object> snapshot(final HexGridImpl grid, final List<Player> players) {
+        final List<Object> snapshot = new ArrayList<>();
+        for (int i = 0; i < grid.getIntersectionCount(); i++) {
+            snapshot.add(grid.getIntersection(i).getSettlement());
+        }
+        for (int e = 0; e < grid.getEdgeCount(); e++) {
+            snapshot.add(grid.getEdge(e).getRoadOwner());
+        }
+        snapshot.add(grid.getRobberPosition());
+        final ScoreLedger ledger = grid.getScoreLedger();
+        snapshot.add(ledger.getMostKnightsHolder());
+        snapshot.add(ledger.getLongestRoadHolder());
+        snapshot.add(Set.copyOf(ledger.getWinners()));
+        snapshot.add(List.copyOf(grid.getBuildSites().getFreeIntersections()));
+        for (final Player player : players) {
+            // rolling back leaves entries of 0 behind, like any map a count has been put into
+            for (final ResourceType resourceType : ResourceType.values()) {
+                snapshot.add(player.getResources().getOrDefault(resourceType, 0));
+            }
+            for (final DevelopmentCardType developmentCardType : DevelopmentCardType.values()) {
+                snapshot.add(player.getDevelopmentCards().getOrDefault(developmentCardType, 0));
+            }
+            snapshot.add(player.getKnightsPlayed());
+            snapshot.add(ledger.getVictoryPoints(player));
+            snapshot.add(Set.copyOf(grid.getSettlements(player)));
+            snapshot.add(Map.copyOf(grid.getRoads(player)));
+            snapshot.add(grid.getLongestRoad(player).size());
+            snapshot.add(List.copyOf(grid.getBuildSites().getVillageSites(player)));
+            snapshot.add(List.copyOf(grid.getBuildSites().getRoadSites(player)));
+            for (final ResourceType resourceType : ResourceType.values()) {
+                snapshot.add(grid.getTradeRatio(player, resourceType));
+                for (int roll = 2; roll <= 12; roll++) {
+                    snapshot.add(grid.getProductionTable().getProduction(roll, player, resourceType));
+                }
+            }
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,117 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.model.buildings.Port;
+import projekt.model.tiles.Tile;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the ranking of the {@link OpeningPlanner} against scoring and sorting the free intersections from scratch.
+ */
+public class OpeningPlannerTest {
+
+    @Test
+    public void testScores() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final OpeningPlanner planner = grid.getOpeningPlanner();
+        for (int i = 0; i < grid.getIntersectionCount(); i++) {
+            int expected = 0;
+            final Set<ResourceType> resources = new HashSet<>();
+            for (final int t : grid.getAdjacency().intersectionTiles(i)) {
+                final Tile tile = grid.getTile(t);
+                if (tile.getType().resourceType != null) {
+                    expected += 6 - Math.abs(tile.getRollNumber() - 7);
+                    resources.add(tile.getType().resourceType);
+                }
+            }
+            expected += OpeningPlanner.DIVERSITY_BONUS * resources.size();
+            final Port port = grid.getPort(grid.getIntersection(i));
+            if (port != null) {
+                expected += port.resourceType() == null ? OpeningPlanner.GENERIC_PORT_BONUS : OpeningPlanner.RESOURCE_PORT_BONUS;
+            }
+            assertEquals(expected, planner.getScore(i), "intersection " + i);
+        }
+    }
+
+    @Test
+    public void testPlacementRemovesBlockedIntersections() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final OpeningPlanner planner = grid.getOpeningPlanner();
+        final List<Intersection> ranking = planner.getRankedFreeIntersections();
+        final int best = planner.getBestIntersection();
+        assertEquals(grid.indexOf(ranking.get(0)), best);
+
+        grid.getIntersection(best).placeVillage(player, true);
+        final List<Intersection> expected = new ArrayList<>(ranking);
+        expected.remove(grid.getIntersection(best));
+        for (final int neighbour : grid.getAdjacency().intersectionNeighbours(best)) {
+            expected.remove(grid.getIntersection(neighbour));
+        }
+        assertEquals(expected, planner.getRankedFreeIntersections(), "only the blocked intersections may be removed");
+        assertEquals(grid.indexOf(expected.get(0)), planner.getBestIntersection());
+    }
+
+    @Test
+    public void testRandomPlacements() {
+        for (long seed = 0; seed < RandomGrid.SEEDS; seed++) {
+            final RandomGrid randomGrid = new RandomGrid(seed);
+            final HexGridImpl grid = randomGrid.grid();
+            final List<Player> players = randomGrid.players();
+            final Random random = randomGrid.random();
+            final MoveJournal journal = grid.getJournal();
+            final List<Integer> marks = new ArrayList<>();
+            for (int step = 0; step < 40; step++) {
+                final Player player = randomGrid.randomPlayer();
+                if (random.nextInt(4) > 0 || marks.isEmpty()) {
+                    marks.add(journal.mark());
+                    final int best = grid.getOpeningPlanner().getBestIntersection();
+                    // mostly the best intersection, like an AI in the first round, sometimes any
+                    final int intersection = best >= 0 && random.nextBoolean() ? best : random.nextInt(grid.getIntersectionCount());
+                    grid.getIntersection(intersection).placeVillage(player, true);
+                } else {
+                    journal.rollback(marks.remove(random.nextInt(marks.size())));
+                    marks.removeIf(mark -> mark > journal.size());
+                }
+                assertRankingMatches(grid, players, "seed " + seed + ", step " + step);
+            }
+        }
+    }
+
+    private static void assertRankingMatches(final HexGridImpl grid, final List<Player> players, final String context) {
+        final OpeningPlanner planner = grid.getOpeningPlanner();
+        final List<Intersection> expected = new ArrayList<>(grid.getBuildSites().getFreeIntersections());
+        expected.sort(Comparator.comparingInt((Intersection i) -> -planner.getScore(grid.indexOf(i))).thenComparingInt(grid::indexOf));
+        assertEquals(expected, planner.getRankedFreeIntersections(), "ranking, " + context);
+        assertEquals(expected.isEmpty() ? -1 : grid.indexOf(expected.get(0)), planner.getBestIntersection(), "best, " + context);
+        for (final Player player : players) {
+            final Set<Intersection> sites = grid.getBuildSites().getFreeIntersections();
+            Intersection best = null;
+            for (final Intersection intersection : expected) {
+                if (best == null
+                    || planner.getScore(player, grid.indexOf(intersection)) > planner.getScore(player, grid.indexOf(best))) {
+                    best = intersection;
+                }
+            }
+            assertEquals(best, planner.getBestSite(player, sites), "best site of " + player.getID() + ", " + context);
+            final Set<Intersection> villageSites = grid.getBuildSites().getVillageSites(player);
+            Intersection bestVillage = null;
+            for (final Intersection intersection : expected) {
+                if (villageSites.contains(intersection) && (bestVillage == null
+                    || planner.getScore(player, grid.indexOf(intersection)) > planner.getScore(player, grid.indexOf(bestVillage)))) {
+                    bestVillage = intersection;
+                }
+            }
+            assertEquals(bestVillage, planner.getBestSite(player, villageSites), "best village of " + player.getID() + ", " + context);
+        }
+    }
+}
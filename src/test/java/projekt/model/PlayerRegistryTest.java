@@ -0,0 +1,58 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.model.buildings.Edge;
+import projekt.model.buildings.Settlement;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the settlements and roads {@link HexGridImpl} registers per player against scanning the whole grid.
+ */
+public class PlayerRegistryTest {
+
+    @Test
+    public void testRandomPlacements() {
+        for (long seed = 0; seed < RandomGrid.SEEDS; seed++) {
+            final RandomGrid randomGrid = new RandomGrid(seed);
+            final HexGridImpl grid = randomGrid.grid();
+            for (int step = 0; step < 60; step++) {
+                randomGrid.change();
+                for (final Player player : randomGrid.players()) {
+                    final String context = "player " + player.getID() + ", seed " + seed + ", step " + step;
+                    final Set<Settlement> settlements = new HashSet<>();
+                    for (final Intersection intersection : grid.getIntersections().values()) {
+                        if (intersection.playerHasSettlement(player)) {
+                            settlements.add(intersection.getSettlement());
+                        }
+                    }
+                    final Map<Set<TilePosition>, Edge> roads = new HashMap<>();
+                    for (final Map.Entry<Set<TilePosition>, Edge> entry : grid.getEdges().entrySet()) {
+                        if (entry.getValue().getRoadOwner() == player) {
+                            roads.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                    assertEquals(settlements, grid.getSettlements(player), "settlements, " + context);
+                    assertEquals(settlements, player.getSettlements(), "settlements of the player, " + context);
+                    assertEquals(roads, grid.getRoads(player), "roads, " + context);
+                    assertEquals(roads, player.getRoads(), "roads of the player, " + context);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRegistriesAreUnmodifiable() {
+        final RandomGrid randomGrid = new RandomGrid(0);
+        final HexGridImpl grid = randomGrid.grid();
+        final Player player = randomGrid.randomPlayer();
+        assertThrows(UnsupportedOperationException.class, () -> grid.getSettlements(player).clear());
+        assertThrows(UnsupportedOperationException.class, () -> grid.getRoads(player).clear());
+    }
+}
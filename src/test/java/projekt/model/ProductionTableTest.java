@@ -0,0 +1,100 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.model.buildings.Settlement;
+import projekt.model.tiles.Tile;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the {@link ProductionTable} against scanning the settlements around every tile with the rolled number.
+ */
+public class ProductionTableTest {
+
+    @Test
+    public void testRandomPlacements() {
+        for (long seed = 0; seed < RandomGrid.SEEDS; seed++) {
+            final RandomGrid randomGrid = new RandomGrid(seed);
+            final HexGridImpl grid = randomGrid.grid();
+            final ProductionTable table = grid.getProductionTable();
+            for (int step = 0; step < 60; step++) {
+                randomGrid.change();
+                final String context = "seed " + seed + ", step " + step;
+                for (int roll = 2; roll <= 12; roll++) {
+                    final Set<Tile> tiles = new HashSet<>();
+                    for (final int t : table.getTileIndices(roll)) {
+                        tiles.add(grid.getTile(t));
+                    }
+                    assertEquals(grid.getTiles(roll), tiles, "tiles of roll " + roll + ", " + context);
+                    for (final Player player : randomGrid.players()) {
+                        for (final ResourceType resourceType : ResourceType.values()) {
+                            assertEquals(
+                                scanProduction(grid, roll, player, resourceType),
+                                table.getProduction(roll, player, resourceType),
+                                "roll " + roll + ", player " + player.getID() + ", " + resourceType + ", " + context
+                            );
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDistribute() {
+        for (long seed = 0; seed < RandomGrid.SEEDS; seed++) {
+            final RandomGrid randomGrid = new RandomGrid(seed);
+            final HexGridImpl grid = randomGrid.grid();
+            final List<Player> players = randomGrid.players();
+            for (int step = 0; step < 60; step++) {
+                randomGrid.change();
+            }
+            for (int roll = 2; roll <= 12; roll++) {
+                final int[][] before = resources(players);
+                grid.getProductionTable().distribute(roll);
+                final int[][] after = resources(players);
+                for (int p = 0; p < players.size(); p++) {
+                    for (final ResourceType resourceType : ResourceType.values()) {
+                        assertEquals(
+                            scanProduction(grid, roll, players.get(p), resourceType),
+                            after[p][resourceType.ordinal()] - before[p][resourceType.ordinal()],
+                            "seed " + seed + ", roll " + roll + ", player " + players.get(p).getID() + ", " + resourceType
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    private static int scanProduction(final HexGridImpl grid, final int roll, final Player player, final ResourceType resourceType) {
+        int amount = 0;
+        for (final Tile tile : grid.getTiles().values()) {
+            if (tile.getRollNumber() != roll || tile.getType().resourceType != resourceType
+                || tile.getPosition().equals(grid.getRobberPosition())) {
+                continue;
+            }
+            for (final Intersection intersection : grid.getIntersections().values()) {
+                final Settlement settlement = intersection.getSettlement();
+                if (settlement != null && settlement.owner() == player
+                    && intersection.getAdjacentTilePositions().contains(tile.getPosition())) {
+                    amount += settlement.type() == Settlement.Type.CITY ? 2 : 1;
+                }
+            }
+        }
+        return amount;
+    }
+
+    private static int[][] resources(final List<Player> players) {
+        final int[][] resources = new int[players.size()][ResourceType.values().length];
+        for (int p = 0; p < players.size(); p++) {
+            for (final ResourceType resourceType : ResourceType.values()) {
+                resources[p][resourceType.ordinal()] = players.get(p).getResources().getOrDefault(resourceType, 0);
+            }
+        }
+        return resources;
+    }
+}
@@ -0,0 +1,108 @@
+package projekt.model;
+
+import projekt.Config;
+import projekt.model.buildings.Edge;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A grid of three players that is changed at random, shared by the tests checking information derived from the
+ * model against computing it from scratch.
+ */
+final class RandomGrid {
+
+    /**
+     * The amount of seeds the tests play, from 0.
+     */
+    static final int SEEDS = 20;
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final DevelopmentCardType[] DEVELOPMENT_CARD_TYPES = DevelopmentCardType.values();
+
+    private final Random random;
+    private final HexGridImpl grid;
+    private final List<Player> players;
+
+    /**
+     * Creates a new grid and its players from the given seed.
+     *
+     * @param seed the seed of the grid and of all changes
+     */
+    RandomGrid(final long seed) {
+        this.random = new Random(seed);
+        this.grid = new HexGridImpl(Config.GRID_RADIUS, random);
+        this.players = List.of(
+            new PlayerImpl.Builder(1).build(grid),
+            new PlayerImpl.Builder(2).build(grid),
+            new PlayerImpl.Builder(3).build(grid)
+        );
+    }
+
+    /**
+     * Returns the grid.
+     *
+     * @return the grid
+     */
+    HexGridImpl grid() {
+        return grid;
+    }
+
+    /**
+     * Returns the players of the grid.
+     *
+     * @return the players
+     */
+    List<Player> players() {
+        return players;
+    }
+
+    /**
+     * Returns the random numbers the grid is changed with, for choices of the tests themselves.
+     *
+     * @return the random numbers
+     */
+    Random random() {
+        return random;
+    }
+
+    /**
+     * Returns a random player.
+     *
+     * @return a random player
+     */
+    Player randomPlayer() {
+        return players.get(random.nextInt(players.size()));
+    }
+
+    /**
+     * Makes a random change to the grid or a random player, which may as well be rejected by the model.
+     */
+    void change() {
+        final Player player = randomPlayer();
+        final int choice = random.nextInt(12);
+        if (choice < 2) {
+            grid.getIntersection(random.nextInt(grid.getIntersectionCount())).placeVillage(player, true);
+        } else if (choice < 3) {
+            grid.getIntersection(random.nextInt(grid.getIntersectionCount())).upgradeSettlement(player);
+        } else if (choice < 6) {
+            final Edge edge = grid.getEdge(random.nextInt(grid.getEdgeCount()));
+            if (!edge.hasRoad()) {
+                edge.getRoadOwnerProperty().setValue(player);
+            }
+        } else if (choice < 7) {
+            final Edge edge = grid.getEdge(random.nextInt(grid.getEdgeCount()));
+            grid.removeRoad(edge.getPosition1(), edge.getPosition2());
+        } else if (choice < 8) {
+            grid.setRobberPosition(grid.getTile(random.nextInt(grid.getTileCount())).getPosition());
+        } else if (choice < 9) {
+            player.addResource(RESOURCE_TYPES[random.nextInt(RESOURCE_TYPES.length)], random.nextInt(3) + 1);
+        } else if (choice < 10) {
+            player.removeResource(RESOURCE_TYPES[random.nextInt(RESOURCE_TYPES.length)], 1);
+        } else if (choice < 11) {
+            player.addDevelopmentCard(DEVELOPMENT_CARD_TYPES[random.nextInt(DEVELOPMENT_CARD_TYPES.length)]);
+        } else {
+            player.removeDevelopmentCard(DEVELOPMENT_CARD_TYPES[random.nextInt(DEVELOPMENT_CARD_TYPES.length)]);
+        }
+    }
+}
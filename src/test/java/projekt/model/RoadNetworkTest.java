@@ -0,0 +1,110 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.model.buildings.Edge;
+import projekt.model.buildings.Settlement;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the longest roads kept by the {@link RoadNetwork} against a depth-first search over all roads of a player.
+ */
+public class RoadNetworkTest {
+
+    @Test
+    public void testRandomPlacements() {
+        for (long seed = 0; seed < RandomGrid.SEEDS; seed++) {
+            final RandomGrid randomGrid = new RandomGrid(seed);
+            final HexGridImpl grid = randomGrid.grid();
+            for (int step = 0; step < 100; step++) {
+                randomGrid.change();
+                // mostly extend a road, so long and branching roads are built
+                final Player builder = randomGrid.randomPlayer();
+                final List<Edge> sites = List.copyOf(grid.getBuildSites().getRoadSites(builder));
+                if (!sites.isEmpty() && randomGrid.random().nextInt(4) > 0) {
+                    sites.get(randomGrid.random().nextInt(sites.size())).getRoadOwnerProperty().setValue(builder);
+                }
+                for (final Player player : randomGrid.players()) {
+                    final String context = "player " + player.getID() + ", seed " + seed + ", step " + step;
+                    final List<Edge> longestRoad = grid.getLongestRoad(player);
+                    assertEquals(searchLongestRoad(grid, player), longestRoad.size(), "length, " + context);
+                    assertIsRoad(grid, player, longestRoad, context);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSettlementBreaksRoad() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final Player other = new PlayerImpl.Builder(2).build(grid);
+        // two roads meeting at one intersection
+        final int edge = 0;
+        final int middle = grid.getAdjacency().edgeIntersections(edge)[0];
+        int next = -1;
+        for (final int e : grid.getAdjacency().intersectionEdges(middle)) {
+            if (e != edge) {
+                next = e;
+            }
+        }
+        grid.getEdge(edge).getRoadOwnerProperty().setValue(player);
+        grid.getEdge(next).getRoadOwnerProperty().setValue(player);
+        assertEquals(2, grid.getLongestRoad(player).size());
+        assertTrue(grid.getIntersection(middle).placeVillage(other, true));
+        assertEquals(1, grid.getLongestRoad(player).size(), "the road runs through a settlement of another player");
+        grid.getIntersection(middle).upgradeSettlement(other);
+        assertEquals(1, grid.getLongestRoad(player).size());
+    }
+
+    private static void assertIsRoad(final HexGridImpl grid, final Player player, final List<Edge> road, final String context) {
+        assertEquals(road.size(), new HashSet<>(road).size(), "segments are repeated, " + context);
+        for (int i = 0; i < road.size(); i++) {
+            assertEquals(player, road.get(i).getRoadOwner(), "owner of segment " + i + ", " + context);
+            if (i > 0) {
+                final Set<Intersection> shared = new HashSet<>(road.get(i - 1).getIntersections());
+                shared.retainAll(road.get(i).getIntersections());
+                assertEquals(1, shared.size(), "segment " + i + " is not connected, " + context);
+                assertFalse(isBlocked(shared.iterator().next(), player), "segment " + i + " is broken, " + context);
+            }
+        }
+    }
+
+    private static int searchLongestRoad(final HexGridImpl grid, final Player player) {
+        final Set<Edge> used = new HashSet<>();
+        int longest = 0;
+        for (final Intersection intersection : grid.getIntersections().values()) {
+            longest = Math.max(longest, search(intersection, player, used));
+        }
+        return longest;
+    }
+
+    private static int search(final Intersection from, final Player player, final Set<Edge> used) {
+        int longest = 0;
+        for (final Edge edge : from.getConnectedEdges()) {
+            if (edge.getRoadOwner() != player || !used.add(edge)) {
+                continue;
+            }
+            for (final Intersection to : edge.getIntersections()) {
+                if (to != from) {
+                    longest = Math.max(longest, 1 + (isBlocked(to, player) ? 0 : search(to, player, used)));
+                }
+            }
+            used.remove(edge);
+        }
+        return longest;
+    }
+
+    private static boolean isBlocked(final Intersection intersection, final Player player) {
+        final Settlement settlement = intersection.getSettlement();
+        return settlement != null && settlement.owner() != player;
+    }
+}
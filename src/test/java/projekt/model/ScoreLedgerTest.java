@@ -0,0 +1,131 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.model.buildings.Edge;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the victory points kept by the {@link ScoreLedger} against the points computed by the players themselves.
+ */
+public class ScoreLedgerTest {
+
+    @Test
+    public void testRandomPlacements() {
+        for (long seed = 0; seed < RandomGrid.SEEDS; seed++) {
+            final RandomGrid randomGrid = new RandomGrid(seed);
+            final HexGridImpl grid = randomGrid.grid();
+            final ScoreLedger ledger = grid.getScoreLedger();
+            for (int step = 0; step < 150; step++) {
+                randomGrid.change();
+                final Player builder = randomGrid.randomPlayer();
+                final List<Edge> sites = List.copyOf(grid.getBuildSites().getRoadSites(builder));
+                if (!sites.isEmpty() && randomGrid.random().nextInt(4) > 0) {
+                    sites.get(randomGrid.random().nextInt(sites.size())).getRoadOwnerProperty().setValue(builder);
+                }
+                final String context = "seed " + seed + ", step " + step;
+                final Set<Player> winners = new HashSet<>();
+                for (final Player player : randomGrid.players()) {
+                    final int expected = player.getVictoryPoints()
+                        + (player == ledger.getMostKnightsHolder() ? ScoreLedger.BONUS_POINTS : 0)
+                        + (player == ledger.getLongestRoadHolder() ? ScoreLedger.BONUS_POINTS : 0);
+                    assertEquals(expected, ledger.getVictoryPoints(player), "player " + player.getID() + ", " + context);
+                    if (expected >= Config.REQUIRED_VICTORY_POINTS) {
+                        winners.add(player);
+                    }
+                }
+                assertEquals(winners, ledger.getWinners(), "winners, " + context);
+                assertHolders(grid, randomGrid.players(), context);
+            }
+        }
+    }
+
+    @Test
+    public void testLongestRoadThreshold() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final Player other = new PlayerImpl.Builder(2).build(grid);
+        final ScoreLedger ledger = grid.getScoreLedger();
+
+        final int end = buildRoad(grid, player, 0, ScoreLedger.MIN_LONGEST_ROAD - 1);
+        assertEquals(ScoreLedger.MIN_LONGEST_ROAD - 1, grid.getLongestRoad(player).size());
+        assertNull(ledger.getLongestRoadHolder(), "the bonus was awarded for a road that is too short");
+        assertEquals(0, ledger.getVictoryPoints(player));
+        buildRoad(grid, player, end, 1);
+        assertEquals(player, ledger.getLongestRoadHolder());
+        assertEquals(ScoreLedger.BONUS_POINTS, ledger.getVictoryPoints(player));
+
+        final int otherEnd = buildRoad(grid, other, grid.getIntersectionCount() - 1, ScoreLedger.MIN_LONGEST_ROAD);
+        assertEquals(ScoreLedger.MIN_LONGEST_ROAD, grid.getLongestRoad(other).size());
+        assertEquals(player, ledger.getLongestRoadHolder(), "the bonus was taken over by an equally long road");
+        buildRoad(grid, other, otherEnd, 1);
+        assertEquals(other, ledger.getLongestRoadHolder());
+        assertEquals(0, ledger.getVictoryPoints(player));
+        assertEquals(ScoreLedger.BONUS_POINTS, ledger.getVictoryPoints(other));
+    }
+
+    private static void assertHolders(final HexGridImpl grid, final List<Player> players, final String context) {
+        final ScoreLedger ledger = grid.getScoreLedger();
+        final Player longestRoadHolder = ledger.getLongestRoadHolder();
+        final Player mostKnightsHolder = ledger.getMostKnightsHolder();
+        for (final Player player : players) {
+            final int length = grid.getLongestRoad(player).size();
+            if (longestRoadHolder == null) {
+                assertTrue(length < ScoreLedger.MIN_LONGEST_ROAD, "nobody holds the longest road, " + context);
+            } else {
+                assertTrue(length <= grid.getLongestRoad(longestRoadHolder).size(), "longer road than the holder, " + context);
+            }
+            if (mostKnightsHolder == null) {
+                assertTrue(player.getKnightsPlayed() < ScoreLedger.MIN_KNIGHTS_PLAYED, "nobody holds the most knights, " + context);
+            } else {
+                assertTrue(player.getKnightsPlayed() <= mostKnightsHolder.getKnightsPlayed(), "more knights than the holder, " + context);
+            }
+        }
+        if (longestRoadHolder != null) {
+            assertTrue(grid.getLongestRoad(longestRoadHolder).size() >= ScoreLedger.MIN_LONGEST_ROAD, "holder's road, " + context);
+        }
+        if (mostKnightsHolder != null) {
+            assertTrue(mostKnightsHolder.getKnightsPlayed() >= ScoreLedger.MIN_KNIGHTS_PLAYED, "holder's knights, " + context);
+        }
+    }
+
+    /**
+     * Builds a road of the given length from the given intersection that only leads to intersections without roads.
+     *
+     * @return the intersection at the end of the road
+     */
+    private static int buildRoad(final HexGridImpl grid, final Player player, final int start, final int length) {
+        int at = start;
+        for (int built = 0; built < length; built++) {
+            int next = -1;
+            for (final int e : grid.getAdjacency().intersectionEdges(at)) {
+                for (final int i : grid.getAdjacency().edgeIntersections(e)) {
+                    if (next < 0 && i != at && noRoads(grid, i)) {
+                        grid.getEdge(e).getRoadOwnerProperty().setValue(player);
+                        next = i;
+                    }
+                }
+            }
+            assertTrue(next >= 0, "the road cannot be extended from intersection " + at);
+            at = next;
+        }
+        return at;
+    }
+
+    private static boolean noRoads(final HexGridImpl grid, final int intersection) {
+        for (final int e : grid.getAdjacency().intersectionEdges(intersection)) {
+            if (grid.getEdge(e).hasRoad()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
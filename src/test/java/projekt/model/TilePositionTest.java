@@ -0,0 +1,99 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.model.TilePosition.EdgeDirection;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the allocation-free traversals of {@link TilePosition} against walking the rings with position objects.
+ */
+public class TilePositionTest {
+
+    private static final TilePosition[] CENTERS = {new TilePosition(0, 0), new TilePosition(2, -3), new TilePosition(-4, 1)};
+
+    @Test
+    public void testRings() {
+        for (final TilePosition center : CENTERS) {
+            for (int radius = 0; radius <= 5; radius++) {
+                final List<List<Integer>> visited = new ArrayList<>();
+                TilePosition.forEachRing(center.q(), center.r(), radius,
+                    (q, r, ringRadius, side, tile) -> visited.add(List.of(q, r, ringRadius, side, tile)));
+                final String context = "center " + center + ", radius " + radius;
+                assertEquals(walkRing(center, radius), visited, context);
+                assertEquals(radius == 0 ? 1 : 6 * radius, new HashSet<>(visited).size(), context);
+
+                final List<List<Integer>> visitedPositions = new ArrayList<>();
+                TilePosition.forEachRing(center, radius, (position, indices) ->
+                    visitedPositions.add(List.of(position.q(), position.r(), indices[0], indices[1], indices[2])));
+                assertEquals(visited, visitedPositions, context);
+            }
+        }
+    }
+
+    @Test
+    public void testSpirals() {
+        for (final TilePosition center : CENTERS) {
+            for (int radius = 0; radius <= 5; radius++) {
+                final List<List<Integer>> expected = new ArrayList<>();
+                for (int ring = 0; ring < radius; ring++) {
+                    expected.addAll(walkRing(center, ring));
+                }
+                final List<List<Integer>> visited = new ArrayList<>();
+                TilePosition.forEachSpiral(center.q(), center.r(), radius,
+                    (q, r, ringRadius, side, tile) -> visited.add(List.of(q, r, ringRadius, side, tile)));
+                final String context = "center " + center + ", radius " + radius;
+                assertEquals(expected, visited, context);
+                final List<List<Integer>> visitedPositions = new ArrayList<>();
+                TilePosition.forEachSpiral(center, radius, (position, indices) ->
+                    visitedPositions.add(List.of(position.q(), position.r(), indices[0], indices[1], indices[2])));
+                assertEquals(expected, visitedPositions, context);
+            }
+        }
+    }
+
+    @Test
+    public void testNeighbours() {
+        for (final TilePosition center : CENTERS) {
+            final Set<TilePosition> neighbours = new HashSet<>();
+            for (int direction = 0; direction < EdgeDirection.COUNT; direction++) {
+                final TilePosition neighbour = TilePosition.neighbour(center, EdgeDirection.get(direction));
+                assertEquals(neighbour, center.neighbour(direction));
+                assertEquals(neighbour.q(), TilePosition.neighbourQ(center.q(), direction));
+                assertEquals(neighbour.r(), TilePosition.neighbourR(center.r(), direction));
+                assertEquals(EdgeDirection.get(direction), EdgeDirection.fromRelativePosition(TilePosition.subtract(neighbour, center)));
+                assertTrue(TilePosition.isNeighbour(center, neighbour), "neighbour in direction " + direction);
+                neighbours.add(neighbour);
+            }
+            assertEquals(neighbours, TilePosition.neighbours(center));
+            assertFalse(TilePosition.isNeighbour(center, center));
+            assertFalse(TilePosition.isNeighbour(center, TilePosition.add(center, new TilePosition(2, 0))));
+        }
+    }
+
+    /**
+     * Walks the ring by adding position objects, starting in the south-west and going counterclockwise.
+     */
+    private static List<List<Integer>> walkRing(final TilePosition center, final int radius) {
+        final List<List<Integer>> visited = new ArrayList<>();
+        if (radius == 0) {
+            visited.add(List.of(center.q(), center.r(), 0, 0, 0));
+            return visited;
+        }
+        TilePosition current = TilePosition.add(center, TilePosition.scale(EdgeDirection.SOUTH_WEST.position, radius));
+        for (int side = 0; side < EdgeDirection.COUNT; side++) {
+            for (int tile = 0; tile < radius; tile++) {
+                visited.add(List.of(current.q(), current.r(), radius, side, tile));
+                current = TilePosition.neighbour(current, EdgeDirection.get(side));
+            }
+        }
+        return visited;
+    }
+}
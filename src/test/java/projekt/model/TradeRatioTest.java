@@ -0,0 +1,116 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.model.buildings.Edge;
+import projekt.model.buildings.EdgeImpl;
+import projekt.model.buildings.Port;
+import projekt.model.buildings.Settlement;
+import projekt.model.tiles.Tile;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the trade ratios cached by {@link HexGridImpl} against the ports next to the settlements of each player.
+ */
+public class TradeRatioTest {
+
+    @Test
+    public void testRandomPlacements() {
+        for (long seed = 0; seed < RandomGrid.SEEDS; seed++) {
+            final RandomGrid randomGrid = new RandomGrid(seed);
+            final HexGridImpl grid = randomGrid.grid();
+            for (int step = 0; step < 60; step++) {
+                randomGrid.change();
+                for (final Player player : randomGrid.players()) {
+                    final int[] expected = scanTradeRatios(grid, player);
+                    for (final ResourceType resourceType : ResourceType.values()) {
+                        assertEquals(
+                            expected[resourceType.ordinal()], player.getTradeRatio(resourceType),
+                            "player " + player.getID() + ", " + resourceType + ", seed " + seed + ", step " + step
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSecondPortEdge() {
+        // the two edges of an intersection that get a port each
+        final HexGridImpl plain = new HexGridImpl(Config.GRID_RADIUS, () -> 6, () -> Tile.Type.WOODLAND, (position, direction) -> null);
+        final int intersection = plain.indexOf(plain.getTileAt(0, 0).getIntersections().iterator().next());
+        final int[] edges = plain.getAdjacency().intersectionEdges(intersection);
+        final Set<TilePosition> resourcePortEdge = plain.getEdge(edges[0]).getAdjacentTilePositions();
+        final Set<TilePosition> genericPortEdge = plain.getEdge(edges[1]).getAdjacentTilePositions();
+
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, () -> 6, () -> Tile.Type.WOODLAND, (position, direction) -> {
+            final Set<TilePosition> edge = Set.of(position, TilePosition.neighbour(position, direction));
+            return edge.equals(resourcePortEdge) ? new Port(2, ResourceType.WOOD) : edge.equals(genericPortEdge) ? new Port(3) : null;
+        });
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        assertTrue(grid.getIntersection(intersection).placeVillage(player, true));
+        assertEquals(2, player.getTradeRatio(ResourceType.WOOD));
+        for (final ResourceType resourceType : ResourceType.values()) {
+            if (resourceType != ResourceType.WOOD) {
+                assertEquals(3, player.getTradeRatio(resourceType), "the second port edge was not applied to " + resourceType);
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReplacedPortEdge() throws ReflectiveOperationException {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, () -> 6, () -> Tile.Type.WOODLAND, (position, direction) -> null);
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final Intersection intersection = grid.getTileAt(0, 0).getIntersections().iterator().next();
+        assertTrue(intersection.placeVillage(player, true));
+        assertEquals(4, player.getTradeRatio(ResourceType.ORE));
+
+        // replaced like the tests of the grid replace elements, without any notification
+        final Field edgesField = HexGridImpl.class.getDeclaredField("edges");
+        edgesField.setAccessible(true);
+        final Map<Set<TilePosition>, Edge> edges = (Map<Set<TilePosition>, Edge>) edgesField.get(grid);
+        final Edge edge = intersection.getConnectedEdges().iterator().next();
+        edges.put(edge.getAdjacentTilePositions(), new EdgeImpl(
+            grid, edge.getPosition1(), edge.getPosition2(), edge.getRoadOwnerProperty(), new Port(2, ResourceType.ORE)
+        ));
+        assertEquals(2, player.getTradeRatio(ResourceType.ORE));
+        assertEquals(4, player.getTradeRatio(ResourceType.WOOD));
+
+        edges.put(edge.getAdjacentTilePositions(), new EdgeImpl(
+            grid, edge.getPosition1(), edge.getPosition2(), edge.getRoadOwnerProperty(), null
+        ));
+        assertEquals(4, player.getTradeRatio(ResourceType.ORE), "the ratio of a removed port was kept");
+    }
+
+    private static int[] scanTradeRatios(final HexGridImpl grid, final Player player) {
+        final int[] ratios = new int[ResourceType.values().length];
+        Arrays.fill(ratios, 4);
+        for (final Intersection intersection : grid.getIntersections().values()) {
+            final Settlement settlement = intersection.getSettlement();
+            if (settlement == null || settlement.owner() != player) {
+                continue;
+            }
+            for (final Edge edge : intersection.getConnectedEdges()) {
+                final Port port = edge.getPort();
+                if (port == null) {
+                    continue;
+                }
+                for (final ResourceType resourceType : ResourceType.values()) {
+                    if (port.resourceType() == null || port.resourceType() == resourceType) {
+                        ratios[resourceType.ordinal()] = Math.min(ratios[resourceType.ordinal()], port.ratio());
+                    }
+                }
+            }
+        }
+        return ratios;
+    }
+}
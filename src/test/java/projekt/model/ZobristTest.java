@@ -0,0 +1,79 @@
+package projekt.model;
+
+import org.junit.jupiter.api.Test;
+import projekt.Config;
+import projekt.model.buildings.Edge;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Checks the hash kept by {@link HexGridImpl} and {@link PlayerImpl} against the hash computed from scratch.
+ */
+public class ZobristTest {
+
+    @Test
+    public void testIncrementalHashMatchesComputedHash() {
+        for (long seed = 0; seed < RandomGrid.SEEDS; seed++) {
+            final RandomGrid randomGrid = new RandomGrid(seed);
+            final HexGridImpl grid = randomGrid.grid();
+            final List<Player> players = randomGrid.players();
+            assertEquals(Zobrist.compute(grid, players), grid.getStateHash(), "seed " + seed + ", new grid");
+            final long initial = grid.getStateHash();
+            final int mark = grid.getJournal().mark();
+            for (int step = 0; step < 100; step++) {
+                randomGrid.change();
+                assertEquals(Zobrist.compute(grid, players), grid.getStateHash(), "seed " + seed + ", step " + step);
+            }
+            assertNotEquals(initial, grid.getStateHash(), "seed " + seed + ", changed grid");
+            grid.getJournal().rollback(mark);
+            assertEquals(initial, grid.getStateHash(), "seed " + seed + ", rolled back");
+        }
+    }
+
+    @Test
+    public void testEqualPositionsHaveEqualHashes() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final long initial = grid.getStateHash();
+        final Edge edge = grid.getEdge(0);
+
+        player.addResource(ResourceType.WOOD, 2);
+        edge.getRoadOwnerProperty().setValue(player);
+        final long first = grid.getStateHash();
+        edge.getRoadOwnerProperty().setValue(null);
+        player.removeResource(ResourceType.WOOD, 2);
+        assertEquals(initial, grid.getStateHash());
+
+        edge.getRoadOwnerProperty().setValue(player);
+        player.addResource(ResourceType.WOOD, 1);
+        player.addResource(ResourceType.WOOD, 1);
+        assertEquals(first, grid.getStateHash());
+    }
+
+    @Test
+    public void testGameStateExposesHash() {
+        final HexGridImpl grid = new HexGridImpl(Config.GRID_RADIUS, new Random(0));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final GameState state = new GameState(grid, List.of(player));
+        final long initial = state.getStateHash();
+        assertEquals(grid.getStateHash(), initial);
+
+        final TilePosition robber = grid.getRobberPosition();
+        grid.setRobberPosition(grid.getTile(grid.getTileCount() - 1).getPosition());
+        assertNotEquals(initial, state.getStateHash(), "moving the robber did not change the hash");
+        grid.setRobberPosition(robber);
+        assertEquals(initial, state.getStateHash());
+
+        player.addDevelopmentCard(DevelopmentCardType.KNIGHT);
+        final long held = state.getStateHash();
+        assertNotEquals(initial, held, "a development card did not change the hash");
+        player.removeDevelopmentCard(DevelopmentCardType.KNIGHT);
+        // a played card stays part of the position
+        assertNotEquals(initial, state.getStateHash(), "playing a card restored the hash");
+        assertNotEquals(held, state.getStateHash(), "playing a card did not change the hash");
+    }
+}
@@ -0,0 +1,144 @@
+package projekt.selfplay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import projekt.controller.BasicAiController;
+import projekt.model.DevelopmentCardType;
+import projekt.model.ResourceType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the chunk files written by {@link SelfPlay}.
+ */
+public class SelfPlayTest {
+
+    private static final int GAMES = 4;
+    private static final int PLAYERS = 3;
+    private static final int CHUNK_SAMPLES = 500;
+
+    @Test
+    public void testWritesAllDecisions(@TempDir final Path directory) throws IOException, InterruptedException {
+        final SelfPlay selfPlay = selfPlay(directory.resolve("first"));
+        final SelfPlay.Result result = selfPlay.run();
+        final SampleLayout layout = selfPlay.getLayout();
+        assertEquals(GAMES, result.games());
+        assertFalse(result.cancelled());
+        assertTrue(result.samples() > 0);
+
+        final List<Path> files = chunkFiles(directory.resolve("first"));
+        assertEquals(result.chunks(), files.size());
+        final Map<Integer, Integer> samplesPerGame = new HashMap<>();
+        long samples = 0;
+        for (int f = 0; f < files.size(); f++) {
+            final SampleChunk chunk = SampleChunk.read(files.get(f));
+            assertEquals(layout.getColumns(), chunk.getColumns());
+            if (f < files.size() - 1) {
+                assertEquals(CHUNK_SAMPLES, chunk.getSampleCount(), "only the last chunk may not be full");
+            }
+            samples += chunk.getSampleCount();
+            checkSamples(layout, chunk, samplesPerGame);
+        }
+        assertEquals(result.samples(), samples);
+        assertEquals(GAMES, samplesPerGame.size());
+
+        // the same seed plays the same games
+        final SelfPlay.Result again = selfPlay(directory.resolve("second")).run();
+        assertEquals(result.samples(), again.samples());
+    }
+
+    @Test
+    public void testNeedsTwoBufferedChunks(@TempDir final Path directory) {
+        final SelfPlay.Builder builder = new SelfPlay.Builder().directory(directory).bufferedChunks(1);
+        for (int i = 0; i < PLAYERS; i++) {
+            builder.seat(BasicAiController::new);
+        }
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    private static SelfPlay selfPlay(final Path directory) {
+        final SelfPlay.Builder builder = new SelfPlay.Builder()
+            .games(GAMES)
+            .parallelism(2)
+            .seed(42)
+            .directory(directory)
+            .chunkSamples(CHUNK_SAMPLES)
+            .bufferedChunks(2);
+        for (int i = 0; i < PLAYERS; i++) {
+            builder.seat(BasicAiController::new);
+        }
+        return builder.build();
+    }
+
+    private static List<Path> chunkFiles(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static void checkSamples(final SampleLayout layout, final SampleChunk chunk, final Map<Integer, Integer> samplesPerGame) {
+        final ByteBuffer games = chunk.getColumn(SampleLayout.GAME);
+        final ByteBuffer players = chunk.getColumn(SampleLayout.PLAYER);
+        final ByteBuffer legalActions = chunk.getColumn(SampleLayout.LEGAL_ACTIONS);
+        final ByteBuffer actions = chunk.getColumn(SampleLayout.ACTION);
+        final ByteBuffer selections = chunk.getColumn(SampleLayout.SELECTION);
+        final ByteBuffer winners = chunk.getColumn(SampleLayout.WINNER);
+        final ByteBuffer finalVictoryPoints = chunk.getColumn(SampleLayout.FINAL_VICTORY_POINTS);
+        final ByteBuffer robbers = chunk.getColumn(SampleLayout.ROBBER);
+        final int resources = ResourceType.values().length;
+        final int robberTiles = 2 * width(layout, SampleLayout.INTERSECTIONS) + width(layout, SampleLayout.ROADS)
+            + resources * resources + 1 + DevelopmentCardType.values().length;
+        final int words = width(layout, SampleLayout.LEGAL_ACTIONS);
+        final Map<Integer, Integer> winnerOfGame = new HashMap<>();
+        for (int s = 0; s < chunk.getSampleCount(); s++) {
+            final int game = games.getInt(s * Integer.BYTES);
+            assertTrue(game >= 0 && game < GAMES);
+            samplesPerGame.merge(game, 1, Integer::sum);
+            final int player = players.get(s);
+            assertTrue(player >= 0 && player < PLAYERS);
+
+            final int action = actions.getShort(s * Short.BYTES);
+            assertTrue(action >= 0 && action < layout.getActionSpaceSize());
+            int legal = 0;
+            for (int w = 0; w < words; w++) {
+                legal += Long.bitCount(legalActions.getLong((s * words + w) * Long.BYTES));
+            }
+            final long word = legalActions.getLong((s * words + action / Long.SIZE) * Long.BYTES);
+            // the robber may be left on its tile, although the generator leaves that out
+            final boolean robberStays = action == robberTiles + robbers.getShort(s * Short.BYTES);
+            assertTrue((word & 1L << action) != 0 || action == layout.getActionSpaceSize() - 1 || robberStays,
+                "the chosen action is legal, the robber stays or it is a trade with other players");
+            int selected = 0;
+            for (int r = 0; r < resources; r++) {
+                selected += selections.get(s * resources + r);
+            }
+            // all selections of cards share one action
+            assertTrue(legal > 1 || selected > 0 || (word & 1L << action) == 0,
+                "decisions without a choice are not recorded");
+
+            final int winner = winners.get(s);
+            assertEquals((int) winnerOfGame.computeIfAbsent(game, g -> winner), winner, "the winner of a game differs");
+            if (winner >= 0) {
+                for (int p = 0; p < PLAYERS; p++) {
+                    assertTrue(finalVictoryPoints.get(s * PLAYERS + winner) >= finalVictoryPoints.get(s * PLAYERS + p));
+                }
+            }
+        }
+    }
+
+    private static int width(final SampleLayout layout, final String column) {
+        return layout.getColumns().get(layout.indexOf(column)).width();
+    }
+}
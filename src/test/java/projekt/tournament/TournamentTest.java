@@ -0,0 +1,143 @@
+package projekt.tournament;
+
+import org.junit.jupiter.api.Test;
+import projekt.controller.AiControllerFactory;
+import projekt.controller.BasicAiController;
+import projekt.model.GameState;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plays small tournaments and checks the rotation of the turn order and the results recorded for each seat.
+ */
+public class TournamentTest {
+
+    private static final List<String> NAMES = List.of("first", "second", "third");
+    private static final int GAMES = 6;
+    private static final int MAX_ROUNDS = 15;
+
+    @Test
+    public void testRotatesTurnOrder() {
+        // the position in the turn order of each seat, per game
+        final Map<GameState, int[]> positions = new HashMap<>();
+        final Tournament.Builder builder = new Tournament.Builder().games(GAMES).maxRounds(MAX_ROUNDS).parallelism(2);
+        for (int seat = 0; seat < NAMES.size(); seat++) {
+            final int recordedSeat = seat;
+            builder.seat(NAMES.get(seat), (playerController, hexGrid, gameState, activePlayerController) -> {
+                synchronized (positions) {
+                    final int[] gamePositions = positions.computeIfAbsent(gameState, state -> new int[NAMES.size()]);
+                    gamePositions[recordedSeat] = gameState.getPlayers().indexOf(playerController.getPlayer());
+                }
+                return new BasicAiController(playerController, hexGrid, gameState, activePlayerController);
+            });
+        }
+        final TournamentResult result = builder.build().run();
+        assertEquals(GAMES, result.getGames());
+        assertTrue(result.getFailures().isEmpty());
+        assertEquals(GAMES, positions.size());
+
+        final int[] openings = new int[NAMES.size()];
+        for (final int[] gamePositions : positions.values()) {
+            final int opener = indexOf(gamePositions, 0);
+            for (int seat = 0; seat < NAMES.size(); seat++) {
+                assertEquals(
+                    Math.floorMod(seat - opener, NAMES.size()), gamePositions[seat],
+                    "the seats do not keep their order " + Arrays.toString(gamePositions)
+                );
+            }
+            openings[opener]++;
+        }
+        final int[] expectedOpenings = new int[NAMES.size()];
+        Arrays.fill(expectedOpenings, GAMES / NAMES.size());
+        assertArrayEquals(expectedOpenings, openings, "every seat opens the same amount of games");
+    }
+
+    @Test
+    public void testRecordsResultsPerSeat() {
+        final TournamentResult result = tournament(1, 1).run();
+        assertEquals(NAMES.size(), result.getSeatCount());
+        assertEquals(GAMES, result.getTotalGames());
+        assertEquals(GAMES, result.getGames());
+        assertFalse(result.isCancelled());
+        int wins = 0;
+        for (int seat = 0; seat < NAMES.size(); seat++) {
+            assertEquals(NAMES.get(seat), result.getSeatName(seat));
+            assertEquals(result.getWinRate(seat), result.getWinRate(NAMES.get(seat)));
+            assertTrue(result.getAverageVictoryPoints(seat) >= 2, "every player starts with two villages");
+            wins += result.getWins(seat);
+        }
+        assertEquals(GAMES, wins + result.getDraws());
+        assertTrue(result.getMinRounds() <= result.getMaxRounds());
+        assertTrue(result.getMaxRounds() <= MAX_ROUNDS);
+    }
+
+    @Test
+    public void testParallelismKeepsResults() {
+        final TournamentResult sequential = tournament(7, 1).run();
+        final TournamentResult parallel = tournament(7, 4).run();
+        assertEquals(sequential.getDraws(), parallel.getDraws());
+        assertEquals(sequential.getAverageRounds(), parallel.getAverageRounds());
+        for (int seat = 0; seat < NAMES.size(); seat++) {
+            assertEquals(sequential.getWins(seat), parallel.getWins(seat), "wins of seat " + seat);
+            assertEquals(
+                sequential.getAverageVictoryPoints(seat), parallel.getAverageVictoryPoints(seat),
+                "victory points of seat " + seat
+            );
+        }
+    }
+
+    @Test
+    public void testRecordsFailedGames() {
+        final AtomicBoolean failed = new AtomicBoolean();
+        final AiControllerFactory failingOnce = (playerController, hexGrid, gameState, activePlayerController) -> {
+            if (!failed.getAndSet(true)) {
+                throw new IllegalStateException("broken AI");
+            }
+            return new BasicAiController(playerController, hexGrid, gameState, activePlayerController);
+        };
+        final Tournament tournament = new Tournament.Builder()
+            .seat(NAMES.get(0), BasicAiController::new)
+            .seat(NAMES.get(1), failingOnce)
+            .games(GAMES)
+            .maxRounds(MAX_ROUNDS)
+            .parallelism(1)
+            .seed(3)
+            .build();
+        final TournamentResult result = tournament.run();
+        assertEquals(1, result.getFailures().size());
+        assertEquals(GAMES - 1, result.getGames(), "the other games were not played");
+        final TournamentResult.Failure failure = result.getFailures().get(0);
+        assertEquals(tournament.getGameSeed(failure.game()), failure.seed());
+        assertEquals("broken AI", failure.exception().getMessage());
+    }
+
+    private static Tournament tournament(final long seed, final int parallelism) {
+        final Tournament.Builder builder = new Tournament.Builder()
+            .games(GAMES)
+            .maxRounds(MAX_ROUNDS)
+            .parallelism(parallelism)
+            .seed(seed);
+        for (final String name : NAMES) {
+            builder.seat(name, BasicAiController::new);
+        }
+        return builder.build();
+    }
+
+    private static int indexOf(final int[] values, final int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}